@@ -0,0 +1,83 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures how long it takes to seed a calendar with many events, comparing a loop of
+ * single 'addEvent' calls against one bulk 'addEvents' call. The events are shuffled first, as
+ * they would be when read from an unsorted import file.
+ */
+public class BulkLoadBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+
+  /**
+   * Runs the benchmark and prints the time taken by both ways of loading each calendar size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    //warm up the JIT before measuring
+    List<Event> warmUp = events(SIZES[1]);
+    loadOneByOne(warmUp);
+    loadInBulk(warmUp);
+    System.out.println("events      addEvent ms   addEvents ms");
+    for (int size : SIZES) {
+      List<Event> events = events(size);
+      System.out.printf("%-10d  %-12.1f  %.1f%n", size, loadOneByOne(events),
+              loadInBulk(events));
+    }
+  }
+
+  /**
+   * Creates the given number of non-overlapping events, in random order.
+   *
+   * @param size the number of events
+   * @return the shuffled events
+   */
+  private static List<Event> events(int size) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(20)));
+    }
+    Collections.shuffle(events, new Random(7));
+    return events;
+  }
+
+  /**
+   * Loads the given events into a new calendar one at a time.
+   *
+   * @param events the events to load
+   * @return the time taken, in milliseconds
+   */
+  private static double loadOneByOne(List<Event> events) {
+    NewCalendarModel model = new NewCalendarModel("bench", ZoneId.of("America/New_York"));
+    long begin = System.nanoTime();
+    for (Event event : events) {
+      model.addEvent(event);
+    }
+    return (System.nanoTime() - begin) / 1_000_000.0;
+  }
+
+  /**
+   * Loads the given events into a new calendar with a single bulk call.
+   *
+   * @param events the events to load
+   * @return the time taken, in milliseconds
+   */
+  private static double loadInBulk(List<Event> events) {
+    NewCalendarModel model = new NewCalendarModel("bench", ZoneId.of("America/New_York"));
+    long begin = System.nanoTime();
+    model.addEvents(events);
+    return (System.nanoTime() - begin) / 1_000_000.0;
+  }
+}
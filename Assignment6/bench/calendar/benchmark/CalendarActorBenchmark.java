@@ -0,0 +1,118 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.calendarclass.CalendarActor;
+import calendar.model.calendarclass.CalendarChange;
+import calendar.model.calendarclass.ConcurrentCalendar;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures the time 4 threads take to add 200k events, spread over 1 or 16 calendars
+ * that each have an observer. The events are added either by calling a ConcurrentCalendar, which
+ * notifies the observer after every event, or by queueing them to a CalendarActor, which notifies
+ * it once for each batch it drains. The observer counts its notifications, so the benchmark prints
+ * how many events each notification covered as well as the events added per second.
+ */
+public class CalendarActorBenchmark {
+  private static final int[] CALENDARS = {1, 16};
+  private static final int SENDERS = 4;
+  private static final int EVENTS = 200_000;
+  private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  /**
+   * Runs the benchmark and prints the events added per second and the events per notification.
+   *
+   * @param args unused
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf("processors: %d%n", Runtime.getRuntime().availableProcessors());
+    System.out.println("calendars  locked events/s  per notification  actor events/s"
+            + "  per notification");
+    run(false, 16); //warm up both paths before measuring
+    run(true, 16);
+    for (int calendars : CALENDARS) {
+      double[] locked = run(false, calendars);
+      double[] actor = run(true, calendars);
+      System.out.printf("%-9d  %-15.0f  %-16.1f  %-14.0f  %.1f%n", calendars, locked[0],
+              locked[1], actor[0], actor[1]);
+    }
+  }
+
+  /**
+   * Adds the events from every thread and waits for all of them to be added.
+   *
+   * @param actors    whether the events are queued to actors or added through locks
+   * @param calendars the number of calendars the events are spread over
+   * @return the events added per second, and the events each notification covered
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static double[] run(boolean actors, int calendars) throws InterruptedException {
+    AtomicLong notifications = new AtomicLong();
+    List<ICalendar> locked = new ArrayList<>();
+    List<CalendarActor> queued = new ArrayList<>();
+    for (int c = 0; c < calendars; c++) {
+      NewCalendarModel model = new NewCalendarModel("calendar " + c, ZoneId.of("UTC"));
+      model.addObserver(counter(notifications));
+      if (actors) {
+        queued.add(new CalendarActor(model));
+      } else {
+        locked.add(new ConcurrentCalendar(model));
+      }
+    }
+    notifications.set(0);
+    List<CompletableFuture<Void>> pending = new ArrayList<>();
+    List<Thread> senders = new ArrayList<>();
+    for (int s = 0; s < SENDERS; s++) {
+      int sender = s;
+      senders.add(new Thread(() -> {
+        List<CompletableFuture<Void>> own = new ArrayList<>();
+        for (int i = sender; i < EVENTS; i += SENDERS) {
+          LocalDateTime start = BASE.plusMinutes(i * 10L);
+          Event event = new Event("Event " + i, start, start.plusMinutes(5));
+          if (actors) {
+            own.add(queued.get(i % calendars).addEvent(event));
+          } else {
+            locked.get(i % calendars).addEvent(event);
+          }
+        }
+        synchronized (pending) {
+          pending.addAll(own);
+        }
+      }));
+    }
+    long begin = System.nanoTime();
+    for (Thread sender : senders) {
+      sender.start();
+    }
+    for (Thread sender : senders) {
+      sender.join();
+    }
+    CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new)).join();
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    return new double[] {EVENTS / seconds, (double) EVENTS / notifications.get()};
+  }
+
+  private static CalendarObserver counter(AtomicLong notifications) {
+    return new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        notifications.incrementAndGet();
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        notifications.incrementAndGet();
+      }
+    };
+  }
+}
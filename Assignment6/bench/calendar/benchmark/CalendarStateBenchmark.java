@@ -0,0 +1,94 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.calendarclass.CalendarState;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures what persistent snapshots cost and save for calendars of 10k to 1M events:
+ * the time to take the first snapshot, which copies the calendar into persistent trees, and each
+ * later one; the time to copy every event into a list, as a full observer update does without
+ * snapshots; and the time each added event takes with snapshots off and on.
+ */
+public class CalendarStateBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int CHANGES = 20_000;
+  private static final int SNAPSHOTS = 1_000_000;
+
+  /**
+   * Runs the benchmark and prints the timings for each calendar size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    System.out.println("events   first ms  later ns  copy ms  add us (off)  add us (on)");
+    for (int size : SIZES) {
+      run(size);
+    }
+  }
+
+  private static void run(int size) {
+    NewCalendarModel off = create(size);
+    NewCalendarModel on = create(size);
+
+    long begin = System.nanoTime();
+    on.snapshot();
+    double firstMillis = (System.nanoTime() - begin) / 1e6;
+
+    begin = System.nanoTime();
+    long total = 0;
+    for (int i = 0; i < SNAPSHOTS; i++) {
+      total += on.snapshot().size();
+    }
+    double laterNanos = (double) (System.nanoTime() - begin) / SNAPSHOTS;
+
+    begin = System.nanoTime();
+    List<Event> copy = off.getEventsInRange(LocalDateTime.MIN.plusDays(1),
+            LocalDateTime.MAX.minusDays(1));
+    double copyMillis = (System.nanoTime() - begin) / 1e6;
+
+    double addOff = addEvents(off);
+    double addOn = addEvents(on);
+    CalendarState state = on.snapshot();
+    if (total != (long) SNAPSHOTS * size || copy.size() != size
+            || state.size() != size + CHANGES) {
+      throw new IllegalStateException("Unexpected calendar size");
+    }
+    System.out.printf("%-7d  %-8.1f  %-8.1f  %-7.1f  %-12.2f  %.2f%n", size, firstMillis,
+            laterNanos, copyMillis, addOff, addOn);
+  }
+
+  /**
+   * Creates a calendar of the given number of half-hour events, one every hour.
+   */
+  private static NewCalendarModel create(int size) {
+    NewCalendarModel calendar = new NewCalendarModel("state", ZoneId.of("UTC"));
+    LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusHours(i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+    }
+    calendar.addEvents(events);
+    return calendar;
+  }
+
+  /**
+   * Adds events one at a time into the free half of each hour, and returns the microseconds each
+   * one took.
+   */
+  private static double addEvents(NewCalendarModel calendar) {
+    LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 40);
+    long begin = System.nanoTime();
+    for (int i = 0; i < CHANGES; i++) {
+      LocalDateTime start = base.plusHours(i * 7L);
+      calendar.addEvent(new Event("Added " + i, start, start.plusMinutes(10)));
+    }
+    return (System.nanoTime() - begin) / 1e3 / CHANGES;
+  }
+}
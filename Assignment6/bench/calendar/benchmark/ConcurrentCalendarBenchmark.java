@@ -0,0 +1,141 @@
+package calendar.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.model.calendarclass.CalendarModel;
+import calendar.model.calendarclass.ConcurrentCalendar;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.event.Event;
+
+/**
+ * This class measures the throughput of a calendar of 100k events shared by 1 to 8 threads, as
+ * the share of changes among the operations grows from none to half. Each read queries the events
+ * of one day or checks whether a time is busy; each change adds an event. The calendar is shared
+ * either through a ConcurrentCalendar, whose reads use published states, or by holding one monitor
+ * around every call, as a synchronized calendar would.
+ */
+public class ConcurrentCalendarBenchmark {
+  private static final int[] THREADS = {1, 2, 4, 8};
+  private static final int[] WRITE_PERCENT = {0, 5, 50};
+  private static final int EVENTS = 100_000;
+  private static final long MILLIS = 1_000;
+  private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  /**
+   * Runs the benchmark and prints the operations per second for each mix and number of threads.
+   *
+   * @param args unused
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf("processors: %d%n", Runtime.getRuntime().availableProcessors());
+    System.out.println("writes  threads  synchronized ops/s  stamped ops/s");
+    run(false, 2, 0); //warm up both paths before measuring
+    run(true, 2, 0);
+    run(false, 2, 50);
+    run(true, 2, 50);
+    for (int writes : WRITE_PERCENT) {
+      for (int threads : THREADS) {
+        double locked = run(false, threads, writes);
+        double stamped = run(true, threads, writes);
+        System.out.printf("%-6s  %-7d  %-18.0f  %.0f%n", writes + "%", threads, locked,
+                stamped);
+      }
+    }
+  }
+
+  /**
+   * Runs the given mix of operations from the given number of threads for one second against a
+   * new calendar.
+   *
+   * @param stamped whether the calendar is shared through a ConcurrentCalendar or a monitor
+   * @param threads the number of threads
+   * @param writes  the percentage of operations that add an event
+   * @return the operations per second
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static double run(boolean stamped, int threads, int writes)
+          throws InterruptedException {
+    CalendarModel model = new CalendarModel();
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      LocalDateTime start = BASE.plusHours(i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(25)));
+    }
+    model.addEvents(events);
+    ICalendar calendar = stamped ? new ConcurrentCalendar(model) : model;
+    Object monitor = new Object();
+    AtomicLong slots = new AtomicLong(); //each added event takes the free part of its own hour
+    AtomicLong operations = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      workers.add(new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long done = 0;
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (running.get()) {
+          int op = random.nextInt(100);
+          if (op < writes) {
+            LocalDateTime at = BASE.plusHours(slots.getAndIncrement()).plusMinutes(30);
+            Event event = new Event("Added", at, at.plusMinutes(20));
+            if (stamped) {
+              calendar.addEvent(event);
+            } else {
+              synchronized (monitor) {
+                calendar.addEvent(event);
+              }
+            }
+          } else {
+            int hour = random.nextInt(EVENTS);
+            if (stamped) {
+              read(calendar, op, hour);
+            } else {
+              synchronized (monitor) {
+                read(calendar, op, hour);
+              }
+            }
+          }
+          done++;
+        }
+        operations.addAndGet(done);
+      }));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    Thread.sleep(MILLIS);
+    running.set(false);
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    return operations.get() * 1e9 / (System.nanoTime() - begin);
+  }
+
+  /**
+   * Reads the events of the day of the given hour, or checks whether that hour is busy.
+   */
+  private static void read(ICalendar calendar, int op, int hour) {
+    LocalDateTime time = BASE.plusHours(hour);
+    if (op % 2 == 0) {
+      LocalDate day = time.toLocalDate();
+      calendar.getEventsOnDate(day);
+    } else {
+      calendar.isBusy(time.plusMinutes(10));
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package calendar.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarmanagerclass.CalendarManagerModel;
+import calendar.model.calendarmanagerclass.ConcurrentCalendarManager;
+import calendar.model.calendarmanagerclass.ICalendarManager;
+import calendar.model.event.Event;
+
+/**
+ * This class measures the throughput of 1 to 8 users working at once, each on a calendar of 10k
+ * events. A tenth of the operations add an event, and the rest read the events of one day. The
+ * users either share a CalendarManagerModel behind one monitor, as a synchronized manager would,
+ * or each use a session of a ConcurrentCalendarManager, working either on calendars of their own
+ * or all on the same calendar.
+ */
+public class ConcurrentManagerBenchmark {
+  private static final int[] THREADS = {1, 2, 4, 8};
+  private static final int EVENTS = 10_000;
+  private static final int WRITE_PERCENT = 10;
+  private static final long MILLIS = 1_000;
+  private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  /**
+   * Runs the benchmark and prints the operations per second for each number of users.
+   *
+   * @param args unused
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    System.out.printf("processors: %d%n", Runtime.getRuntime().availableProcessors());
+    System.out.println("threads  one lock ops/s  own calendars ops/s  same calendar ops/s");
+    run(Mode.ONE_LOCK, 2); //warm up every path before measuring
+    run(Mode.OWN_CALENDARS, 2);
+    run(Mode.SAME_CALENDAR, 2);
+    for (int threads : THREADS) {
+      double locked = run(Mode.ONE_LOCK, threads);
+      double own = run(Mode.OWN_CALENDARS, threads);
+      double same = run(Mode.SAME_CALENDAR, threads);
+      System.out.printf("%-7d  %-14.0f  %-19.0f  %.0f%n", threads, locked, own, same);
+    }
+  }
+
+  /**
+   * The ways the users share their calendars.
+   */
+  private enum Mode { ONE_LOCK, OWN_CALENDARS, SAME_CALENDAR }
+
+  /**
+   * Runs the operations of the given number of users for one second against new calendars.
+   *
+   * @param mode    how the users share their calendars
+   * @param threads the number of users, each with a thread of its own
+   * @return the operations per second
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static double run(Mode mode, int threads) throws InterruptedException {
+    CalendarManagerModel model = new CalendarManagerModel();
+    ConcurrentCalendarManager manager = new ConcurrentCalendarManager();
+    List<ICalendar> calendars = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      String name = mode == Mode.SAME_CALENDAR ? "shared" : "user" + t;
+      ICalendarManager session = mode == Mode.ONE_LOCK ? model : manager.openSession();
+      if (t == 0 || mode != Mode.SAME_CALENDAR) {
+        session.createCalendar(name, "UTC");
+        fill(session.getTargetCalendar(name));
+      }
+      session.setCurrentCalendar(name);
+      calendars.add(session.getCurrentActiveCalendar());
+    }
+    Object monitor = new Object();
+    AtomicLong slots = new AtomicLong(); //each added event takes the free part of its own hour
+    AtomicLong operations = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (ICalendar calendar : calendars) {
+      workers.add(new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long done = 0;
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (running.get()) {
+          if (mode == Mode.ONE_LOCK) {
+            synchronized (monitor) {
+              operate(calendar, random, slots);
+            }
+          } else {
+            operate(calendar, random, slots);
+          }
+          done++;
+        }
+        operations.addAndGet(done);
+      }));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    Thread.sleep(MILLIS);
+    running.set(false);
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    return operations.get() * 1e9 / (System.nanoTime() - begin);
+  }
+
+  /**
+   * Adds the given calendar's events, one every hour.
+   */
+  private static void fill(ICalendar calendar) {
+    List<Event> events = new ArrayList<>(EVENTS);
+    for (int i = 0; i < EVENTS; i++) {
+      LocalDateTime start = BASE.plusHours(i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(25)));
+    }
+    calendar.addEvents(events);
+  }
+
+  /**
+   * Adds an event to the given calendar, or reads the events of one of its days.
+   */
+  private static void operate(ICalendar calendar, ThreadLocalRandom random, AtomicLong slots) {
+    if (random.nextInt(100) < WRITE_PERCENT) {
+      long slot = slots.getAndIncrement();
+      LocalDateTime at = BASE.plusHours(slot % EVENTS).plusMinutes(30).plusSeconds(slot / EVENTS);
+      calendar.addEvent(new Event("Added", at, at.plusMinutes(20)));
+    } else {
+      LocalDate day = BASE.plusHours(random.nextInt(EVENTS)).toLocalDate();
+      calendar.getEventsOnDate(day);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import calendar.controller.commands.CalendarCommand;
+import calendar.controller.commands.EditCommand;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+import calendar.view.ICalendarView;
+import calendar.view.TextBasedView;
+
+/**
+ * This class measures the latency of the 'edit events' command as a calendar grows. Each round
+ * fills a calendar with the given number of events and then times edits of randomly chosen
+ * events, which look their target up by subject and start time. The latency per edit should
+ * stay flat across calendar sizes.
+ */
+public class EditCommandBenchmark {
+  private static final int[] SIZES = {1_000, 10_000, 100_000, 500_000};
+  private static final int EDITS = 2_000;
+  private static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern(
+          "yyyy-MM-dd'T'HH:mm");
+
+  /**
+   * Runs the benchmark and prints the average latency of an edit for each calendar size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    //warm up the JIT before measuring
+    run(SIZES[1]);
+    System.out.println("events      us/edit");
+    for (int size : SIZES) {
+      System.out.printf("%-10d  %.2f%n", size, run(size));
+    }
+  }
+
+  /**
+   * Fills a calendar with the given number of events and times edits on it.
+   *
+   * @param size the number of events in the calendar
+   * @return the average latency of an edit, in microseconds
+   */
+  private static double run(int size) {
+    NewCalendarModel model = new NewCalendarModel("bench", ZoneId.of("America/New_York"));
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      model.addEvent(new Event("Event " + i, start, start.plusMinutes(20)));
+    }
+    ICalendarView view = new TextBasedView(new StringBuilder());
+    Random random = new Random(7);
+    String[] commands = new String[EDITS];
+    for (int i = 0; i < EDITS; i++) {
+      int target = random.nextInt(size);
+      commands[i] = "events description \"Event " + target + "\" from "
+              + base.plusMinutes(30L * target).format(FORMAT) + " with edit " + i;
+    }
+    long begin = System.nanoTime();
+    for (String command : commands) {
+      CalendarCommand edit = new EditCommand(command);
+      edit.execute(model, view);
+    }
+    return (System.nanoTime() - begin) / 1_000.0 / EDITS;
+  }
+}
@@ -0,0 +1,101 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.calendarclass.CalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures how much heap memory each event takes, both on its own and once stored in
+ * a calendar with all of its indexes. Events are created the way an import would create them:
+ * subjects and descriptions are drawn from a small set of recurring values, but every event gets
+ * its own copy of the strings, as if each had just been parsed. Memory is read from the heap after
+ * forcing garbage collections, so results are approximate and should be compared between runs on
+ * the same JVM, ideally with a fixed heap size such as -Xms4g -Xmx4g.
+ */
+public class EventFootprintBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final String[] SUBJECTS = {"Standup", "Lecture", "Office hours", "Lunch",
+    "Gym", "Review", "Planning", "1:1", "Lab", "Seminar"};
+  private static final String[] DESCRIPTIONS = {"Weekly sync with the team",
+    "Bring the slides", "Room 204", "Remote only", "Prepare questions beforehand"};
+
+  /**
+   * Runs the benchmark and prints the bytes used per event for each number of events.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    System.out.println("events      bytes/event  bytes/event in calendar");
+    for (int size : SIZES) {
+      System.out.printf("%-10d  %-11.1f  %.1f%n", size, eventsOnly(size), inCalendar(size));
+    }
+  }
+
+  /**
+   * Measures the memory taken by the given number of events held in a list.
+   *
+   * @param size the number of events
+   * @return the bytes used per event
+   */
+  private static double eventsOnly(int size) {
+    List<Event> events = new ArrayList<>(size);
+    long before = usedMemory();
+    events.addAll(createEvents(size));
+    long after = usedMemory();
+    check(events.size());
+    return (double) (after - before) / size;
+  }
+
+  /**
+   * Measures the memory taken by the given number of events stored in a calendar.
+   *
+   * @param size the number of events
+   * @return the bytes used per event
+   */
+  private static double inCalendar(int size) {
+    long before = usedMemory();
+    CalendarModel model = new CalendarModel();
+    model.addEvents(createEvents(size));
+    long after = usedMemory();
+    check(model.getEventsInRange(LocalDateTime.MIN, LocalDateTime.MAX).size());
+    return (double) (after - before) / size;
+  }
+
+  /**
+   * Creates the given number of events, each with its own copies of its strings.
+   *
+   * @param size the number of events
+   * @return the created events
+   */
+  private static List<Event> createEvents(int size) {
+    List<Event> events = new ArrayList<>(size);
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      events.add(new Event.EventBuilder()
+              .subject(SUBJECTS[i % SUBJECTS.length] + " " + (i / 1_000))
+              .startDateTime(start)
+              .endDateTime(start.plusMinutes(20))
+              .description(new String(DESCRIPTIONS[i % DESCRIPTIONS.length]))
+              .build());
+    }
+    return events;
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static void check(int size) {
+    if (size == 0) {
+      throw new IllegalStateException("No events were kept.");
+    }
+  }
+}
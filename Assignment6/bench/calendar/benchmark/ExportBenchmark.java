@@ -0,0 +1,73 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+import calendar.model.io.CalendarExporter;
+import calendar.model.io.ExportReport;
+
+/**
+ * This class measures how fast a calendar of 1M events and 1k weekly series is exported to an
+ * iCalendar file and to a CSV file, and how much of the heap is still in use once it has been,
+ * to show that the export does not gather the calendar into memory.
+ */
+public class ExportBenchmark {
+  private static final int EVENTS = 1_000_000;
+  private static final int SERIES = 1_000;
+
+  /**
+   * Runs the benchmark and prints the time taken, the rate, and the heap kept by each export.
+   *
+   * @param args unused
+   * @throws IOException if the file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    NewCalendarModel calendar = new NewCalendarModel("export",
+            ZoneId.of("America/New_York"));
+    LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < EVENTS; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      events.add(new Event.EventBuilder().subject("Event " + i).startDateTime(start)
+              .endDateTime(start.plusMinutes(25)).description("Exported event number " + i)
+              .location(i % 2 == 0 ? Location.PHYSICAL : Location.ONLINE)
+              .status(i % 5 == 0 ? EventStatus.PRIVATE : EventStatus.PUBLIC).build());
+    }
+    calendar.addEvents(events);
+    events = null;
+    for (int i = 0; i < SERIES; i++) {
+      calendar.createRecurringEvent("Series " + i, base.plusDays(i).withHour(23).withMinute(31)
+              .toString(), base.plusDays(i).withHour(23).withMinute(45).toString(), "MWF", 52);
+    }
+    Path file = Files.createTempFile("calendar", ".export");
+    try {
+      CalendarExporter exporter = new CalendarExporter();
+      System.out.println("format  events   series  MB      ms      MB/s    events/s  kept MB");
+      for (CalendarExporter.Format format : CalendarExporter.Format.values()) {
+        exporter.export(calendar, file, null, null, format);
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        ExportReport report = exporter.export(calendar, file, null, null, format);
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        double megabytes = report.getBytes() / 1_048_576.0;
+        System.out.printf("%-6s  %-7d  %-6d  %-6.1f  %-6.0f  %-6.1f  %-8.0f  %.1f%n", format,
+                report.getEvents(), report.getSeries(), megabytes, report.getMillis(),
+                megabytes * 1000 / report.getMillis(), report.getEventsPerSecond(),
+                (after - before) / 1_048_576.0);
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package calendar.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.io.IcsImporter;
+import calendar.model.io.ImportReport;
+
+/**
+ * This class measures how fast an iCalendar file of 1M events is imported into a calendar, parsed
+ * on a single thread and on as many threads as there are processors. One event in a thousand
+ * recurs weekly; a third of the events are in UTC, a third in another time zone and a third in
+ * floating time, and every event has a description and a location.
+ */
+public class IcsImportBenchmark {
+  private static final int EVENTS = 1_000_000;
+  private static final int WARMUP_EVENTS = 100_000;
+
+  /**
+   * Runs the benchmark and prints the parsing and insertion time and the import rate for each
+   * number of threads.
+   *
+   * @param args unused
+   * @throws IOException if the file cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    Path warmup = Files.createTempFile("calendar", ".ics");
+    Path file = Files.createTempFile("calendar", ".ics");
+    try {
+      write(warmup, WARMUP_EVENTS);
+      write(file, EVENTS);
+      System.out.printf("file: %d events, %.1f MB%n", EVENTS, Files.size(file) / 1_048_576.0);
+      System.out.println("threads  parse ms  insert ms  total ms  events/s");
+      int processors = Runtime.getRuntime().availableProcessors();
+      for (int threads : processors == 1 ? new int[] {1} : new int[] {1, processors}) {
+        IcsImporter importer = new IcsImporter(threads);
+        importer.importFile(warmup, new NewCalendarModel("warmup", ZoneId.of("UTC")));
+        System.gc();
+        ImportReport report = importer.importFile(file,
+                new NewCalendarModel("import", ZoneId.of("America/New_York")));
+        if (report.getEvents() + report.getSeries() != EVENTS || report.getSkipped() != 0) {
+          throw new IllegalStateException("Unexpected import: " + report);
+        }
+        System.out.printf("%-7d  %-8.0f  %-9.0f  %-8.0f  %.0f%n", threads,
+                report.getParseMillis(), report.getInsertMillis(), report.getMillis(),
+                report.getEventsPerSecond());
+      }
+    } finally {
+      Files.delete(warmup);
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Writes an iCalendar file of the given number of events, one every 30 minutes.
+   */
+  private static void write(Path file, int events) throws IOException {
+    DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    LocalDateTime base = LocalDateTime.of(2000, 1, 1, 0, 0);
+    try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//Calendar//Benchmark//EN\r\n");
+      for (int i = 0; i < events; i++) {
+        LocalDateTime start = base.plusMinutes(30L * i);
+        String zone = i % 3 == 0 ? "" : i % 3 == 1 ? ";TZID=Europe/London" : "";
+        String suffix = i % 3 == 0 ? "Z" : "";
+        out.write("BEGIN:VEVENT\r\nUID:event-" + i + "@benchmark\r\n");
+        out.write("SUMMARY:Event " + i + "\r\n");
+        out.write("DTSTART" + zone + ":" + start.format(format) + suffix + "\r\n");
+        out.write("DTEND" + zone + ":" + start.plusMinutes(25).format(format) + suffix + "\r\n");
+        out.write("DESCRIPTION:Imported event number " + i + "\\, with details\r\n");
+        out.write("LOCATION:" + (i % 2 == 0 ? "Room " + i % 100 : "https://meet.example.com/"
+                + i) + "\r\n");
+        if (i % 1000 == 0) {
+          out.write("RRULE:FREQ=WEEKLY;COUNT=2\r\n");
+        }
+        out.write("END:VEVENT\r\n");
+      }
+      out.write("END:VCALENDAR\r\n");
+    }
+  }
+}
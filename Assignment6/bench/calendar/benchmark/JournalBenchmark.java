@@ -0,0 +1,82 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.persistence.JournaledCalendarManager;
+
+/**
+ * This class measures the throughput of a calendar manager that records its changes in a journal,
+ * as the number of threads making changes grows from 1 to 16. Each thread creates single events
+ * in a calendar of its own, and each creation only returns once it is forced to disk. With one
+ * thread every event costs one force of the file; with more threads, the events created while a
+ * force is running are forced together by the next one, so the throughput should grow with the
+ * number of threads even on a single core.
+ */
+public class JournalBenchmark {
+  private static final int[] THREADS = {1, 2, 4, 8, 16};
+  private static final int EVENTS = 2_000;
+
+  /**
+   * Runs the benchmark and prints the durable events created per second for each number of
+   * threads.
+   *
+   * @param args unused
+   * @throws Exception if the journal cannot be written or a thread is interrupted
+   */
+  public static void main(String[] args) throws Exception {
+    System.out.println("threads  events/s  us/event");
+    for (int threads : THREADS) {
+      Path file = Files.createTempFile("calendar", ".journal");
+      try (JournaledCalendarManager manager = new JournaledCalendarManager(file)) {
+        run(manager, threads);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Creates the given total number of events from the given number of threads and prints the
+   * throughput.
+   *
+   * @param manager the manager recording the events in its journal
+   * @param threads the number of threads creating events
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static void run(JournaledCalendarManager manager, int threads)
+          throws InterruptedException {
+    DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      manager.createCalendar("calendar" + t, "UTC");
+      ICalendar calendar = manager.getTargetCalendar("calendar" + t);
+      int perThread = EVENTS / threads;
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < perThread; i++) {
+          LocalDateTime start = base.plusHours(i);
+          calendar.createSingleEvent("Event " + i, start.format(format),
+                  start.plusMinutes(30).format(format));
+        }
+      }));
+    }
+    long begin = System.nanoTime();
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    double seconds = (System.nanoTime() - begin) / 1e9;
+    int events = EVENTS / threads * threads;
+    System.out.printf("%-7d  %-8.0f  %.1f%n", threads, events / seconds,
+            seconds * 1e6 / events * threads);
+  }
+}
@@ -0,0 +1,106 @@
+package calendar.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import calendar.model.calendarclass.CalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures how many bytes are allocated by each lookup of an event by its subject and
+ * times. It compares the calendar's lookups against a map keyed the way the calendar used to key
+ * its events, by a string joining the subject and both times, which is rebuilt for every lookup.
+ * Allocation is read from the JVM's per-thread allocation counter, so it needs a HotSpot JVM.
+ */
+public class KeyAllocationBenchmark {
+  private static final int SIZE = 100_000;
+  private static final int LOOKUPS = 2_000_000;
+
+  /**
+   * Runs the benchmark and prints the bytes allocated and the time taken per lookup for both
+   * kinds of key.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(SIZE);
+    for (int i = 0; i < SIZE; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(20)));
+    }
+    CalendarModel model = new CalendarModel();
+    model.addEvents(events);
+    Map<String, Event> stringKeyed = new HashMap<>();
+    for (Event event : events) {
+      stringKeyed.put(stringKey(event.getSubject(), event.getStartDateTime(),
+              event.getEndDateTime()), event);
+    }
+
+    //warm up the JIT before measuring
+    for (int round = 0; round < 3; round++) {
+      lookUpCompact(model, events);
+      lookUpString(stringKeyed, events);
+    }
+    System.out.println("key       bytes/lookup  ns/lookup");
+    report("string", () -> lookUpString(stringKeyed, events));
+    report("compact", () -> lookUpCompact(model, events));
+  }
+
+  /**
+   * Runs the given lookups once and prints how much they allocated and how long they took.
+   *
+   * @param name    the name of the kind of key being measured
+   * @param lookups the lookups to run
+   */
+  private static void report(String name, Runnable lookups) {
+    com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().getId();
+    long bytesBefore = threads.getThreadAllocatedBytes(thread);
+    long begin = System.nanoTime();
+    lookups.run();
+    long elapsed = System.nanoTime() - begin;
+    long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+    System.out.printf("%-8s  %-12.1f  %.1f%n", name, (double) bytes / LOOKUPS,
+            (double) elapsed / LOOKUPS);
+  }
+
+  private static void lookUpCompact(CalendarModel model, List<Event> events) {
+    int found = 0;
+    for (int i = 0; i < LOOKUPS; i++) {
+      Event event = events.get((int) ((i * 7919L) % SIZE));
+      if (model.getEvent(event.getSubject(), event.getStartDateTime(),
+              event.getEndDateTime()) != null) {
+        found++;
+      }
+    }
+    check(found);
+  }
+
+  private static void lookUpString(Map<String, Event> stringKeyed, List<Event> events) {
+    int found = 0;
+    for (int i = 0; i < LOOKUPS; i++) {
+      Event event = events.get((int) ((i * 7919L) % SIZE));
+      if (stringKeyed.get(stringKey(event.getSubject(), event.getStartDateTime(),
+              event.getEndDateTime())) != null) {
+        found++;
+      }
+    }
+    check(found);
+  }
+
+  private static String stringKey(String subject, LocalDateTime start, LocalDateTime end) {
+    return subject + "|" + start + "|" + end;
+  }
+
+  private static void check(int found) {
+    if (found != LOOKUPS) {
+      throw new IllegalStateException("Only " + found + " of " + LOOKUPS + " events were found.");
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarclass.MappedCalendarModel;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class compares a calendar kept on the heap with one kept in a memory-mapped file, as they
+ * grow from 100k to 4M events. Each round fills a calendar of each kind in batches of 100k
+ * events, twenty per day, measuring the heap the calendar holds after forcing garbage
+ * collections, and then times one-day range queries and availability checks on it. Memory results
+ * are approximate and are best compared with a fixed heap size such as -Xms4g -Xmx4g.
+ */
+public class MappedStoreBenchmark {
+  private static final int[] SIZES = {100_000, 1_000_000, 4_000_000};
+  private static final int BATCH = 100_000;
+  private static final int QUERIES = 20_000;
+
+  /**
+   * Runs the benchmark and prints the heap used and the query latencies of each kind of calendar
+   * for each size.
+   *
+   * @param args unused
+   * @throws IOException if the temporary file cannot be created
+   */
+  public static void main(String[] args) throws IOException {
+    System.out.println("events      calendar  heap MB  us/day-query  us/isBusy");
+    for (int size : SIZES) {
+      run(size, new NewCalendarModel("heap", ZoneOffset.UTC), "heap");
+      Path file = Files.createTempFile("calendar", ".events");
+      try (MappedCalendarModel model = new MappedCalendarModel("mapped", ZoneOffset.UTC, file)) {
+        run(size, model, "mapped");
+      } finally {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".strings"));
+      }
+    }
+  }
+
+  /**
+   * Fills the given calendar with the given number of events and measures it.
+   *
+   * @param size  the number of events in the calendar
+   * @param model the empty calendar
+   * @param name  the name of the kind of calendar
+   */
+  private static void run(int size, ICalendar model, String name) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    long before = usedMemory();
+    for (int first = 0; first < size; first += BATCH) {
+      List<Event> events = new ArrayList<>(BATCH);
+      for (int i = first; i < first + BATCH; i++) {
+        LocalDateTime start = base.plusDays(i / 20).plusMinutes(36L * (i % 20));
+        events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+      }
+      model.addEvents(events);
+    }
+    double heap = (usedMemory() - before) / 1_048_576.0;
+    int days = size / 20;
+    Random random = new Random(size);
+    long found = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      LocalDateTime from = base.plusDays(random.nextInt(days));
+      found += model.getEventsInRange(from, from.plusDays(1)).size();
+    }
+    double day = (System.nanoTime() - begin) / 1_000.0 / QUERIES;
+    begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      if (model.isBusy(base.plusMinutes(random.nextInt(days * 24 * 60)))) {
+        found++;
+      }
+    }
+    double busy = (System.nanoTime() - begin) / 1_000.0 / QUERIES;
+    if (found == 0) {
+      throw new IllegalStateException("No events were found.");
+    }
+    System.out.printf("%-10d  %-8s  %-7.1f  %-12.2f  %.3f%n", size, name, heap, day, busy);
+  }
+
+  private static long usedMemory() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -0,0 +1,93 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.calendarclass.CalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures the latency of range queries and availability checks as a calendar grows.
+ * Each round fills a calendar with the given number of events, twenty per day, and then times
+ * queries for the events in randomly placed one-day and one-week windows, and checks of whether
+ * the calendar is busy at random times.
+ */
+public class RangeScanBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int QUERIES = 20_000;
+
+  /**
+   * Runs the benchmark and prints the average latency of each kind of query for each calendar
+   * size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    //warm up the JIT before measuring
+    run(SIZES[1], false);
+    System.out.println("events      us/day-query  us/week-query  us/isBusy");
+    for (int size : SIZES) {
+      run(size, true);
+    }
+  }
+
+  /**
+   * Fills a calendar with the given number of events and times queries on it.
+   *
+   * @param size  the number of events in the calendar
+   * @param print whether to print the results
+   */
+  private static void run(int size, boolean print) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusDays(i / 20).plusMinutes(36L * (i % 20));
+      events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+    }
+    CalendarModel model = new CalendarModel();
+    model.addEvents(events);
+    int days = size / 20;
+    double day = time(model, base, days, 1);
+    double week = time(model, base, days, 7);
+    Random random = new Random(11);
+    long found = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      if (model.isBusy(base.plusMinutes(random.nextInt(days * 24 * 60)))) {
+        found++;
+      }
+    }
+    double busy = (System.nanoTime() - begin) / 1_000.0 / QUERIES;
+    if (print) {
+      System.out.printf("%-10d  %-12.2f  %-13.2f  %.3f%n", size, day, week, busy);
+    } else if (found < 0) {
+      System.out.println(found);
+    }
+  }
+
+  /**
+   * Times range queries of the given number of days at random points of the calendar.
+   *
+   * @param model  the calendar to query
+   * @param base   the start of the calendar's first day
+   * @param days   the number of days the calendar spans
+   * @param length the number of days each query covers
+   * @return the average latency of a query, in microseconds
+   */
+  private static double time(CalendarModel model, LocalDateTime base, int days, int length) {
+    Random random = new Random(length);
+    long found = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      LocalDateTime from = base.plusDays(random.nextInt(days));
+      found += model.getEventsInRange(from, from.plusDays(length)).size();
+    }
+    long elapsed = System.nanoTime() - begin;
+    if (found == 0) {
+      throw new IllegalStateException("No events were found.");
+    }
+    return elapsed / 1_000.0 / QUERIES;
+  }
+}
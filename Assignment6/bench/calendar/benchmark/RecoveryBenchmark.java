@@ -0,0 +1,141 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.persistence.JournaledCalendarManager;
+import calendar.model.persistence.RecoveryReport;
+
+/**
+ * This class measures how fast a journaled calendar manager recovers its calendars after a crash,
+ * for journals of 10k to 100k records. The journal is written by 16 threads, so its records are
+ * committed in groups, and a torn record is then appended to it, as left by a crash in the middle
+ * of a write. Recovery replays the journal through memory-mapped windows, checking the checksum
+ * of every record, and cuts off the torn tail. It is measured once from the journal alone, and
+ * once from a checkpoint followed by a tenth as many records.
+ */
+public class RecoveryBenchmark {
+  private static final int[] SIZES = {10_000, 100_000};
+  private static final int THREADS = 16;
+
+  /**
+   * Runs the benchmark and prints the recovery time and replay rate for each size.
+   *
+   * @param args unused
+   * @throws Exception if the journal cannot be written or a thread is interrupted
+   */
+  public static void main(String[] args) throws Exception {
+    System.out.println("records   journal MB  from journal ms  records/s  "
+            + "from checkpoint ms  records/s");
+    for (int size : SIZES) {
+      Path directory = Files.createTempDirectory("calendar");
+      Path file = directory.resolve("calendar.journal");
+      try {
+        try (JournaledCalendarManager manager = new JournaledCalendarManager(file)) {
+          write(manager, 0, size);
+        }
+        double megabytes = Files.size(file) / 1_048_576.0;
+        tear(file);
+        int written = size / THREADS * THREADS;
+        RecoveryReport fromJournal = recover(file, written);
+
+        //take a checkpoint, then record a tenth as many events again in new calendars
+        try (JournaledCalendarManager manager = new JournaledCalendarManager(file)) {
+          manager.checkpoint();
+          write(manager, THREADS, size / 10);
+        }
+        tear(file);
+        RecoveryReport fromCheckpoint = recover(file, written + size / 10 / THREADS * THREADS);
+        System.out.printf("%-8d  %-10.1f  %-15.0f  %-9.0f  %-18.0f  %.0f%n", size, megabytes,
+                fromJournal.getMillis(), fromJournal.getRecordsPerSecond(),
+                fromCheckpoint.getMillis(), fromCheckpoint.getRecordsPerSecond());
+      } finally {
+        try (Stream<Path> paths = Files.walk(directory)) {
+          for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+            Files.delete(path);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates the given number of single events from {@link #THREADS} threads, each in a calendar
+   * of its own, numbered from the given one.
+   *
+   * @param manager the manager recording the events in its journal
+   * @param first   the number of the first calendar
+   * @param events  the total number of events
+   * @throws InterruptedException if interrupted while waiting for the threads
+   */
+  private static void write(JournaledCalendarManager manager, int first, int events)
+          throws InterruptedException {
+    DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = first; t < first + THREADS; t++) {
+      manager.createCalendar("calendar" + t, "UTC");
+      ICalendar calendar = manager.getTargetCalendar("calendar" + t);
+      workers.add(new Thread(() -> {
+        for (int i = 0; i < events / THREADS; i++) {
+          LocalDateTime start = base.plusHours(i);
+          calendar.createSingleEvent("Event " + i, start.format(format),
+                  start.plusMinutes(30).format(format));
+        }
+      }));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+  }
+
+  /**
+   * Appends the start of a record that was never finished to the given journal file.
+   */
+  private static void tear(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.allocate(20).putInt(200).rewind());
+    }
+  }
+
+  /**
+   * Recovers the calendars recorded in the given journal, and checks that the given number of
+   * events were.
+   */
+  private static RecoveryReport recover(Path file, int events) throws IOException {
+    System.gc();
+    try (JournaledCalendarManager manager = new JournaledCalendarManager(file)) {
+      RecoveryReport report = manager.getRecovery();
+      if (report.getTruncatedBytes() == 0) {
+        throw new IllegalStateException("The torn tail was not cut off.");
+      }
+      int found = 0;
+      for (int t = 0; t < THREADS * 2; t++) {
+        try {
+          found += manager.getTargetCalendar("calendar" + t).getEventsInRange(
+                  LocalDateTime.of(2020, 1, 1, 0, 0), LocalDateTime.of(2040, 1, 1, 0, 0)).size();
+        } catch (IllegalArgumentException e) {
+          //the calendars of the second run only exist after it
+        }
+      }
+      if (found != events) {
+        throw new IllegalStateException("Expected " + events + " events, found " + found);
+      }
+      return report;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.controller.CalendarServer;
+import calendar.model.calendarmanagerclass.ConcurrentCalendarManager;
+
+/**
+ * This class generates load for the calendar server, and measures the sessions and commands it
+ * serves per second to 1 to 32 clients connected at once. Each client works on a calendar of its
+ * own, and repeatedly opens a session that chooses the calendar, creates 10 events, prints the
+ * events of 10 days and quits, reading everything the server sends back.
+ *
+ * <p>By default the server is started in this process; passing a port instead loads a server
+ * already running on that port of the local machine, as started by "--mode server".</p>
+ */
+public class ServerLoadBenchmark {
+  private static final int[] CLIENTS = {1, 8, 32};
+  private static final int EVENTS_PER_SESSION = 10;
+  private static final int COMMANDS_PER_SESSION = 2 * EVENTS_PER_SESSION + 2;
+  private static final long MILLIS = 2_000;
+  private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private static final AtomicLong RUNS = new AtomicLong(); //keeps calendar names unique
+
+  /**
+   * Runs the benchmark and prints the sessions and commands per second for each number of
+   * clients.
+   *
+   * @param args the port of a running server, or none to start one in this process
+   * @throws IOException          if the server cannot be started or reached
+   * @throws InterruptedException if interrupted while waiting for the clients
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    CalendarServer server = null;
+    int port;
+    if (args.length > 0) {
+      port = Integer.parseInt(args[0]);
+    } else {
+      server = new CalendarServer(new ConcurrentCalendarManager(), 0);
+      port = server.getPort();
+      Thread acceptor = new Thread(server, "calendar-server");
+      acceptor.setDaemon(true);
+      acceptor.start();
+    }
+    System.out.printf("processors: %d%n", Runtime.getRuntime().availableProcessors());
+    System.out.println("clients  sessions/s  commands/s");
+    run(port, 8); //warm up the server before measuring
+    for (int clients : CLIENTS) {
+      double sessions = run(port, clients);
+      System.out.printf("%-7d  %-10.0f  %.0f%n", clients, sessions,
+              sessions * COMMANDS_PER_SESSION);
+    }
+    if (server != null) {
+      server.close();
+    }
+  }
+
+  /**
+   * Runs the given number of clients at once for two seconds, each on a new calendar.
+   *
+   * @param port    the port of the server
+   * @param clients the number of clients
+   * @return the sessions completed per second
+   * @throws InterruptedException if interrupted while waiting for the clients
+   */
+  private static double run(int port, int clients) throws InterruptedException {
+    AtomicLong sessions = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int c = 0; c < clients; c++) {
+      String calendar = "load" + RUNS.incrementAndGet();
+      threads.add(new Thread(() -> {
+        try {
+          session(port, "create calendar --name " + calendar + " --timezone UTC\nquit\n");
+          start.await();
+          long slot = 0;
+          while (running.get()) {
+            StringBuilder script = new StringBuilder();
+            script.append("use calendar --name ").append(calendar).append('\n');
+            for (int i = 0; i < EVENTS_PER_SESSION; i++, slot++) {
+              LocalDateTime at = BASE.plusHours(slot);
+              script.append("create event e").append(slot).append(" from ").append(at)
+                      .append(" to ").append(at.plusMinutes(30)).append('\n');
+            }
+            for (int i = 0; i < EVENTS_PER_SESSION; i++) {
+              script.append("print events on ")
+                      .append(BASE.plusDays(i).toLocalDate()).append('\n');
+            }
+            script.append("quit\n");
+            session(port, script.toString());
+            sessions.incrementAndGet();
+          }
+        } catch (IOException | InterruptedException e) {
+          throw new IllegalStateException("A client failed.", e);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    long begin = System.nanoTime();
+    start.countDown();
+    Thread.sleep(MILLIS);
+    running.set(false);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    return sessions.get() * 1e9 / (System.nanoTime() - begin);
+  }
+
+  /**
+   * Sends a script of commands over a new connection, and reads everything the server sends
+   * back until it closes the connection.
+   */
+  private static void session(int port, String script) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+      OutputStream out = socket.getOutputStream();
+      out.write(script.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      InputStream in = socket.getInputStream();
+      byte[] buffer = new byte[8192];
+      while (in.read(buffer) >= 0) {
+        continue;
+      }
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package calendar.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.controller.CalendarManagerController;
+import calendar.model.calendarclass.CalendarSnapshot;
+import calendar.model.calendarmanagerclass.CalendarManagerModel;
+import calendar.model.event.Event;
+import calendar.view.TextBasedView;
+
+/**
+ * This class compares two ways of rebuilding a calendar of 10k to 1M events at startup: replaying
+ * the text commands that created it through the command controller, and reading a binary
+ * snapshot of it. Replay is only timed up to 100k events, as every command is matched by the
+ * command parsers and its date-times parsed from text; the time for 1M events is extrapolated.
+ */
+public class SnapshotBenchmark {
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int MAX_REPLAYED = 100_000;
+  private static double msPerEvent; //replay time per event of the largest size replayed
+
+  /**
+   * Runs the benchmark and prints the time taken to rebuild the calendar each way, and the size
+   * of the snapshot file.
+   *
+   * @param args unused
+   * @throws IOException if the snapshot file cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    System.out.println("events      replay ms  snapshot MB  write ms  load ms");
+    for (int size : SIZES) {
+      CalendarManagerModel manager;
+      String replay;
+      if (size <= MAX_REPLAYED) {
+        String commands = commands(size);
+        long begin = System.nanoTime();
+        manager = replay(commands);
+        double millis = (System.nanoTime() - begin) / 1e6;
+        msPerEvent = millis / size;
+        replay = String.format("%.0f", millis);
+      } else {
+        manager = bulkLoad(size);
+        replay = String.format("~%.0f", msPerEvent * size);
+      }
+      int events = manager.getTargetCalendar("bench").getEventsInRange(
+              LocalDateTime.of(2000, 1, 1, 0, 0), LocalDateTime.of(2200, 1, 1, 0, 0)).size();
+      if (events != size) {
+        throw new IllegalStateException("Expected " + size + " events, found " + events);
+      }
+
+      Path file = Files.createTempFile("calendar", ".snapshot");
+      try {
+        long begin = System.nanoTime();
+        manager.snapshot().write(file);
+        double write = (System.nanoTime() - begin) / 1e6;
+        manager = null;
+        System.gc();
+        begin = System.nanoTime();
+        CalendarManagerModel loaded = new CalendarManagerModel(CalendarSnapshot.read(file));
+        double load = (System.nanoTime() - begin) / 1e6;
+        if (!loaded.getTargetCalendar("bench").isBusy(LocalDateTime.of(2025, 1, 1, 8, 10))) {
+          throw new IllegalStateException("The loaded calendar lost its events.");
+        }
+        System.out.printf("%-10d  %-9s  %-11.1f  %-8.0f  %.0f%n", size, replay,
+                Files.size(file) / 1_048_576.0, write, load);
+      } finally {
+        Files.deleteIfExists(file);
+      }
+    }
+  }
+
+  /**
+   * Builds the commands creating a calendar with the given number of single events, twenty per
+   * day, each with its own subject.
+   *
+   * @param size the number of events
+   * @return the commands, one per line
+   */
+  private static String commands(int size) {
+    DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    StringBuilder commands = new StringBuilder(size * 80);
+    commands.append("create calendar --name bench --timezone America/New_York\n");
+    commands.append("use calendar --name bench\n");
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusDays(i / 20).plusMinutes(36L * (i % 20));
+      commands.append("create event \"Event ").append(i).append("\" from ")
+              .append(start.format(format)).append(" to ")
+              .append(start.plusMinutes(30).format(format)).append('\n');
+    }
+    return commands.append("quit\n").toString();
+  }
+
+  private static CalendarManagerModel replay(String commands) {
+    CalendarManagerModel manager = new CalendarManagerModel();
+    new CalendarManagerController(manager, new TextBasedView(new StringBuilder()),
+            new StringReader(commands)).start();
+    return manager;
+  }
+
+  /**
+   * Builds the same calendar as the commands of {@link #commands} with a single bulk call, for
+   * sizes too large to replay.
+   *
+   * @param size the number of events
+   * @return the manager holding the calendar
+   */
+  private static CalendarManagerModel bulkLoad(int size) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusDays(i / 20).plusMinutes(36L * (i % 20));
+      events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+    }
+    CalendarManagerModel manager = new CalendarManagerModel();
+    manager.createCalendar("bench", "America/New_York");
+    manager.getTargetCalendar("bench").addEvents(events);
+    return manager;
+  }
+}
@@ -0,0 +1,64 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class measures the latency of changing a calendar's time zone as the calendar grows. Each
+ * round fills a calendar with the given number of events, along with a few recurring series, and
+ * then times switching its time zone back and forth. Since events are stored in UTC and only
+ * shown in the calendar's time zone, the latency per change should stay flat across calendar
+ * sizes.
+ */
+public class TimeZoneChangeBenchmark {
+  private static final int[] SIZES = {1_000, 10_000, 100_000, 1_000_000};
+  private static final int CHANGES = 1_000;
+  private static final ZoneId[] ZONES = {ZoneId.of("America/New_York"),
+    ZoneId.of("Europe/London"), ZoneId.of("America/Los_Angeles"), ZoneId.of("Asia/Tokyo")};
+
+  /**
+   * Runs the benchmark and prints the average latency of a time zone change for each calendar
+   * size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    //warm up the JIT before measuring
+    run(SIZES[1]);
+    System.out.println("events      us/change");
+    for (int size : SIZES) {
+      System.out.printf("%-10d  %.2f%n", size, run(size));
+    }
+  }
+
+  /**
+   * Fills a calendar with the given number of events and times time zone changes on it.
+   *
+   * @param size the number of events in the calendar
+   * @return the average latency of a time zone change, in microseconds
+   */
+  private static double run(int size) {
+    NewCalendarModel model = new NewCalendarModel("bench", ZONES[0]);
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusMinutes(30L * i);
+      events.add(new Event("Event " + i, start, start.plusMinutes(20)));
+    }
+    model.addEvents(events);
+    for (int i = 0; i < 10; i++) {
+      model.createRecurringEvent("Series " + i, "2025-01-01T12:00", "2025-01-01T13:00", "MTWRF",
+              52 * 5);
+    }
+    long begin = System.nanoTime();
+    for (int i = 0; i < CHANGES; i++) {
+      model.setTimeZone(ZONES[(i + 1) % ZONES.length]);
+    }
+    return (System.nanoTime() - begin) / 1_000.0 / CHANGES;
+  }
+}
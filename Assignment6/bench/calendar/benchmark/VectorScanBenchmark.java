@@ -0,0 +1,92 @@
+package calendar.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.calendarclass.CalendarModel;
+import calendar.model.event.Event;
+
+/**
+ * This class compares the scalar and vector range scans used by a calendar's event store. Each
+ * round fills one calendar per scan with the given number of events, twenty per day, and then adds
+ * a few thousand more one at a time, so that they wait in the store's unsorted delta, which has to
+ * be scanned in full by every query. It then times checks of whether the calendars are busy at
+ * random times that are not whole minutes, which are answered by scanning the store, and
+ * one-day range queries.
+ *
+ * <p>The vector scan is only used when the classes compiled from the vector/ folder are on the
+ * class path and the JVM is started with "--add-modules jdk.incubator.vector"; otherwise both
+ * calendars use the scalar scan.</p>
+ */
+public class VectorScanBenchmark {
+  private static final String PROPERTY = "calendar.rangeScan";
+  private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+  private static final int QUERIES = 20_000;
+
+  /**
+   * Runs the benchmark and prints the average latency of each kind of query with each scan, for
+   * each calendar size.
+   *
+   * @param args unused
+   */
+  public static void main(String[] args) {
+    //warm up the JIT before measuring
+    run(SIZES[1], "scalar", false);
+    run(SIZES[1], "vector", false);
+    System.out.println("events      scan    us/isBusy  us/day-query");
+    for (int size : SIZES) {
+      run(size, "scalar", true);
+      run(size, "vector", true);
+    }
+  }
+
+  /**
+   * Fills a calendar using the given scan with the given number of events and times queries on it.
+   *
+   * @param size  the number of events in the calendar
+   * @param scan  the name of the scan the calendar should use
+   * @param print whether to print the results
+   */
+  private static void run(int size, String scan, boolean print) {
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<Event> events = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      LocalDateTime start = base.plusDays(i / 20).plusMinutes(36L * (i % 20));
+      events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+    }
+    System.setProperty(PROPERTY, scan);
+    CalendarModel model = new CalendarModel();
+    System.clearProperty(PROPERTY);
+    model.addEvents(events);
+    int days = size / 20;
+    //stays below the size at which the delta is merged into the sorted events
+    int late = 3 * (int) Math.sqrt(size);
+    Random random = new Random(size);
+    for (int i = 0; i < late; i++) {
+      LocalDateTime start = base.plusDays(random.nextInt(days)).plusMinutes(3);
+      model.addEvent(new Event("Late " + i, start, start.plusMinutes(20)));
+    }
+    long found = 0;
+    long begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      if (model.isBusy(base.plusSeconds(random.nextInt(days * 24 * 60 * 60)).plusNanos(1))) {
+        found++;
+      }
+    }
+    double busy = (System.nanoTime() - begin) / 1_000.0 / QUERIES;
+    begin = System.nanoTime();
+    for (int i = 0; i < QUERIES; i++) {
+      LocalDateTime from = base.plusDays(random.nextInt(days));
+      found += model.getEventsInRange(from, from.plusDays(1)).size();
+    }
+    double day = (System.nanoTime() - begin) / 1_000.0 / QUERIES;
+    if (found == 0) {
+      throw new IllegalStateException("No events were found.");
+    }
+    if (print) {
+      System.out.printf("%-10d  %-6s  %-9.3f  %.2f%n", size, scan, busy, day);
+    }
+  }
+}
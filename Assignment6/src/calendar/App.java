@@ -1,16 +1,24 @@
 package calendar;
 
 import java.io.FileReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 import calendar.controller.CalendarManagerController;
+import calendar.controller.CalendarServer;
 import calendar.controller.guiadapter.EventListenerAdapter;
 import calendar.controller.guiadapter.ViewEventListenerAdapter;
 import calendar.controller.guicontroller.GUIController;
 import calendar.controller.guicontroller.IGUIController;
 import calendar.model.calendarmanagerclass.CalendarManagerModel;
+import calendar.model.calendarmanagerclass.ConcurrentCalendarManager;
 import calendar.model.calendarmanagerclass.ICalendarManager;
+import calendar.model.persistence.JournaledCalendarManager;
 import calendar.view.GUIView;
 import calendar.view.ICalendarView;
 import calendar.view.TextBasedView;
@@ -20,17 +28,31 @@ import calendar.view.TextBasedView;
  * It initializes the model, view, and controller based on the command line arguments.
  */
 public class App {
+  private static final Duration CHECKPOINT_INTERVAL = Duration.ofMinutes(1);
+
   /**
    * The main method of the calendar application.
-   * It accepts command line arguments to determine the mode (interactive or headless)
-   * and initializes the model, view, and controller accordingly.
+   * It accepts command line arguments to determine the mode (interactive, headless or server)
+   * and initializes the model, view, and controller accordingly. If the arguments include
+   * "--journal <file>", every change is recorded in that journal file, and the calendars already
+   * recorded in it are restored on startup, reporting how long that took. Checkpoints of the
+   * calendars are then taken in the background every minute, so the journal only holds the
+   * changes made since the last one.
    *
    * @param args command line arguments
    */
   public static void main(String[] args) {
     try {
+      List<String> options = new ArrayList<>(List.of(args));
+      Path journal = null;
+      int journalIndex = options.indexOf("--journal");
+      if (journalIndex >= 0 && journalIndex + 1 < options.size()) {
+        journal = Path.of(options.remove(journalIndex + 1));
+        options.remove(journalIndex);
+        args = options.toArray(new String[0]);
+      }
       if (args.length < 2 || !args[0].equalsIgnoreCase("--mode")) {
-        ICalendarManager manager = new CalendarManagerModel();
+        ICalendarManager manager = createManager(journal);
         GUIView view = new GUIView();
         IGUIController controller = new GUIController(manager, view);
         ViewEventListenerAdapter adapter = new EventListenerAdapter(controller, view);
@@ -42,8 +64,12 @@ public class App {
       }
 
       String mode = args[1].toLowerCase();
+      if ("server".equals(mode)) {
+        serve(args, journal);
+        return;
+      }
       StringBuilder log = new StringBuilder();
-      ICalendarManager manager = new CalendarManagerModel();
+      ICalendarManager manager = createManager(journal);
       Reader input;
       ICalendarView view;
       CalendarManagerController controller;
@@ -72,4 +98,52 @@ public class App {
       e.printStackTrace();
     }
   }
+
+  /**
+   * Runs the calendars as a server for "--mode server --port N", serving each connection to that
+   * port of the local machine as a session of interactive mode, until the program is stopped.
+   *
+   * @param args    command line arguments, without the journal option
+   * @param journal the journal file, which server mode does not support
+   * @throws IOException if the port cannot be listened on
+   */
+  private static void serve(String[] args, Path journal) throws IOException {
+    if (journal != null) {
+      System.out.println("Server mode keeps calendars in memory only; remove --journal");
+      return;
+    }
+    if (args.length < 4 || !args[2].equalsIgnoreCase("--port")) {
+      System.out.println("Missing port for server mode: --mode server --port <port>");
+      return;
+    }
+    int port;
+    try {
+      port = Integer.parseInt(args[3]);
+    } catch (NumberFormatException e) {
+      System.out.println("Invalid port: " + args[3]);
+      return;
+    }
+    try (CalendarServer server = new CalendarServer(new ConcurrentCalendarManager(), port)) {
+      System.out.println("Serving calendars on localhost:" + server.getPort());
+      server.run();
+    }
+  }
+
+  /**
+   * Creates the calendar manager of the application, which records its changes in the given
+   * journal file if there is one.
+   *
+   * @param journal the journal file, or null to keep calendars only in memory
+   * @return the calendar manager
+   * @throws IOException if the journal file cannot be opened or read
+   */
+  private static ICalendarManager createManager(Path journal) throws IOException {
+    if (journal == null) {
+      return new CalendarManagerModel();
+    }
+    JournaledCalendarManager manager = new JournaledCalendarManager(journal,
+            CHECKPOINT_INTERVAL);
+    System.out.println(manager.getRecovery());
+    return manager;
+  }
 }
@@ -8,6 +8,8 @@ import java.util.function.Function;
 import calendar.controller.commands.CalendarCommand;
 import calendar.controller.commands.CreateCommand;
 import calendar.controller.commands.EditCommand;
+import calendar.controller.commands.ExportCommand;
+import calendar.controller.commands.ImportCommand;
 import calendar.controller.commands.PrintCommand;
 import calendar.controller.commands.ShowCommand;
 import calendar.model.calendarclass.ICalendar;
@@ -38,6 +40,8 @@ public class CalendarController implements ICalendarController {
     knownCommands.put("edit", s -> new EditCommand(s.nextLine()));
     knownCommands.put("print", s -> new PrintCommand(s.nextLine()));
     knownCommands.put("show", s -> new ShowCommand(s.nextLine()));
+    knownCommands.put("import", s -> new ImportCommand(s.nextLine()));
+    knownCommands.put("export", s -> new ExportCommand(s.nextLine()));
     this.model = model;
     this.view = view;
     this.in = in;
@@ -112,7 +112,7 @@ public class CalendarManagerController implements ICalendarController {
       try {
         ICalendar selectedModel = manager.getCurrentActiveCalendar();
         Reader newReader = new StringReader(userInput);
-        ICalendarController controller = new CalendarController(selectedModel, view, newReader);
+        ICalendarController controller = this.calendarController(selectedModel, newReader);
         controller.start();
       } catch (IllegalStateException | DateTimeParseException | IllegalArgumentException e) {
         this.view.displayException(e);
@@ -120,6 +120,18 @@ public class CalendarManagerController implements ICalendarController {
     }
   }
 
+  /**
+   * Creates the controller that runs a command on the calendar in use, which knows every command
+   * of CalendarController.
+   *
+   * @param model the calendar in use
+   * @param in    the command to be run
+   * @return the controller running the command
+   */
+  protected ICalendarController calendarController(ICalendar model, Readable in) {
+    return new CalendarController(model, this.view, in);
+  }
+
   /**
    * Checks if the 'quit' command was entered in the file.
    * If not, it displays an error message indicating that the program is quitting.
@@ -0,0 +1,182 @@
+package calendar.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarmanagerclass.ConcurrentCalendarManager;
+import calendar.model.calendarmanagerclass.ICalendarManager;
+import calendar.view.ICalendarView;
+import calendar.view.TextBasedView;
+
+/**
+ * This class represents a server that lets many users use the same calendars at once, over
+ * connections to a port of the local machine. Each connection is a session of the text-based
+ * program: the lines it sends are read as the commands of interactive mode, by a
+ * CalendarManagerController of its own, and the messages the program would show are sent back.
+ * A session ends when it sends "quit" or closes the connection.
+ *
+ * <p>Every session has its own calendar in use, as each is a session of the shared
+ * {@link ConcurrentCalendarManager}, and is served by a thread of its own, so a slow user only
+ * holds up their own session. Sessions cannot import or export calendars, since anyone who can
+ * connect could otherwise read and overwrite the files of the server.</p>
+ */
+public class CalendarServer implements Runnable, Closeable {
+  private static final long MAX_BACKOFF_MILLIS = 1_000; //the longest wait after a failed accept
+  private static final List<String> FILE_COMMANDS = List.of("import", "export");
+
+  private final ConcurrentCalendarManager manager;
+  private final ServerSocket socket;
+  private final Set<Socket> connections;
+  private final AtomicLong sessions; //the number of sessions accepted, used to name their threads
+
+  /**
+   * Constructs a CalendarServer listening on the given port of the loopback address, which only
+   * accepts connections from the local machine.
+   *
+   * @param manager the manager whose calendars are shared by every session
+   * @param port    the port to listen on, or 0 to use any free port
+   * @throws IOException if the port cannot be listened on
+   */
+  public CalendarServer(ConcurrentCalendarManager manager, int port) throws IOException {
+    if (manager == null) {
+      throw new IllegalArgumentException("The manager cannot be null.");
+    }
+    this.manager = manager;
+    this.socket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    this.connections = ConcurrentHashMap.newKeySet();
+    this.sessions = new AtomicLong();
+  }
+
+  /**
+   * Gets the port the server listens on, which is useful when it was constructed with port 0.
+   *
+   * @return the port of the server
+   */
+  public int getPort() {
+    return this.socket.getLocalPort();
+  }
+
+  /**
+   * Accepts connections until the server is closed or the accepting thread is interrupted,
+   * starting a session for each one on a thread of its own.
+   */
+  @Override
+  public void run() {
+    int failures = 0; //the number of accepts that failed in a row
+    while (!this.socket.isClosed()) {
+      Socket connection;
+      try {
+        connection = this.socket.accept();
+        failures = 0;
+      } catch (IOException e) {
+        if (this.socket.isClosed()) {
+          break;
+        }
+        //accepting may keep failing, such as when no file descriptors are left, so wait longer
+        //after each failure in a row instead of retrying straight away
+        failures++;
+        try {
+          Thread.sleep(Math.min(MAX_BACKOFF_MILLIS, 10L << Math.min(failures, 10)));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        continue;
+      }
+      this.connections.add(connection);
+      if (this.socket.isClosed()) {
+        //close() may already have closed the connections it saw, before this one was added
+        this.connections.remove(connection);
+        try {
+          connection.close();
+        } catch (IOException e) {
+          //the connection is not served either way
+        }
+        break;
+      }
+      Thread session = new Thread(() -> this.serve(connection),
+              "calendar-session-" + this.sessions.incrementAndGet());
+      session.setDaemon(true);
+      session.start();
+    }
+  }
+
+  /**
+   * Runs a session over the given connection until the user quits or the connection is closed.
+   *
+   * @param connection the connection of the session
+   */
+  private void serve(Socket connection) {
+    try (connection) {
+      connection.setTcpNoDelay(true);
+      PrintStream out = new PrintStream(new BufferedOutputStream(connection.getOutputStream()),
+              false, StandardCharsets.UTF_8);
+      //messages are sent together whenever the session waits for more commands, rather than
+      //one packet each, which matters for commands that print many events
+      Reader reader = new InputStreamReader(connection.getInputStream(),
+              StandardCharsets.UTF_8);
+      Readable in = buffer -> {
+        out.flush();
+        return reader.read(buffer);
+      };
+      new SessionController(this.manager.openSession(), new TextBasedView(out), in).start();
+      out.flush();
+    } catch (IOException | RuntimeException e) {
+      //the connection was lost, which only ends this session
+    } finally {
+      this.connections.remove(connection);
+    }
+  }
+
+  /**
+   * This class represents the controller of a session, which runs every command of interactive
+   * mode except those that read or write files. The files would be those of the machine running
+   * the server, which its users should not reach through any path they like.
+   */
+  private static final class SessionController extends CalendarManagerController {
+    private SessionController(ICalendarManager manager, ICalendarView view, Readable in) {
+      super(manager, view, in);
+    }
+
+    @Override
+    protected ICalendarController calendarController(ICalendar model, Readable in) {
+      CalendarController controller = new CalendarController(model, this.view, in);
+      for (String command : FILE_COMMANDS) {
+        controller.knownCommands.put(command, s -> (m, v) -> v.displayException(
+                new IllegalArgumentException("The " + command + " command is not available "
+                        + "in server mode.")));
+      }
+      return controller;
+    }
+  }
+
+  /**
+   * Stops accepting connections and closes the connections of every session still running.
+   *
+   * @throws IOException if the server socket cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.socket.close();
+    for (Socket connection : this.connections) {
+      try {
+        connection.close();
+      } catch (IOException e) {
+        //the session ends either way
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package calendar.controller.commands;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.io.CalendarExporter;
+import calendar.model.io.ExportReport;
+import calendar.view.ICalendarView;
+
+/**
+ * Represents a command class to export the events of the calendar to a file, either all of them
+ * or those taking place between two date-times. Files are written in iCalendar (.ics) format,
+ * with recurring series kept as rules, or in CSV format, with every occurrence on a row of its
+ * own; unless a format is given, it follows the extension of the file.
+ */
+public class ExportCommand implements CalendarCommand {
+  private static final Pattern EXPORT_CAL = Pattern.compile("cal (?:\"(?<quoted>[^\"]+)\""
+          + "|(?<file>\\S+))(?: --from (?<from>\\S+))?(?: --to (?<to>\\S+))?"
+          + "(?: --format (?<format>ics|csv))?");
+  private static final String USAGE = "Invalid command format. Please use 'export cal <file> "
+          + "[--from <dateStringTtimeString>] [--to <dateStringTtimeString>] [--format ics|csv]'.";
+
+  private final String arguments;
+  private final CalendarExporter exporter;
+
+  /**
+   * Constructs an ExportCommand with the given arguments.
+   *
+   * @param s the command arguments, which are the path of the file to write, and optionally the
+   *          range of events to export and the format of the file
+   */
+  public ExportCommand(String s) {
+    this(s, new CalendarExporter());
+  }
+
+  /**
+   * Constructs an ExportCommand with the given arguments, which writes files with the given
+   * exporter.
+   *
+   * @param s        the command arguments, which are the path of the file to write, and
+   *                 optionally the range of events to export and the format of the file
+   * @param exporter the exporter writing the file
+   */
+  public ExportCommand(String s, CalendarExporter exporter) {
+    this.arguments = s;
+    this.exporter = exporter;
+  }
+
+  /**
+   * Matches the arguments of the command, exports the events of the model they select to the
+   * file they name and displays how many events were exported, and how fast.
+   */
+  @Override
+  public void execute(ICalendar model, ICalendarView view) {
+    Matcher matcher;
+    if (this.arguments == null
+            || !(matcher = EXPORT_CAL.matcher(this.arguments.trim())).matches()) {
+      view.displayMessage(USAGE);
+      return;
+    }
+    String file = matcher.group("quoted") != null ? matcher.group("quoted").trim()
+            : matcher.group("file");
+    LocalDateTime from;
+    LocalDateTime to;
+    try {
+      from = matcher.group("from") == null ? null
+              : LocalDateTime.parse(matcher.group("from"), model.getDateTimeFormatter());
+      to = matcher.group("to") == null ? null
+              : LocalDateTime.parse(matcher.group("to"), model.getDateTimeFormatter());
+    } catch (DateTimeParseException e) {
+      view.displayMessage("Invalid date-time format. Please use 'yyyy-MM-dd'T'HH:mm'.");
+      return;
+    }
+    if (from != null && to != null && from.isAfter(to)) {
+      view.displayMessage("Start date-time cannot be after end date-time.");
+      return;
+    }
+    CalendarExporter.Format format;
+    if (matcher.group("format") != null) {
+      format = CalendarExporter.Format.valueOf(matcher.group("format").toUpperCase());
+    } else {
+      format = file.toLowerCase().endsWith(".csv") ? CalendarExporter.Format.CSV
+              : CalendarExporter.Format.ICS;
+    }
+    ExportReport report;
+    try {
+      report = this.exporter.export(model, Path.of(file), from, to, format);
+    } catch (IOException | InvalidPathException e) {
+      view.displayException(new IllegalArgumentException("Could not write " + file + ": "
+              + e.getMessage(), e));
+      return;
+    }
+    view.displayMessage(String.format("Exported %d events and %d recurring series to %s in "
+                    + "%.0f ms (%.0f events/s).", report.getEvents(), report.getSeries(), file,
+            report.getMillis(), report.getEventsPerSecond()));
+  }
+}
@@ -0,0 +1,75 @@
+package calendar.controller.commands;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.io.IcsImporter;
+import calendar.model.io.ImportReport;
+import calendar.view.ICalendarView;
+
+/**
+ * Represents a command class to import the events of a file into the calendar.
+ * The only format supported is iCalendar (.ics), whose events are parsed in parallel and added to
+ * the calendar at once.
+ */
+public class ImportCommand implements CalendarCommand {
+  private static final Pattern IMPORT_ICS = Pattern.compile("ics \"?(?<file>[^\"]+)\"?");
+
+  private final String arguments;
+  private final IcsImporter importer;
+
+  /**
+   * Constructs an ImportCommand with the given arguments.
+   *
+   * @param s the command arguments, which are the format and the path of the file to import
+   */
+  public ImportCommand(String s) {
+    this(s, new IcsImporter());
+  }
+
+  /**
+   * Constructs an ImportCommand with the given arguments, which imports files with the given
+   * importer.
+   *
+   * @param s        the command arguments, which are the format and the path of the file to import
+   * @param importer the importer reading iCalendar files
+   */
+  public ImportCommand(String s, IcsImporter importer) {
+    this.arguments = s;
+    this.importer = importer;
+  }
+
+  /**
+   * Matches the arguments of the command to the supported import formats, imports the file they
+   * name into the model and displays how many events were imported, and how fast.
+   */
+  @Override
+  public void execute(ICalendar model, ICalendarView view) {
+    Matcher matcher;
+    if (this.arguments == null
+            || !(matcher = IMPORT_ICS.matcher(this.arguments.trim())).matches()) {
+      view.displayMessage("Invalid command format. Please use 'import ics <file>'.");
+      return;
+    }
+    String file = matcher.group("file").trim();
+    ImportReport report;
+    try {
+      report = this.importer.importFile(Path.of(file), model);
+    } catch (IOException | InvalidPathException e) {
+      view.displayException(new IllegalArgumentException("Could not read " + file + ": "
+              + e.getMessage(), e));
+      return;
+    }
+    String message = String.format("Imported %d events and %d recurring series from %s in "
+                    + "%.0f ms (%.0f events/s).", report.getEvents(), report.getSeries(), file,
+            report.getMillis(), report.getEventsPerSecond());
+    if (report.getSkipped() > 0) {
+      message += " Skipped " + report.getSkipped() + " events that could not be imported.";
+    }
+    view.displayMessage(message);
+  }
+}
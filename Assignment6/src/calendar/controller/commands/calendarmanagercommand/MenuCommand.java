@@ -40,6 +40,9 @@ public class MenuCommand implements CalendarManagerCommand {
     view.displayMessage("print events on <dateString>");
     view.displayMessage("print events from <dateStringTtimeString> to <dateStringTtimeString>");
     view.displayMessage("show status on <dateStringTtimeString>");
+    view.displayMessage("import ics <file>");
+    view.displayMessage("export cal <file> [--from <dateStringTtimeString>] "
+            + "[--to <dateStringTtimeString>] [--format ics|csv]");
     //new line ------------
     view.displayMessage("create calendar --name <calName> --timezone area/location");
     view.displayMessage("edit calendar --name <name> --property <property> <value>");
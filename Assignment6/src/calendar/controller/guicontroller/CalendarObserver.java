@@ -1,5 +1,6 @@
 package calendar.controller.guicontroller;
 
+import calendar.model.calendarclass.CalendarChange;
 import calendar.model.event.Event;
 import java.util.List;
 
@@ -9,5 +10,19 @@ import java.util.List;
  */
 public interface CalendarObserver {
 
+  /**
+   * Called with every event in the calendar, sorted by start time, when the observer needs to
+   * refresh its whole picture of the calendar, such as right after it starts observing.
+   *
+   * @param events every event in the calendar
+   */
   void eventsUpdated(List<Event> events);
-}
\ No newline at end of file
+
+  /**
+   * Called after each change made to the calendar, with only the events that the change added,
+   * removed, or edited and the window of time it affected.
+   *
+   * @param change the change made to the calendar
+   */
+  void eventsChanged(CalendarChange change);
+}
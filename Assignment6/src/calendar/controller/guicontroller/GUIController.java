@@ -3,7 +3,9 @@ package calendar.controller.guicontroller;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import calendar.model.calendarclass.CalendarChange;
 import calendar.model.calendarclass.ICalendar;
 import calendar.model.calendarmanagerclass.ICalendarManager;
 import calendar.model.enumclass.EventStatus;
@@ -34,7 +36,11 @@ public class GUIController implements IGUIController, CalendarObserver {
 
     defaultCalendarName = "Default";
     String systemTimeZone = ZoneId.systemDefault().toString();
-    manager.createCalendar(defaultCalendarName, systemTimeZone);
+    try {
+      manager.createCalendar(defaultCalendarName, systemTimeZone);
+    } catch (IllegalArgumentException e) {
+      //the default calendar was already restored from a journal
+    }
     manager.setCurrentCalendar(defaultCalendarName);
 
     currentCalendar = manager.getCurrentActiveCalendar();
@@ -65,6 +71,25 @@ public class GUIController implements IGUIController, CalendarObserver {
     this.refreshView();
   }
 
+  /**
+   * Refreshes the schedule only if the given change affected the day currently being displayed.
+   *
+   * @param change the change made to the calendar
+   */
+  @Override
+  public void eventsChanged(CalendarChange change) {
+    LocalDate shownDate;
+    try {
+      shownDate = LocalDate.parse(view.getStartDate());
+    } catch (DateTimeParseException e) {
+      view.displayException(e);
+      return;
+    }
+    if (change.overlaps(shownDate.atStartOfDay(), shownDate.atTime(23, 59, 59))) {
+      handleRefreshSchedule();
+    }
+  }
+
   @Override
   public void handleAddEvent(String subject, String start, String end, String description,
                              String location, String status) {
@@ -2,6 +2,7 @@ package calendar.controller.guicontroller;
 
 import java.util.List;
 
+import calendar.model.calendarclass.CalendarChange;
 import calendar.model.event.Event;
 
 /**
@@ -71,4 +72,9 @@ public class MockGUIController implements IGUIController, CalendarObserver {
   public void eventsUpdated(List<Event> events) {
     log.append("Events updated\n");
   }
+
+  @Override
+  public void eventsChanged(CalendarChange change) {
+    log.append("Events changed\n");
+  }
 }
@@ -0,0 +1,210 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+import calendar.model.event.Event;
+
+/**
+ * This class represents the availability of a calendar, answering whether it is busy at a given
+ * time in constant time. Each day with events is stored as a bitmap of its 1440 minutes, keyed by
+ * epoch day, where a set bit means some event covers that minute. Events spanning more than
+ * {@link #MAX_PAINTED_DAYS} days are not painted into the bitmaps; they are kept in a separate
+ * interval tree and checked with a stabbing query instead.
+ *
+ * <p>An index can also be built without bitmaps, for stores that keep their events off the heap
+ * and should not have the heap grow with the calendar. Every check is then answered by the store
+ * itself, with a binary search and a short scan.</p>
+ */
+class AvailabilityIndex {
+  static final int MAX_PAINTED_DAYS = 7;
+  private static final int MINUTES_PER_DAY = 24 * 60;
+
+  private final Map<Long, BitSet> busyMinutes;
+  private final IntervalTree<Event> longEvents;
+  private final EventStore allEvents;
+  private final boolean painted; //whether busy minutes are kept in bitmaps
+
+  /**
+   * Constructs an empty AvailabilityIndex that keeps busy minutes in bitmaps.
+   *
+   * @param allEvents the store of every event in the calendar, used to repaint a day after an
+   *                  event is removed and to answer queries at times that are not whole minutes
+   * @param order     the order used by the tree of long events
+   */
+  AvailabilityIndex(EventStore allEvents, Comparator<Event> order) {
+    this(allEvents, order, true);
+  }
+
+  /**
+   * Constructs an empty AvailabilityIndex.
+   *
+   * @param allEvents the store of every event in the calendar
+   * @param order     the order used by the tree of long events
+   * @param painted   whether busy minutes are kept in bitmaps, or every check is passed to the
+   *                  store
+   */
+  AvailabilityIndex(EventStore allEvents, Comparator<Event> order, boolean painted) {
+    this.busyMinutes = new HashMap<>();
+    this.longEvents = new IntervalTree<>(order, Event::getStartDateTime, Event::getEndDateTime);
+    this.allEvents = allEvents;
+    this.painted = painted;
+  }
+
+  /**
+   * Marks the time covered by the given event as busy.
+   *
+   * @param event the event that was added to the calendar
+   */
+  void add(Event event) {
+    if (!this.painted) {
+      return;
+    }
+    if (this.isLong(event)) {
+      this.longEvents.add(event);
+      return;
+    }
+    this.paint(firstMinute(event), lastMinute(event));
+  }
+
+  /**
+   * Marks the time covered by every event already in the calendar's time index as busy, reading
+   * only their times, as when a whole calendar is stored at once. The events too long to be
+   * painted are skipped, and must still be passed to {@link #add}.
+   */
+  void paintAll() {
+    if (!this.painted) {
+      return;
+    }
+    this.allEvents.forEachOverlapping(LocalDateTime.MIN, LocalDateTime.MAX,
+        (startSecond, startNano, endSecond, endNano) -> {
+          if (!isLong(startSecond, startNano, endSecond, endNano)) {
+            this.paint(firstMinute(startSecond, startNano), Math.floorDiv(endSecond, 60));
+          }
+        });
+  }
+
+  /**
+   * Frees the time covered by the given event, unless other events still cover it. The event must
+   * already be removed from the calendar's time index.
+   *
+   * @param event the event that was removed from the calendar
+   */
+  void remove(Event event) {
+    if (!this.painted) {
+      return;
+    }
+    if (this.isLong(event)) {
+      this.longEvents.remove(event);
+      return;
+    }
+    long firstDay = Math.floorDiv(firstMinute(event), MINUTES_PER_DAY);
+    long lastDay = Math.floorDiv(lastMinute(event), MINUTES_PER_DAY);
+    for (long day = firstDay; day <= lastDay; day++) {
+      this.busyMinutes.remove(day);
+    }
+    //repaint the affected days from the events that remain on them
+    LocalDateTime from = minuteToDateTime(firstDay * MINUTES_PER_DAY);
+    LocalDateTime to = minuteToDateTime((lastDay + 1) * MINUTES_PER_DAY);
+    this.allEvents.forEachOverlapping(from.minusNanos(1), to,
+        (startSecond, startNano, endSecond, endNano) -> {
+          if (!isLong(startSecond, startNano, endSecond, endNano)) {
+            this.paint(Math.max(firstMinute(startSecond, startNano), firstDay * MINUTES_PER_DAY),
+                    Math.min(Math.floorDiv(endSecond, 60), (lastDay + 1) * MINUTES_PER_DAY - 1));
+          }
+        });
+  }
+
+  /**
+   * Checks if any event covers the given time, including events that start or end at that time.
+   *
+   * @param time the time to check
+   * @return true if the calendar is busy at that time, false otherwise
+   */
+  boolean isBusy(LocalDateTime time) {
+    if (!this.painted || time.getSecond() != 0 || time.getNano() != 0) {
+      //the bitmaps only hold whole minutes
+      return this.allEvents.anyContaining(time);
+    }
+    long minute = toMinute(time);
+    BitSet day = this.busyMinutes.get(Math.floorDiv(minute, MINUTES_PER_DAY));
+    if (day != null && day.get(Math.floorMod(minute, MINUTES_PER_DAY))) {
+      return true;
+    }
+    return this.longEvents.anyContaining(time);
+  }
+
+  /**
+   * Marks every minute between the given epoch minutes (inclusive) as busy.
+   *
+   * @param first the first busy minute
+   * @param last  the last busy minute
+   */
+  private void paint(long first, long last) {
+    if (first > last) {
+      return;
+    }
+    for (long day = Math.floorDiv(first, MINUTES_PER_DAY);
+         day <= Math.floorDiv(last, MINUTES_PER_DAY); day++) {
+      long dayStart = day * MINUTES_PER_DAY;
+      int from = (int) (Math.max(first, dayStart) - dayStart);
+      int to = (int) (Math.min(last, dayStart + MINUTES_PER_DAY - 1) - dayStart);
+      this.busyMinutes.computeIfAbsent(day, k -> new BitSet(MINUTES_PER_DAY))
+              .set(from, to + 1);
+    }
+  }
+
+  private boolean isLong(Event event) {
+    return event.getEndDateTime().isAfter(event.getStartDateTime().plusDays(MAX_PAINTED_DAYS));
+  }
+
+  private static boolean isLong(long startSecond, int startNano, long endSecond, int endNano) {
+    long limit = startSecond + MAX_PAINTED_DAYS * 24L * 60 * 60;
+    return endSecond > limit || (endSecond == limit && endNano > startNano);
+  }
+
+  /**
+   * Returns the first whole minute at or after the start of the given event.
+   *
+   * @param event the event to check
+   * @return the first epoch minute covered by the event
+   */
+  private static long firstMinute(Event event) {
+    LocalDateTime start = event.getStartDateTime();
+    return firstMinute(start.toEpochSecond(ZoneOffset.UTC), start.getNano());
+  }
+
+  /**
+   * Returns the first whole minute at or after the given time.
+   *
+   * @param second the epoch second of the time
+   * @param nano   the nanosecond of the time
+   * @return the first epoch minute at or after the time
+   */
+  private static long firstMinute(long second, int nano) {
+    long minute = Math.floorDiv(second, 60);
+    return Math.floorMod(second, 60) == 0 && nano == 0 ? minute : minute + 1;
+  }
+
+  /**
+   * Returns the last whole minute at or before the end of the given event.
+   *
+   * @param event the event to check
+   * @return the last epoch minute covered by the event
+   */
+  private static long lastMinute(Event event) {
+    return toMinute(event.getEndDateTime());
+  }
+
+  private static long toMinute(LocalDateTime time) {
+    return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  private static LocalDateTime minuteToDateTime(long minute) {
+    return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+  }
+}
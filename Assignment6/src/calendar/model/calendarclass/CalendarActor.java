@@ -0,0 +1,508 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+/**
+ * This class represents a calendar run as an actor: commands for it are queued in a mailbox of
+ * its own, and run one at a time by whichever thread of an executor is draining the mailbox. Only
+ * one thread ever runs the calendar's commands at once, so the calendar needs no lock, and many
+ * calendars sharing an executor are run on as many threads as it has.
+ *
+ * <p>Each time the mailbox is drained, every command waiting in it, up to {@value #MAX_BATCH},
+ * runs as a single batch of the calendar, so the calendar's observers are notified once for all
+ * of their changes. The futures of the commands are completed after the batch, once observers have
+ * been notified; callbacks attached to them without an executor run on the draining thread, so
+ * they should not wait for other commands of the same calendar. A command that fails only fails
+ * its own future, and the others in its batch still run.</p>
+ *
+ * <p>Code written against {@link ICalendar}, such as the controllers, can use the actor through
+ * {@link #blocking()}, whose calls queue a command and wait for it.</p>
+ */
+public class CalendarActor implements IAsyncCalendar {
+  private static final int MAX_BATCH = 256; //so a busy calendar cannot keep a thread to itself
+
+  private final ICalendar calendar;
+  private final Executor executor;
+  private final Queue<Command<?>> mailbox;
+  private final AtomicBoolean scheduled; //whether a drain of the mailbox is queued or running
+  private volatile Thread runner; //the thread running the calendar's commands, if any
+  private final ICalendar blocking;
+
+  /**
+   * This class represents a command waiting in the mailbox, along with its future and, once it
+   * has run, its outcome.
+   *
+   * @param <T> the type of the result of the command
+   */
+  private static final class Command<T> {
+    private final Function<ICalendar, T> body;
+    private final CompletableFuture<T> future;
+    private T result;
+    private Throwable failure;
+
+    private Command(Function<ICalendar, T> body) {
+      this.body = body;
+      this.future = new CompletableFuture<>();
+    }
+
+    private void run(ICalendar calendar) {
+      try {
+        this.result = this.body.apply(calendar);
+      } catch (Throwable e) {
+        //errors are passed on too, so no caller is left waiting on a future never completed
+        this.failure = e;
+      }
+    }
+
+    private void complete() {
+      if (this.failure == null) {
+        this.future.complete(this.result);
+      } else {
+        this.future.completeExceptionally(this.failure);
+      }
+    }
+  }
+
+  /**
+   * Constructs a CalendarActor running the given calendar on the common fork-join pool, which has
+   * a thread for each processor.
+   *
+   * @param calendar the calendar to be run, which should only be used through this actor from now
+   *                 on
+   */
+  public CalendarActor(ICalendar calendar) {
+    this(calendar, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a CalendarActor running the given calendar on the threads of the given executor.
+   *
+   * @param calendar the calendar to be run, which should only be used through this actor from now
+   *                 on
+   * @param executor the executor whose threads drain the mailbox
+   */
+  public CalendarActor(ICalendar calendar, Executor executor) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("The calendar cannot be null.");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("The executor cannot be null.");
+    }
+    this.calendar = calendar;
+    this.executor = executor;
+    this.mailbox = new ConcurrentLinkedQueue<>();
+    this.scheduled = new AtomicBoolean();
+    this.blocking = new Blocking();
+  }
+
+  /**
+   * Returns a view of this actor as an ICalendar, whose calls queue a command and wait for it to
+   * run. Calls made while running a command of this actor, such as from an observer, run straight
+   * away instead, as part of that command.
+   *
+   * @return the blocking view of this actor
+   */
+  public ICalendar blocking() {
+    return this.blocking;
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(Function<ICalendar, T> command) {
+    Command<T> queued = new Command<>(command);
+    this.mailbox.add(queued);
+    this.schedule();
+    return queued.future;
+  }
+
+  /**
+   * Queues a command that has no result.
+   *
+   * @param command the command to be run on the calendar
+   * @return a future completed once the command has run
+   */
+  private CompletableFuture<Void> run(Consumer<ICalendar> command) {
+    return this.submit(c -> {
+      command.accept(c);
+      return null;
+    });
+  }
+
+  /**
+   * Queues a drain of the mailbox, unless one is queued or running already.
+   */
+  private void schedule() {
+    if (!this.scheduled.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      this.executor.execute(this::drain);
+    } catch (RejectedExecutionException e) {
+      this.scheduled.set(false);
+      Command<?> command;
+      while ((command = this.mailbox.poll()) != null) {
+        command.future.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * Runs the commands waiting in the mailbox as a single batch of the calendar, then completes
+   * their futures, and queues another drain if more commands arrived in the meantime.
+   */
+  private void drain() {
+    List<Command<?>> drained = new ArrayList<>();
+    Command<?> next;
+    while (drained.size() < MAX_BATCH && (next = this.mailbox.poll()) != null) {
+      drained.add(next);
+    }
+    this.runner = Thread.currentThread();
+    try {
+      this.calendar.batch(() -> {
+        for (Command<?> command : drained) {
+          command.run(this.calendar);
+        }
+      });
+    } catch (Throwable e) {
+      //an observer failed while being notified of the batch, after every change was made
+      for (Command<?> command : drained) {
+        if (command.failure == null) {
+          command.failure = e;
+        }
+      }
+    } finally {
+      this.runner = null;
+      this.scheduled.set(false);
+      if (!this.mailbox.isEmpty()) {
+        this.schedule();
+      }
+      for (Command<?> command : drained) {
+        command.complete();
+      }
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> addObserver(CalendarObserver observer) {
+    return this.run(c -> c.addObserver(observer));
+  }
+
+  @Override
+  public CompletableFuture<Void> removeObserver(CalendarObserver observer) {
+    return this.run(c -> c.removeObserver(observer));
+  }
+
+  @Override
+  public CompletableFuture<Void> addEvent(Event event) {
+    return this.run(c -> c.addEvent(event));
+  }
+
+  @Override
+  public CompletableFuture<Void> addEvents(Collection<Event> events) {
+    return this.run(c -> c.addEvents(events));
+  }
+
+  @Override
+  public CompletableFuture<Event> getEvent(String subject, LocalDateTime startDateTime,
+                                           LocalDateTime endDateTime) {
+    return this.submit(c -> c.getEvent(subject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public CompletableFuture<List<Event>> getEventsOnDate(LocalDate date) {
+    return this.submit(c -> c.getEventsOnDate(date));
+  }
+
+  @Override
+  public CompletableFuture<List<Event>> getEventsInRange(LocalDateTime startDateTime,
+                                                         LocalDateTime endDateTime) {
+    return this.submit(c -> c.getEventsInRange(startDateTime, endDateTime));
+  }
+
+  @Override
+  public CompletableFuture<Void> forEachEvent(LocalDateTime startDateTime,
+                                              LocalDateTime endDateTime, boolean expandSeries,
+                                              EventVisitor visitor) {
+    return this.run(c -> c.forEachEvent(startDateTime, endDateTime, expandSeries, visitor));
+  }
+
+  @Override
+  public CompletableFuture<CalendarState> snapshot() {
+    return this.submit(ICalendar::snapshot);
+  }
+
+  @Override
+  public CompletableFuture<Boolean> isBusy(LocalDateTime time) {
+    return this.submit(c -> c.isBusy(time));
+  }
+
+  @Override
+  public CompletableFuture<List<Event>> getEventsBySeriesId(String seriesId) {
+    return this.submit(c -> c.getEventsBySeriesId(seriesId));
+  }
+
+  @Override
+  public CompletableFuture<List<Event>> findEventsBySubjectAndStart(String subject,
+                                                                    LocalDateTime date) {
+    return this.submit(c -> c.findEventsBySubjectAndStart(subject, date));
+  }
+
+  @Override
+  public CompletableFuture<Void> createSingleEvent(String eventSubject, String startDateTime,
+                                                   String endDateTime) {
+    return this.run(c -> c.createSingleEvent(eventSubject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public CompletableFuture<Void> createRecurringEvent(String eventSubject, String startDateTime,
+                                                      String endDateTime, String weekdays,
+                                                      int repeats) {
+    return this.run(c -> c.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+            weekdays, repeats));
+  }
+
+  @Override
+  public CompletableFuture<Void> createRecurringEvent(String eventSubject, String startDateTime,
+                                                      String endDateTime, String weekdays,
+                                                      String untilDate) {
+    return this.run(c -> c.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+            weekdays, untilDate));
+  }
+
+  @Override
+  public CompletableFuture<Void> createAllDayEvent(String eventSubject, String onDate) {
+    return this.run(c -> c.createAllDayEvent(eventSubject, onDate));
+  }
+
+  @Override
+  public CompletableFuture<Void> createRecurringAllDayEvent(String eventSubject, String onDate,
+                                                            String weekdays, String untilDate) {
+    return this.run(c -> c.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            untilDate));
+  }
+
+  @Override
+  public CompletableFuture<Void> createRecurringAllDayEvent(String eventSubject, String onDate,
+                                                            String weekdays, int repeats) {
+    return this.run(c -> c.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            repeats));
+  }
+
+  @Override
+  public CompletableFuture<Void> editSingleEvent(String property, String eventSubject,
+                                                 String startDateTime, String endDateTime,
+                                                 String newValue) {
+    return this.run(c -> c.editSingleEvent(property, eventSubject, startDateTime, endDateTime,
+            newValue));
+  }
+
+  @Override
+  public CompletableFuture<Void> editMultipleEvents(String property, String eventSubject,
+                                                    String startDateTime, String newValue,
+                                                    boolean editSeries) {
+    return this.run(c -> c.editMultipleEvents(property, eventSubject, startDateTime, newValue,
+            editSeries));
+  }
+
+  @Override
+  public CompletableFuture<ZoneId> getTimeZone() {
+    return this.submit(ICalendar::getTimeZone);
+  }
+
+  /**
+   * This class represents the blocking view of the actor, which queues each call as a command and
+   * waits for it, passing on any exception the call threw.
+   */
+  private final class Blocking implements ICalendar {
+
+    /**
+     * Runs a command and waits for its result, or runs it straight away if called while running
+     * a command of this actor.
+     *
+     * @param command the command to be run
+     * @param <T>     the type of the result of the command
+     * @return the result of the command
+     */
+    private <T> T await(Function<ICalendar, T> command) {
+      if (CalendarActor.this.runner == Thread.currentThread()) {
+        return command.apply(CalendarActor.this.calendar);
+      }
+      try {
+        return CalendarActor.this.submit(command).join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        if (e.getCause() instanceof Error) {
+          throw (Error) e.getCause();
+        }
+        throw e;
+      }
+    }
+
+    private void awaitRun(Consumer<ICalendar> command) {
+      this.await(c -> {
+        command.accept(c);
+        return null;
+      });
+    }
+
+    @Override
+    public void addObserver(CalendarObserver observer) {
+      this.awaitRun(c -> c.addObserver(observer));
+    }
+
+    @Override
+    public void removeObserver(CalendarObserver observer) {
+      this.awaitRun(c -> c.removeObserver(observer));
+    }
+
+    @Override
+    public void notifyObservers() {
+      this.awaitRun(ICalendar::notifyObservers);
+    }
+
+    @Override
+    public void batch(Runnable operation) {
+      this.awaitRun(c -> c.batch(operation));
+    }
+
+    @Override
+    public void addEvent(Event event) {
+      this.awaitRun(c -> c.addEvent(event));
+    }
+
+    @Override
+    public void addEvents(Collection<Event> events) {
+      this.awaitRun(c -> c.addEvents(events));
+    }
+
+    @Override
+    public Event getEvent(String subject, LocalDateTime startDateTime,
+                          LocalDateTime endDateTime) {
+      return this.await(c -> c.getEvent(subject, startDateTime, endDateTime));
+    }
+
+    @Override
+    public List<Event> getEventsOnDate(LocalDate dateTime) {
+      return this.await(c -> c.getEventsOnDate(dateTime));
+    }
+
+    @Override
+    public List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+      return this.await(c -> c.getEventsInRange(startDateTime, endDateTime));
+    }
+
+    @Override
+    public void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                             boolean expandSeries, EventVisitor visitor) {
+      this.awaitRun(c -> c.forEachEvent(startDateTime, endDateTime, expandSeries, visitor));
+    }
+
+    @Override
+    public CalendarState snapshot() {
+      return this.await(ICalendar::snapshot);
+    }
+
+    @Override
+    public boolean isBusy(LocalDateTime time) {
+      return this.await(c -> c.isBusy(time));
+    }
+
+    @Override
+    public List<Event> getEventsBySeriesId(String seriesId) {
+      return this.await(c -> c.getEventsBySeriesId(seriesId));
+    }
+
+    @Override
+    public List<Event> findEventsBySubjectAndStart(String subject, LocalDateTime date) {
+      return this.await(c -> c.findEventsBySubjectAndStart(subject, date));
+    }
+
+    @Override
+    public void createSingleEvent(String eventSubject, String startDateTime,
+                                  String endDateTime) {
+      this.awaitRun(c -> c.createSingleEvent(eventSubject, startDateTime, endDateTime));
+    }
+
+    @Override
+    public void createRecurringEvent(String eventSubject, String startDateTime,
+                                     String endDateTime, String weekdays, int repeats) {
+      this.awaitRun(c -> c.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+              weekdays, repeats));
+    }
+
+    @Override
+    public void createRecurringEvent(String eventSubject, String startDateTime,
+                                     String endDateTime, String weekdays, String untilDate) {
+      this.awaitRun(c -> c.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+              weekdays, untilDate));
+    }
+
+    @Override
+    public void createAllDayEvent(String eventSubject, String onDate) {
+      this.awaitRun(c -> c.createAllDayEvent(eventSubject, onDate));
+    }
+
+    @Override
+    public void createRecurringAllDayEvent(String eventSubject, String onDate,
+                                           String weekdays, String untilDate) {
+      this.awaitRun(c -> c.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+              untilDate));
+    }
+
+    @Override
+    public void createRecurringAllDayEvent(String eventSubject, String onDate,
+                                           String weekdays, int repeats) {
+      this.awaitRun(c -> c.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+              repeats));
+    }
+
+    @Override
+    public void editSingleEvent(String property, String eventSubject, String startDateTime,
+                                String endDateTime, String newValue) {
+      this.awaitRun(c -> c.editSingleEvent(property, eventSubject, startDateTime, endDateTime,
+              newValue));
+    }
+
+    @Override
+    public void editMultipleEvents(String property, String eventSubject, String startDateTime,
+                                   String newValue, boolean editSeries) {
+      this.awaitRun(c -> c.editMultipleEvents(property, eventSubject, startDateTime, newValue,
+              editSeries));
+    }
+
+    @Override
+    public DateTimeFormatter getDateFormatter() {
+      return CalendarActor.this.calendar.getDateFormatter();
+    }
+
+    @Override
+    public DateTimeFormatter getDateTimeFormatter() {
+      return CalendarActor.this.calendar.getDateTimeFormatter();
+    }
+
+    @Override
+    public ZoneId getTimeZone() {
+      return this.await(ICalendar::getTimeZone);
+    }
+  }
+}
@@ -0,0 +1,220 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import calendar.model.event.Event;
+
+/**
+ * This class represents a single change made to a calendar, such as one command or one batch,
+ * described by the events it added, removed, and changed, along with the window of time it
+ * affected. The window covers both the old and new times of changed events, so observers can
+ * check whether the part of the calendar they display is affected without looking at every event.
+ * Recurring series that are stored as rules are reported through the window only, so that their
+ * occurrences do not have to be created to describe a change to them.
+ */
+public class CalendarChange {
+  private final List<Event> added;
+  private final List<Event> removed;
+  private final List<Event> changed;
+  private final LocalDateTime windowStart;
+  private final LocalDateTime windowEnd;
+
+  /**
+   * Constructs a CalendarChange with the given events and window.
+   *
+   * @param added       the events that were added
+   * @param removed     the events that were removed
+   * @param changed     the new versions of the events that were edited
+   * @param windowStart the start of the affected window, or null if nothing was affected
+   * @param windowEnd   the end of the affected window, or null if nothing was affected
+   */
+  private CalendarChange(List<Event> added, List<Event> removed, List<Event> changed,
+                         LocalDateTime windowStart, LocalDateTime windowEnd) {
+    this.added = Collections.unmodifiableList(added);
+    this.removed = Collections.unmodifiableList(removed);
+    this.changed = Collections.unmodifiableList(changed);
+    this.windowStart = windowStart;
+    this.windowEnd = windowEnd;
+  }
+
+  /**
+   * Gets the events that were added by this change, sorted by start time.
+   *
+   * @return the added events
+   */
+  public List<Event> getAdded() {
+    return this.added;
+  }
+
+  /**
+   * Gets the events that were removed by this change, sorted by start time.
+   *
+   * @return the removed events
+   */
+  public List<Event> getRemoved() {
+    return this.removed;
+  }
+
+  /**
+   * Gets the new versions of the events that were edited by this change, sorted by start time.
+   *
+   * @return the edited events
+   */
+  public List<Event> getChanged() {
+    return this.changed;
+  }
+
+  /**
+   * Gets the start of the window of time affected by this change.
+   *
+   * @return the start of the window, or null if the change did not affect any time
+   */
+  public LocalDateTime getWindowStart() {
+    return this.windowStart;
+  }
+
+  /**
+   * Gets the end of the window of time affected by this change.
+   *
+   * @return the end of the window, or null if the change did not affect any time
+   */
+  public LocalDateTime getWindowEnd() {
+    return this.windowEnd;
+  }
+
+  /**
+   * Checks if this change affected any time between the given date-times, including changes to
+   * events that only touch the start or end of the range.
+   *
+   * @param from the start of the range
+   * @param to   the end of the range
+   * @return true if the change affected the range, false otherwise
+   */
+  public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+    return this.windowStart != null
+            && !this.windowStart.isAfter(to) && !this.windowEnd.isBefore(from);
+  }
+
+  /**
+   * Checks if this change did not affect anything.
+   *
+   * @return true if the change is empty, false otherwise
+   */
+  public boolean isEmpty() {
+    return this.windowStart == null;
+  }
+
+  /**
+   * Builder class for collecting the changes made to a calendar into a CalendarChange. Events
+   * that are added and then edited or removed by the same change are folded together, so each
+   * event appears in the built change at most once.
+   */
+  public static class CalendarChangeBuilder {
+    private final Map<Event, Boolean> added;
+    private final Map<Event, Event> changed; //new version -> original version
+    private final List<Event> removed;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+
+    /**
+     * Constructs an empty CalendarChangeBuilder.
+     */
+    public CalendarChangeBuilder() {
+      this.added = new HashMap<>();
+      this.changed = new HashMap<>();
+      this.removed = new ArrayList<>();
+    }
+
+    /**
+     * Records that the given event was added.
+     *
+     * @param event the added event
+     * @return this builder instance for method chaining.
+     */
+    public CalendarChangeBuilder added(Event event) {
+      this.added.put(event, Boolean.TRUE);
+      return this.window(event.getStartDateTime(), event.getEndDateTime());
+    }
+
+    /**
+     * Records that the given event was removed.
+     *
+     * @param event the removed event
+     * @return this builder instance for method chaining.
+     */
+    public CalendarChangeBuilder removed(Event event) {
+      if (this.added.remove(event) == null) {
+        Event original = this.changed.remove(event);
+        this.removed.add(original == null ? event : original);
+      }
+      return this.window(event.getStartDateTime(), event.getEndDateTime());
+    }
+
+    /**
+     * Records that the given event was edited, replacing it with the given new version.
+     *
+     * @param oldEvent the event before the edit
+     * @param newEvent the event after the edit
+     * @return this builder instance for method chaining.
+     */
+    public CalendarChangeBuilder changed(Event oldEvent, Event newEvent) {
+      if (this.added.remove(oldEvent) != null) {
+        this.added.put(newEvent, Boolean.TRUE);
+      } else {
+        Event original = this.changed.remove(oldEvent);
+        this.changed.put(newEvent, original == null ? oldEvent : original);
+      }
+      this.window(oldEvent.getStartDateTime(), oldEvent.getEndDateTime());
+      return this.window(newEvent.getStartDateTime(), newEvent.getEndDateTime());
+    }
+
+    /**
+     * Widens the affected window to include the given range.
+     *
+     * @param from the start of the range
+     * @param to   the end of the range
+     * @return this builder instance for method chaining.
+     */
+    public CalendarChangeBuilder window(LocalDateTime from, LocalDateTime to) {
+      if (this.windowStart == null || from.isBefore(this.windowStart)) {
+        this.windowStart = from;
+      }
+      if (this.windowEnd == null || to.isAfter(this.windowEnd)) {
+        this.windowEnd = to;
+      }
+      return this;
+    }
+
+    /**
+     * Checks if no change has been recorded.
+     *
+     * @return true if nothing was recorded, false otherwise
+     */
+    public boolean isEmpty() {
+      return this.windowStart == null;
+    }
+
+    /**
+     * Builds the CalendarChange with the recorded events and window.
+     *
+     * @return a new CalendarChange instance.
+     */
+    public CalendarChange build() {
+      return new CalendarChange(sorted(this.added.keySet()), sorted(this.removed),
+              sorted(this.changed.keySet()), this.windowStart, this.windowEnd);
+    }
+
+    private static List<Event> sorted(Iterable<Event> events) {
+      List<Event> result = new ArrayList<>();
+      events.forEach(result::add);
+      result.sort(Comparator.comparing(Event::getStartDateTime));
+      return result;
+    }
+  }
+}
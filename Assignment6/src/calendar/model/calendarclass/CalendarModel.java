@@ -1,25 +1,30 @@
 package calendar.model.calendarclass;
 
-import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 import calendar.controller.guicontroller.CalendarObserver;
 import calendar.model.enumclass.EventStatus;
-import calendar.model.enumclass.DayOfWeekAbbreviation;
 import calendar.model.enumclass.Location;
 import calendar.model.event.Event;
 import calendar.model.event.RecurringEventRule;
@@ -28,25 +33,86 @@ import calendar.model.event.RecurringEventRule;
  * This class represent a calendar model that implements the ICalendar interface.
  * It manages events, allows adding, retrieving, updating, and removing events,
  * and supports recurring events through series IDs.
+ *
+ * <p>Event times are stored in UTC, and the calendar's time zone is only a view of them: every
+ * date-time passed in is read in that zone, and every event handed out has its times converted
+ * into it. Changing the time zone therefore only changes how the stored times are seen, and does
+ * not touch any event.</p>
  */
 public class CalendarModel implements ICalendar {
-  protected final Map<String, Event> events;
   protected final Map<String, Set<Event>> seriesEvents; //use set bc cannot have duplicate events
+  protected final EventStore events; //single events, by default stored column by column
+  protected final AvailabilityIndex availability; //busy minutes of each day for isBusy
+  //recurring series stored as rules, by series ID, by subject, and by the time they span
+  protected final Map<String, List<RecurringSeries>> seriesRules;
+  protected final Map<String, List<RecurringSeries>> seriesBySubject;
+  protected final IntervalTree<RecurringSeries> seriesIndex;
   protected final DateTimeFormatter dateFormatter;
   protected final DateTimeFormatter dateTimeFormatter;
   private final List<CalendarObserver> observers;
-
+  private int batchDepth; //how many batches are currently open
+  private boolean notificationPending; //whether a change was made during the open batches
+  private CalendarChange.CalendarChangeBuilder pendingChange; //changes not yet sent to observers
+  private ZoneId zone; //the zone stored UTC times are shown in
+  //persistent copies of the indexes, only kept once a snapshot has been taken
+  private PersistentIntervalTree<Event> eventTree;
+  private PersistentIntervalTree<RecurringSeries> seriesTree;
+  private boolean stateStale; //whether the trees changed since the state was last published
+  private final AtomicReference<CalendarState> state;
+
+  //orders events by time, using the subject to tell apart events that share a time slot
+  static final Comparator<Event> TIME_ORDER = Comparator
+          .comparing(Event::getStartDateTime)
+          .thenComparing(Event::getEndDateTime)
+          .thenComparing(Event::getSubject);
+  //orders series by the time they span, using the series ID to tell apart series in one span
+  private static final Comparator<RecurringSeries> SERIES_ORDER = Comparator
+          .comparing(RecurringSeries::getStart)
+          .thenComparing(RecurringSeries::getEnd)
+          .thenComparing(RecurringSeries::getSeriesId);
 
   /**
    * Constructor for CalendarModel.
-   * Initializes the events and seriesEvents to empty maps.
+   * Initializes the events and seriesEvents to empty maps, with times shown in UTC.
    */
   public CalendarModel() {
-    this.events = new HashMap<>();
+    this(ZoneOffset.UTC);
+  }
+
+  /**
+   * Constructor for a CalendarModel whose times are shown in the given time zone.
+   * Initializes the events and seriesEvents to empty maps.
+   *
+   * @param zone the time zone the calendar's times are read and shown in
+   */
+  protected CalendarModel(ZoneId zone) {
+    this(zone, new EventColumns(TIME_ORDER), true);
+  }
+
+  /**
+   * Constructor for a CalendarModel whose times are shown in the given time zone and whose single
+   * events are kept in the given store.
+   *
+   * @param zone    the time zone the calendar's times are read and shown in
+   * @param events  the empty store the calendar's single events are kept in, which must sort
+   *                events by start time, then end time, then subject
+   * @param painted whether busy minutes are kept in per-day bitmaps for isBusy, or every check is
+   *                answered by the store
+   */
+  CalendarModel(ZoneId zone, EventStore events, boolean painted) {
+    this.zone = zone;
+    this.events = events;
     this.seriesEvents = new HashMap<>();
+    this.availability = new AvailabilityIndex(this.events, TIME_ORDER, painted);
+    this.seriesRules = new HashMap<>();
+    this.seriesBySubject = new HashMap<>();
+    this.seriesIndex = new IntervalTree<>(SERIES_ORDER, RecurringSeries::getStart,
+            RecurringSeries::getEnd);
     this.dateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
     this.dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
     this.observers = new ArrayList<>();
+    this.pendingChange = new CalendarChange.CalendarChangeBuilder();
+    this.state = new AtomicReference<>();
   }
 
   @Override
@@ -60,20 +126,114 @@ public class CalendarModel implements ICalendar {
     observers.remove(observer);
   }
 
+  /**
+   * Notifies all observers of changes in the calendar. If a batch is open, the notification is
+   * deferred until the outermost batch finishes, so that one operation notifies only once.
+   * Observers are sent only the changes made since the last notification; if there are none,
+   * they are sent every event in the calendar instead.
+   */
   @Override
   public void notifyObservers() {
+    if (this.batchDepth > 0) {
+      this.notificationPending = true;
+      return;
+    }
+    this.publishState();
+    if (this.observers.isEmpty()) {
+      this.pendingChange = new CalendarChange.CalendarChangeBuilder();
+      return;
+    }
+    CalendarChange change = this.pendingChange.build();
+    this.pendingChange = new CalendarChange.CalendarChangeBuilder();
     List<CalendarObserver> copyObservers = new ArrayList<>(this.observers);
-    // Get all events in the calendar (not filtered by date)
-    List<Event> allEvents = new ArrayList<>(this.events.values());
-
-    // Sort events by start time
-    allEvents.sort(Comparator.comparing(Event::getStartDateTime));
+    if (!change.isEmpty()) {
+      for (CalendarObserver observer : copyObservers) {
+        observer.eventsChanged(change);
+      }
+      return;
+    }
+    // Get all events in the calendar (not filtered by date), sorted by start time; once
+    // snapshots are taken, the list is only built if an observer reads it
+    CalendarState current = this.state.get();
+    List<Event> allEvents = current != null ? current.getEvents() : this.allEvents();
 
     for (CalendarObserver observer : copyObservers) {
       observer.eventsUpdated(allEvents);
     }
   }
 
+  @Override
+  public void batch(Runnable operation) {
+    this.beginBatch();
+    try {
+      operation.run();
+    } finally {
+      this.endBatch();
+    }
+  }
+
+  /**
+   * Opens a batch, deferring observer notifications until the matching call to endBatch().
+   * Batches may be nested.
+   */
+  private void beginBatch() {
+    this.batchDepth++;
+  }
+
+  /**
+   * Closes the innermost open batch. If it was the outermost batch and any change was made
+   * within it, observers are notified once.
+   */
+  private void endBatch() {
+    this.batchDepth--;
+    if (this.batchDepth == 0 && this.notificationPending) {
+      this.notificationPending = false;
+      this.notifyObservers();
+    } else if (this.batchDepth == 0) {
+      this.publishState();
+    }
+  }
+
+  /**
+   * Returns the events of the calendar as they are now. The first call copies the calendar's
+   * indexes into persistent trees, in time linear in the number of events, and from then on the
+   * calendar keeps the trees up to date as it changes, copying only the O(log n) nodes each change
+   * touches. It publishes a new state once each change, or each outermost batch, is complete, so
+   * later calls cost O(1) and may be made from any thread.
+   *
+   * @return the current state of the calendar
+   */
+  @Override
+  public CalendarState snapshot() {
+    CalendarState current = this.state.get();
+    if (current != null) {
+      return current;
+    }
+    this.eventTree = PersistentIntervalTree.<Event>empty(TIME_ORDER, Event::getStartDateTime,
+            Event::getEndDateTime).withAll(this.events.toList());
+    List<RecurringSeries> copies = new ArrayList<>();
+    for (List<RecurringSeries> segments : this.seriesRules.values()) {
+      for (RecurringSeries series : segments) {
+        copies.add(series.copy());
+      }
+    }
+    this.seriesTree = PersistentIntervalTree.empty(SERIES_ORDER, RecurringSeries::getStart,
+            RecurringSeries::getEnd).withAll(copies);
+    this.stateStale = true;
+    this.publishState();
+    return this.state.get();
+  }
+
+  /**
+   * Publishes the persistent trees as the calendar's current state, if snapshots are being taken
+   * and the trees changed since the last state was published.
+   */
+  private void publishState() {
+    if (this.stateStale) {
+      this.stateStale = false;
+      this.state.set(new CalendarState(this.eventTree, this.seriesTree, this.zone));
+    }
+  }
 
   @Override
   public DateTimeFormatter getDateTimeFormatter() {
@@ -85,6 +245,165 @@ public class CalendarModel implements ICalendar {
     return this.dateFormatter;
   }
 
+  @Override
+  public ZoneId getTimeZone() {
+    return this.zone;
+  }
+
+  /**
+   * Gets the time zone the calendar's times are read and shown in.
+   *
+   * @return the time zone of the calendar
+   */
+  protected ZoneId getZone() {
+    return this.zone;
+  }
+
+  /**
+   * Changes the time zone the calendar's times are shown in. Stored times are kept as they are,
+   * so this does not depend on the number of events; only the recurring series are checked, as
+   * their occurrences must stay within one day in the new zone. Observers are told that every
+   * time may have changed.
+   *
+   * @param newZone the new time zone of the calendar
+   * @throws IllegalStateException if an occurrence of a series would span multiple days
+   */
+  protected void changeZone(ZoneId newZone) {
+    for (List<RecurringSeries> segments : this.seriesRules.values()) {
+      for (RecurringSeries series : segments) {
+        if (series.spansMultipleDaysIn(newZone)) {
+          throw new IllegalStateException("A series event cannot be edited to span multiple "
+                  + "days.");
+        }
+      }
+    }
+    this.zone = newZone;
+    this.stateStale = this.eventTree != null;
+    if (!this.observers.isEmpty()) {
+      this.pendingChange.window(LocalDateTime.MIN, LocalDateTime.MAX);
+    }
+    notifyObservers();
+  }
+
+  /**
+   * Converts a date-time in the calendar's time zone to the UTC time it is stored as. A time
+   * that occurs twice, when the clocks go back, is read as the first of the two, at the earlier
+   * offset. A time skipped when the clocks go forward is read as the time that far after the
+   * change, which only suits the bounds of a range; the times of events are checked with
+   * {@link #exists} first.
+   *
+   * @param time the date-time in the calendar's time zone
+   * @return the stored date-time
+   */
+  private LocalDateTime toStored(LocalDateTime time) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return time;
+    }
+    return time.atZone(this.zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+  }
+
+  /**
+   * Checks if the given date-time is shown on the clocks of the calendar's time zone, which is
+   * not the case for the times skipped when the clocks go forward.
+   *
+   * @param time the date-time in the calendar's time zone
+   * @return true if the time exists in the calendar's time zone, false otherwise
+   */
+  private boolean exists(LocalDateTime time) {
+    return !this.zone.getRules().getValidOffsets(time).isEmpty();
+  }
+
+  /**
+   * Checks that the given date-time of an event exists in the calendar's time zone.
+   *
+   * @param time the date-time in the calendar's time zone
+   * @throws IllegalArgumentException if the clocks of the time zone skip the time
+   */
+  private void checkExists(LocalDateTime time) {
+    if (!this.exists(time)) {
+      throw new IllegalArgumentException("The time " + time.format(this.dateTimeFormatter)
+              + " does not exist in time zone " + this.zone + ", as the clocks skip it.");
+    }
+  }
+
+  /**
+   * Converts a stored UTC date-time to the calendar's time zone.
+   *
+   * @param time the stored date-time
+   * @return the date-time in the calendar's time zone
+   */
+  private LocalDateTime toView(LocalDateTime time) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return time;
+    }
+    return time.atZone(ZoneOffset.UTC).withZoneSameInstant(this.zone).toLocalDateTime();
+  }
+
+  /**
+   * Converts an event with times in the calendar's time zone to the event that is stored.
+   *
+   * @param event the event in the calendar's time zone
+   * @return the event with its times in UTC
+   * @throws IllegalArgumentException if the clocks of the time zone skip either time
+   */
+  private Event toStored(Event event) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return event;
+    }
+    this.checkExists(event.getStartDateTime());
+    this.checkExists(event.getEndDateTime());
+    return withTimes(event, this.toStored(event.getStartDateTime()),
+            this.toStored(event.getEndDateTime()));
+  }
+
+  /**
+   * Converts a stored event to one with its times in the calendar's time zone.
+   *
+   * @param event the stored event
+   * @return the event with its times in the calendar's time zone
+   */
+  private Event toView(Event event) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return event;
+    }
+    return withTimes(event, this.toView(event.getStartDateTime()),
+            this.toView(event.getEndDateTime()));
+  }
+
+  /**
+   * Converts every stored event in the given list to the calendar's time zone, in place.
+   *
+   * @param events the stored events
+   * @return the same list, holding the events in the calendar's time zone
+   */
+  private List<Event> toView(List<Event> events) {
+    if (!this.zone.equals(ZoneOffset.UTC)) {
+      events.replaceAll(this::toView);
+    }
+    return events;
+  }
+
+  /**
+   * Creates a copy of the given event with the given start and end times.
+   *
+   * @param event the event to copy
+   * @param start the start time of the copy
+   * @param end   the end time of the copy
+   * @return the copied event
+   */
+  static Event withTimes(Event event, LocalDateTime start, LocalDateTime end) {
+    return new Event.EventBuilder()
+            .subject(event.getSubject())
+            .startDateTime(start)
+            .endDateTime(end)
+            .description(event.getDescription())
+            .location(event.getLocation())
+            .status(event.getStatus())
+            .seriesId(event.getSeriesId())
+            .isAllDayEvent(event.getIsAllDayEvent())
+            .build();
+  }
+
   /**
    * Adds a single event to the calendar. Does not allow identical events to be added, and adds
    * series events to the calendar's list of series events.
@@ -93,34 +412,141 @@ public class CalendarModel implements ICalendar {
    */
   @Override
   public void addEvent(Event event) {
-    //generate a unique ID for the event based on its subject and time
-    String id = this.eventKey(event);
+    this.indexEvent(this.toStored(event));
+    if (!this.observers.isEmpty()) {
+      this.pendingChange.added(event);
+    }
+    notifyObservers();
+  }
 
-    if (this.events.containsKey(id)) {
+  /**
+   * Stores the given event in the calendar's event map and all of its indexes.
+   *
+   * @param event the event to be stored, with its times in UTC
+   * @throws IllegalArgumentException if an event with the same subject and time already exists
+   */
+  private void indexEvent(Event event) {
+    if (this.events.get(event.getSubject(), event.getStartDateTime(), event.getEndDateTime())
+            != null || this.findOccurrence(event) != null) {
       throw new IllegalArgumentException("Event already exists with the same subject and time.");
     }
-    this.events.put(id, event);
+    this.events.add(event);
+    this.indexLookups(event);
+    if (this.eventTree != null) {
+      this.eventTree = this.eventTree.with(event);
+      this.stateStale = true;
+    }
+  }
 
+  /**
+   * Stores the given event in the indexes built on top of the calendar's event store: the
+   * availability bitmaps and the series sets. The event must already be in the event store.
+   *
+   * @param event the event to be stored
+   */
+  private void indexLookups(Event event) {
+    this.availability.add(event);
     if (event.getSeriesId() != null) {
       this.seriesEvents.computeIfAbsent(event.getSeriesId(), k -> new HashSet<>()).add(event);
     }
+  }
+
+  /**
+   * Adds all of the given events to the calendar as a single change. Every event is checked for
+   * clashes before any of them is stored, so a failed call leaves the calendar unchanged. The
+   * events are then merged into the event store at once, and observers are notified once.
+   *
+   * @param events the events to be added
+   * @throws IllegalArgumentException if any event has the same subject and time as another
+   */
+  @Override
+  public void addEvents(Collection<Event> events) {
+    //the new events are told apart by keys whose subject ids are only used within this call
+    Map<String, Integer> subjectIds = new HashMap<>();
+    Set<EventKey> keys = new HashSet<>(Math.max(16, events.size() * 4 / 3 + 1));
+    List<Event> added = new ArrayList<>(events.size());
+    for (Event event : events) {
+      Event stored = this.toStored(event);
+      Integer subjectId = subjectIds.get(stored.getSubject());
+      if (subjectId == null) {
+        subjectId = subjectIds.size();
+        subjectIds.put(stored.getSubject(), subjectId);
+      }
+      if (!keys.add(new EventKey(subjectId, stored.getStartDateTime(), stored.getEndDateTime()))
+              || this.events.get(stored.getSubject(), stored.getStartDateTime(),
+              stored.getEndDateTime()) != null || this.findOccurrence(stored) != null) {
+        throw new IllegalArgumentException("Event already exists with the same subject and "
+                + "time.");
+      }
+      added.add(stored);
+    }
+    if (added.isEmpty()) {
+      return;
+    }
+    this.events.addAll(added);
+    for (Event stored : added) {
+      this.indexLookups(stored);
+    }
+    if (this.eventTree != null) {
+      this.eventTree = this.eventTree.withAll(added);
+      this.stateStale = true;
+    }
+    if (!this.observers.isEmpty()) {
+      events.forEach(this.pendingChange::added);
+    }
     notifyObservers();
   }
 
   /**
-   * Adds multiple events to the calendar.
+   * Indexes the events and series of this calendar after they were read back from a snapshot,
+   * with its single events already in the event store. They are known not to clash, so nothing is
+   * checked, busy minutes are painted from the times in the store, and observers are not notified.
    *
-   * @param events the list of events to be added
+   * @param indexed the stored events that need more than their times indexed: those in a series
+   *                and those too long to paint, with their times in UTC
+   * @param series  the recurring series of the calendar
    */
-  private void addMultipleEvents(List<Event> events) {
-    for (Event e : events) {
-      this.addEvent(e);
+  void restore(List<Event> indexed, List<RecurringSeries> series) {
+    this.availability.paintAll();
+    for (Event event : indexed) {
+      this.indexLookups(event);
+    }
+    for (RecurringSeries s : series) {
+      this.indexSeries(s);
     }
   }
 
   @Override
   public Event getEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-    return this.events.get(eventKey(subject, startDateTime, endDateTime));
+    if (!this.exists(startDateTime) || !this.exists(endDateTime)) {
+      return null;
+    }
+    LocalDateTime start = this.toStored(startDateTime);
+    LocalDateTime end = this.toStored(endDateTime);
+    Event event = this.events.get(subject, start, end);
+    if (event == null) {
+      event = this.findOccurrence(subject, start, end);
+    }
+    return event == null ? null : this.toView(event);
+  }
+
+  /**
+   * Returns every event in the calendar, including every occurrence of its recurring series,
+   * sorted by start time, with times in the calendar's time zone.
+   *
+   * @return a list of all events in the calendar
+   */
+  protected List<Event> allEvents() {
+    List<Event> result = this.events.toList();
+    if (!this.seriesRules.isEmpty()) {
+      for (List<RecurringSeries> segments : this.seriesRules.values()) {
+        for (RecurringSeries series : segments) {
+          result.addAll(series.occurrences());
+        }
+      }
+      result.sort(TIME_ORDER);
+    }
+    return this.toView(result);
   }
 
   @Override
@@ -132,7 +558,9 @@ public class CalendarModel implements ICalendar {
 
   /**
    * Returns all events that take place between two date-times, including events that only
-   * partially occur in the range and are overlapping with it.
+   * partially occur in the range and are overlapping with it. The events are found through the
+   * calendar's interval indexes, so only the matching events are visited, and occurrences of
+   * recurring series are only created for the part of the series inside the range.
    *
    * @param startDateTime the starting date time of the range
    * @param endDateTime   the ending date time of the range
@@ -140,22 +568,120 @@ public class CalendarModel implements ICalendar {
    */
   @Override
   public List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
-    List<Event> result = new ArrayList<>();
+    LocalDateTime from = this.toStored(startDateTime);
+    LocalDateTime to = this.toStored(endDateTime);
+    List<Event> result = this.events.overlapping(from, to);
+    List<RecurringSeries> series = this.seriesIndex.overlapping(from, to);
+    if (!series.isEmpty()) {
+      for (RecurringSeries s : series) {
+        result.addAll(s.occurrencesBetween(from, to));
+      }
+      result.sort(TIME_ORDER);
+    }
+    return this.toView(result);
+  }
 
-    for (Event e : this.events.values()) {
-      if (e.getStartDateTime().isBefore(endDateTime) &&
-              e.getEndDateTime().isAfter(startDateTime)) {
-        result.add(e);
+  /**
+   * Walks the events that take place between two date-times in order of start time, without
+   * gathering them into a list. The single events are walked in the order of the event store, and
+   * merged with the recurring series in the range through a queue holding the next occurrence of
+   * each series, so at most one occurrence per series is held at a time.
+   *
+   * @param startDateTime the starting date time of the range
+   * @param endDateTime   the ending date time of the range
+   * @param expandSeries  whether recurring series are passed as their occurrences in the range,
+   *                      or whole, as the part of their rule that falls in the range
+   * @param visitor       the visitor receiving the events and series, in order of start time
+   */
+  @Override
+  public void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                           boolean expandSeries, EventVisitor visitor) {
+    LocalDateTime from = this.toStored(startDateTime);
+    LocalDateTime to = this.toStored(endDateTime);
+    PriorityQueue<SeriesCursor> pending = new PriorityQueue<>(
+            Comparator.comparing((SeriesCursor cursor) -> cursor.next, TIME_ORDER));
+    for (RecurringSeries series : this.seriesIndex.overlapping(from, to)) {
+      RecurringSeries part = expandSeries ? series : series.overlapping(from, to);
+      Iterator<Event> occurrences = part == null ? Collections.emptyIterator()
+              : part.occurrenceIterator(from, to);
+      if (occurrences.hasNext()) {
+        pending.add(new SeriesCursor(occurrences.next(), expandSeries ? occurrences : null,
+                part));
+      }
+    }
+    this.events.forEachInOrder(from, to, event -> {
+      while (!pending.isEmpty() && TIME_ORDER.compare(pending.peek().next, event) < 0) {
+        this.visitNext(pending, visitor);
+      }
+      visitor.visitEvent(this.toView(event));
+    });
+    while (!pending.isEmpty()) {
+      this.visitNext(pending, visitor);
+    }
+  }
+
+  /**
+   * Passes the series whose next occurrence comes first to the given visitor, either as that
+   * occurrence, after which the series goes back in the queue with its following occurrence, or
+   * as the whole series.
+   *
+   * @param pending the series in the range, by the start of their next occurrence
+   * @param visitor the visitor receiving the occurrence or series
+   */
+  private void visitNext(PriorityQueue<SeriesCursor> pending, EventVisitor visitor) {
+    SeriesCursor cursor = pending.poll();
+    if (cursor.rest != null) {
+      visitor.visitEvent(this.toView(cursor.next));
+      if (cursor.rest.hasNext()) {
+        cursor.next = cursor.rest.next();
+        pending.add(cursor);
       }
+      return;
     }
-    result.sort(Comparator.comparing(event -> event.getStartDateTime()));
-    return result;
+    RecurringSeries series = cursor.series;
+    Event template = series.getTemplate();
+    LocalDate firstDate = series.getFirstDate();
+    visitor.visitSeries(withTimes(template,
+                    firstDate.atTime(template.getStartDateTime().toLocalTime()),
+                    firstDate.atTime(template.getEndDateTime().toLocalTime())),
+            series.getZone(), series.getRule().getWeekdays(), series.getLastDate(),
+            series.getExceptions());
   }
 
+  /**
+   * The position of a walk in one recurring series: its next occurrence, in UTC, and either the
+   * occurrences after it or, if the series is visited whole, nothing.
+   */
+  private static final class SeriesCursor {
+    private Event next;
+    private final Iterator<Event> rest;
+    private final RecurringSeries series;
+
+    private SeriesCursor(Event next, Iterator<Event> rest, RecurringSeries series) {
+      this.next = next;
+      this.rest = rest;
+      this.series = series;
+    }
+  }
+
+  /**
+   * Checks if there are any events scheduled at a specific date-time, including events that start
+   * or end at that time. This is answered from the calendar's per-day availability bitmaps, so it
+   * does not depend on the number of events, and from the rules of the recurring series spanning
+   * that time.
+   *
+   * @param time the date and time to check
+   * @return true if there is an event at that time, false otherwise
+   */
   @Override
   public boolean isBusy(LocalDateTime time) {
-    for (Event e : this.events.values()) {
-      if (!e.getEndDateTime().isBefore(time) && !e.getStartDateTime().isAfter(time)) {
+    LocalDateTime stored = this.toStored(time);
+    if (this.availability.isBusy(stored)) {
+      return true;
+    }
+    for (RecurringSeries series : this.seriesIndex.overlapping(stored.minusNanos(1),
+            stored.plusNanos(1))) {
+      if (series.isBusyAt(stored)) {
         return true;
       }
     }
@@ -164,23 +690,54 @@ public class CalendarModel implements ICalendar {
 
   @Override
   public List<Event> getEventsBySeriesId(String seriesId) {
-    return new ArrayList<>(this.seriesEvents.getOrDefault(seriesId, Set.of()));
+    List<Event> result = new ArrayList<>(this.seriesEvents.getOrDefault(seriesId, Set.of()));
+    for (RecurringSeries series : this.seriesRules.getOrDefault(seriesId, List.of())) {
+      result.addAll(series.occurrences());
+    }
+    return this.toView(result);
   }
 
+  /**
+   * Replaces the given event with its edited version. If the edited version clashes with an
+   * existing event, the old event stays removed and an exception is thrown.
+   *
+   * @param oldEvent the event being edited, in the calendar's time zone
+   * @param newEvent the edited version of the event, in the calendar's time zone
+   */
   private void updateEvent(Event oldEvent, Event newEvent) {
-    removeEvent(oldEvent);
-    addEvent(newEvent);
+    Event stored = this.toStored(newEvent);
+    this.unindexEvent(this.toStored(oldEvent));
+    try {
+      this.indexEvent(stored);
+    } catch (IllegalArgumentException e) {
+      if (!this.observers.isEmpty()) {
+        this.pendingChange.removed(oldEvent);
+      }
+      notifyObservers();
+      throw e;
+    }
+    if (!this.observers.isEmpty()) {
+      this.pendingChange.changed(oldEvent, newEvent);
+    }
     notifyObservers();
-
   }
 
   /**
-   * Removes the given event from the model.
+   * Removes the given event from the calendar's event map and all of its indexes.
    *
-   * @param event the event to be removed
+   * @param event the event to be removed, with its times in UTC
    */
-  private void removeEvent(Event event) {
-    this.events.remove(eventKey(event));
+  private void unindexEvent(Event event) {
+    if (!this.events.remove(event)) {
+      //the event is an occurrence of a recurring series, so take it out of the series
+      this.detachOccurrence(event);
+      return;
+    }
+    this.availability.remove(event);
+    if (this.eventTree != null) {
+      this.eventTree = this.eventTree.without(event);
+      this.stateStale = true;
+    }
     //if the event is part of a series
     if (event.getSeriesId() != null) {
       //take a set containing the given event out of the seriesEvents map
@@ -195,71 +752,246 @@ public class CalendarModel implements ICalendar {
         }
       }
     }
-    notifyObservers();
+  }
 
+  /**
+   * Takes the given occurrence out of the recurring series it belongs to, dropping the series if
+   * it has no occurrences left.
+   *
+   * @param occurrence the occurrence to be taken out, with its times in UTC
+   */
+  private void detachOccurrence(Event occurrence) {
+    for (RecurringSeries series : this.seriesRules.getOrDefault(occurrence.getSeriesId(),
+            List.of())) {
+      if (series.excludeAt(occurrence.getStartDateTime())) {
+        if (series.isEmpty()) {
+          this.unindexSeries(series);
+        } else if (this.seriesTree != null) {
+          //the published copy still holds the occurrence, so replace it
+          this.seriesTree = this.seriesTree.with(series.copy());
+          this.stateStale = true;
+        }
+        return;
+      }
+    }
   }
 
-  @Override
-  public List<Event> findEventsBySubjectAndStart(String subject, LocalDateTime date) {
-    List<Event> result = new ArrayList<>();
+  /**
+   * Finds the occurrence of a recurring series with the same subject and time as the given event.
+   *
+   * @param event the event to look for
+   * @return the matching occurrence, or null if there is none
+   */
+  private Event findOccurrence(Event event) {
+    return this.findOccurrence(event.getSubject(), event.getStartDateTime(),
+            event.getEndDateTime());
+  }
 
-    for (Event e : this.events.values()) {
-      if (e.getSubject().equals(subject) && e.getStartDateTime().equals(date)) {
-        result.add(e);
+  /**
+   * Finds the occurrence of a recurring series with the given subject and time.
+   *
+   * @param subject       the subject of the occurrence
+   * @param startDateTime the start date and time of the occurrence, in UTC
+   * @param endDateTime   the end date and time of the occurrence, in UTC
+   * @return the matching occurrence, or null if there is none
+   */
+  private Event findOccurrence(String subject, LocalDateTime startDateTime,
+                               LocalDateTime endDateTime) {
+    for (RecurringSeries series : this.seriesBySubject.getOrDefault(subject, List.of())) {
+      Event occurrence = series.occurrenceAt(startDateTime);
+      if (occurrence != null && occurrence.getEndDateTime().equals(endDateTime)) {
+        return occurrence;
       }
     }
-    return result;
+    return null;
   }
 
   /**
-   * Generates a unique key for the event based on its subject and time.
+   * Adds the given recurring series to the calendar, after checking that none of its occurrences
+   * has the same subject and time as an existing event.
    *
-   * @param event the event to generate the key for
-   * @return a unique string key for the event
+   * @param series the series to be added
+   * @throws IllegalArgumentException if an occurrence clashes with an existing event
    */
-  private String eventKey(Event event) {
-    return eventKey(event.getSubject(), event.getStartDateTime(), event.getEndDateTime());
+  private void addSeries(RecurringSeries series) {
+    this.checkSeriesClashes(series);
+    this.indexSeries(series);
+    notifyObservers();
   }
 
   /**
-   * Generates a unique key for the event based on its subject and time.
+   * Checks that no occurrence of the given series has the same subject and time as an event or
+   * an occurrence of another series already in the calendar. Only the events with the same
+   * subject within the span of the series are created, and only the series whose spans overlap
+   * it are visited.
    *
-   * @param subject       the subject of the event
-   * @param startDateTime the start date and time of the event
-   * @param endDateTime   the end date and time of the event
-   * @return a unique string key for the event
+   * @param series the series to be checked
+   * @throws IllegalArgumentException if an occurrence clashes with an existing event
    */
-  private String eventKey(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
-    return subject + "|" + startDateTime + "|" + endDateTime;
+  private void checkSeriesClashes(RecurringSeries series) {
+    //only events and series within the span of the new series can share one of its occurrences
+    LocalDateTime from = series.getStart().minusNanos(1);
+    LocalDateTime to = series.getEnd().plusNanos(1);
+    for (Event event : this.events.withSubject(series.getSubject(), from, to)) {
+      Event occurrence = series.occurrenceAt(event.getStartDateTime());
+      if (occurrence != null && occurrence.getEndDateTime().equals(event.getEndDateTime())) {
+        throw new IllegalArgumentException("Event already exists with the same subject and "
+                + "time.");
+      }
+    }
+    Event template = series.getTemplate();
+    for (RecurringSeries other : this.seriesIndex.overlapping(from, to)) {
+      if (!other.getSubject().equals(series.getSubject())) {
+        continue;
+      }
+      if (!series.getZone().equals(other.getZone())) {
+        //the series recur at different times of day, so compare their occurrences instead
+        Iterator<Event> occurrences = series.occurrenceIterator(other.getStart(), other.getEnd());
+        while (occurrences.hasNext()) {
+          Event occurrence = occurrences.next();
+          Event match = other.occurrenceAt(occurrence.getStartDateTime());
+          if (match != null && match.getEndDateTime().equals(occurrence.getEndDateTime())) {
+            throw new IllegalArgumentException("Event already exists with the same subject and "
+                    + "time.");
+          }
+        }
+        continue;
+      }
+      Event otherTemplate = other.getTemplate();
+      if (!template.getStartDateTime().toLocalTime()
+              .equals(otherTemplate.getStartDateTime().toLocalTime())
+              || !template.getEndDateTime().toLocalTime()
+              .equals(otherTemplate.getEndDateTime().toLocalTime())) {
+        continue;
+      }
+      LocalDate first = Collections.max(List.of(series.getFirstDate(), other.getFirstDate()));
+      LocalDate last = Collections.min(List.of(series.getLastDate(), other.getLastDate()));
+      RecurringEventRule rule = series.getRule();
+      for (LocalDate date = rule.nextOccurrence(first); date != null && !date.isAfter(last);
+           date = rule.nextOccurrence(date.plusDays(1))) {
+        if (series.occursOn(date) && other.occursOn(date)) {
+          throw new IllegalArgumentException("Event already exists with the same subject and "
+                  + "time.");
+        }
+      }
+    }
+  }
+
+  /**
+   * Stores the given recurring series in the calendar's series indexes.
+   *
+   * @param series the series to be stored
+   */
+  private void indexSeries(RecurringSeries series) {
+    this.seriesRules.computeIfAbsent(series.getSeriesId(), k -> new ArrayList<>(1)).add(series);
+    this.seriesBySubject.computeIfAbsent(series.getSubject(), k -> new ArrayList<>(1))
+            .add(series);
+    this.seriesIndex.add(series);
+    if (this.seriesTree != null) {
+      this.seriesTree = this.seriesTree.with(series.copy());
+      this.stateStale = true;
+    }
+    if (!this.observers.isEmpty()) {
+      this.pendingChange.window(this.toView(series.getStart()), this.toView(series.getEnd()));
+    }
+  }
+
+  /**
+   * Removes the given recurring series from the calendar's series indexes.
+   *
+   * @param series the series to be removed
+   */
+  private void unindexSeries(RecurringSeries series) {
+    this.removeSeriesFrom(this.seriesRules, series.getSeriesId(), series);
+    this.removeSeriesFrom(this.seriesBySubject, series.getSubject(), series);
+    this.seriesIndex.remove(series);
+    if (this.seriesTree != null) {
+      this.seriesTree = this.seriesTree.without(series);
+      this.stateStale = true;
+    }
+    if (!this.observers.isEmpty()) {
+      this.pendingChange.window(this.toView(series.getStart()), this.toView(series.getEnd()));
+    }
+  }
+
+  /**
+   * Removes the given series from the list stored under the given key, dropping the list if it
+   * becomes empty.
+   *
+   * @param map    the map holding the list
+   * @param key    the key of the list
+   * @param series the series to be removed
+   */
+  private void removeSeriesFrom(Map<String, List<RecurringSeries>> map, String key,
+                                RecurringSeries series) {
+    List<RecurringSeries> list = map.get(key);
+    if (list != null) {
+      list.removeIf(s -> s == series);
+      if (list.isEmpty()) {
+        map.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Finds events by subject and start date. The events are found with a binary search of the
+   * calendar's event store by start time, so this barely depends on the number of events.
+   *
+   * @param subject the subject of the event
+   * @param date    the date to search for events
+   * @return a list of events that match the subject and start date
+   */
+  @Override
+  public List<Event> findEventsBySubjectAndStart(String subject, LocalDateTime date) {
+    if (!this.exists(date)) {
+      return new ArrayList<>();
+    }
+    LocalDateTime start = this.toStored(date);
+    List<Event> result = this.events.startingAt(subject, start);
+    for (RecurringSeries series : this.seriesBySubject.getOrDefault(subject, List.of())) {
+      Event occurrence = series.occurrenceAt(start);
+      if (occurrence != null) {
+        result.add(occurrence);
+      }
+    }
+    return this.toView(result);
   }
 
   @Override
   public void createSingleEvent(String eventSubject, String startDateTime, String endDateTime) {
-    LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
-    LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
-    Event event = new Event.EventBuilder()
-            .subject(eventSubject)
-            .startDateTime(start)
-            .endDateTime(end)
-            .build();
-    this.addEvent(event);
-    notifyObservers();
+    this.beginBatch();
+    try {
+      LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
+      LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
+      Event event = new Event.EventBuilder()
+              .subject(eventSubject)
+              .startDateTime(start)
+              .endDateTime(end)
+              .build();
+      this.addEvent(event);
+    } finally {
+      this.endBatch();
+    }
   }
 
   @Override
   public void createAllDayEvent(String eventSubject, String onDate) {
-    LocalDate date = LocalDate.parse(onDate, dateFormatter);
-    LocalDateTime start = date.atTime(8, 0);
-    LocalDateTime end = date.atTime(17, 0);
+    this.beginBatch();
+    try {
+      LocalDate date = LocalDate.parse(onDate, dateFormatter);
+      LocalDateTime start = date.atTime(8, 0);
+      LocalDateTime end = date.atTime(17, 0);
 
-    Event event = new Event.EventBuilder()
-            .subject(eventSubject)
-            .startDateTime(start)
-            .endDateTime(end)
-            .isAllDayEvent(true)
-            .build();
-    this.addEvent(event);
-    notifyObservers();
+      Event event = new Event.EventBuilder()
+              .subject(eventSubject)
+              .startDateTime(start)
+              .endDateTime(end)
+              .isAllDayEvent(true)
+              .build();
+      this.addEvent(event);
+    } finally {
+      this.endBatch();
+    }
   }
 
   /**
@@ -276,35 +1008,23 @@ public class CalendarModel implements ICalendar {
   @Override
   public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
                                    String weekdays, int repeats) {
-    LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
-    LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
-
-    if (!start.toLocalDate().equals(end.toLocalDate())) {
-      throw new IllegalArgumentException("Recurring events must not span multiple days.");
-    }
-
-    List<Event> recurringEvents = new ArrayList<>();
-    String seriesId = UUID.randomUUID().toString();
+    this.beginBatch();
+    try {
+      LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
+      LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
 
-    List<DayOfWeek> daysList = abbreviationsToWeekdays(weekdays);
-    int i = 0;
-    while (repeats > 0) {
-      LocalDateTime currentStart = start.plusDays(i);
-      LocalDateTime currentEnd = end.plusDays(i);
-      if (daysList.contains(currentStart.getDayOfWeek())) {
-        Event.EventBuilder builder = new Event.EventBuilder()
-                .subject(eventSubject)
-                .status(EventStatus.PUBLIC)
-                .seriesId(seriesId);
+      if (!start.toLocalDate().equals(end.toLocalDate())) {
+        throw new IllegalArgumentException("Recurring events must not span multiple days.");
+      }
 
-        builder.startDateTime(currentStart).endDateTime(currentEnd).isAllDayEvent(false);
-        recurringEvents.add(builder.build());
-        repeats--;
+      RecurringEventRule rule = new RecurringEventRule(weekdays, repeats,
+              null, start.toLocalTime(), end.toLocalTime(), false);
+      if (repeats > 0) {
+        this.createSeries(eventSubject, start, end, false, rule);
       }
-      i++;
+    } finally {
+      this.endBatch();
     }
-    this.addMultipleEvents(recurringEvents);
-    notifyObservers();
   }
 
   /**
@@ -321,119 +1041,96 @@ public class CalendarModel implements ICalendar {
   @Override
   public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
                                    String weekdays, String untilDate) {
-    LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
-    LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
-
-    if (!start.toLocalDate().equals(end.toLocalDate())) {
-      throw new IllegalArgumentException("Recurring events must not span multiple days.");
-    }
-
-    LocalDate until = LocalDate.parse(untilDate, dateFormatter);
-
-    Duration daysDifference = Duration.between(start, end);
-    int days = (int) daysDifference.toDays();
+    this.beginBatch();
+    try {
+      LocalDateTime start = LocalDateTime.parse(startDateTime, dateTimeFormatter);
+      LocalDateTime end = LocalDateTime.parse(endDateTime, dateTimeFormatter);
 
-    RecurringEventRule rule = new RecurringEventRule(weekdays, days,
-            until, start.toLocalTime(), end.toLocalTime(), false);
+      if (!start.toLocalDate().equals(end.toLocalDate())) {
+        throw new IllegalArgumentException("Recurring events must not span multiple days.");
+      }
 
-    List<Event> recurringEvent = new ArrayList<>();
-    List<LocalDate> occurrenceDates = rule.generateOccurrenceDate(start.toLocalDate());
-    String seriesId = UUID.randomUUID().toString();
+      LocalDate until = LocalDate.parse(untilDate, dateFormatter);
 
-    this.recurHelper(start, end, recurringEvent, eventSubject, seriesId, occurrenceDates);
+      Duration daysDifference = Duration.between(start, end);
+      int days = (int) daysDifference.toDays();
 
-    this.addMultipleEvents(recurringEvent);
-    notifyObservers();
-  }
+      RecurringEventRule rule = new RecurringEventRule(weekdays, days,
+              until, start.toLocalTime(), end.toLocalTime(), false);
 
-  /**
-   * Helper method for creating recurring events.
-   *
-   * @param start           the start time of the event
-   * @param end             the end time of the event
-   * @param recurringEvent  the list to store the created recurring events
-   * @param eventSubject    the subject of the event
-   * @param seriesId        the unique identifier for the series of events
-   * @param occurrenceDates the list of dates on which the event occurs
-   */
-  private void recurHelper(LocalDateTime start, LocalDateTime end, List<Event> recurringEvent,
-                           String eventSubject, String seriesId, List<LocalDate> occurrenceDates) {
-    for (LocalDate date : occurrenceDates) {
-      Event.EventBuilder builder = new Event.EventBuilder()
-              .subject(eventSubject)
-              .status(EventStatus.PUBLIC)
-              .seriesId(seriesId);
-
-      LocalDateTime currentStart = LocalDateTime.of(date, start.toLocalTime());
-      LocalDateTime currentEnd = LocalDateTime.of(date, end.toLocalTime());
-
-      builder.startDateTime(currentStart).endDateTime(currentEnd).isAllDayEvent(false);
-      recurringEvent.add(builder.build());
+      this.createSeries(eventSubject, start, end, false, rule);
+    } finally {
+      this.endBatch();
     }
   }
 
   @Override
   public void createRecurringAllDayEvent(String eventSubject, String onDate,
                                          String weekdays, String untilDate) {
-    LocalDate date = LocalDate.parse(onDate, dateFormatter);
-    LocalDate uDate = LocalDate.parse(untilDate, dateFormatter);
-
-    int days = (int) ChronoUnit.DAYS.between(date, uDate);
-
-    RecurringEventRule rule = new RecurringEventRule(weekdays, days,
-            uDate, LocalTime.of(8, 0), LocalTime.of(17, 0), true);
-    List<LocalDate> occurrenceDates = rule.generateOccurrenceDate(date);
+    this.beginBatch();
+    try {
+      LocalDate date = LocalDate.parse(onDate, dateFormatter);
+      LocalDate uDate = LocalDate.parse(untilDate, dateFormatter);
 
-    List<Event> recurringEvent = new ArrayList<>();
-    String seriesId = UUID.randomUUID().toString();
+      int days = (int) ChronoUnit.DAYS.between(date, uDate);
 
-    this.recurringEventHelper(occurrenceDates, eventSubject, seriesId, recurringEvent);
+      RecurringEventRule rule = new RecurringEventRule(weekdays, days,
+              uDate, LocalTime.of(8, 0), LocalTime.of(17, 0), true);
 
-    this.addMultipleEvents(recurringEvent);
-    notifyObservers();
+      this.createSeries(eventSubject, date.atTime(8, 0), date.atTime(17, 0), true, rule);
+    } finally {
+      this.endBatch();
+    }
   }
 
   @Override
   public void createRecurringAllDayEvent(String eventSubject, String onDate,
                                          String weekdays, int repeats) {
-    LocalDate date = LocalDate.parse(onDate, this.dateFormatter);
-
-    RecurringEventRule rule = new RecurringEventRule(weekdays, repeats,
-            null, LocalTime.of(8, 0), LocalTime.of(17, 0),
-            true);
-
-    List<LocalDate> occurrenceDates = rule.generateOccurrenceDate(date);
-    List<Event> recurringEvent = new ArrayList<>();
-    String seriesId = UUID.randomUUID().toString();
+    this.beginBatch();
+    try {
+      LocalDate date = LocalDate.parse(onDate, this.dateFormatter);
 
-    this.recurringEventHelper(occurrenceDates, eventSubject, seriesId, recurringEvent);
+      RecurringEventRule rule = new RecurringEventRule(weekdays, repeats,
+              null, LocalTime.of(8, 0), LocalTime.of(17, 0),
+              true);
 
-    this.addMultipleEvents(recurringEvent);
-    notifyObservers();
+      this.createSeries(eventSubject, date.atTime(8, 0), date.atTime(17, 0), true, rule);
+    } finally {
+      this.endBatch();
+    }
   }
 
   /**
-   * Helper method for creating recurring all-day events.
-   * It takes a list of occurrence dates, the event subject, series ID, and a list to store
-   * the created recurring events.
+   * Helper method for creating recurring events. The series is stored as its rule, with a
+   * template event holding the details shared by every occurrence, instead of as one event per
+   * occurrence. Nothing is added if the rule generates no occurrences.
    *
-   * @param occurrenceDates the list of dates on which the event occurs
-   * @param eventSubject    the subject of the event
-   * @param seriesId        the unique identifier for the series of events
-   * @param recurringEvent  the list to store the created recurring events
+   * @param eventSubject the subject of the event
+   * @param start        the start date and time from which occurrences are generated
+   * @param end          the end date and time of the first day, which must be on the same date
+   * @param isAllDay     whether the occurrences are all-day events
+   * @param rule         the rule deciding when the event recurs
    */
-  private void recurringEventHelper(List<LocalDate> occurrenceDates, String eventSubject,
-                                    String seriesId, List<Event> recurringEvent) {
-    for (LocalDate dates : occurrenceDates) {
-      Event.EventBuilder builder = new Event.EventBuilder()
-              .subject(eventSubject)
-              .status(EventStatus.PUBLIC)
-              .seriesId(seriesId);
-
-      builder.startDateTime(dates.atStartOfDay()).isAllDayEvent(true);
-
-      recurringEvent.add(builder.build());
+  private void createSeries(String eventSubject, LocalDateTime start, LocalDateTime end,
+                            boolean isAllDay, RecurringEventRule rule) {
+    LocalDate firstDate = rule.firstOccurrenceDate(start.toLocalDate());
+    if (firstDate == null) {
+      return;
     }
+    LocalDate lastDate = rule.lastOccurrenceDate(start.toLocalDate());
+    this.checkExists(firstDate.atTime(start.toLocalTime()));
+    this.checkExists(firstDate.atTime(end.toLocalTime()));
+
+    Event template = new Event.EventBuilder()
+            .subject(eventSubject)
+            .status(EventStatus.PUBLIC)
+            .seriesId(UUID.randomUUID().toString())
+            .startDateTime(firstDate.atTime(start.toLocalTime()))
+            .endDateTime(firstDate.atTime(end.toLocalTime()))
+            .isAllDayEvent(isAllDay)
+            .build();
+    this.addSeries(new RecurringSeries(template, rule, this.zone, firstDate, lastDate,
+            Set.of()));
   }
 
   /**
@@ -450,25 +1147,29 @@ public class CalendarModel implements ICalendar {
   @Override
   public void editSingleEvent(String property, String eventSubject, String startDateTime,
                               String endDateTime, String newValue) {
-    LocalDateTime startTime;
-    LocalDateTime endTime;
-
+    this.beginBatch();
     try {
-      startTime = LocalDateTime.parse(startDateTime, dateTimeFormatter);
-      endTime = LocalDateTime.parse(endDateTime, dateTimeFormatter);
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Invalid date format. Please use 'yyyy-MM-dd'T'HH:mm'.");
-    }
+      LocalDateTime startTime;
+      LocalDateTime endTime;
+
+      try {
+        startTime = LocalDateTime.parse(startDateTime, dateTimeFormatter);
+        endTime = LocalDateTime.parse(endDateTime, dateTimeFormatter);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Invalid date format. Please use 'yyyy-MM-dd'T'HH:mm'.");
+      }
 
-    Event targetEvent = getEvent(eventSubject, startTime, endTime);
+      Event targetEvent = getEvent(eventSubject, startTime, endTime);
 
-    if (targetEvent == null) {
-      throw new IllegalArgumentException("No event found with subject '" + eventSubject + "' " +
-              "starting at " + startTime.format(dateFormatter) + " " +
-              "and ending at " + endTime.format(dateFormatter) + ".");
+      if (targetEvent == null) {
+        throw new IllegalArgumentException("No event found with subject '" + eventSubject + "' " +
+                "starting at " + startTime.format(dateFormatter) + " " +
+                "and ending at " + endTime.format(dateFormatter) + ".");
+      }
+      editEventHelper(targetEvent, property, newValue);
+    } finally {
+      this.endBatch();
     }
-    editEventHelper(targetEvent, property, newValue);
-    notifyObservers();
   }
 
   /**
@@ -485,49 +1186,57 @@ public class CalendarModel implements ICalendar {
   @Override
   public void editMultipleEvents(String property, String eventSubject,
                                  String startDateTime, String newValue, boolean editSeries) {
-    LocalDateTime startTime;
-
+    this.beginBatch();
     try {
-      startTime = LocalDateTime.parse(startDateTime, dateTimeFormatter);
-    } catch (Exception e) {
-      throw new IllegalArgumentException("Invalid date format. Please use 'yyyy-MM-ddTHH:mm'.");
-    }
-    List<Event> targetEvents = findEventsBySubjectAndStart(eventSubject, startTime);
-    this.targetEventEmpty(targetEvents, eventSubject, startTime);
+      LocalDateTime startTime;
 
-    Event targetEvent = targetEvents.get(0);
+      try {
+        startTime = LocalDateTime.parse(startDateTime, dateTimeFormatter);
+      } catch (Exception e) {
+        throw new IllegalArgumentException("Invalid date format. Please use 'yyyy-MM-ddTHH:mm'.");
+      }
+      List<Event> targetEvents = findEventsBySubjectAndStart(eventSubject, startTime);
+      this.targetEventEmpty(targetEvents, eventSubject, startTime);
 
-    String seriesId = null;
-    if (targetEvent.getSeriesId() != null && !targetEvent.getSeriesId().isEmpty()) {
-      seriesId = targetEvent.getSeriesId();
-    }
-    if (seriesId == null) {
-      editEventHelper(targetEvent, property, newValue);
-    } else {
-      List<Event> seriesEvents = getEventsBySeriesId(seriesId);
-      if (!editSeries) {
-        seriesEvents = eventsFromDateForward(seriesEvents, startTime);
-      }
-      for (int i = 0; i < seriesEvents.size(); i++) {
-        if (seriesEvents.get(i).getStartDateTime().equals(startTime)) {
-          Event exactMatch = seriesEvents.remove(i);
-          seriesEvents.add(0, exactMatch);
-          break;
-        }
+      Event targetEvent = targetEvents.get(0);
+
+      String seriesId = null;
+      if (targetEvent.getSeriesId() != null && !targetEvent.getSeriesId().isEmpty()) {
+        seriesId = targetEvent.getSeriesId();
       }
-      boolean processedAlready = processChangeTime(seriesEvents, property, newValue);
-      if (!processedAlready) {
-        for (Event seriesEvent : seriesEvents) {
-          if (editSeries) {
-            editEventHelper(seriesEvent, property, newValue);
-          } else if (seriesEvent.getStartDateTime().isEqual(targetEvent.getStartDateTime())
-                  || seriesEvent.getStartDateTime().isAfter(targetEvent.getStartDateTime())) {
-            editEventHelper(seriesEvent, property, newValue);
+      if (seriesId == null) {
+        editEventHelper(targetEvent, property, newValue);
+      } else if (!property.equals("start") && !property.equals("end")) {
+        this.editSeriesDetails(seriesId, property, newValue, editSeries ? null : startTime);
+      } else if (!property.equals("start") || !this.editSeriesStart(seriesId, targetEvent,
+              newValue, editSeries ? null : startTime)) {
+        //end times, and start times the rules cannot take, are edited event by event
+        List<Event> seriesEvents = getEventsBySeriesId(seriesId);
+        if (!editSeries) {
+          seriesEvents = eventsFromDateForward(seriesEvents, startTime);
+        }
+        for (int i = 0; i < seriesEvents.size(); i++) {
+          if (seriesEvents.get(i).getStartDateTime().equals(startTime)) {
+            Event exactMatch = seriesEvents.remove(i);
+            seriesEvents.add(0, exactMatch);
+            break;
+          }
+        }
+        boolean processedAlready = processChangeTime(seriesEvents, property, newValue);
+        if (!processedAlready) {
+          for (Event seriesEvent : seriesEvents) {
+            if (editSeries) {
+              editEventHelper(seriesEvent, property, newValue);
+            } else if (seriesEvent.getStartDateTime().isEqual(targetEvent.getStartDateTime())
+                    || seriesEvent.getStartDateTime().isAfter(targetEvent.getStartDateTime())) {
+              editEventHelper(seriesEvent, property, newValue);
+            }
           }
         }
       }
+    } finally {
+      this.endBatch();
     }
-    notifyObservers();
   }
 
   /**
@@ -559,6 +1268,19 @@ public class CalendarModel implements ICalendar {
    * @param newValue    the newValue of this edit.
    */
   private void editEventHelper(Event targetEvent, String property, String newValue) {
+    updateEvent(targetEvent, this.editedCopy(targetEvent, property, newValue));
+  }
+
+  /**
+   * Helper method for editEventHelper that creates a copy of the given event with the given
+   * property replaced by the given newValue.
+   *
+   * @param targetEvent the event being edited.
+   * @param property    the property of event being edited.
+   * @param newValue    the newValue of this edit.
+   * @return the edited copy of the event.
+   */
+  private Event editedCopy(Event targetEvent, String property, String newValue) {
     Event.EventBuilder newEventBuilder = new Event.EventBuilder()
             .subject(targetEvent.getSubject())
             .startDateTime(targetEvent.getStartDateTime())
@@ -596,8 +1318,7 @@ public class CalendarModel implements ICalendar {
           throw new IllegalArgumentException("Invalid property '" + property + "'. " +
                   "Valid properties are: subject, start, end, description, location, status.");
       }
-      Event newEvent = newEventBuilder.build();
-      updateEvent(targetEvent, newEvent);
+      return newEventBuilder.build();
     } catch (DateTimeParseException e) {
       throw new IllegalArgumentException("Invalid value for property '" + property + "': "
               + newValue + ". " + "Please ensure the value is correct.");
@@ -605,19 +1326,149 @@ public class CalendarModel implements ICalendar {
   }
 
   /**
-   * Abbreviate the given string into weekday abbreviations.
+   * Helper method for editMultipleEvents that edits a property other than the start or end time
+   * of every event in a series starting at or after the given cutoff. Events taken out of the
+   * series' rules are edited one by one, while the rules themselves are split at the cutoff and
+   * given an edited template, so their occurrences are never created.
    *
-   * @param abbreviations the given string as weekdays
-   * @return a list of abbreviated weekdays
+   * @param seriesId the ID of the series being edited
+   * @param property the property of the events being edited
+   * @param newValue the new value replacing the current one for the given property
+   * @param cutoff   the earliest start time of the events to edit, or null to edit them all
    */
-  private List<DayOfWeek> abbreviationsToWeekdays(String abbreviations) {
-    ArrayList<DayOfWeek> weekdays = new ArrayList<>();
-    for (int i = 0; i < abbreviations.length(); i++) {
-      char c = abbreviations.charAt(i);
-      DayOfWeek day = DayOfWeekAbbreviation.charToAbbr(c).getDayOfWeek();
-      weekdays.add(day);
+  private void editSeriesDetails(String seriesId, String property, String newValue,
+                                 LocalDateTime cutoff) {
+    LocalDateTime storedCutoff = cutoff == null ? null : this.toStored(cutoff);
+    for (Event event : new ArrayList<>(this.seriesEvents.getOrDefault(seriesId, Set.of()))) {
+      if (storedCutoff == null || !event.getStartDateTime().isBefore(storedCutoff)) {
+        editEventHelper(this.toView(event), property, newValue);
+      }
+    }
+    for (RecurringSeries series : new ArrayList<>(this.seriesRules.getOrDefault(seriesId,
+            List.of()))) {
+      RecurringSeries kept = null;
+      RecurringSeries edited = series;
+      if (storedCutoff != null) {
+        //occurrences on the cutoff date are edited only if they start at or after the cutoff
+        LocalDate splitDate = series.firstDateFrom(storedCutoff);
+        kept = series.between(LocalDate.MIN, splitDate.minusDays(1));
+        edited = series.between(splitDate, LocalDate.MAX);
+      }
+      if (edited.isEmpty()) {
+        continue;
+      }
+      edited = edited.withTemplate(this.editedCopy(series.getTemplate(), property, newValue));
+      this.unindexSeries(series);
+      try {
+        this.checkSeriesClashes(edited);
+      } catch (IllegalArgumentException e) {
+        this.indexSeries(series);
+        throw e;
+      }
+      if (kept != null && !kept.isEmpty()) {
+        this.indexSeries(kept);
+      }
+      this.indexSeries(edited);
+      notifyObservers();
+    }
+  }
+
+  /**
+   * Helper method for editMultipleEvents that moves the start time of every event in a series
+   * starting at or after the given cutoff by as much as the given event's start is moved. Like
+   * editSeriesDetails, events taken out of the series' rules are edited one by one, while the
+   * rules are split at the cutoff and given a template with the new start time, so their
+   * occurrences are never created and each rule still takes the same memory.
+   *
+   * <p>Occurrences keep their dates, so the rules keep their weekdays. A rule can only be moved
+   * this way while it is in the calendar's time zone, since the times of day of its occurrences
+   * are otherwise not the same in both zones. In that case, and when only one event would be
+   * edited, which takes the new start time as given, nothing is changed and false is returned, so
+   * the events are edited one by one instead.</p>
+   *
+   * @param seriesId the ID of the series being edited
+   * @param target   the event whose start time is given, in the calendar's time zone
+   * @param newValue the new start time of the given event
+   * @param cutoff   the earliest start time of the events to edit, or null to edit them all
+   * @return true if the series was edited, false if its events must be edited one by one
+   * @throws IllegalStateException if an event would start on a different day than it ends
+   */
+  private boolean editSeriesStart(String seriesId, Event target, String newValue,
+                                  LocalDateTime cutoff) {
+    LocalDateTime newStart;
+    try {
+      newStart = LocalDateTime.parse(newValue, dateTimeFormatter);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid value for property 'start': "
+              + newValue + ". " + "Please ensure the value is correct.");
+    }
+    Duration shift = Duration.between(target.getStartDateTime(), newStart);
+    LocalDateTime storedCutoff = cutoff == null ? null : this.toStored(cutoff);
+    List<Event> detached = new ArrayList<>();
+    for (Event event : this.seriesEvents.getOrDefault(seriesId, Set.of())) {
+      if (storedCutoff == null || !event.getStartDateTime().isBefore(storedCutoff)) {
+        detached.add(this.toView(event));
+      }
+    }
+    List<RecurringSeries> rules = new ArrayList<>(this.seriesRules.getOrDefault(seriesId,
+            List.of()));
+    long count = detached.size();
+    for (RecurringSeries series : rules) {
+      if (!series.getZone().equals(this.zone)) {
+        return false;
+      }
+      count += storedCutoff == null ? series.size()
+              : series.between(series.firstDateFrom(storedCutoff), LocalDate.MAX).size();
+    }
+    if (count <= 1) {
+      return false;
+    }
+    //check every event before changing any of them
+    for (Event event : detached) {
+      if (!event.getStartDateTime().plus(shift).toLocalDate()
+              .equals(event.getEndDateTime().toLocalDate())) {
+        throw new IllegalStateException("A series event cannot be edited to span multiple days.");
+      }
+    }
+    for (RecurringSeries series : rules) {
+      Event template = series.getTemplate();
+      if (!template.getStartDateTime().plus(shift).toLocalDate()
+              .equals(template.getEndDateTime().toLocalDate())) {
+        throw new IllegalStateException("A series event cannot be edited to span multiple days.");
+      }
+    }
+    for (Event event : detached) {
+      editTimesHelper(event, "start", event.getStartDateTime().plus(shift)
+              .format(dateTimeFormatter));
+    }
+    for (RecurringSeries series : rules) {
+      RecurringSeries kept = null;
+      RecurringSeries edited = series;
+      if (storedCutoff != null) {
+        LocalDate splitDate = series.firstDateFrom(storedCutoff);
+        kept = series.between(LocalDate.MIN, splitDate.minusDays(1));
+        edited = series.between(splitDate, LocalDate.MAX);
+      }
+      if (edited.isEmpty()) {
+        continue;
+      }
+      Event template = series.getTemplate();
+      edited = edited.withTemplate(withTimes(template, template.getStartDateTime().plus(shift),
+              template.getEndDateTime()));
+      this.unindexSeries(series);
+      try {
+        this.checkSeriesClashes(edited);
+      } catch (IllegalArgumentException e) {
+        this.indexSeries(series);
+        throw e;
+      }
+      if (kept != null && !kept.isEmpty()) {
+        this.indexSeries(kept);
+      }
+      this.indexSeries(edited);
+      notifyObservers();
     }
-    return weekdays;
+    return true;
   }
 
   private boolean processChangeTime(List<Event> events, String property, String newValue) {
@@ -0,0 +1,465 @@
+package calendar.model.calendarclass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import calendar.model.event.Event;
+import calendar.model.event.RecurringEventRule;
+
+/**
+ * This class represents a snapshot of a set of calendars: their names, time zones, single events
+ * and recurring series, and which of them is in use. A snapshot is written to a compact binary
+ * file and read back in one sequential read, which rebuilds the calendars far faster than
+ * replaying the commands that created them, as no date-time text is parsed and the events of each
+ * calendar are read in the order of its event store, straight into its columns, without creating
+ * an event for each of them.
+ *
+ * <p>After a header, the file is written in blocks of at most {@link #BUFFER_SIZE} bytes, each
+ * starting with its length and CRC32C checksum, so a damaged or incomplete file is detected
+ * before any calendar is rebuilt from it. The bytes of the blocks hold the name of the calendar
+ * in use and the number of calendars, followed by each calendar. Times are written as UTC epoch
+ * seconds and nanoseconds, dates as epoch days, and the location, status and all-day flag of an
+ * event packed into one int. Each distinct string is written once, the first time it is used,
+ * and afterwards only by its index, so repeated subjects and series IDs cost four bytes each.</p>
+ */
+public final class CalendarSnapshot {
+  private static final int MAGIC = 0x43414c53; //"CALS"
+  private static final int VERSION = 2;
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int BLOCK_HEADER = 2 * Integer.BYTES; //the length and checksum of a block
+  private static final int NULL_STRING = -1;
+
+  private final List<NewCalendarModel> calendars;
+  private final String currentCalendar;
+
+  /**
+   * Constructs a CalendarSnapshot of the given calendars.
+   *
+   * @param calendars       the calendars in the snapshot
+   * @param currentCalendar the name of the calendar in use, or null if none is
+   */
+  public CalendarSnapshot(List<NewCalendarModel> calendars, String currentCalendar) {
+    this.calendars = calendars;
+    this.currentCalendar = currentCalendar;
+  }
+
+  /**
+   * Gets the calendars in this snapshot.
+   *
+   * @return the calendars
+   */
+  public List<NewCalendarModel> getCalendars() {
+    return Collections.unmodifiableList(this.calendars);
+  }
+
+  /**
+   * Gets the name of the calendar that was in use when the snapshot was taken.
+   *
+   * @return the name of the calendar in use, or null if none was
+   */
+  public String getCurrentCalendar() {
+    return this.currentCalendar;
+  }
+
+  /**
+   * Writes this snapshot to the given file. The snapshot is written to a temporary file next to
+   * it, forced to disk and then moved over the given file, so the file always holds either the
+   * previous snapshot or this one in full.
+   *
+   * @param file the file to write the snapshot to
+   * @throws IOException if the snapshot cannot be written
+   */
+  public void write(Path file) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      this.writeTo(channel);
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Encodes this snapshot into the bytes {@link #write} would write to a file, so the calendars
+   * can be captured quickly and the bytes written to disk later, without holding on to them.
+   *
+   * @return the bytes of the snapshot
+   */
+  public byte[] encode() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      this.writeTo(Channels.newChannel(bytes));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e); //writing to memory does not fail
+    }
+    return bytes.toByteArray();
+  }
+
+  private void writeTo(WritableByteChannel channel) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION);
+    header.flip();
+    while (header.hasRemaining()) {
+      channel.write(header);
+    }
+    Output out = new Output(channel);
+    out.putString(this.currentCalendar);
+    out.putInt(this.calendars.size());
+    for (NewCalendarModel calendar : this.calendars) {
+      writeCalendar(out, calendar);
+    }
+    out.flush();
+  }
+
+  /**
+   * Reads a snapshot from the given file, rebuilding the calendars it holds.
+   *
+   * @param file the file holding the snapshot
+   * @return the snapshot read
+   * @throws IOException if the file cannot be read, or does not hold a complete snapshot
+   */
+  public static CalendarSnapshot read(Path file) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("The snapshot file is too large: " + size + " bytes.");
+      }
+      buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          throw new EOFException("The snapshot file ended early.");
+        }
+      }
+      buffer.flip();
+    }
+    if (buffer.remaining() < 2 * Integer.BYTES || buffer.getInt() != MAGIC
+            || buffer.getInt() != VERSION) {
+      throw new IOException("Not a calendar snapshot: " + file);
+    }
+    buffer = joinBlocks(buffer, file);
+    try {
+      Input in = new Input(buffer);
+      String current = in.getString();
+      int count = buffer.getInt();
+      List<NewCalendarModel> calendars = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        calendars.add(readCalendar(in));
+      }
+      if (buffer.hasRemaining()) {
+        throw new IOException("The snapshot file is damaged: " + file);
+      }
+      return new CalendarSnapshot(calendars, current);
+    } catch (BufferUnderflowException e) {
+      throw new IOException("The snapshot file is incomplete: " + file, e);
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw new IOException("The snapshot file is damaged: " + file, e);
+    }
+  }
+
+  /**
+   * Checks the length and checksum of every block in the given buffer, from its position to its
+   * end, and moves the bytes of the blocks together in place, dropping their headers.
+   *
+   * @param buffer the buffer holding the blocks of a snapshot file, backed by an array
+   * @param file   the snapshot file, for error messages
+   * @return a buffer over the bytes of the blocks, one after the other
+   * @throws IOException if a block is cut short or does not match its checksum
+   */
+  private static ByteBuffer joinBlocks(ByteBuffer buffer, Path file) throws IOException {
+    byte[] bytes = buffer.array();
+    CRC32C checksum = new CRC32C();
+    int start = buffer.position();
+    int read = start;
+    int written = start;
+    while (read < buffer.limit()) {
+      int length = buffer.limit() - read < BLOCK_HEADER ? -1 : buffer.getInt(read);
+      if (length <= 0 || length > buffer.limit() - read - BLOCK_HEADER) {
+        throw new IOException("The snapshot file is incomplete: " + file);
+      }
+      checksum.reset();
+      checksum.update(bytes, read + BLOCK_HEADER, length);
+      if ((int) checksum.getValue() != buffer.getInt(read + Integer.BYTES)) {
+        throw new IOException("The snapshot file is damaged: " + file);
+      }
+      System.arraycopy(bytes, read + BLOCK_HEADER, bytes, written, length);
+      read += BLOCK_HEADER + length;
+      written += length;
+    }
+    return ByteBuffer.wrap(bytes, start, written - start);
+  }
+
+  private static void writeCalendar(Output out, NewCalendarModel calendar) throws IOException {
+    out.putString(calendar.getName());
+    out.putString(calendar.getTimeZone().getId());
+    //the events that fit the columns of an event store are written apart from the long ones, in
+    //the order of the store, so they can be read straight into its columns
+    List<Event> rows = new ArrayList<>();
+    List<Event> longEvents = new ArrayList<>();
+    for (Event event : calendar.events.toList()) {
+      if (EventColumns.isLong(event.getStartDateTime(), event.getEndDateTime())) {
+        longEvents.add(event);
+      } else {
+        rows.add(event);
+      }
+    }
+    out.putInt(rows.size());
+    for (Event event : rows) {
+      writeEvent(out, event);
+    }
+    out.putInt(longEvents.size());
+    for (Event event : longEvents) {
+      writeEvent(out, event);
+    }
+    List<RecurringSeries> series = new ArrayList<>();
+    calendar.seriesRules.values().forEach(series::addAll);
+    out.putInt(series.size());
+    for (RecurringSeries s : series) {
+      writeEvent(out, s.getTemplate());
+      out.putString(s.getZone().getId());
+      out.putString(s.getRule().getWeekdays());
+      out.putLong(s.getFirstDate().toEpochDay());
+      out.putLong(s.getLastDate().toEpochDay());
+      out.putInt(s.getExceptions().size());
+      for (LocalDate date : s.getExceptions()) {
+        out.putLong(date.toEpochDay());
+      }
+    }
+  }
+
+  private static NewCalendarModel readCalendar(Input in) throws IOException {
+    String name = in.getString();
+    ZoneId zone = ZoneId.of(in.getString());
+    EventColumns store = new EventColumns(CalendarModel.TIME_ORDER);
+    List<Event> indexed = new ArrayList<>();
+    int rowCount = in.buffer.getInt();
+    for (int i = 0; i < rowCount; i++) {
+      readRow(in, store, indexed);
+    }
+    int longCount = in.buffer.getInt();
+    for (int i = 0; i < longCount; i++) {
+      Event event = readEvent(in);
+      store.add(event);
+      indexed.add(event);
+    }
+    int seriesCount = in.buffer.getInt();
+    List<RecurringSeries> series = new ArrayList<>(seriesCount);
+    for (int i = 0; i < seriesCount; i++) {
+      Event template = readEvent(in);
+      ZoneId seriesZone = ZoneId.of(in.getString());
+      //a stored series only uses the weekdays of its rule
+      RecurringEventRule rule = new RecurringEventRule(in.getString(), 0, null,
+              template.getStartDateTime().toLocalTime(), template.getEndDateTime().toLocalTime(),
+              template.getIsAllDayEvent());
+      LocalDate firstDate = LocalDate.ofEpochDay(in.buffer.getLong());
+      LocalDate lastDate = LocalDate.ofEpochDay(in.buffer.getLong());
+      int exceptionCount = in.buffer.getInt();
+      Set<LocalDate> exceptions = new HashSet<>();
+      for (int j = 0; j < exceptionCount; j++) {
+        exceptions.add(LocalDate.ofEpochDay(in.buffer.getLong()));
+      }
+      series.add(new RecurringSeries(template, rule, seriesZone, firstDate, lastDate,
+              exceptions));
+    }
+    NewCalendarModel calendar = new NewCalendarModel(name, zone, store, true);
+    calendar.restore(indexed, series);
+    calendar.setDirty(false);
+    return calendar;
+  }
+
+  private static void writeEvent(Output out, Event event) throws IOException {
+    out.putString(event.getSubject());
+    out.putTime(event.getStartDateTime());
+    out.putTime(event.getEndDateTime());
+    out.putString(event.getDescription());
+    out.putString(event.getSeriesId());
+    out.putInt(EventColumns.packDetails(event));
+  }
+
+  /**
+   * Reads an event written by {@link #writeEvent} straight into the columns of the given store,
+   * creating the event only if it belongs to a series and so has to be indexed by it.
+   */
+  private static void readRow(Input in, EventColumns store, List<Event> indexed)
+          throws IOException {
+    String subject = in.getString();
+    long startSecond = in.buffer.getLong();
+    int startNano = in.buffer.getInt();
+    long endSecond = in.buffer.getLong();
+    int endNano = in.buffer.getInt();
+    String description = in.getString();
+    String seriesId = in.getString();
+    int details = in.buffer.getInt();
+    store.appendSorted(subject, startSecond, startNano, endSecond, endNano, description,
+            seriesId, details);
+    if (seriesId != null) {
+      Event.EventBuilder builder = new Event.EventBuilder()
+              .subject(subject)
+              .startDateTime(LocalDateTime.ofEpochSecond(startSecond, startNano, ZoneOffset.UTC))
+              .endDateTime(LocalDateTime.ofEpochSecond(endSecond, endNano, ZoneOffset.UTC))
+              .description(description)
+              .seriesId(seriesId);
+      indexed.add(EventColumns.withDetails(builder, details).build());
+    }
+  }
+
+  private static Event readEvent(Input in) throws IOException {
+    Event.EventBuilder builder = new Event.EventBuilder()
+            .subject(in.getString())
+            .startDateTime(in.getTime())
+            .endDateTime(in.getTime())
+            .description(in.getString())
+            .seriesId(in.getString());
+    return EventColumns.withDetails(builder, in.buffer.getInt()).build();
+  }
+
+  /**
+   * Writes the values of a snapshot to a channel through a direct buffer, one block at a time,
+   * giving each distinct string an index the first time it is written.
+   */
+  private static final class Output {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> strings;
+    private final CRC32C checksum;
+
+    private Output(WritableByteChannel channel) {
+      this.channel = channel;
+      this.buffer = ByteBuffer.allocateDirect(BLOCK_HEADER + BUFFER_SIZE);
+      this.buffer.position(BLOCK_HEADER);
+      this.strings = new HashMap<>();
+      this.checksum = new CRC32C();
+    }
+
+    private void putInt(int value) throws IOException {
+      this.ensure(Integer.BYTES);
+      this.buffer.putInt(value);
+    }
+
+    private void putLong(long value) throws IOException {
+      this.ensure(Long.BYTES);
+      this.buffer.putLong(value);
+    }
+
+    private void putTime(LocalDateTime time) throws IOException {
+      this.ensure(Long.BYTES + Integer.BYTES);
+      this.buffer.putLong(time.toEpochSecond(ZoneOffset.UTC)).putInt(time.getNano());
+    }
+
+    /**
+     * Writes the index of the given string, followed by its UTF-8 bytes if this is the first
+     * time it is written.
+     */
+    private void putString(String value) throws IOException {
+      if (value == null) {
+        this.putInt(NULL_STRING);
+        return;
+      }
+      Integer index = this.strings.get(value);
+      if (index != null) {
+        this.putInt(index);
+        return;
+      }
+      this.strings.put(value, this.strings.size());
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      this.putInt(this.strings.size() - 1);
+      this.putInt(bytes.length);
+      for (int offset = 0; offset < bytes.length; ) {
+        this.ensure(1);
+        int length = Math.min(bytes.length - offset, this.buffer.remaining());
+        this.buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (this.buffer.remaining() < bytes) {
+        this.flush();
+      }
+    }
+
+    /**
+     * Writes the bytes buffered so far as one block, after their length and checksum.
+     */
+    private void flush() throws IOException {
+      int length = this.buffer.position() - BLOCK_HEADER;
+      if (length == 0) {
+        return;
+      }
+      this.checksum.reset();
+      this.checksum.update(this.buffer.slice(BLOCK_HEADER, length));
+      this.buffer.putInt(0, length).putInt(Integer.BYTES, (int) this.checksum.getValue());
+      this.buffer.flip();
+      while (this.buffer.hasRemaining()) {
+        this.channel.write(this.buffer);
+      }
+      this.buffer.clear().position(BLOCK_HEADER);
+    }
+  }
+
+  /**
+   * Reads the values of a snapshot from a buffer holding the whole file, keeping the strings read
+   * so far to resolve their indexes.
+   */
+  private static final class Input {
+    private final ByteBuffer buffer;
+    private final List<String> strings;
+
+    private Input(ByteBuffer buffer) {
+      this.buffer = buffer;
+      this.strings = new ArrayList<>();
+    }
+
+    private LocalDateTime getTime() {
+      long second = this.buffer.getLong();
+      return LocalDateTime.ofEpochSecond(second, this.buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    private String getString() throws IOException {
+      int index = this.buffer.getInt();
+      if (index == NULL_STRING) {
+        return null;
+      }
+      if (index < this.strings.size()) {
+        return this.strings.get(index);
+      }
+      if (index != this.strings.size()) {
+        throw new IOException("Invalid string index in snapshot: " + index);
+      }
+      int length = this.buffer.getInt();
+      if (length < 0 || length > this.buffer.remaining()) {
+        throw new IOException("Invalid string length in snapshot: " + length);
+      }
+      byte[] bytes = new byte[length];
+      this.buffer.get(bytes);
+      String value = new String(bytes, StandardCharsets.UTF_8);
+      this.strings.add(value);
+      return value;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.List;
+
+import calendar.model.event.Event;
+
+/**
+ * This class represents the events of a calendar as they were at one moment, as returned by
+ * {@link ICalendar#snapshot()}. A state never changes: the calendar publishes a new one after each
+ * change, sharing every part of its indexes the change did not touch with the states before it.
+ * A state can therefore be kept for as long as needed, such as for a report over a whole year, and
+ * read from any thread without locking, while the calendar goes on changing.
+ */
+public final class CalendarState {
+  private final PersistentIntervalTree<Event> events; //single events, with times in UTC
+  private final PersistentIntervalTree<RecurringSeries> series; //copies that are never changed
+  private final ZoneId zone;
+
+  /**
+   * Constructs a CalendarState.
+   *
+   * @param events the single events of the calendar, with times in UTC
+   * @param series the recurring series of the calendar, none of which may change
+   * @param zone   the time zone the calendar's times are shown in
+   */
+  CalendarState(PersistentIntervalTree<Event> events,
+                PersistentIntervalTree<RecurringSeries> series, ZoneId zone) {
+    this.events = events;
+    this.series = series;
+    this.zone = zone;
+  }
+
+  /**
+   * Gets the time zone the calendar's times were shown in.
+   *
+   * @return the time zone of the calendar
+   */
+  public ZoneId getTimeZone() {
+    return this.zone;
+  }
+
+  /**
+   * Gets the number of single events and recurring series in the calendar, counting each series
+   * once however many times it occurs.
+   *
+   * @return the number of single events and series
+   */
+  public int size() {
+    return this.events.size() + this.series.size();
+  }
+
+  /**
+   * Returns all events that take place between two date-times, including events that only
+   * partially occur in the range, sorted by start time.
+   *
+   * @param startDateTime the starting date time of the range, in the calendar's time zone
+   * @param endDateTime   the ending date time of the range, in the calendar's time zone
+   * @return a list of the events in the range, with times in the calendar's time zone
+   */
+  public List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    LocalDateTime from = this.toStored(startDateTime);
+    LocalDateTime to = this.toStored(endDateTime);
+    List<Event> result = this.events.overlapping(from, to);
+    List<RecurringSeries> overlapping = this.series.overlapping(from, to);
+    if (!overlapping.isEmpty()) {
+      for (RecurringSeries s : overlapping) {
+        result.addAll(s.occurrencesBetween(from, to));
+      }
+      result.sort(CalendarModel.TIME_ORDER);
+    }
+    return this.toView(result);
+  }
+
+  /**
+   * Returns all events that take place on the given date, sorted by start time.
+   *
+   * @param date the date to look at
+   * @return a list of the events on that date, with times in the calendar's time zone
+   */
+  public List<Event> getEventsOnDate(LocalDate date) {
+    return this.getEventsInRange(date.atStartOfDay(), date.atTime(23, 59, 59));
+  }
+
+  /**
+   * Checks if any event covers the given time, including events that start or end at that time.
+   *
+   * @param time the date and time to check, in the calendar's time zone
+   * @return true if there is an event at that time, false otherwise
+   */
+  public boolean isBusy(LocalDateTime time) {
+    LocalDateTime stored = this.toStored(time);
+    if (this.events.anyContaining(stored)) {
+      return true;
+    }
+    for (RecurringSeries s : this.series.overlapping(stored.minusNanos(1),
+            stored.plusNanos(1))) {
+      if (s.isBusyAt(stored)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns every event in the calendar, including every occurrence of its recurring series,
+   * sorted by start time. The list is only built the first time it is read, so passing it on
+   * costs nothing to whoever does not read it.
+   *
+   * @return an unmodifiable list of all events, with times in the calendar's time zone
+   */
+  public List<Event> getEvents() {
+    return new AbstractList<>() {
+      private volatile List<Event> all;
+
+      private List<Event> all() {
+        if (this.all == null) {
+          List<Event> result = CalendarState.this.events.toList();
+          if (CalendarState.this.series.size() > 0) {
+            for (RecurringSeries s : CalendarState.this.series.toList()) {
+              result.addAll(s.occurrences());
+            }
+            result.sort(CalendarModel.TIME_ORDER);
+          }
+          this.all = CalendarState.this.toView(result);
+        }
+        return this.all;
+      }
+
+      @Override
+      public Event get(int index) {
+        return this.all().get(index);
+      }
+
+      @Override
+      public int size() {
+        return this.all().size();
+      }
+    };
+  }
+
+  private LocalDateTime toStored(LocalDateTime time) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return time;
+    }
+    return time.atZone(this.zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+  }
+
+  private LocalDateTime toView(LocalDateTime time) {
+    return time.atZone(ZoneOffset.UTC).withZoneSameInstant(this.zone).toLocalDateTime();
+  }
+
+  private List<Event> toView(List<Event> stored) {
+    if (!this.zone.equals(ZoneOffset.UTC)) {
+      stored.replaceAll(event -> CalendarModel.withTimes(event,
+              this.toView(event.getStartDateTime()), this.toView(event.getEndDateTime())));
+    }
+    return stored;
+  }
+}
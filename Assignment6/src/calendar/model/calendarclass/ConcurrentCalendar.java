@@ -0,0 +1,314 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+/**
+ * This class represents a calendar that can be shared between threads, such as the GUI and a
+ * background import, by guarding another calendar with a {@link StampedLock}.
+ *
+ * <p>Changes take the write lock, so the changes made to one calendar are serialized. Queries that
+ * {@link CalendarState} can answer, for the events of a date or range, whether a time is busy and
+ * the time zone, are run on the state the guarded calendar last published, which never changes.
+ * Only fetching the state runs under an optimistic read, which takes no lock at all: if a change
+ * was made meanwhile, the state is fetched again under the read lock. Those readers therefore
+ * never walk the indexes a writer is changing, and only wait when a change overlaps the fetch.
+ * The other queries run under the read lock.</p>
+ *
+ * <p>The guarded calendar starts publishing its state on the first such query, or the first call
+ * to {@link #snapshot()}. Observers are notified while the write lock is held, on the thread
+ * making the change, and may query and change the calendar from there, as may the operations
+ * passed to {@link #batch}; their queries see the change so far.</p>
+ */
+public class ConcurrentCalendar implements ICalendar {
+  private final ICalendar calendar;
+  private final StampedLock lock;
+  private volatile Thread writer; //the thread holding the write lock, which may re-enter
+  private volatile boolean snapshotting; //whether the guarded calendar publishes its state
+
+  /**
+   * Constructs a ConcurrentCalendar guarding the given calendar. The calendar should only be used
+   * through this ConcurrentCalendar from now on.
+   *
+   * @param calendar the calendar to be guarded
+   */
+  public ConcurrentCalendar(ICalendar calendar) {
+    if (calendar == null) {
+      throw new IllegalArgumentException("The calendar cannot be null.");
+    }
+    this.calendar = calendar;
+    this.lock = new StampedLock();
+  }
+
+  /**
+   * Runs a query holding the read lock. A query made by the thread holding the write lock, from
+   * an observer or a batch, runs straight away.
+   *
+   * @param query the query to be run, which must not change the calendar
+   * @param <T>   the type of the result of the query
+   * @return the result of the query
+   */
+  private <T> T read(Supplier<T> query) {
+    if (this.writer == Thread.currentThread()) {
+      return query.get();
+    }
+    long stamp = this.lock.readLock();
+    try {
+      return query.get();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Runs a query on the state the guarded calendar last published. The thread holding the write
+   * lock runs the query on the calendar itself instead, as the state of its change in progress
+   * is not published until the change is complete.
+   *
+   * @param query  the query to be run on the state
+   * @param direct the same query, run on the calendar
+   * @param <T>    the type of the result of the query
+   * @return the result of the query
+   */
+  private <T> T readState(Function<CalendarState, T> query, Supplier<T> direct) {
+    if (this.writer == Thread.currentThread()) {
+      return direct.get();
+    }
+    return query.apply(this.currentState());
+  }
+
+  /**
+   * Fetches the state the guarded calendar last published, first under an optimistic read and,
+   * if a change was made meanwhile, again under the read lock, so that the state of a change
+   * that was complete before this call is never missed.
+   *
+   * @return the current state of the calendar
+   */
+  private CalendarState currentState() {
+    if (!this.snapshotting) {
+      return this.snapshot();
+    }
+    long stamp = this.lock.tryOptimisticRead();
+    if (stamp != 0) {
+      CalendarState state = this.calendar.snapshot();
+      if (this.lock.validate(stamp)) {
+        return state;
+      }
+    }
+    stamp = this.lock.readLock();
+    try {
+      return this.calendar.snapshot();
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Runs a change holding the write lock. A change made by the thread already holding it, from
+   * an observer or a batch, runs straight away.
+   *
+   * @param change the change to be run
+   */
+  private void write(Runnable change) {
+    if (this.writer == Thread.currentThread()) {
+      change.run();
+      return;
+    }
+    long stamp = this.lock.writeLock();
+    this.writer = Thread.currentThread();
+    try {
+      change.run();
+    } finally {
+      this.writer = null;
+      this.lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void addObserver(CalendarObserver observer) {
+    this.write(() -> this.calendar.addObserver(observer));
+  }
+
+  @Override
+  public void removeObserver(CalendarObserver observer) {
+    this.write(() -> this.calendar.removeObserver(observer));
+  }
+
+  @Override
+  public void notifyObservers() {
+    this.write(this.calendar::notifyObservers);
+  }
+
+  /**
+   * Runs the given operation as a single change to the calendar, holding the write lock
+   * throughout, so other threads see either none or all of its changes.
+   *
+   * @param operation the operation to be run
+   */
+  @Override
+  public void batch(Runnable operation) {
+    this.write(() -> this.calendar.batch(operation));
+  }
+
+  @Override
+  public void addEvent(Event event) {
+    this.write(() -> this.calendar.addEvent(event));
+  }
+
+  @Override
+  public void addEvents(Collection<Event> events) {
+    this.write(() -> this.calendar.addEvents(events));
+  }
+
+  @Override
+  public Event getEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    return this.read(() -> this.calendar.getEvent(subject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public List<Event> getEventsOnDate(LocalDate dateTime) {
+    return this.readState(state -> state.getEventsOnDate(dateTime),
+            () -> this.calendar.getEventsOnDate(dateTime));
+  }
+
+  @Override
+  public List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    return this.readState(state -> state.getEventsInRange(startDateTime, endDateTime),
+            () -> this.calendar.getEventsInRange(startDateTime, endDateTime));
+  }
+
+  /**
+   * Walks the events that take place between two date-times in order of start time, holding the
+   * read lock throughout, since the visitor cannot take back what it was already passed. The
+   * visitor must not change the calendar.
+   *
+   * @param startDateTime the starting date time of the range
+   * @param endDateTime   the ending date time of the range
+   * @param expandSeries  whether recurring series are passed as their occurrences in the range,
+   *                      or whole
+   * @param visitor       the visitor receiving the events and series, in order of start time
+   */
+  @Override
+  public void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                           boolean expandSeries, EventVisitor visitor) {
+    if (this.writer == Thread.currentThread()) {
+      this.calendar.forEachEvent(startDateTime, endDateTime, expandSeries, visitor);
+      return;
+    }
+    long stamp = this.lock.readLock();
+    try {
+      this.calendar.forEachEvent(startDateTime, endDateTime, expandSeries, visitor);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public boolean isBusy(LocalDateTime time) {
+    return this.readState(state -> state.isBusy(time), () -> this.calendar.isBusy(time));
+  }
+
+  @Override
+  public List<Event> getEventsBySeriesId(String seriesId) {
+    return this.read(() -> this.calendar.getEventsBySeriesId(seriesId));
+  }
+
+  @Override
+  public List<Event> findEventsBySubjectAndStart(String subject, LocalDateTime date) {
+    return this.read(() -> this.calendar.findEventsBySubjectAndStart(subject, date));
+  }
+
+  @Override
+  public void createSingleEvent(String eventSubject, String startDateTime, String endDateTime) {
+    this.write(() -> this.calendar.createSingleEvent(eventSubject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
+                                   String weekdays, int repeats) {
+    this.write(() -> this.calendar.createRecurringEvent(eventSubject, startDateTime,
+            endDateTime, weekdays, repeats));
+  }
+
+  @Override
+  public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
+                                   String weekdays, String untilDate) {
+    this.write(() -> this.calendar.createRecurringEvent(eventSubject, startDateTime,
+            endDateTime, weekdays, untilDate));
+  }
+
+  @Override
+  public void createAllDayEvent(String eventSubject, String onDate) {
+    this.write(() -> this.calendar.createAllDayEvent(eventSubject, onDate));
+  }
+
+  @Override
+  public void createRecurringAllDayEvent(String eventSubject, String onDate,
+                                         String weekdays, String untilDate) {
+    this.write(() -> this.calendar.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            untilDate));
+  }
+
+  @Override
+  public void createRecurringAllDayEvent(String eventSubject, String onDate,
+                                         String weekdays, int repeats) {
+    this.write(() -> this.calendar.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            repeats));
+  }
+
+  @Override
+  public void editSingleEvent(String property, String eventSubject, String startDateTime,
+                              String endDateTime, String newValue) {
+    this.write(() -> this.calendar.editSingleEvent(property, eventSubject, startDateTime,
+            endDateTime, newValue));
+  }
+
+  @Override
+  public void editMultipleEvents(String property, String eventSubject, String startDateTime,
+                                 String newValue, boolean editSeries) {
+    this.write(() -> this.calendar.editMultipleEvents(property, eventSubject, startDateTime,
+            newValue, editSeries));
+  }
+
+  @Override
+  public DateTimeFormatter getDateFormatter() {
+    return this.calendar.getDateFormatter();
+  }
+
+  @Override
+  public DateTimeFormatter getDateTimeFormatter() {
+    return this.calendar.getDateTimeFormatter();
+  }
+
+  @Override
+  public ZoneId getTimeZone() {
+    return this.readState(CalendarState::getTimeZone, this.calendar::getTimeZone);
+  }
+
+  /**
+   * Returns the events of the calendar as they are now. The first call holds the write lock while
+   * the guarded calendar starts keeping its state; later calls take no lock at all.
+   *
+   * @return the current state of the calendar
+   */
+  @Override
+  public CalendarState snapshot() {
+    if (!this.snapshotting) {
+      this.write(() -> {
+        this.calendar.snapshot();
+        this.snapshotting = true;
+      });
+    }
+    return this.calendar.snapshot();
+  }
+}
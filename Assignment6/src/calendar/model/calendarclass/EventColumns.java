@@ -0,0 +1,839 @@
+package calendar.model.calendarclass;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+/**
+ * This class represents a store of events kept in parallel primitive arrays, one per field,
+ * instead of as Event objects. Times are kept as epoch seconds and nanoseconds, subjects as ids
+ * into a dictionary, descriptions and series IDs as one shared copy of each distinct string, and
+ * the location, status and all-day flag are packed into one byte, so range scans and lookups run
+ * as tight loops over contiguous arrays. Event objects are only created for the events a query
+ * returns.
+ *
+ * <p>Most events live in the main columns, sorted by start time, then end time, then subject.
+ * Since every event there lasts at most {@link #MAX_COLUMN_DURATION}, the events overlapping a
+ * range are found with one binary search followed by a scan. New events are appended to a small
+ * unsorted delta, which is merged into the main columns once it grows past four times the square
+ * root of their size, which balances the cost of scanning the delta against the cost of merging.
+ * Removed events are only marked as deleted until the next merge. Events lasting longer than
+ * {@link #MAX_COLUMN_DURATION} are rare, and are kept in an interval tree instead.</p>
+ *
+ * <p>Range queries filter the rows they scan with a {@link RangeScan}, which compares the start
+ * and end seconds of a block of rows at a time, and only check the rows it finds exactly.</p>
+ */
+class EventColumns implements EventStore {
+  static final Duration MAX_COLUMN_DURATION = Duration.ofDays(1);
+  private static final int MIN_DELTA = 256;
+  private static final int SCAN_BLOCK = 512; //rows passed to the range scan at a time
+  private static final Location[] LOCATIONS = Location.values();
+  private static final EventStatus[] STATUSES = EventStatus.values();
+  //layout of the packed flags: the location's ordinal plus one (zero for no location) in the low
+  //two bits, then the status' ordinal, then whether the event is an all-day event, and finally
+  //whether the row has been removed
+  private static final int LOCATION_MASK = 0b11;
+  private static final int STATUS_SHIFT = 2;
+  private static final int STATUS_MASK = 0b11;
+  private static final int ALL_DAY_FLAG = 1 << 4;
+  static final int DELETED_FLAG = 1 << 7;
+
+  private final Comparator<Event> order;
+  private final List<String> subjects; //subject of each id
+  private final Map<String, Integer> subjectIds;
+  private final Map<String, String> strings; //the shared copy of each description and series ID
+  private final IntervalTree<Event> longEvents;
+  private final RangeScan scan;
+  private final Columns main;
+  private Columns delta;
+  private int deleted; //rows of the main columns marked as deleted
+  private int size;
+
+  /**
+   * Represents a set of parallel arrays holding one event per row.
+   */
+  private static final class Columns {
+    private long[] startSecond;
+    private int[] startNano;
+    private long[] endSecond;
+    private int[] endNano;
+    private int[] subject;
+    private String[] description;
+    private String[] seriesId;
+    private byte[] flags;
+    private int size;
+
+    private Columns(int capacity) {
+      this.startSecond = new long[capacity];
+      this.startNano = new int[capacity];
+      this.endSecond = new long[capacity];
+      this.endNano = new int[capacity];
+      this.subject = new int[capacity];
+      this.description = new String[capacity];
+      this.seriesId = new String[capacity];
+      this.flags = new byte[capacity];
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity <= this.startSecond.length) {
+        return;
+      }
+      int newCapacity = Math.max(capacity, this.startSecond.length * 2);
+      this.startSecond = Arrays.copyOf(this.startSecond, newCapacity);
+      this.startNano = Arrays.copyOf(this.startNano, newCapacity);
+      this.endSecond = Arrays.copyOf(this.endSecond, newCapacity);
+      this.endNano = Arrays.copyOf(this.endNano, newCapacity);
+      this.subject = Arrays.copyOf(this.subject, newCapacity);
+      this.description = Arrays.copyOf(this.description, newCapacity);
+      this.seriesId = Arrays.copyOf(this.seriesId, newCapacity);
+      this.flags = Arrays.copyOf(this.flags, newCapacity);
+    }
+
+    private void copy(Columns from, int fromRow, int toRow) {
+      this.startSecond[toRow] = from.startSecond[fromRow];
+      this.startNano[toRow] = from.startNano[fromRow];
+      this.endSecond[toRow] = from.endSecond[fromRow];
+      this.endNano[toRow] = from.endNano[fromRow];
+      this.subject[toRow] = from.subject[fromRow];
+      this.description[toRow] = from.description[fromRow];
+      this.seriesId[toRow] = from.seriesId[fromRow];
+      this.flags[toRow] = from.flags[fromRow];
+    }
+
+    private void moveLastTo(int row) {
+      int last = --this.size;
+      this.startSecond[row] = this.startSecond[last];
+      this.startNano[row] = this.startNano[last];
+      this.endSecond[row] = this.endSecond[last];
+      this.endNano[row] = this.endNano[last];
+      this.subject[row] = this.subject[last];
+      this.description[row] = this.description[last];
+      this.seriesId[row] = this.seriesId[last];
+      this.flags[row] = this.flags[last];
+      this.description[last] = null;
+      this.seriesId[last] = null;
+    }
+  }
+
+  /**
+   * Constructs an empty EventColumns.
+   *
+   * @param order the order of the events returned by queries, which must sort by start time, then
+   *              end time, then subject
+   */
+  EventColumns(Comparator<Event> order) {
+    this.order = order;
+    this.subjects = new ArrayList<>();
+    this.subjectIds = new HashMap<>();
+    this.strings = new HashMap<>();
+    this.longEvents = new IntervalTree<>(order, Event::getStartDateTime, Event::getEndDateTime);
+    this.scan = RangeScan.select();
+    this.main = new Columns(0);
+    this.delta = new Columns(MIN_DELTA);
+  }
+
+  /**
+   * Returns the number of events in the store.
+   *
+   * @return the number of events in the store
+   */
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds the given event to the store. The event must not already be in it.
+   *
+   * @param event the event to be added
+   */
+  @Override
+  public void add(Event event) {
+    this.append(event);
+    if (this.delta.size > this.deltaLimit()) {
+      this.merge();
+    }
+  }
+
+  /**
+   * Adds every given event to the store, merging them into the main columns at once when there are
+   * many of them. None of the events may already be in the store.
+   *
+   * @param events the events to be added
+   */
+  @Override
+  public void addAll(Collection<Event> events) {
+    this.delta.ensureCapacity(this.delta.size + events.size());
+    for (Event event : events) {
+      this.append(event);
+    }
+    if (this.delta.size > this.deltaLimit()) {
+      this.merge();
+    }
+  }
+
+  /**
+   * Removes the event with the same subject and times as the given event, if there is one.
+   *
+   * @param event the event to be removed
+   * @return true if an event was removed, false otherwise
+   */
+  @Override
+  public boolean remove(Event event) {
+    LocalDateTime start = event.getStartDateTime();
+    LocalDateTime end = event.getEndDateTime();
+    if (isLong(start, end)) {
+      Event stored = this.findLong(event.getSubject(), start, end);
+      if (stored == null) {
+        return false;
+      }
+      this.longEvents.remove(stored);
+      this.size--;
+      return true;
+    }
+    Integer subjectId = this.subjectIds.get(event.getSubject());
+    if (subjectId == null) {
+      return false;
+    }
+    int row = this.findMain(subjectId, start, end);
+    if (row >= 0) {
+      this.main.flags[row] |= DELETED_FLAG;
+      this.deleted++;
+      this.size--;
+      if (this.deleted > this.main.size / 2) {
+        this.merge();
+      }
+      return true;
+    }
+    row = this.findDelta(subjectId, start, end);
+    if (row >= 0) {
+      this.delta.moveLastTo(row);
+      this.size--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the event with the given subject and times, if there is one.
+   *
+   * @param subject the subject of the event
+   * @param start   the start date and time of the event
+   * @param end     the end date and time of the event
+   * @return the matching event, or null if there is none
+   */
+  @Override
+  public Event get(String subject, LocalDateTime start, LocalDateTime end) {
+    if (isLong(start, end)) {
+      return this.findLong(subject, start, end);
+    }
+    Integer subjectId = this.subjectIds.get(subject);
+    if (subjectId == null) {
+      return null;
+    }
+    int row = this.findMain(subjectId, start, end);
+    if (row >= 0) {
+      return this.eventAt(this.main, row);
+    }
+    row = this.findDelta(subjectId, start, end);
+    return row >= 0 ? this.eventAt(this.delta, row) : null;
+  }
+
+  /**
+   * Returns every event with the given subject that starts at the given time.
+   *
+   * @param subject the subject of the events
+   * @param start   the start date and time of the events
+   * @return a list of the matching events, sorted by end time
+   */
+  @Override
+  public List<Event> startingAt(String subject, LocalDateTime start) {
+    List<Event> result = new ArrayList<>(1);
+    for (Event event : this.longEvents.overlapping(start, start.plusNanos(1))) {
+      if (event.getSubject().equals(subject) && event.getStartDateTime().equals(start)) {
+        result.add(event);
+      }
+    }
+    Integer subjectId = this.subjectIds.get(subject);
+    if (subjectId == null) {
+      return result;
+    }
+    long second = start.toEpochSecond(ZoneOffset.UTC);
+    int nano = start.getNano();
+    Columns c = this.main;
+    for (int row = this.firstStartingFrom(second, nano); row < c.size
+            && c.startSecond[row] == second && c.startNano[row] == nano; row++) {
+      if (c.subject[row] == subjectId && (c.flags[row] & DELETED_FLAG) == 0) {
+        result.add(this.eventAt(c, row));
+      }
+    }
+    c = this.delta;
+    for (int row = 0; row < c.size; row++) {
+      if (c.subject[row] == subjectId && c.startSecond[row] == second
+              && c.startNano[row] == nano) {
+        result.add(this.eventAt(c, row));
+      }
+    }
+    if (result.size() > 1) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  /**
+   * Returns every event with the given subject that overlaps the given range. Only the rows that
+   * could overlap the range are scanned, and the subject id of each is compared before its event
+   * is created.
+   *
+   * @param subject the subject of the events
+   * @param from    the start of the range
+   * @param to      the end of the range
+   * @return a list of the matching events, sorted by start time
+   */
+  @Override
+  public List<Event> withSubject(String subject, LocalDateTime from, LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    for (Event event : this.longEvents.overlapping(from, to)) {
+      if (event.getSubject().equals(subject)) {
+        result.add(event);
+      }
+    }
+    Integer known = this.subjectIds.get(subject);
+    if (known == null) {
+      result.sort(this.order);
+      return result;
+    }
+    int subjectId = known;
+    boolean sorted = result.isEmpty();
+    this.scanOverlapping(this.main, from, to, row -> {
+      if (this.main.subject[row] == subjectId) {
+        result.add(this.eventAt(this.main, row));
+      }
+      return false;
+    });
+    int fromDelta = result.size();
+    this.scanOverlapping(this.delta, from, to, row -> {
+      if (this.delta.subject[row] == subjectId) {
+        result.add(this.eventAt(this.delta, row));
+      }
+      return false;
+    });
+    if (!sorted || result.size() > fromDelta) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  /**
+   * Returns every event that overlaps the given range, meaning it starts before the end of the
+   * range and ends after the start of it. The events are sorted by start time.
+   *
+   * @param from the start of the range
+   * @param to   the end of the range
+   * @return a list of the overlapping events
+   */
+  @Override
+  public List<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+    List<Event> result = this.longEvents.overlapping(from, to);
+    boolean sorted = result.isEmpty();
+    this.scanOverlapping(this.main, from, to, row -> {
+      result.add(this.eventAt(this.main, row));
+      return false;
+    });
+    int fromDelta = result.size();
+    this.scanOverlapping(this.delta, from, to, row -> {
+      result.add(this.eventAt(this.delta, row));
+      return false;
+    });
+    if (!sorted || result.size() > fromDelta) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  /**
+   * Passes the times of every event that overlaps the given range to the given visitor, in no
+   * particular order, without creating the events.
+   *
+   * @param from    the start of the range
+   * @param to      the end of the range
+   * @param visitor the visitor receiving the times of each overlapping event
+   */
+  @Override
+  public void forEachOverlapping(LocalDateTime from, LocalDateTime to, TimeVisitor visitor) {
+    for (Event event : this.longEvents.overlapping(from, to)) {
+      LocalDateTime start = event.getStartDateTime();
+      LocalDateTime end = event.getEndDateTime();
+      visitor.visit(start.toEpochSecond(ZoneOffset.UTC), start.getNano(),
+              end.toEpochSecond(ZoneOffset.UTC), end.getNano());
+    }
+    for (Columns c : List.of(this.main, this.delta)) {
+      this.scanOverlapping(c, from, to, row -> {
+        visitor.visit(c.startSecond[row], c.startNano[row], c.endSecond[row], c.endNano[row]);
+        return false;
+      });
+    }
+  }
+
+  /**
+   * Passes every event that overlaps the given range to the given action, sorted by start time.
+   * Only the events of the delta and the long events are gathered and sorted first, since there
+   * are few of them; the rows of the main columns are already sorted, and each one is created
+   * only when the walk reaches it.
+   *
+   * @param from   the start of the range
+   * @param to     the end of the range
+   * @param action the action receiving each overlapping event, in order
+   */
+  @Override
+  public void forEachInOrder(LocalDateTime from, LocalDateTime to, Consumer<Event> action) {
+    List<Event> unsorted = this.longEvents.overlapping(from, to);
+    this.scanOverlapping(this.delta, from, to, row -> {
+      unsorted.add(this.eventAt(this.delta, row));
+      return false;
+    });
+    unsorted.sort(this.order);
+    int next = 0;
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    Columns c = this.main;
+    for (int row = this.firstEndingAfter(from); row < c.size
+            && compare(c.startSecond[row], c.startNano[row], toSecond, toNano) < 0; row++) {
+      if (compare(c.endSecond[row], c.endNano[row], fromSecond, fromNano) > 0
+              && (c.flags[row] & DELETED_FLAG) == 0) {
+        Event event = this.eventAt(c, row);
+        while (next < unsorted.size() && this.order.compare(unsorted.get(next), event) < 0) {
+          action.accept(unsorted.get(next++));
+        }
+        action.accept(event);
+      }
+    }
+    while (next < unsorted.size()) {
+      action.accept(unsorted.get(next++));
+    }
+  }
+
+  /**
+   * Checks if any event contains the given time, including its start and end times.
+   *
+   * @param time the time to check
+   * @return true if some event contains the time, false otherwise
+   */
+  @Override
+  public boolean anyContaining(LocalDateTime time) {
+    if (this.longEvents.anyContaining(time)) {
+      return true;
+    }
+    long second = time.toEpochSecond(ZoneOffset.UTC);
+    int nano = time.getNano();
+    for (Columns c : List.of(this.main, this.delta)) {
+      //every row of the main columns before this one starts after the time
+      int toRow = c == this.main ? this.firstStartingFrom(second, nano + 1) : c.size;
+      int fromRow = c == this.main ? this.firstEndingAfter(time) : 0;
+      boolean found = this.scan(c, fromRow, toRow, second, second, row ->
+              compare(c.startSecond[row], c.startNano[row], second, nano) <= 0
+              && compare(c.endSecond[row], c.endNano[row], second, nano) >= 0
+              && (c.flags[row] & DELETED_FLAG) == 0);
+      if (found) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns every event in the store, sorted by start time.
+   *
+   * @return a list of all events in the store
+   */
+  @Override
+  public List<Event> toList() {
+    List<Event> result = new ArrayList<>(this.size);
+    result.addAll(this.longEvents.toList());
+    for (int row = 0; row < this.main.size; row++) {
+      if ((this.main.flags[row] & DELETED_FLAG) == 0) {
+        result.add(this.eventAt(this.main, row));
+      }
+    }
+    for (int row = 0; row < this.delta.size; row++) {
+      result.add(this.eventAt(this.delta, row));
+    }
+    if (this.delta.size > 0 || this.longEvents.size() > 0) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  /**
+   * Appends the given event to the delta, or to the tree of long events if it lasts longer than
+   * {@link #MAX_COLUMN_DURATION}.
+   *
+   * @param event the event to be appended
+   */
+  private void append(Event event) {
+    this.size++;
+    LocalDateTime start = event.getStartDateTime();
+    LocalDateTime end = event.getEndDateTime();
+    if (isLong(start, end)) {
+      this.longEvents.add(event);
+      return;
+    }
+    Columns c = this.delta;
+    c.ensureCapacity(c.size + 1);
+    int row = c.size++;
+    c.startSecond[row] = start.toEpochSecond(ZoneOffset.UTC);
+    c.startNano[row] = start.getNano();
+    c.endSecond[row] = end.toEpochSecond(ZoneOffset.UTC);
+    c.endNano[row] = end.getNano();
+    c.subject[row] = this.subjectId(event.getSubject());
+    c.description[row] = this.shared(event.getDescription());
+    c.seriesId[row] = this.shared(event.getSeriesId());
+    c.flags[row] = (byte) packDetails(event);
+  }
+
+  /**
+   * Appends a row to the end of the main columns without creating its event, for filling an empty
+   * store from rows that are already sorted, such as those of a snapshot. Every row must sort
+   * after the previous one, the store must not have been changed any other way before, and the
+   * event must last at most {@link #MAX_COLUMN_DURATION}.
+   *
+   * @param subject     the subject of the event
+   * @param startSecond the UTC epoch second of the start of the event
+   * @param startNano   the nanosecond of the start of the event
+   * @param endSecond   the UTC epoch second of the end of the event
+   * @param endNano     the nanosecond of the end of the event
+   * @param description the description of the event, or null
+   * @param seriesId    the ID of the series of the event, or null
+   * @param details     the location, status and all-day flag packed by {@link #packDetails}
+   * @throws IllegalArgumentException if the row is out of order or too long for the columns
+   * @throws IllegalStateException    if the store was changed other than by appending rows
+   */
+  void appendSorted(String subject, long startSecond, int startNano, long endSecond, int endNano,
+                    String description, String seriesId, int details) {
+    Columns c = this.main;
+    if (this.delta.size > 0 || this.deleted > 0) {
+      throw new IllegalStateException("Rows can only be appended to a store that only had rows "
+              + "appended to it.");
+    }
+    long limit = startSecond + MAX_COLUMN_DURATION.getSeconds();
+    if (compare(endSecond, endNano, startSecond, startNano) < 0
+            || compare(endSecond, endNano, limit, startNano) > 0
+            || details < 0 || details >= DELETED_FLAG) {
+      throw new IllegalArgumentException("The row does not fit the columns.");
+    }
+    int subjectId = this.subjectId(subject);
+    if (c.size > 0) {
+      int last = c.size - 1;
+      int order = compare(startSecond, startNano, c.startSecond[last], c.startNano[last]);
+      if (order == 0) {
+        order = compare(endSecond, endNano, c.endSecond[last], c.endNano[last]);
+      }
+      if (order == 0) {
+        order = subject.compareTo(this.subjects.get(c.subject[last]));
+      }
+      if (order <= 0) {
+        throw new IllegalArgumentException("Rows must be appended in order.");
+      }
+    }
+    c.ensureCapacity(c.size + 1);
+    int row = c.size++;
+    c.startSecond[row] = startSecond;
+    c.startNano[row] = startNano;
+    c.endSecond[row] = endSecond;
+    c.endNano[row] = endNano;
+    c.subject[row] = subjectId;
+    c.description[row] = this.shared(description);
+    c.seriesId[row] = this.shared(seriesId);
+    c.flags[row] = (byte) details;
+    this.size++;
+  }
+
+  /**
+   * Merges the delta into the main columns, dropping the rows marked as deleted. The delta is
+   * sorted first and then merged in place from the back, so the merge only moves the rows of the
+   * main columns that sort after the earliest new row.
+   */
+  private void merge() {
+    Integer[] sortedDelta = new Integer[this.delta.size];
+    for (int i = 0; i < sortedDelta.length; i++) {
+      sortedDelta[i] = i;
+    }
+    Arrays.sort(sortedDelta, (a, b) -> this.compareRows(this.delta, a, this.delta, b));
+    Columns m = this.main;
+    if (this.deleted > 0) {
+      int kept = 0;
+      for (int row = 0; row < m.size; row++) {
+        if ((m.flags[row] & DELETED_FLAG) == 0) {
+          m.copy(m, row, kept++);
+        }
+      }
+      Arrays.fill(m.description, kept, m.size, null);
+      Arrays.fill(m.seriesId, kept, m.size, null);
+      m.size = kept;
+      this.deleted = 0;
+    }
+    m.ensureCapacity(m.size + sortedDelta.length);
+    int i = m.size - 1;
+    int j = sortedDelta.length - 1;
+    for (int k = m.size + sortedDelta.length - 1; j >= 0; k--) {
+      if (i >= 0 && this.compareRows(m, i, this.delta, sortedDelta[j]) > 0) {
+        m.copy(m, i--, k);
+      } else {
+        m.copy(this.delta, sortedDelta[j--], k);
+      }
+    }
+    m.size += sortedDelta.length;
+    this.delta = new Columns(MIN_DELTA);
+  }
+
+  /**
+   * Passes every live row of the given columns that overlaps the given range to the given action,
+   * in row order. Only the rows of the main columns that could overlap the range are scanned.
+   *
+   * @param c      the columns to scan
+   * @param from   the start of the range
+   * @param to     the end of the range
+   * @param action the action receiving each overlapping row, which returns true to stop the scan
+   */
+  private void scanOverlapping(Columns c, LocalDateTime from, LocalDateTime to,
+                               IntPredicate action) {
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    int fromRow = c == this.main ? this.firstEndingAfter(from) : 0;
+    int toRow = c == this.main ? this.firstStartingFrom(toSecond, toNano) : c.size;
+    this.scan(c, fromRow, toRow, toSecond, fromSecond, row ->
+            compare(c.startSecond[row], c.startNano[row], toSecond, toNano) < 0
+            && compare(c.endSecond[row], c.endNano[row], fromSecond, fromNano) > 0
+            && (c.flags[row] & DELETED_FLAG) == 0
+            && action.test(row));
+  }
+
+  /**
+   * Runs the range scan over the given rows of the given columns a block at a time, and passes
+   * each row it finds to the given action. The scan only compares seconds, so the action must
+   * check the exact times of each row itself.
+   *
+   * @param c              the columns to scan
+   * @param fromRow        the first row to scan
+   * @param toRow          the row after the last row to scan
+   * @param maxStartSecond the latest start second a row may have
+   * @param minEndSecond   the earliest end second a row may have
+   * @param action         the action receiving each row found, which returns true to stop the
+   *                       scan
+   * @return true if the action stopped the scan, false otherwise
+   */
+  private boolean scan(Columns c, int fromRow, int toRow, long maxStartSecond, long minEndSecond,
+                       IntPredicate action) {
+    if (fromRow >= toRow) {
+      return false;
+    }
+    int[] rows = new int[Math.min(SCAN_BLOCK, toRow - fromRow)];
+    for (int block = fromRow; block < toRow; block += SCAN_BLOCK) {
+      int count = this.scan.scan(c.startSecond, c.endSecond, block,
+              Math.min(toRow, block + SCAN_BLOCK), maxStartSecond, minEndSecond, rows);
+      for (int i = 0; i < count; i++) {
+        if (action.test(rows[i])) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private int deltaLimit() {
+    return Math.max(MIN_DELTA, 4 * (int) Math.sqrt(this.main.size));
+  }
+
+  /**
+   * Finds the first row of the main columns that starts at or after the given time.
+   *
+   * @param second the epoch second of the time
+   * @param nano   the nanosecond of the time
+   * @return the index of the row, or the number of rows if there is none
+   */
+  private int firstStartingFrom(long second, int nano) {
+    int low = 0;
+    int high = this.main.size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(this.main.startSecond[mid], this.main.startNano[mid], second, nano) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the first row of the main columns that could end at or after the given time. No event
+   * in the columns starts more than {@link #MAX_COLUMN_DURATION} before it ends, so every earlier
+   * row ends before the given time.
+   *
+   * @param time the time to search from
+   * @return the index of the row, or the number of rows if there is none
+   */
+  private int firstEndingAfter(LocalDateTime time) {
+    if (time.isBefore(LocalDateTime.MIN.plus(MAX_COLUMN_DURATION))) {
+      return 0;
+    }
+    LocalDateTime earliest = time.minus(MAX_COLUMN_DURATION);
+    return this.firstStartingFrom(earliest.toEpochSecond(ZoneOffset.UTC), earliest.getNano());
+  }
+
+  private int findMain(int subjectId, LocalDateTime start, LocalDateTime end) {
+    long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+    int startNano = start.getNano();
+    long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+    int endNano = end.getNano();
+    Columns c = this.main;
+    for (int row = this.firstStartingFrom(startSecond, startNano); row < c.size
+            && c.startSecond[row] == startSecond && c.startNano[row] == startNano; row++) {
+      if (c.subject[row] == subjectId && c.endSecond[row] == endSecond
+              && c.endNano[row] == endNano && (c.flags[row] & DELETED_FLAG) == 0) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  private int findDelta(int subjectId, LocalDateTime start, LocalDateTime end) {
+    long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+    int startNano = start.getNano();
+    long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+    int endNano = end.getNano();
+    Columns c = this.delta;
+    for (int row = 0; row < c.size; row++) {
+      if (c.subject[row] == subjectId && c.startSecond[row] == startSecond
+              && c.startNano[row] == startNano && c.endSecond[row] == endSecond
+              && c.endNano[row] == endNano) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  private Event findLong(String subject, LocalDateTime start, LocalDateTime end) {
+    for (Event event : this.longEvents.overlapping(start, start.plusNanos(1))) {
+      if (event.getSubject().equals(subject) && event.getStartDateTime().equals(start)
+              && event.getEndDateTime().equals(end)) {
+        return event;
+      }
+    }
+    return null;
+  }
+
+  private String shared(String value) {
+    if (value == null) {
+      return null;
+    }
+    String copy = this.strings.putIfAbsent(value, value);
+    return copy == null ? value : copy;
+  }
+
+  private int subjectId(String subject) {
+    Integer id = this.subjectIds.get(subject);
+    if (id == null) {
+      id = this.subjects.size();
+      this.subjects.add(subject);
+      this.subjectIds.put(subject, id);
+    }
+    return id;
+  }
+
+  /**
+   * Creates the Event stored in the given row.
+   *
+   * @param c   the columns holding the row
+   * @param row the index of the row
+   * @return the event in the row
+   */
+  private Event eventAt(Columns c, int row) {
+    Event.EventBuilder builder = new Event.EventBuilder()
+            .subject(this.subjects.get(c.subject[row]))
+            .startDateTime(LocalDateTime.ofEpochSecond(c.startSecond[row], c.startNano[row],
+                    ZoneOffset.UTC))
+            .endDateTime(LocalDateTime.ofEpochSecond(c.endSecond[row], c.endNano[row],
+                    ZoneOffset.UTC))
+            .description(c.description[row])
+            .seriesId(c.seriesId[row]);
+    return withDetails(builder, c.flags[row]).build();
+  }
+
+  /**
+   * Packs the location, status and all-day flag of the given event into the low bits of an int,
+   * leaving {@link #DELETED_FLAG} clear.
+   *
+   * @param event the event to pack
+   * @return the packed details
+   */
+  static int packDetails(Event event) {
+    int packed = event.getLocation() == null ? 0 : event.getLocation().ordinal() + 1;
+    packed |= event.getStatus().ordinal() << STATUS_SHIFT;
+    if (event.getIsAllDayEvent()) {
+      packed |= ALL_DAY_FLAG;
+    }
+    return packed;
+  }
+
+  /**
+   * Sets the location, status and all-day flag packed by {@link #packDetails} on the given
+   * builder, whose times must already be set.
+   *
+   * @param builder the builder of the event being read
+   * @param packed  the packed details
+   * @return the given builder
+   */
+  static Event.EventBuilder withDetails(Event.EventBuilder builder, int packed) {
+    int location = packed & LOCATION_MASK;
+    return builder
+            .location(location == 0 ? null : LOCATIONS[location - 1])
+            .status(STATUSES[(packed >> STATUS_SHIFT) & STATUS_MASK])
+            .isAllDayEvent((packed & ALL_DAY_FLAG) != 0);
+  }
+
+  private int compareRows(Columns a, int i, Columns b, int j) {
+    int result = compare(a.startSecond[i], a.startNano[i], b.startSecond[j], b.startNano[j]);
+    if (result == 0) {
+      result = compare(a.endSecond[i], a.endNano[i], b.endSecond[j], b.endNano[j]);
+    }
+    if (result == 0 && a.subject[i] != b.subject[j]) {
+      result = this.subjects.get(a.subject[i]).compareTo(this.subjects.get(b.subject[j]));
+    }
+    return result;
+  }
+
+  private static int compare(long secondA, int nanoA, long secondB, int nanoB) {
+    int result = Long.compare(secondA, secondB);
+    return result != 0 ? result : Integer.compare(nanoA, nanoB);
+  }
+
+  /**
+   * Checks if an event with the given times is kept out of the columns, in the tree of long
+   * events.
+   *
+   * @param start the start of the event
+   * @param end   the end of the event
+   * @return true if the event lasts longer than {@link #MAX_COLUMN_DURATION}
+   */
+  static boolean isLong(LocalDateTime start, LocalDateTime end) {
+    return Duration.between(start, end).compareTo(MAX_COLUMN_DURATION) > 0;
+  }
+}
@@ -0,0 +1,62 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * This class represents the key an event is stored under in a calendar, made of the event's
+ * subject and its start and end times. The subject is kept as the id the calendar interned it
+ * under and the times as epoch seconds and nanoseconds, so building a key does not create any
+ * strings, and two keys are compared with a few primitive comparisons. The hash is computed once
+ * when the key is built.
+ */
+final class EventKey {
+  private final int subjectId;
+  private final long startSecond;
+  private final long endSecond;
+  private final int startNano;
+  private final int endNano;
+  private final int hash;
+
+  /**
+   * Constructs an EventKey for the given subject and times.
+   *
+   * @param subjectId     the id the calendar interned the event's subject under
+   * @param startDateTime the start date and time of the event, in UTC
+   * @param endDateTime   the end date and time of the event, in UTC
+   */
+  EventKey(int subjectId, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    this.subjectId = subjectId;
+    this.startSecond = startDateTime.toEpochSecond(ZoneOffset.UTC);
+    this.endSecond = endDateTime.toEpochSecond(ZoneOffset.UTC);
+    this.startNano = startDateTime.getNano();
+    this.endNano = endDateTime.getNano();
+    int h = subjectId;
+    h = 31 * h + Long.hashCode(this.startSecond);
+    h = 31 * h + Long.hashCode(this.endSecond);
+    h = 31 * h + this.startNano;
+    this.hash = 31 * h + this.endNano;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof EventKey)) {
+      return false;
+    }
+    EventKey other = (EventKey) o;
+    return this.hash == other.hash
+            && this.subjectId == other.subjectId
+            && this.startSecond == other.startSecond
+            && this.endSecond == other.endSecond
+            && this.startNano == other.startNano
+            && this.endNano == other.endNano;
+  }
+
+  @Override
+  public int hashCode() {
+    return this.hash;
+  }
+}
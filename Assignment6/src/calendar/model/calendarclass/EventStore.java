@@ -0,0 +1,138 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import calendar.model.event.Event;
+
+/**
+ * This interface defines how a calendar stores its single events, apart from the rules of its
+ * recurring series. A store keeps each event under its subject and its start and end times, all
+ * in UTC, and answers lookups and range queries over them. Events are only created for the events
+ * a query returns, so a store is free to keep them in any layout.
+ */
+interface EventStore {
+
+  /**
+   * Represents an operation that reads the times of stored events without creating them.
+   */
+  interface TimeVisitor {
+    /**
+     * Visits the times of one event.
+     *
+     * @param startSecond the epoch second of the event's start, read as UTC
+     * @param startNano   the nanosecond of the event's start
+     * @param endSecond   the epoch second of the event's end, read as UTC
+     * @param endNano     the nanosecond of the event's end
+     */
+    void visit(long startSecond, int startNano, long endSecond, int endNano);
+  }
+
+  /**
+   * Returns the number of events in the store.
+   *
+   * @return the number of events in the store
+   */
+  int size();
+
+  /**
+   * Adds the given event to the store. The event must not already be in it.
+   *
+   * @param event the event to be added
+   */
+  void add(Event event);
+
+  /**
+   * Adds every given event to the store. None of the events may already be in the store.
+   *
+   * @param events the events to be added
+   */
+  void addAll(Collection<Event> events);
+
+  /**
+   * Removes the event with the same subject and times as the given event, if there is one.
+   *
+   * @param event the event to be removed
+   * @return true if an event was removed, false otherwise
+   */
+  boolean remove(Event event);
+
+  /**
+   * Returns the event with the given subject and times, if there is one.
+   *
+   * @param subject the subject of the event
+   * @param start   the start date and time of the event
+   * @param end     the end date and time of the event
+   * @return the matching event, or null if there is none
+   */
+  Event get(String subject, LocalDateTime start, LocalDateTime end);
+
+  /**
+   * Returns every event with the given subject that starts at the given time.
+   *
+   * @param subject the subject of the events
+   * @param start   the start date and time of the events
+   * @return a list of the matching events, sorted by end time
+   */
+  List<Event> startingAt(String subject, LocalDateTime start);
+
+  /**
+   * Returns every event with the given subject that overlaps the given range, meaning it starts
+   * before the end of the range and ends after the start of it. Events with other subjects are
+   * skipped without being created.
+   *
+   * @param subject the subject of the events
+   * @param from    the start of the range
+   * @param to      the end of the range
+   * @return a list of the matching events, sorted by start time
+   */
+  List<Event> withSubject(String subject, LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Returns every event that overlaps the given range, meaning it starts before the end of the
+   * range and ends after the start of it. The events are sorted by start time.
+   *
+   * @param from the start of the range
+   * @param to   the end of the range
+   * @return a list of the overlapping events
+   */
+  List<Event> overlapping(LocalDateTime from, LocalDateTime to);
+
+  /**
+   * Passes the times of every event that overlaps the given range to the given visitor, in no
+   * particular order, without creating the events.
+   *
+   * @param from    the start of the range
+   * @param to      the end of the range
+   * @param visitor the visitor receiving the times of each overlapping event
+   */
+  void forEachOverlapping(LocalDateTime from, LocalDateTime to, TimeVisitor visitor);
+
+  /**
+   * Passes every event that overlaps the given range to the given action, sorted by start time.
+   * Unlike {@link #overlapping}, the events are created one at a time as they are passed on, so
+   * walking a large range does not hold all of its events at once.
+   *
+   * @param from   the start of the range
+   * @param to     the end of the range
+   * @param action the action receiving each overlapping event, in order
+   */
+  void forEachInOrder(LocalDateTime from, LocalDateTime to, Consumer<Event> action);
+
+  /**
+   * Checks if any event contains the given time, including its start and end times.
+   *
+   * @param time the time to check
+   * @return true if some event contains the time, false otherwise
+   */
+  boolean anyContaining(LocalDateTime time);
+
+  /**
+   * Returns every event in the store, sorted by start time.
+   *
+   * @return a list of all events in the store
+   */
+  List<Event> toList();
+}
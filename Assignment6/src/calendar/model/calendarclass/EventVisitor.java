@@ -0,0 +1,37 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Set;
+
+import calendar.model.event.Event;
+
+/**
+ * This interface represents an operation that walks the events of a calendar one at a time, in
+ * order of start time, as passed by {@link ICalendar#forEachEvent}. Recurring series are either
+ * passed as their occurrences, or whole, as the rule they follow.
+ */
+public interface EventVisitor {
+  /**
+   * Visits a single event, or one occurrence of a recurring series.
+   *
+   * @param event the event, with its times in the calendar's time zone
+   */
+  void visitEvent(Event event);
+
+  /**
+   * Visits a recurring series as a whole. Its occurrences take place on the given weekdays, at
+   * the times of day of its first occurrence in the series' own time zone, from the date of its
+   * first occurrence to the given last date, except on the given dates.
+   *
+   * @param first      the first occurrence, with its times in the series' time zone
+   * @param zone       the time zone the series recurs in, which keeps its times of day across
+   *                   daylight saving changes
+   * @param weekdays   the days of the week on which the series occurs (e.g., "MWF")
+   * @param lastDate   the date of the last occurrence
+   * @param exceptions the dates between the first and last occurrences on which the series does
+   *                   not occur, because those occurrences were taken out of it
+   */
+  void visitSeries(Event first, ZoneId zone, String weekdays, LocalDate lastDate,
+                   Set<LocalDate> exceptions);
+}
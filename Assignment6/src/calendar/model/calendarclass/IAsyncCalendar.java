@@ -0,0 +1,246 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+/**
+ * This interface defines the asynchronous variant of {@link ICalendar}. Each method queues the
+ * matching call of ICalendar and returns at once, with a future that completes with the result of
+ * the call once it has been made, or fails with the exception the call threw. Calls are made in
+ * the order they were queued.
+ */
+public interface IAsyncCalendar {
+
+  /**
+   * Queues a command, which may make any number of calls to the calendar as a single change.
+   * The command must not keep the calendar it is passed to use it after it returns.
+   *
+   * @param command the command to be run on the calendar
+   * @param <T>     the type of the result of the command
+   * @return a future of the result of the command
+   */
+  <T> CompletableFuture<T> submit(Function<ICalendar, T> command);
+
+  /**
+   * Adds an observer to the calendar to listen for changes in events.
+   *
+   * @param observer the observer to be added
+   * @return a future completed once the observer has been added
+   */
+  CompletableFuture<Void> addObserver(CalendarObserver observer);
+
+  /**
+   * Removes an observer from the calendar, stopping it from receiving updates.
+   *
+   * @param observer the observer to be removed
+   * @return a future completed once the observer has been removed
+   */
+  CompletableFuture<Void> removeObserver(CalendarObserver observer);
+
+  /**
+   * Adds a single event to the calendar.
+   *
+   * @param event the event to be added
+   * @return a future completed once the event has been added
+   */
+  CompletableFuture<Void> addEvent(Event event);
+
+  /**
+   * Adds all of the given events to the calendar as a single change. Either every event is added
+   * or none are.
+   *
+   * @param events the events to be added
+   * @return a future completed once the events have been added
+   */
+  CompletableFuture<Void> addEvents(Collection<Event> events);
+
+  /**
+   * Retrieves an event based on its subject and start and end date-time.
+   *
+   * @param subject       the subject of the event
+   * @param startDateTime the start date and time of the event
+   * @param endDateTime   the end date and time of the event
+   * @return a future of the event, or of null if there is no such event
+   */
+  CompletableFuture<Event> getEvent(String subject, LocalDateTime startDateTime,
+                                    LocalDateTime endDateTime);
+
+  /**
+   * Retrieves all events on a specific date.
+   *
+   * @param date the date to check for events
+   * @return a future of the events on that date
+   */
+  CompletableFuture<List<Event>> getEventsOnDate(LocalDate date);
+
+  /**
+   * Retrieves all events within a specified date-time range.
+   *
+   * @param startDateTime the start date and time of the range
+   * @param endDateTime   the end date and time of the range
+   * @return a future of the events within that range
+   */
+  CompletableFuture<List<Event>> getEventsInRange(LocalDateTime startDateTime,
+                                                  LocalDateTime endDateTime);
+
+  /**
+   * Walks the events that take place between two date-times in order of start time. The visitor
+   * is called on the thread running the calendar's commands, so it must not wait for any of them.
+   *
+   * @param startDateTime the starting date time of the range
+   * @param endDateTime   the ending date time of the range
+   * @param expandSeries  whether recurring series are passed as their occurrences in the range,
+   *                      or whole
+   * @param visitor       the visitor receiving the events and series, in order of start time
+   * @return a future completed once every event has been passed to the visitor
+   */
+  CompletableFuture<Void> forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                                       boolean expandSeries, EventVisitor visitor);
+
+  /**
+   * Returns the events of the calendar as they are once every call queued before has been made.
+   *
+   * @return a future of the state of the calendar
+   */
+  CompletableFuture<CalendarState> snapshot();
+
+  /**
+   * Checks if there are any events scheduled at a specific date-time.
+   *
+   * @param time the date and time to check
+   * @return a future of whether there is an event at that time
+   */
+  CompletableFuture<Boolean> isBusy(LocalDateTime time);
+
+  /**
+   * Retrieves all events associated with a specific series ID.
+   *
+   * @param seriesId the ID of the series
+   * @return a future of the events that belong to that series
+   */
+  CompletableFuture<List<Event>> getEventsBySeriesId(String seriesId);
+
+  /**
+   * Finds events by subject and start date.
+   *
+   * @param subject the subject of the event
+   * @param date    the date to search for events
+   * @return a future of the events that match the subject and start date
+   */
+  CompletableFuture<List<Event>> findEventsBySubjectAndStart(String subject, LocalDateTime date);
+
+  /**
+   * Creates a single event using the provided fields.
+   *
+   * @param eventSubject  the subject of the event
+   * @param startDateTime the start time and date of the event
+   * @param endDateTime   the ending time and date of the event
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createSingleEvent(String eventSubject, String startDateTime,
+                                            String endDateTime);
+
+  /**
+   * Creates a recurring event that repeats on specified days for a certain number of times.
+   *
+   * @param eventSubject  the subject of the event
+   * @param startDateTime the start time and date of the event
+   * @param endDateTime   the ending time and date of the event
+   * @param weekdays      the days of the week on which the event occurs
+   * @param repeats       how many times the event repeats
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createRecurringEvent(String eventSubject, String startDateTime,
+                                               String endDateTime, String weekdays, int repeats);
+
+  /**
+   * Creates a recurring event that repeats on specified days until a specified date.
+   *
+   * @param eventSubject  the subject of the event
+   * @param startDateTime the start time and date of the event
+   * @param endDateTime   the ending time and date of the event
+   * @param weekdays      the days of the week on which the event occurs
+   * @param untilDate     the day the event cannot occur past
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createRecurringEvent(String eventSubject, String startDateTime,
+                                               String endDateTime, String weekdays,
+                                               String untilDate);
+
+  /**
+   * Creates an all-day event on the given date.
+   *
+   * @param eventSubject the subject of the event
+   * @param onDate       the date of the event
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createAllDayEvent(String eventSubject, String onDate);
+
+  /**
+   * Creates a recurring all-day event that repeats on specified days until a specified date.
+   *
+   * @param eventSubject the subject of the event
+   * @param onDate       the date of the event
+   * @param weekdays     the days of the week on which the event occurs
+   * @param untilDate    the day the event cannot occur past
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createRecurringAllDayEvent(String eventSubject, String onDate,
+                                                     String weekdays, String untilDate);
+
+  /**
+   * Creates a recurring all-day event that repeats on specified days for a certain number of
+   * times.
+   *
+   * @param eventSubject the subject of the event
+   * @param onDate       the date of the event
+   * @param weekdays     the days of the week on which the event occurs
+   * @param repeats      how many times the event repeats
+   * @return a future completed once the event has been created
+   */
+  CompletableFuture<Void> createRecurringAllDayEvent(String eventSubject, String onDate,
+                                                     String weekdays, int repeats);
+
+  /**
+   * Edits the given property of a single event with the given subject, start time, and end time.
+   *
+   * @param property      the property of the event to be edited
+   * @param eventSubject  the subject of the event
+   * @param startDateTime the start time of the event
+   * @param endDateTime   the end time of the event
+   * @param newValue      the new value replacing the current one for the given property
+   * @return a future completed once the event has been edited
+   */
+  CompletableFuture<Void> editSingleEvent(String property, String eventSubject,
+                                          String startDateTime, String endDateTime,
+                                          String newValue);
+
+  /**
+   * Edits the given property of multiple events with the given subject and start time.
+   *
+   * @param property      the property of the event to be edited
+   * @param eventSubject  the subject of the event
+   * @param startDateTime the start time of the event
+   * @param newValue      the new value replacing the current one for the given property
+   * @param editSeries    whether this method should aim to edit a series
+   * @return a future completed once the events have been edited
+   */
+  CompletableFuture<Void> editMultipleEvents(String property, String eventSubject,
+                                             String startDateTime, String newValue,
+                                             boolean editSeries);
+
+  /**
+   * Returns the time zone the calendar's times are read and shown in.
+   *
+   * @return a future of the time zone of the calendar
+   */
+  CompletableFuture<ZoneId> getTimeZone();
+}
@@ -2,7 +2,9 @@ package calendar.model.calendarclass;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
 
 import calendar.controller.guicontroller.CalendarObserver;
@@ -32,6 +34,15 @@ public interface ICalendar {
    */
   void notifyObservers();
 
+  /**
+   * Runs the given operation as a single change to the calendar. Observers are notified at most
+   * once, after the operation finishes, no matter how many events it adds or edits. Batches may
+   * be nested, in which case observers are notified when the outermost one finishes.
+   *
+   * @param operation the operation to be run
+   */
+  void batch(Runnable operation);
+
   /**
    * Adds a single event to the calendar.
    *
@@ -39,6 +50,15 @@ public interface ICalendar {
    */
   void addEvent(Event event);
 
+  /**
+   * Adds all of the given events to the calendar as a single change. Either every event is added
+   * or, if any of them clashes with an existing event or with another given event, none are.
+   *
+   * @param events the events to be added
+   * @throws IllegalArgumentException if any event has the same subject and time as another
+   */
+  void addEvents(Collection<Event> events);
+
   /**
    * Retrieves an event based on its subject and start and end date-time.
    *
@@ -66,6 +86,29 @@ public interface ICalendar {
    */
   List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime);
 
+  /**
+   * Walks the events that take place between two date-times, including events that only
+   * partially occur in the range, in order of start time. Unlike getEventsInRange, the events are
+   * passed to the visitor one at a time instead of being gathered into a list first.
+   *
+   * @param startDateTime the starting date time of the range
+   * @param endDateTime   the ending date time of the range
+   * @param expandSeries  whether recurring series are passed as their occurrences in the range,
+   *                      or whole, as the part of their rule that falls in the range
+   * @param visitor       the visitor receiving the events and series, in order of start time
+   */
+  void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime, boolean expandSeries,
+                    EventVisitor visitor);
+
+  /**
+   * Returns the events of the calendar as they are now, as a state that never changes and can be
+   * read from any thread without locking, however the calendar changes afterwards. The first call
+   * may have to copy the calendar, so it counts as a change to it; later calls cost O(1).
+   *
+   * @return the current state of the calendar
+   */
+  CalendarState snapshot();
+
   /**
    * Checks if there are any events scheduled at a specific date-time.
    *
@@ -197,4 +240,11 @@ public interface ICalendar {
    * @return a DateTimeFormatter which contains the formatting of a date-time for a Calendar
    */
   DateTimeFormatter getDateTimeFormatter();
+
+  /**
+   * Returns the time zone the calendar's times are read and shown in.
+   *
+   * @return the time zone of the calendar
+   */
+  ZoneId getTimeZone();
 }
@@ -0,0 +1,353 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class represents an index of time intervals, stored in a balanced (AVL) binary search tree
+ * ordered by start time. Every node is augmented with the latest end time found in its subtree,
+ * which lets overlap and point queries skip whole subtrees that end too early. Queries cost
+ * O(log n + k), where k is the number of matching values, and their results are returned already
+ * sorted by start time.
+ *
+ * @param <T> the type of value being indexed
+ */
+class IntervalTree<T> {
+  //bulk adds smaller than size / REBUILD_RATIO are inserted one at a time instead of rebuilding
+  private static final int REBUILD_RATIO = 16;
+
+  private final Comparator<T> order;
+  private final Function<T, LocalDateTime> startOf;
+  private final Function<T, LocalDateTime> endOf;
+  private Node<T> root;
+  private int size;
+
+  /**
+   * Represents a single node of the tree, holding one value and the augmented data of its subtree.
+   *
+   * @param <T> the type of value being indexed
+   */
+  private static final class Node<T> {
+    private final T value;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private LocalDateTime maxEnd;
+    private int height;
+    private Node<T> left;
+    private Node<T> right;
+
+    private Node(T value, LocalDateTime start, LocalDateTime end) {
+      this.value = value;
+      this.start = start;
+      this.end = end;
+      this.maxEnd = end;
+      this.height = 1;
+    }
+  }
+
+  /**
+   * Constructs an empty IntervalTree.
+   *
+   * @param order   a total order of the values, which must sort by start time first; values that
+   *                compare as equal are treated as the same entry
+   * @param startOf a function returning the start of a value's interval
+   * @param endOf   a function returning the end of a value's interval
+   */
+  IntervalTree(Comparator<T> order, Function<T, LocalDateTime> startOf,
+               Function<T, LocalDateTime> endOf) {
+    this.order = order;
+    this.startOf = startOf;
+    this.endOf = endOf;
+  }
+
+  /**
+   * Returns the number of values in the tree.
+   *
+   * @return the number of values in the tree
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Adds the given value to the tree. If an equal value is already present, it is replaced.
+   *
+   * @param value the value to be added
+   */
+  void add(T value) {
+    this.root = this.insert(this.root, value);
+  }
+
+  /**
+   * Adds every given value to the tree, replacing any equal values already present. When the
+   * number of new values is small compared to the tree, they are inserted one at a time;
+   * otherwise they are sorted, merged with the values already in the tree, and the tree is rebuilt
+   * from the merged list in linear time.
+   *
+   * @param values the values to be added
+   */
+  void addAll(Collection<T> values) {
+    if ((long) values.size() * REBUILD_RATIO < this.size) {
+      for (T value : values) {
+        this.add(value);
+      }
+      return;
+    }
+    List<T> added = new ArrayList<>(values);
+    added.sort(this.order);
+    List<T> merged = this.merge(this.toList(), added);
+    this.size = merged.size();
+    this.root = this.build(merged, 0, merged.size() - 1);
+  }
+
+  /**
+   * Removes the given value from the tree, if it is present.
+   *
+   * @param value the value to be removed
+   */
+  void remove(T value) {
+    this.root = this.delete(this.root, value);
+  }
+
+  /**
+   * Returns every value whose interval overlaps the given range, meaning it starts before the end
+   * of the range and ends after the start of it. The values are sorted by start time.
+   *
+   * @param from the start of the range
+   * @param to   the end of the range
+   * @return a list of the overlapping values
+   */
+  List<T> overlapping(LocalDateTime from, LocalDateTime to) {
+    List<T> result = new ArrayList<>();
+    this.collectOverlapping(this.root, from, to, result);
+    return result;
+  }
+
+  /**
+   * Checks if any value's interval contains the given time, including its start and end times.
+   *
+   * @param time the time to check
+   * @return true if some interval contains the time, false otherwise
+   */
+  boolean anyContaining(LocalDateTime time) {
+    return this.anyContainingIn(this.root, time);
+  }
+
+  /**
+   * Returns every value in the tree, sorted by start time.
+   *
+   * @return a list of all values in the tree
+   */
+  List<T> toList() {
+    List<T> result = new ArrayList<>(this.size);
+    this.collectAll(this.root, result);
+    return result;
+  }
+
+  private boolean anyContainingIn(Node<T> node, LocalDateTime time) {
+    return node != null && !node.maxEnd.isBefore(time) && this.anyContainingFrom(node, time);
+  }
+
+  private boolean anyContainingFrom(Node<T> node, LocalDateTime time) {
+    if (this.anyContainingIn(node.left, time)) {
+      return true;
+    }
+    if (node.start.isAfter(time)) {
+      return false;
+    }
+    return !node.end.isBefore(time) || this.anyContainingIn(node.right, time);
+  }
+
+  private void collectOverlapping(Node<T> node, LocalDateTime from, LocalDateTime to,
+                                  List<T> result) {
+    if (node == null || !node.maxEnd.isAfter(from)) {
+      return;
+    }
+    this.collectOverlapping(node.left, from, to, result);
+    if (node.start.isBefore(to)) {
+      if (node.end.isAfter(from)) {
+        result.add(node.value);
+      }
+      this.collectOverlapping(node.right, from, to, result);
+    }
+  }
+
+  private void collectAll(Node<T> node, List<T> result) {
+    if (node != null) {
+      this.collectAll(node.left, result);
+      result.add(node.value);
+      this.collectAll(node.right, result);
+    }
+  }
+
+  /**
+   * Merges two lists that are sorted by the tree's order. When a value appears in both, only the
+   * one from the second list is kept.
+   *
+   * @param existing the first sorted list
+   * @param added    the second sorted list, which may itself contain equal values
+   * @return the merged, sorted list
+   */
+  private List<T> merge(List<T> existing, List<T> added) {
+    List<T> merged = new ArrayList<>(existing.size() + added.size());
+    int i = 0;
+    int j = 0;
+    while (i < existing.size() || j < added.size()) {
+      T next;
+      if (j == added.size()) {
+        next = existing.get(i++);
+      } else if (i == existing.size()) {
+        next = added.get(j++);
+      } else {
+        int cmp = this.order.compare(existing.get(i), added.get(j));
+        if (cmp < 0) {
+          next = existing.get(i++);
+        } else {
+          if (cmp == 0) {
+            i++;
+          }
+          next = added.get(j++);
+        }
+      }
+      int last = merged.size() - 1;
+      if (last >= 0 && this.order.compare(merged.get(last), next) == 0) {
+        merged.set(last, next);
+      } else {
+        merged.add(next);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Builds a perfectly balanced subtree from the given part of a sorted list.
+   *
+   * @param sorted the sorted values
+   * @param low    the index of the first value in the subtree
+   * @param high   the index of the last value in the subtree
+   * @return the root of the subtree, or null if it is empty
+   */
+  private Node<T> build(List<T> sorted, int low, int high) {
+    if (low > high) {
+      return null;
+    }
+    int mid = (low + high) >>> 1;
+    T value = sorted.get(mid);
+    Node<T> node = new Node<>(value, this.startOf.apply(value), this.endOf.apply(value));
+    node.left = this.build(sorted, low, mid - 1);
+    node.right = this.build(sorted, mid + 1, high);
+    this.update(node);
+    return node;
+  }
+
+  private Node<T> insert(Node<T> node, T value) {
+    if (node == null) {
+      this.size++;
+      return new Node<>(value, this.startOf.apply(value), this.endOf.apply(value));
+    }
+    int cmp = this.order.compare(value, node.value);
+    if (cmp < 0) {
+      node.left = this.insert(node.left, value);
+    } else if (cmp > 0) {
+      node.right = this.insert(node.right, value);
+    } else {
+      Node<T> replacement = new Node<>(value, this.startOf.apply(value), this.endOf.apply(value));
+      replacement.left = node.left;
+      replacement.right = node.right;
+      node = replacement;
+    }
+    return this.rebalance(node);
+  }
+
+  private Node<T> delete(Node<T> node, T value) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = this.order.compare(value, node.value);
+    if (cmp < 0) {
+      node.left = this.delete(node.left, value);
+    } else if (cmp > 0) {
+      node.right = this.delete(node.right, value);
+    } else {
+      this.size--;
+      if (node.left == null) {
+        return node.right;
+      }
+      if (node.right == null) {
+        return node.left;
+      }
+      Node<T> successor = node.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      successor.right = this.deleteMin(node.right);
+      successor.left = node.left;
+      node = successor;
+    }
+    return this.rebalance(node);
+  }
+
+  private Node<T> deleteMin(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = this.deleteMin(node.left);
+    return this.rebalance(node);
+  }
+
+  private int height(Node<T> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  private void update(Node<T> node) {
+    node.height = 1 + Math.max(this.height(node.left), this.height(node.right));
+    LocalDateTime maxEnd = node.end;
+    if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+      maxEnd = node.left.maxEnd;
+    }
+    if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+      maxEnd = node.right.maxEnd;
+    }
+    node.maxEnd = maxEnd;
+  }
+
+  private Node<T> rebalance(Node<T> node) {
+    this.update(node);
+    int balance = this.height(node.left) - this.height(node.right);
+    if (balance > 1) {
+      if (this.height(node.left.left) < this.height(node.left.right)) {
+        node.left = this.rotateLeft(node.left);
+      }
+      return this.rotateRight(node);
+    }
+    if (balance < -1) {
+      if (this.height(node.right.right) < this.height(node.right.left)) {
+        node.right = this.rotateRight(node.right);
+      }
+      return this.rotateLeft(node);
+    }
+    return node;
+  }
+
+  private Node<T> rotateRight(Node<T> node) {
+    Node<T> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    this.update(node);
+    this.update(pivot);
+    return pivot;
+  }
+
+  private Node<T> rotateLeft(Node<T> node) {
+    Node<T> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    this.update(node);
+    this.update(pivot);
+    return pivot;
+  }
+}
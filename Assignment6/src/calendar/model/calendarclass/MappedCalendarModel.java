@@ -0,0 +1,48 @@
+package calendar.model.calendarclass;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.ZoneId;
+
+/**
+ * Represents a calendar with a name and time zone whose single events are kept off the heap, in a
+ * memory-mapped file, for calendars with millions of events. Queries read the events straight
+ * from the file and only create the events they return, and availability checks are answered from
+ * the file instead of per-day bitmaps, so the heap used by the calendar stays flat no matter how
+ * many events it holds. Recurring series are still kept on the heap as their rules.
+ *
+ * <p>The file is working storage rather than a saved calendar: it is emptied when the calendar is
+ * created, and the calendar should be closed once it is no longer used.</p>
+ */
+public class MappedCalendarModel extends NewCalendarModel implements Closeable {
+  private final MappedEventStore store;
+
+  /**
+   * Constructor for a MappedCalendarModel.
+   *
+   * @param name     the name of the calendar
+   * @param timeZone the time zone of the calendar
+   * @param file     the file the events are kept in, next to which a file of their text is kept
+   *                 with ".strings" added to its name
+   * @throws IOException if the files cannot be opened
+   */
+  public MappedCalendarModel(String name, ZoneId timeZone, Path file) throws IOException {
+    this(name, timeZone, new MappedEventStore(file, TIME_ORDER));
+  }
+
+  private MappedCalendarModel(String name, ZoneId timeZone, MappedEventStore store) {
+    super(name, timeZone, store, false);
+    this.store = store;
+  }
+
+  /**
+   * Closes the files the events are kept in. The calendar must not be used afterwards.
+   *
+   * @throws IOException if the files cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.store.close();
+  }
+}
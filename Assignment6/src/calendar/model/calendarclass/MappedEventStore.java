@@ -0,0 +1,722 @@
+package calendar.model.calendarclass;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import calendar.model.event.Event;
+
+/**
+ * This class represents a store of events kept off the heap, as fixed-width records in a
+ * memory-mapped file. Each record holds an event's times as epoch seconds and nanoseconds, the
+ * hash of its subject, its packed details, and references to its subject, description and series
+ * ID, which are written once to a second mapped file of strings. Queries read the records straight
+ * from the mapped files, and Event objects are only created for the events a query returns, so
+ * the heap used by the store does not grow with the number of events.
+ *
+ * <p>Records are laid out like the columns of {@link EventColumns}: most are sorted by start
+ * time, then end time, then subject, and found with a binary search followed by a scan, while new
+ * records are appended after them, unsorted, and merged in once there are more than four times
+ * the square root of the sorted records. Removed records are only marked as deleted until the
+ * next merge, and the strings of removed events are never reclaimed. Events lasting longer than
+ * {@link EventColumns#MAX_COLUMN_DURATION} are rare and kept in an interval tree on the heap.</p>
+ *
+ * <p>The files are working storage rather than a saved calendar: they are emptied when the store
+ * is opened, and may be deleted once it is closed.</p>
+ */
+class MappedEventStore implements EventStore, Closeable {
+  private static final Duration MAX_RECORD_DURATION = EventColumns.MAX_COLUMN_DURATION;
+  private static final int MIN_DELTA = 256;
+  //layout of a record
+  private static final int START_SECOND = 0;
+  private static final int END_SECOND = 8;
+  private static final int SUBJECT = 16;
+  private static final int DESCRIPTION = 24;
+  private static final int SERIES_ID = 32;
+  private static final int START_NANO = 40;
+  private static final int END_NANO = 44;
+  private static final int SUBJECT_HASH = 48;
+  private static final int FLAGS = 52;
+  private static final int RECORD_BYTES = 56;
+  //the files are mapped in chunks, since one mapping holds at most 2GB
+  private static final int RECORD_CHUNK_SHIFT = 16;
+  private static final int RECORDS_PER_CHUNK = 1 << RECORD_CHUNK_SHIFT;
+  private static final int STRING_CHUNK_SHIFT = 20;
+  private static final int STRING_CHUNK_BYTES = 1 << STRING_CHUNK_SHIFT;
+  private static final long NO_STRING = -1;
+
+  private final Comparator<Event> order;
+  private final FileChannel records;
+  private final FileChannel strings;
+  private final List<MappedByteBuffer> recordChunks;
+  private final List<MappedByteBuffer> stringChunks;
+  private final IntervalTree<Event> longEvents;
+  private final byte[] record; //scratch space for copying one record
+  private int mainSize; //sorted records, followed by the unsorted delta records
+  private int deltaSize;
+  private int deleted; //sorted records marked as deleted
+  private int size;
+  private long stringEnd; //where the next string is written
+
+  /**
+   * Constructs an empty MappedEventStore backed by the given file, and by a file of strings next
+   * to it with ".strings" added to its name. Both files are created, or emptied if they exist.
+   *
+   * @param file  the file the records are kept in
+   * @param order the order of the events returned by queries, which must sort by start time, then
+   *              end time, then subject
+   * @throws IOException if either file cannot be opened
+   */
+  MappedEventStore(Path file, Comparator<Event> order) throws IOException {
+    this.order = order;
+    this.records = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    try {
+      this.strings = FileChannel.open(file.resolveSibling(file.getFileName() + ".strings"),
+              StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+    } catch (IOException e) {
+      this.records.close();
+      throw e;
+    }
+    this.recordChunks = new ArrayList<>();
+    this.stringChunks = new ArrayList<>();
+    this.longEvents = new IntervalTree<>(order, Event::getStartDateTime, Event::getEndDateTime);
+    this.record = new byte[RECORD_BYTES];
+  }
+
+  /**
+   * Closes the files backing the store. The mapped regions stay readable until they are garbage
+   * collected, but the store must not be used afterwards.
+   *
+   * @throws IOException if either file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      this.records.close();
+    } finally {
+      this.strings.close();
+    }
+  }
+
+  @Override
+  public int size() {
+    return this.size;
+  }
+
+  @Override
+  public void add(Event event) {
+    this.append(event);
+    if (this.deltaSize > this.deltaLimit()) {
+      this.merge();
+    }
+  }
+
+  @Override
+  public void addAll(Collection<Event> events) {
+    for (Event event : events) {
+      this.append(event);
+    }
+    if (this.deltaSize > this.deltaLimit()) {
+      this.merge();
+    }
+  }
+
+  @Override
+  public boolean remove(Event event) {
+    LocalDateTime start = event.getStartDateTime();
+    LocalDateTime end = event.getEndDateTime();
+    if (isLong(start, end)) {
+      Event stored = this.findLong(event.getSubject(), start, end);
+      if (stored == null) {
+        return false;
+      }
+      this.longEvents.remove(stored);
+      this.size--;
+      return true;
+    }
+    byte[] subject = event.getSubject().getBytes(StandardCharsets.UTF_8);
+    int row = this.findMain(subject, event.getSubject().hashCode(), start, end);
+    if (row >= 0) {
+      this.setFlags(row, this.flags(row) | EventColumns.DELETED_FLAG);
+      this.deleted++;
+      this.size--;
+      if (this.deleted > this.mainSize / 2) {
+        this.merge();
+      }
+      return true;
+    }
+    row = this.findDelta(subject, event.getSubject().hashCode(), start, end);
+    if (row >= 0) {
+      //move the last delta record into the gap
+      int last = this.mainSize + --this.deltaSize;
+      this.copy(last, row);
+      this.size--;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public Event get(String subject, LocalDateTime start, LocalDateTime end) {
+    if (isLong(start, end)) {
+      return this.findLong(subject, start, end);
+    }
+    byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+    int row = this.findMain(bytes, subject.hashCode(), start, end);
+    if (row < 0) {
+      row = this.findDelta(bytes, subject.hashCode(), start, end);
+    }
+    return row >= 0 ? this.eventAt(row) : null;
+  }
+
+  @Override
+  public List<Event> startingAt(String subject, LocalDateTime start) {
+    List<Event> result = new ArrayList<>(1);
+    for (Event event : this.longEvents.overlapping(start, start.plusNanos(1))) {
+      if (event.getSubject().equals(subject) && event.getStartDateTime().equals(start)) {
+        result.add(event);
+      }
+    }
+    byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+    int hash = subject.hashCode();
+    long second = start.toEpochSecond(ZoneOffset.UTC);
+    int nano = start.getNano();
+    for (int row = this.firstStartingFrom(second, nano); row < this.mainSize
+            && this.startSecond(row) == second && this.startNano(row) == nano; row++) {
+      if (this.isLive(row) && this.hasSubject(row, bytes, hash)) {
+        result.add(this.eventAt(row));
+      }
+    }
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (this.startSecond(row) == second && this.startNano(row) == nano
+              && this.hasSubject(row, bytes, hash)) {
+        result.add(this.eventAt(row));
+      }
+    }
+    if (result.size() > 1) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  @Override
+  public List<Event> withSubject(String subject, LocalDateTime from, LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    for (Event event : this.longEvents.overlapping(from, to)) {
+      if (event.getSubject().equals(subject)) {
+        result.add(event);
+      }
+    }
+    boolean sorted = result.isEmpty();
+    byte[] bytes = subject.getBytes(StandardCharsets.UTF_8);
+    int hash = subject.hashCode();
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    for (int row = this.firstEndingAfter(from); row < this.mainSize
+            && compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0; row++) {
+      if (compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0
+              && this.isLive(row) && this.hasSubject(row, bytes, hash)) {
+        result.add(this.eventAt(row));
+      }
+    }
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0
+              && compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0
+              && this.hasSubject(row, bytes, hash)) {
+        result.add(this.eventAt(row));
+        sorted = false;
+      }
+    }
+    if (!sorted) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  @Override
+  public List<Event> overlapping(LocalDateTime from, LocalDateTime to) {
+    List<Event> result = this.longEvents.overlapping(from, to);
+    boolean sorted = result.isEmpty();
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    for (int row = this.firstEndingAfter(from); row < this.mainSize
+            && compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0; row++) {
+      if (compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0
+              && this.isLive(row)) {
+        result.add(this.eventAt(row));
+      }
+    }
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0
+              && compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0) {
+        result.add(this.eventAt(row));
+        sorted = false;
+      }
+    }
+    if (!sorted) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  @Override
+  public void forEachOverlapping(LocalDateTime from, LocalDateTime to, TimeVisitor visitor) {
+    for (Event event : this.longEvents.overlapping(from, to)) {
+      LocalDateTime start = event.getStartDateTime();
+      LocalDateTime end = event.getEndDateTime();
+      visitor.visit(start.toEpochSecond(ZoneOffset.UTC), start.getNano(),
+              end.toEpochSecond(ZoneOffset.UTC), end.getNano());
+    }
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    for (int row = this.firstEndingAfter(from); row < this.mainSize
+            && compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0; row++) {
+      if (compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0
+              && this.isLive(row)) {
+        visitor.visit(this.startSecond(row), this.startNano(row), this.endSecond(row),
+                this.endNano(row));
+      }
+    }
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0
+              && compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0) {
+        visitor.visit(this.startSecond(row), this.startNano(row), this.endSecond(row),
+                this.endNano(row));
+      }
+    }
+  }
+
+  @Override
+  public void forEachInOrder(LocalDateTime from, LocalDateTime to, Consumer<Event> action) {
+    //only the unsorted records and the long events are gathered and sorted first
+    List<Event> unsorted = this.longEvents.overlapping(from, to);
+    long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+    int fromNano = from.getNano();
+    long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+    int toNano = to.getNano();
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0
+              && compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0) {
+        unsorted.add(this.eventAt(row));
+      }
+    }
+    unsorted.sort(this.order);
+    int next = 0;
+    for (int row = this.firstEndingAfter(from); row < this.mainSize
+            && compare(this.startSecond(row), this.startNano(row), toSecond, toNano) < 0; row++) {
+      if (compare(this.endSecond(row), this.endNano(row), fromSecond, fromNano) > 0
+              && this.isLive(row)) {
+        Event event = this.eventAt(row);
+        while (next < unsorted.size() && this.order.compare(unsorted.get(next), event) < 0) {
+          action.accept(unsorted.get(next++));
+        }
+        action.accept(event);
+      }
+    }
+    while (next < unsorted.size()) {
+      action.accept(unsorted.get(next++));
+    }
+  }
+
+  @Override
+  public boolean anyContaining(LocalDateTime time) {
+    if (this.longEvents.anyContaining(time)) {
+      return true;
+    }
+    long second = time.toEpochSecond(ZoneOffset.UTC);
+    int nano = time.getNano();
+    for (int row = this.firstEndingAfter(time); row < this.mainSize
+            && compare(this.startSecond(row), this.startNano(row), second, nano) <= 0; row++) {
+      if (compare(this.endSecond(row), this.endNano(row), second, nano) >= 0
+              && this.isLive(row)) {
+        return true;
+      }
+    }
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (compare(this.startSecond(row), this.startNano(row), second, nano) <= 0
+              && compare(this.endSecond(row), this.endNano(row), second, nano) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public List<Event> toList() {
+    List<Event> result = new ArrayList<>(this.size);
+    result.addAll(this.longEvents.toList());
+    for (int row = 0; row < this.mainSize + this.deltaSize; row++) {
+      if (this.isLive(row)) {
+        result.add(this.eventAt(row));
+      }
+    }
+    if (this.deltaSize > 0 || this.longEvents.size() > 0) {
+      result.sort(this.order);
+    }
+    return result;
+  }
+
+  /**
+   * Appends a record for the given event after the last delta record, or adds the event to the
+   * tree of long events if it lasts longer than {@link EventColumns#MAX_COLUMN_DURATION}.
+   *
+   * @param event the event to be appended
+   */
+  private void append(Event event) {
+    LocalDateTime start = event.getStartDateTime();
+    LocalDateTime end = event.getEndDateTime();
+    if (isLong(start, end)) {
+      this.longEvents.add(event);
+      this.size++;
+      return;
+    }
+    int row = this.mainSize + this.deltaSize;
+    this.ensureRecords(row + 1);
+    ByteBuffer chunk = this.chunk(row);
+    int at = offset(row);
+    chunk.putLong(at + START_SECOND, start.toEpochSecond(ZoneOffset.UTC));
+    chunk.putLong(at + END_SECOND, end.toEpochSecond(ZoneOffset.UTC));
+    chunk.putLong(at + SUBJECT, this.writeString(event.getSubject()));
+    chunk.putLong(at + DESCRIPTION, this.writeString(event.getDescription()));
+    chunk.putLong(at + SERIES_ID, this.writeString(event.getSeriesId()));
+    chunk.putInt(at + START_NANO, start.getNano());
+    chunk.putInt(at + END_NANO, end.getNano());
+    chunk.putInt(at + SUBJECT_HASH, event.getSubject().hashCode());
+    chunk.put(at + FLAGS, (byte) EventColumns.packDetails(event));
+    this.deltaSize++;
+    this.size++;
+  }
+
+  /**
+   * Merges the delta records into the sorted records, dropping the records marked as deleted. The
+   * delta records are copied to the heap and sorted there first, and then merged in place from the
+   * back, so the merge only moves the sorted records that sort after the earliest new one.
+   */
+  private void merge() {
+    ByteBuffer delta = ByteBuffer.allocate(this.deltaSize * RECORD_BYTES);
+    for (int i = 0; i < this.deltaSize; i++) {
+      this.chunk(this.mainSize + i).get(offset(this.mainSize + i), this.record);
+      delta.put(i * RECORD_BYTES, this.record);
+    }
+    Integer[] sortedDelta = new Integer[this.deltaSize];
+    for (int i = 0; i < sortedDelta.length; i++) {
+      sortedDelta[i] = i;
+    }
+    Arrays.sort(sortedDelta, (a, b) -> this.compareRecords(delta, a * RECORD_BYTES,
+            delta, b * RECORD_BYTES));
+    if (this.deleted > 0) {
+      int kept = 0;
+      for (int row = 0; row < this.mainSize; row++) {
+        if (this.isLive(row)) {
+          this.copy(row, kept++);
+        }
+      }
+      this.mainSize = kept;
+      this.deleted = 0;
+    }
+    int i = this.mainSize - 1;
+    int j = sortedDelta.length - 1;
+    for (int k = this.mainSize + sortedDelta.length - 1; j >= 0; k--) {
+      int deltaAt = sortedDelta[j] * RECORD_BYTES;
+      if (i >= 0 && this.compareRecords(this.chunk(i), offset(i), delta, deltaAt) > 0) {
+        this.copy(i--, k);
+      } else {
+        delta.get(deltaAt, this.record);
+        this.chunk(k).put(offset(k), this.record);
+        j--;
+      }
+    }
+    this.mainSize += sortedDelta.length;
+    this.deltaSize = 0;
+  }
+
+  private int deltaLimit() {
+    return Math.max(MIN_DELTA, 4 * (int) Math.sqrt(this.mainSize));
+  }
+
+  /**
+   * Finds the first sorted record that starts at or after the given time.
+   *
+   * @param second the epoch second of the time
+   * @param nano   the nanosecond of the time
+   * @return the index of the record, or the number of sorted records if there is none
+   */
+  private int firstStartingFrom(long second, int nano) {
+    int low = 0;
+    int high = this.mainSize;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compare(this.startSecond(mid), this.startNano(mid), second, nano) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Finds the first sorted record that could end at or after the given time. No record lasts
+   * longer than {@link EventColumns#MAX_COLUMN_DURATION}, so every earlier record ends before the
+   * given time.
+   *
+   * @param time the time to search from
+   * @return the index of the record, or the number of sorted records if there is none
+   */
+  private int firstEndingAfter(LocalDateTime time) {
+    if (time.isBefore(LocalDateTime.MIN.plus(MAX_RECORD_DURATION))) {
+      return 0;
+    }
+    LocalDateTime earliest = time.minus(MAX_RECORD_DURATION);
+    return this.firstStartingFrom(earliest.toEpochSecond(ZoneOffset.UTC), earliest.getNano());
+  }
+
+  private int findMain(byte[] subject, int hash, LocalDateTime start, LocalDateTime end) {
+    long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+    int startNano = start.getNano();
+    long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+    int endNano = end.getNano();
+    for (int row = this.firstStartingFrom(startSecond, startNano); row < this.mainSize
+            && this.startSecond(row) == startSecond && this.startNano(row) == startNano; row++) {
+      if (this.endSecond(row) == endSecond && this.endNano(row) == endNano && this.isLive(row)
+              && this.hasSubject(row, subject, hash)) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  private int findDelta(byte[] subject, int hash, LocalDateTime start, LocalDateTime end) {
+    long startSecond = start.toEpochSecond(ZoneOffset.UTC);
+    int startNano = start.getNano();
+    long endSecond = end.toEpochSecond(ZoneOffset.UTC);
+    int endNano = end.getNano();
+    for (int row = this.mainSize; row < this.mainSize + this.deltaSize; row++) {
+      if (this.startSecond(row) == startSecond && this.startNano(row) == startNano
+              && this.endSecond(row) == endSecond && this.endNano(row) == endNano
+              && this.hasSubject(row, subject, hash)) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  private Event findLong(String subject, LocalDateTime start, LocalDateTime end) {
+    for (Event event : this.longEvents.overlapping(start, start.plusNanos(1))) {
+      if (event.getSubject().equals(subject) && event.getStartDateTime().equals(start)
+              && event.getEndDateTime().equals(end)) {
+        return event;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks if the subject of the given record is the given subject, comparing the hashes first
+   * and then the encoded bytes, without creating a string.
+   *
+   * @param row     the index of the record
+   * @param subject the subject, encoded as UTF-8
+   * @param hash    the hash code of the subject
+   * @return true if the record has the subject, false otherwise
+   */
+  private boolean hasSubject(int row, byte[] subject, int hash) {
+    if (this.chunk(row).getInt(offset(row) + SUBJECT_HASH) != hash) {
+      return false;
+    }
+    long ref = this.chunk(row).getLong(offset(row) + SUBJECT);
+    ByteBuffer chunk = this.stringChunks.get((int) (ref >>> STRING_CHUNK_SHIFT));
+    int at = (int) (ref & (STRING_CHUNK_BYTES - 1));
+    if (chunk.getInt(at) != subject.length) {
+      return false;
+    }
+    for (int i = 0; i < subject.length; i++) {
+      if (chunk.get(at + Integer.BYTES + i) != subject[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Creates the Event stored in the given record.
+   *
+   * @param row the index of the record
+   * @return the event in the record
+   */
+  private Event eventAt(int row) {
+    ByteBuffer chunk = this.chunk(row);
+    int at = offset(row);
+    Event.EventBuilder builder = new Event.EventBuilder()
+            .subject(this.readString(chunk.getLong(at + SUBJECT)))
+            .startDateTime(LocalDateTime.ofEpochSecond(chunk.getLong(at + START_SECOND),
+                    chunk.getInt(at + START_NANO), ZoneOffset.UTC))
+            .endDateTime(LocalDateTime.ofEpochSecond(chunk.getLong(at + END_SECOND),
+                    chunk.getInt(at + END_NANO), ZoneOffset.UTC))
+            .description(this.readString(chunk.getLong(at + DESCRIPTION)))
+            .seriesId(this.readString(chunk.getLong(at + SERIES_ID)));
+    return EventColumns.withDetails(builder, chunk.get(at + FLAGS)).build();
+  }
+
+  /**
+   * Writes the given string to the file of strings, as its length in bytes followed by its UTF-8
+   * bytes. A string never crosses the end of a chunk, so it can be read from a single mapping.
+   *
+   * @param value the string to be written, which may be null
+   * @return the position the string was written at, or {@link #NO_STRING} if it was null
+   * @throws IllegalArgumentException if the string is too long to fit in one chunk
+   */
+  private long writeString(String value) {
+    if (value == null) {
+      return NO_STRING;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    int length = Integer.BYTES + bytes.length;
+    if (length > STRING_CHUNK_BYTES) {
+      throw new IllegalArgumentException("Event text is too long to be stored.");
+    }
+    long room = STRING_CHUNK_BYTES - (this.stringEnd & (STRING_CHUNK_BYTES - 1));
+    if (length > room) {
+      this.stringEnd += room;
+    }
+    int chunkIndex = (int) (this.stringEnd >>> STRING_CHUNK_SHIFT);
+    while (this.stringChunks.size() <= chunkIndex) {
+      this.stringChunks.add(this.map(this.strings, (long) this.stringChunks.size()
+              * STRING_CHUNK_BYTES, STRING_CHUNK_BYTES));
+    }
+    ByteBuffer chunk = this.stringChunks.get(chunkIndex);
+    int at = (int) (this.stringEnd & (STRING_CHUNK_BYTES - 1));
+    chunk.putInt(at, bytes.length);
+    chunk.put(at + Integer.BYTES, bytes);
+    long ref = this.stringEnd;
+    this.stringEnd += length;
+    return ref;
+  }
+
+  private String readString(long ref) {
+    if (ref == NO_STRING) {
+      return null;
+    }
+    ByteBuffer chunk = this.stringChunks.get((int) (ref >>> STRING_CHUNK_SHIFT));
+    int at = (int) (ref & (STRING_CHUNK_BYTES - 1));
+    byte[] bytes = new byte[chunk.getInt(at)];
+    chunk.get(at + Integer.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Maps chunks of the file of records until it has room for the given number of records.
+   *
+   * @param rows the number of records needed
+   */
+  private void ensureRecords(int rows) {
+    while ((long) this.recordChunks.size() * RECORDS_PER_CHUNK < rows) {
+      long chunkBytes = (long) RECORDS_PER_CHUNK * RECORD_BYTES;
+      this.recordChunks.add(this.map(this.records, this.recordChunks.size() * chunkBytes,
+              chunkBytes));
+    }
+  }
+
+  /**
+   * Maps the given region of the given file, growing the file if needed.
+   *
+   * @param channel  the file to be mapped
+   * @param position the start of the region
+   * @param length   the length of the region
+   * @return the mapped region
+   * @throws IllegalStateException if the file cannot be mapped
+   */
+  private MappedByteBuffer map(FileChannel channel, long position, long length) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+    } catch (IOException e) {
+      throw new IllegalStateException("The event file could not be extended.", e);
+    }
+  }
+
+  private ByteBuffer chunk(int row) {
+    return this.recordChunks.get(row >>> RECORD_CHUNK_SHIFT);
+  }
+
+  private static int offset(int row) {
+    return (row & (RECORDS_PER_CHUNK - 1)) * RECORD_BYTES;
+  }
+
+  private void copy(int fromRow, int toRow) {
+    this.chunk(fromRow).get(offset(fromRow), this.record);
+    this.chunk(toRow).put(offset(toRow), this.record);
+  }
+
+  private long startSecond(int row) {
+    return this.chunk(row).getLong(offset(row) + START_SECOND);
+  }
+
+  private int startNano(int row) {
+    return this.chunk(row).getInt(offset(row) + START_NANO);
+  }
+
+  private long endSecond(int row) {
+    return this.chunk(row).getLong(offset(row) + END_SECOND);
+  }
+
+  private int endNano(int row) {
+    return this.chunk(row).getInt(offset(row) + END_NANO);
+  }
+
+  private int flags(int row) {
+    return this.chunk(row).get(offset(row) + FLAGS);
+  }
+
+  private void setFlags(int row, int flags) {
+    this.chunk(row).put(offset(row) + FLAGS, (byte) flags);
+  }
+
+  private boolean isLive(int row) {
+    return (this.flags(row) & EventColumns.DELETED_FLAG) == 0;
+  }
+
+  private int compareRecords(ByteBuffer a, int atA, ByteBuffer b, int atB) {
+    int result = compare(a.getLong(atA + START_SECOND), a.getInt(atA + START_NANO),
+            b.getLong(atB + START_SECOND), b.getInt(atB + START_NANO));
+    if (result == 0) {
+      result = compare(a.getLong(atA + END_SECOND), a.getInt(atA + END_NANO),
+              b.getLong(atB + END_SECOND), b.getInt(atB + END_NANO));
+    }
+    if (result == 0) {
+      result = this.readString(a.getLong(atA + SUBJECT))
+              .compareTo(this.readString(b.getLong(atB + SUBJECT)));
+    }
+    return result;
+  }
+
+  private static int compare(long secondA, int nanoA, long secondB, int nanoB) {
+    int result = Long.compare(secondA, secondB);
+    return result != 0 ? result : Integer.compare(nanoA, nanoB);
+  }
+
+  private static boolean isLong(LocalDateTime start, LocalDateTime end) {
+    return Duration.between(start, end).compareTo(MAX_RECORD_DURATION) > 0;
+  }
+}
@@ -2,8 +2,11 @@ package calendar.model.calendarclass;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import calendar.controller.guicontroller.CalendarObserver;
@@ -38,6 +41,22 @@ public class MockModel implements ICalendar {
     return this.dateFormatter;
   }
 
+  @Override
+  public ZoneId getTimeZone() {
+    return ZoneOffset.UTC;
+  }
+
+  /**
+   * Logs that a snapshot was taken into this Model's log StringBuilder.
+   *
+   * @return the state of an empty calendar
+   */
+  @Override
+  public CalendarState snapshot() {
+    log.append("Snapshot Taken\n");
+    return new CalendarModel().snapshot();
+  }
+
 
   @Override
   public void addObserver(CalendarObserver observer) {
@@ -54,6 +73,17 @@ public class MockModel implements ICalendar {
     log.append("Observers notified of changes.\n");
   }
 
+  /**
+   * Logs that a batch was started, and then runs the given operation.
+   *
+   * @param operation the operation to be run
+   */
+  @Override
+  public void batch(Runnable operation) {
+    log.append("Batch started.\n");
+    operation.run();
+  }
+
   /**
    * Logs the input of the given event to this Model's log StringBuilder.
    *
@@ -64,6 +94,19 @@ public class MockModel implements ICalendar {
     log.append("Event added: ").append(event.toString()).append("\n");
   }
 
+  /**
+   * Logs the input of each of the given events to this Model's log StringBuilder.
+   *
+   * @param events the events intended to be added.
+   */
+  @Override
+  public void addEvents(Collection<Event> events) {
+    log.append("Events added: ").append(events.size()).append("\n");
+    for (Event event : events) {
+      log.append("Event added: ").append(event.toString()).append("\n");
+    }
+  }
+
   /**
    * Logs the inputted data for this method into this Model's log StringBuilder.
    *
@@ -106,6 +149,23 @@ public class MockModel implements ICalendar {
     return new ArrayList<>();
   }
 
+  /**
+   * Logs the inputted data for this method into this Model's log StringBuilder, without visiting
+   * any event.
+   *
+   * @param startDateTime the start date and time of the range
+   * @param endDateTime   the end date and time of the range
+   * @param expandSeries  whether recurring series would be passed as their occurrences
+   * @param visitor       the visitor, which is not called
+   */
+  @Override
+  public void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                           boolean expandSeries, EventVisitor visitor) {
+    log.append("Events Walked from Start: ").append(startDateTime.format(dateTimeFormatter))
+            .append(", to End: ").append(endDateTime.format(dateTimeFormatter))
+            .append(", Series Expanded: ").append(expandSeries).append("\n");
+  }
+
   /**
    * Logs the inputted data for this method into this Model's log StringBuilder.
    *
@@ -1,20 +1,15 @@
 package calendar.model.calendarclass;
 
-import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.List;
-
-import calendar.model.event.Event;
 
 /**
  * Represents a calendar model with a name and time zone.
- * This class provides methods to convert between LocalDateTime and ZonedDateTime
- * in the context of the calendar's time zone.
+ * The calendar's events are read and shown as LocalDateTimes in its time zone, while being
+ * stored in UTC, so changing the time zone only changes how they are shown.
  */
 public class NewCalendarModel extends CalendarModel {
   private String name;
-  private ZoneId timeZone;
+  private boolean dirty; //whether the calendar changed since it was last saved
 
   /**
    * Constructor for a NewCalendarModel.
@@ -23,8 +18,24 @@ public class NewCalendarModel extends CalendarModel {
    * @param timeZone the time zone of the calendar
    */
   public NewCalendarModel(String name, ZoneId timeZone) {
+    super(timeZone);
+    this.name = name;
+    this.dirty = true;
+  }
+
+  /**
+   * Constructor for a NewCalendarModel whose single events are kept in the given store.
+   *
+   * @param name     the name of the calendar
+   * @param timeZone the time zone of the calendar
+   * @param events   the empty store the calendar's single events are kept in
+   * @param painted  whether busy minutes are kept in per-day bitmaps, or every availability
+   *                 check is answered by the store
+   */
+  NewCalendarModel(String name, ZoneId timeZone, EventStore events, boolean painted) {
+    super(timeZone, events, painted);
     this.name = name;
-    this.timeZone = timeZone;
+    this.dirty = true;
   }
 
   /**
@@ -43,79 +54,49 @@ public class NewCalendarModel extends CalendarModel {
    */
   public void setName(String name) {
     this.name = name;
+    this.dirty = true;
   }
 
   /**
-   * Get the time zone of the calendar.
+   * Set the time zone of the calendar. Events are stored in UTC and only shown in the calendar's
+   * time zone, so no event is edited; every event keeps its instant and is shown at the matching
+   * local time of the new zone.
    *
-   * @return the time zone of the calendar
+   * @param timeZone the new time zone of the calendar
+   * @throws IllegalStateException if an occurrence of a series would span multiple days
    */
-  public ZoneId getTimeZone() {
-    return this.timeZone;
+  public void setTimeZone(ZoneId timeZone) {
+    this.changeZone(timeZone);
+    this.dirty = true;
   }
 
   /**
-   * Set the time zone of the calendar.
-   *
-   * @param timeZone the new time zone of the calendar
+   * Notifies all observers of changes in the calendar, and marks the calendar as changed since it
+   * was last saved. Every change to the calendar ends by notifying its observers.
    */
-  public void setTimeZone(ZoneId timeZone) {
-    ZoneId lastTimeZone = this.timeZone;
-    this.timeZone = timeZone;
-    List<Event> events = filterSeriesIds(new ArrayList<>(this.events.values()));
-    for (Event e : events) {
-      // original localDateTimes
-      LocalDateTime originalStart = e.getStartDateTime();
-      LocalDateTime originalEnd = e.getEndDateTime();
-
-      // changing time zones with ZonedDateTime conversion
-      LocalDateTime newStartLDT = originalStart.atZone(lastTimeZone)
-              .withZoneSameInstant(timeZone)
-              .toLocalDateTime();
-      LocalDateTime newEndLDT = originalEnd.atZone(lastTimeZone)
-              .withZoneSameInstant(timeZone)
-              .toLocalDateTime();
-      // editing event to have new start and end
-      handleDateChanging(e, originalStart, originalEnd, newStartLDT, newEndLDT);
-    }
+  @Override
+  public void notifyObservers() {
+    this.dirty = true;
+    super.notifyObservers();
   }
 
   /**
-   * Converts a LocalDateTime to a ZonedDateTime in the context of this calendar's time zone. And
-   * modify the event's start and end times accordingly by using the editSingleEvent method.
+   * Checks if the calendar changed since it was last marked as saved. A new calendar starts out
+   * changed, while one read back from a snapshot does not.
    *
-   * @param e        the event to edit
-   * @param oldStart the old start date and time of the event
-   * @param oldEnd   the old end date and time of the event
-   * @param newStart the new start date and time of the event
-   * @param newEnd   the new end date and time of the event
+   * @return true if the calendar changed since it was last saved, false otherwise
    */
-  private void handleDateChanging(Event e, LocalDateTime oldStart, LocalDateTime oldEnd,
-                                  LocalDateTime newStart, LocalDateTime newEnd) {
-    if (oldStart.isBefore(newStart)) {
-      editMultipleEvents("end", e.getSubject(), oldStart.format(dateTimeFormatter),
-              newEnd.format(dateTimeFormatter), true);
-      editMultipleEvents("start", e.getSubject(), oldStart.format(dateTimeFormatter),
-              newStart.format(dateTimeFormatter), true);
-    } else if (newStart.isBefore(oldStart)) {
-      editMultipleEvents("start", e.getSubject(), oldStart.format(dateTimeFormatter),
-              newStart.format(dateTimeFormatter), true);
-      editMultipleEvents("end", e.getSubject(), newStart.format(dateTimeFormatter),
-              newEnd.format(dateTimeFormatter), true);
-    }
+  public boolean isDirty() {
+    return this.dirty;
   }
 
-  private List<Event> filterSeriesIds(List<Event> events) {
-    ArrayList<String> ids = new ArrayList<>();
-    for (Event e : new ArrayList<>(events)) {
-      if (e.getSeriesId() != null) {
-        if (!ids.contains(e.getSeriesId())) {
-          ids.add(e.getSeriesId());
-        } else {
-          events.remove(e);
-        }
-      }
-    }
-    return events;
+  /**
+   * Sets whether the calendar changed since it was last saved, as when it has just been saved, or
+   * saving it failed.
+   *
+   * @param dirty whether the calendar has changes that are not saved
+   */
+  public void setDirty(boolean dirty) {
+    this.dirty = dirty;
   }
 }
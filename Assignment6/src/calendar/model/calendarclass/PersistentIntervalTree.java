@@ -0,0 +1,366 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class represents an immutable index of time intervals: the persistent counterpart of
+ * {@link IntervalTree}, stored in a balanced (AVL) binary search tree ordered by start time and
+ * augmented with the latest end time of each subtree. Nodes are never changed once built. Adding
+ * or removing a value copies only the O(log n) nodes on the path to it and returns a new tree
+ * sharing every other node with this one, so any number of versions can be kept at the cost of
+ * the nodes they do not share, and a version can be read from any thread without locking.
+ *
+ * @param <T> the type of value being indexed
+ */
+final class PersistentIntervalTree<T> {
+  //bulk adds smaller than size / REBUILD_RATIO are inserted one at a time instead of rebuilding
+  private static final int REBUILD_RATIO = 16;
+
+  private final Comparator<T> order;
+  private final Function<T, LocalDateTime> startOf;
+  private final Function<T, LocalDateTime> endOf;
+  private final Node<T> root;
+  private final int size;
+
+  /**
+   * Represents a single node of the tree, holding one value and the augmented data of its
+   * subtree, all of which are fixed when the node is built.
+   *
+   * @param <T> the type of value being indexed
+   */
+  private static final class Node<T> {
+    private final T value;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final LocalDateTime maxEnd;
+    private final int height;
+    private final Node<T> left;
+    private final Node<T> right;
+
+    private Node(T value, LocalDateTime start, LocalDateTime end, Node<T> left, Node<T> right) {
+      this.value = value;
+      this.start = start;
+      this.end = end;
+      this.left = left;
+      this.right = right;
+      this.height = 1 + Math.max(height(left), height(right));
+      LocalDateTime maxEnd = end;
+      if (left != null && left.maxEnd.isAfter(maxEnd)) {
+        maxEnd = left.maxEnd;
+      }
+      if (right != null && right.maxEnd.isAfter(maxEnd)) {
+        maxEnd = right.maxEnd;
+      }
+      this.maxEnd = maxEnd;
+    }
+
+    /**
+     * Builds a node holding this node's value over the given subtrees.
+     */
+    private Node<T> with(Node<T> left, Node<T> right) {
+      return new Node<>(this.value, this.start, this.end, left, right);
+    }
+  }
+
+  private PersistentIntervalTree(Comparator<T> order, Function<T, LocalDateTime> startOf,
+                                 Function<T, LocalDateTime> endOf, Node<T> root, int size) {
+    this.order = order;
+    this.startOf = startOf;
+    this.endOf = endOf;
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns an empty PersistentIntervalTree.
+   *
+   * @param order   a total order of the values, which must sort by start time first; values that
+   *                compare as equal are treated as the same entry
+   * @param startOf a function returning the start of a value's interval
+   * @param endOf   a function returning the end of a value's interval
+   * @param <T>     the type of value being indexed
+   * @return an empty tree
+   */
+  static <T> PersistentIntervalTree<T> empty(Comparator<T> order,
+                                             Function<T, LocalDateTime> startOf,
+                                             Function<T, LocalDateTime> endOf) {
+    return new PersistentIntervalTree<>(order, startOf, endOf, null, 0);
+  }
+
+  /**
+   * Returns the number of values in the tree.
+   *
+   * @return the number of values in the tree
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns a tree holding the values of this tree and the given value, which replaces any equal
+   * value. This tree is left unchanged.
+   *
+   * @param value the value to be added
+   * @return the new tree
+   */
+  PersistentIntervalTree<T> with(T value) {
+    int[] added = new int[1];
+    Node<T> root = this.insert(this.root, value, added);
+    return new PersistentIntervalTree<>(this.order, this.startOf, this.endOf, root,
+            this.size + added[0]);
+  }
+
+  /**
+   * Returns a tree holding the values of this tree and every given value, which replace any equal
+   * values. When the number of new values is small compared to the tree, they are inserted one at
+   * a time; otherwise they are sorted, merged with the values of this tree, and a new tree is
+   * built from the merged list in linear time. This tree is left unchanged.
+   *
+   * @param values the values to be added
+   * @return the new tree
+   */
+  PersistentIntervalTree<T> withAll(Collection<T> values) {
+    if ((long) values.size() * REBUILD_RATIO < this.size) {
+      PersistentIntervalTree<T> tree = this;
+      for (T value : values) {
+        tree = tree.with(value);
+      }
+      return tree;
+    }
+    List<T> added = new ArrayList<>(values);
+    added.sort(this.order);
+    List<T> merged = this.merge(this.toList(), added);
+    return new PersistentIntervalTree<>(this.order, this.startOf, this.endOf,
+            this.build(merged, 0, merged.size() - 1), merged.size());
+  }
+
+  /**
+   * Returns a tree holding the values of this tree apart from the given value. This tree is left
+   * unchanged, and returned as is if it does not hold the value.
+   *
+   * @param value the value to be removed
+   * @return the new tree
+   */
+  PersistentIntervalTree<T> without(T value) {
+    int[] removed = new int[1];
+    Node<T> root = this.delete(this.root, value, removed);
+    if (removed[0] == 0) {
+      return this;
+    }
+    return new PersistentIntervalTree<>(this.order, this.startOf, this.endOf, root,
+            this.size - 1);
+  }
+
+  /**
+   * Returns every value whose interval overlaps the given range, meaning it starts before the end
+   * of the range and ends after the start of it. The values are sorted by start time.
+   *
+   * @param from the start of the range
+   * @param to   the end of the range
+   * @return a list of the overlapping values
+   */
+  List<T> overlapping(LocalDateTime from, LocalDateTime to) {
+    List<T> result = new ArrayList<>();
+    this.collectOverlapping(this.root, from, to, result);
+    return result;
+  }
+
+  /**
+   * Checks if any value's interval contains the given time, including its start and end times.
+   *
+   * @param time the time to check
+   * @return true if some interval contains the time, false otherwise
+   */
+  boolean anyContaining(LocalDateTime time) {
+    return this.anyContainingIn(this.root, time);
+  }
+
+  /**
+   * Returns every value in the tree, sorted by start time.
+   *
+   * @return a list of all values in the tree
+   */
+  List<T> toList() {
+    List<T> result = new ArrayList<>(this.size);
+    this.collectAll(this.root, result);
+    return result;
+  }
+
+  private boolean anyContainingIn(Node<T> node, LocalDateTime time) {
+    return node != null && !node.maxEnd.isBefore(time) && this.anyContainingFrom(node, time);
+  }
+
+  private boolean anyContainingFrom(Node<T> node, LocalDateTime time) {
+    if (this.anyContainingIn(node.left, time)) {
+      return true;
+    }
+    if (node.start.isAfter(time)) {
+      return false;
+    }
+    return !node.end.isBefore(time) || this.anyContainingIn(node.right, time);
+  }
+
+  private void collectOverlapping(Node<T> node, LocalDateTime from, LocalDateTime to,
+                                  List<T> result) {
+    if (node == null || !node.maxEnd.isAfter(from)) {
+      return;
+    }
+    this.collectOverlapping(node.left, from, to, result);
+    if (node.start.isBefore(to)) {
+      if (node.end.isAfter(from)) {
+        result.add(node.value);
+      }
+      this.collectOverlapping(node.right, from, to, result);
+    }
+  }
+
+  private void collectAll(Node<T> node, List<T> result) {
+    if (node != null) {
+      this.collectAll(node.left, result);
+      result.add(node.value);
+      this.collectAll(node.right, result);
+    }
+  }
+
+  /**
+   * Merges two lists that are sorted by the tree's order. When a value appears in both, only the
+   * one from the second list is kept.
+   *
+   * @param existing the first sorted list
+   * @param added    the second sorted list, which may itself contain equal values
+   * @return the merged, sorted list
+   */
+  private List<T> merge(List<T> existing, List<T> added) {
+    List<T> merged = new ArrayList<>(existing.size() + added.size());
+    int i = 0;
+    int j = 0;
+    while (i < existing.size() || j < added.size()) {
+      T next;
+      if (j == added.size()) {
+        next = existing.get(i++);
+      } else if (i == existing.size()) {
+        next = added.get(j++);
+      } else {
+        int cmp = this.order.compare(existing.get(i), added.get(j));
+        if (cmp < 0) {
+          next = existing.get(i++);
+        } else {
+          if (cmp == 0) {
+            i++;
+          }
+          next = added.get(j++);
+        }
+      }
+      int last = merged.size() - 1;
+      if (last >= 0 && this.order.compare(merged.get(last), next) == 0) {
+        merged.set(last, next);
+      } else {
+        merged.add(next);
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Builds a perfectly balanced subtree from the given part of a sorted list.
+   *
+   * @param sorted the sorted values
+   * @param low    the index of the first value in the subtree
+   * @param high   the index of the last value in the subtree
+   * @return the root of the subtree, or null if it is empty
+   */
+  private Node<T> build(List<T> sorted, int low, int high) {
+    if (low > high) {
+      return null;
+    }
+    int mid = (low + high) >>> 1;
+    Node<T> left = this.build(sorted, low, mid - 1);
+    Node<T> right = this.build(sorted, mid + 1, high);
+    return this.node(sorted.get(mid), left, right);
+  }
+
+  private Node<T> node(T value, Node<T> left, Node<T> right) {
+    return new Node<>(value, this.startOf.apply(value), this.endOf.apply(value), left, right);
+  }
+
+  private Node<T> insert(Node<T> node, T value, int[] added) {
+    if (node == null) {
+      added[0] = 1;
+      return this.node(value, null, null);
+    }
+    int cmp = this.order.compare(value, node.value);
+    if (cmp < 0) {
+      return this.balance(node, this.insert(node.left, value, added), node.right);
+    } else if (cmp > 0) {
+      return this.balance(node, node.left, this.insert(node.right, value, added));
+    }
+    return this.node(value, node.left, node.right);
+  }
+
+  private Node<T> delete(Node<T> node, T value, int[] removed) {
+    if (node == null) {
+      return null;
+    }
+    int cmp = this.order.compare(value, node.value);
+    if (cmp < 0) {
+      Node<T> left = this.delete(node.left, value, removed);
+      return left == node.left ? node : this.balance(node, left, node.right);
+    } else if (cmp > 0) {
+      Node<T> right = this.delete(node.right, value, removed);
+      return right == node.right ? node : this.balance(node, node.left, right);
+    }
+    removed[0] = 1;
+    if (node.left == null) {
+      return node.right;
+    }
+    if (node.right == null) {
+      return node.left;
+    }
+    Node<T> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    return this.balance(successor, node.left, this.deleteMin(node.right));
+  }
+
+  private Node<T> deleteMin(Node<T> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    return this.balance(node, this.deleteMin(node.left), node.right);
+  }
+
+  private static int height(Node<?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * Builds a node holding the given node's value over the given subtrees, whose heights differ
+   * by at most two, rotating it to restore balance.
+   */
+  private Node<T> balance(Node<T> node, Node<T> left, Node<T> right) {
+    int balance = height(left) - height(right);
+    if (balance > 1) {
+      if (height(left.left) < height(left.right)) {
+        //rotate the left subtree left, then the node right
+        Node<T> pivot = left.right;
+        return pivot.with(left.with(left.left, pivot.left), node.with(pivot.right, right));
+      }
+      return left.with(left.left, node.with(left.right, right));
+    }
+    if (balance < -1) {
+      if (height(right.right) < height(right.left)) {
+        //rotate the right subtree right, then the node left
+        Node<T> pivot = right.left;
+        return pivot.with(node.with(left, pivot.left), right.with(pivot.right, right.right));
+      }
+      return right.with(node.with(left, right.left), right.right);
+    }
+    return node.with(left, right);
+  }
+}
@@ -0,0 +1,83 @@
+package calendar.model.calendarclass;
+
+/**
+ * This interface represents a scan over the time columns of an event store, finding the rows whose
+ * interval may overlap a range. It only compares epoch seconds, so the rows it finds are a
+ * superset of the exact matches, which callers check again with the full times.
+ *
+ * <p>There are two implementations: a scalar loop, and one that compares many rows at a time with
+ * the incubating Vector API. The vector scan is compiled separately from the rest of the model,
+ * from the vector/ folder, since it needs the jdk.incubator.vector module; it is used when its
+ * class and that module are both present at runtime, and the scalar loop is used otherwise.
+ * Setting the system property {@value #PROPERTY} to "scalar" or "vector" overrides the choice
+ * for stores created afterwards.</p>
+ */
+interface RangeScan {
+  String PROPERTY = "calendar.rangeScan";
+
+  /**
+   * Finds every row between the given rows whose start is at or before the given second and whose
+   * end is at or after the given second, writing their indexes in increasing order.
+   *
+   * @param startSecond    the epoch seconds of the start of each row
+   * @param endSecond      the epoch seconds of the end of each row
+   * @param fromRow        the first row to scan
+   * @param toRow          the row after the last row to scan
+   * @param maxStartSecond the latest start a matching row may have
+   * @param minEndSecond   the earliest end a matching row may have
+   * @param rows           the array the matching rows are written to, which must have room for
+   *                       every scanned row
+   * @return the number of matching rows
+   */
+  int scan(long[] startSecond, long[] endSecond, int fromRow, int toRow, long maxStartSecond,
+           long minEndSecond, int[] rows);
+
+  /**
+   * Returns the scalar scan.
+   *
+   * @return the scalar scan
+   */
+  static RangeScan scalar() {
+    return (startSecond, endSecond, fromRow, toRow, maxStartSecond, minEndSecond, rows) -> {
+      int count = 0;
+      for (int row = fromRow; row < toRow; row++) {
+        if (startSecond[row] <= maxStartSecond && endSecond[row] >= minEndSecond) {
+          rows[count++] = row;
+        }
+      }
+      return count;
+    };
+  }
+
+  /**
+   * Returns the vector scan, if it can be used in this JVM.
+   *
+   * @return the vector scan, or null if its class or the jdk.incubator.vector module is missing
+   */
+  static RangeScan vector() {
+    if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+      return null;
+    }
+    try {
+      return (RangeScan) Class.forName("calendar.model.calendarclass.VectorRangeScan")
+              .getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns the scan to use, which is the one named by the {@value #PROPERTY} system property if it
+   * is set, and otherwise the vector scan if it can be used, or the scalar scan if not.
+   *
+   * @return the scan to use
+   */
+  static RangeScan select() {
+    String choice = System.getProperty(PROPERTY, "");
+    if (choice.equals("scalar")) {
+      return scalar();
+    }
+    RangeScan vector = vector();
+    return vector == null ? scalar() : vector;
+  }
+}
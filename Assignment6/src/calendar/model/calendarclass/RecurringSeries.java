@@ -0,0 +1,499 @@
+package calendar.model.calendarclass;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import calendar.model.event.Event;
+import calendar.model.event.RecurringEventRule;
+
+/**
+ * This class represents a recurring series of events that is stored as a rule instead of as one
+ * event per occurrence. A series holds a template event, whose subject, details and times of day
+ * are shared by every occurrence, the rule deciding which weekdays it occurs on, the dates of its
+ * first and last occurrences, and the dates of occurrences that have been taken out of the series,
+ * usually because they were edited on their own. Occurrences are only created as events when they
+ * are asked for, so a series takes the same memory no matter how many times it repeats.
+ *
+ * <p>The rule and template are kept in the time zone the series was created in, so that it keeps
+ * recurring at the same time of day across daylight saving changes. Every time going in or out
+ * of a series, including the occurrences it creates, is in UTC, which is how calendars store
+ * their events. On a date whose clocks skip the series' start or end time, the occurrence starts
+ * or ends as much later as the clocks skip, just as {@link java.time.ZonedDateTime} reads such a
+ * time; a time the clocks show twice is read at the earlier offset.</p>
+ *
+ * <p>The template's start and end times are kept, but the template itself is not an occurrence
+ * unless its date is one. A series whose occurrences have all been taken out is empty.</p>
+ */
+class RecurringSeries {
+  private final Event template;
+  private final RecurringEventRule rule;
+  private final ZoneId zone;
+  private final LocalDate firstDate;
+  private final LocalDate lastDate;
+  private final Set<LocalDate> exceptions;
+  private final LocalTime startTime;
+  private final LocalTime endTime;
+  private final LocalDateTime start;
+  private final LocalDateTime end;
+  private long remaining;
+
+  /**
+   * Constructs a RecurringSeries occurring on the dates the given rule allows between the given
+   * dates, apart from the given exceptions.
+   *
+   * @param template   an event holding the details and times of day shared by every occurrence,
+   *                   in the series' time zone; it must start and end on the same date
+   * @param rule       the rule deciding which weekdays the series occurs on
+   * @param zone       the time zone of the template and dates
+   * @param firstDate  the first date the series may occur on
+   * @param lastDate   the last date the series may occur on
+   * @param exceptions the dates of occurrences that are not part of the series
+   */
+  RecurringSeries(Event template, RecurringEventRule rule, ZoneId zone, LocalDate firstDate,
+                  LocalDate lastDate, Set<LocalDate> exceptions) {
+    this.template = template;
+    this.rule = rule;
+    this.zone = zone;
+    this.firstDate = firstDate;
+    this.lastDate = lastDate;
+    this.startTime = template.getStartDateTime().toLocalTime();
+    this.endTime = template.getEndDateTime().toLocalTime();
+    this.start = this.toUtc(firstDate.atTime(this.startTime));
+    this.end = this.toUtc(lastDate.atTime(this.endTime));
+    this.exceptions = new HashSet<>();
+    for (LocalDate date : exceptions) {
+      if (this.isScheduledOn(date)) {
+        this.exceptions.add(date);
+      }
+    }
+    this.remaining = rule.countOccurrences(firstDate, lastDate) - this.exceptions.size();
+  }
+
+  /**
+   * Gets the template event of this series, in the series' time zone.
+   *
+   * @return the template event
+   */
+  Event getTemplate() {
+    return this.template;
+  }
+
+  /**
+   * Gets the time zone the series' rule and template are in.
+   *
+   * @return the time zone of the series
+   */
+  ZoneId getZone() {
+    return this.zone;
+  }
+
+  /**
+   * Gets the rule deciding which weekdays the series occurs on.
+   *
+   * @return the rule of the series
+   */
+  RecurringEventRule getRule() {
+    return this.rule;
+  }
+
+  /**
+   * Gets the dates of the occurrences that have been taken out of this series.
+   *
+   * @return the dates of the taken out occurrences, in the series' time zone
+   */
+  Set<LocalDate> getExceptions() {
+    return Collections.unmodifiableSet(this.exceptions);
+  }
+
+  /**
+   * Gets the ID shared by every event in this series.
+   *
+   * @return the series ID
+   */
+  String getSeriesId() {
+    return this.template.getSeriesId();
+  }
+
+  /**
+   * Gets the subject shared by every event in this series.
+   *
+   * @return the subject
+   */
+  String getSubject() {
+    return this.template.getSubject();
+  }
+
+  /**
+   * Gets the first date the series may occur on, in the series' time zone.
+   *
+   * @return the first date of the series
+   */
+  LocalDate getFirstDate() {
+    return this.firstDate;
+  }
+
+  /**
+   * Gets the last date the series may occur on, in the series' time zone.
+   *
+   * @return the last date of the series
+   */
+  LocalDate getLastDate() {
+    return this.lastDate;
+  }
+
+  /**
+   * Gets the start of the first date the series may occur on, in UTC.
+   *
+   * @return the start of the series' span
+   */
+  LocalDateTime getStart() {
+    return this.start;
+  }
+
+  /**
+   * Gets the end of the last date the series may occur on, in UTC.
+   *
+   * @return the end of the series' span
+   */
+  LocalDateTime getEnd() {
+    return this.end;
+  }
+
+  /**
+   * Returns the number of occurrences in this series.
+   *
+   * @return the number of occurrences
+   */
+  long size() {
+    return this.remaining;
+  }
+
+  /**
+   * Checks if every occurrence has been taken out of this series.
+   *
+   * @return true if the series has no occurrences, false otherwise
+   */
+  boolean isEmpty() {
+    return this.remaining <= 0;
+  }
+
+  /**
+   * Checks if the series occurs on the given date, in the series' time zone.
+   *
+   * @param date the date to check
+   * @return true if an occurrence takes place on that date, false otherwise
+   */
+  boolean occursOn(LocalDate date) {
+    return this.isScheduledOn(date) && !this.exceptions.contains(date);
+  }
+
+  /**
+   * Returns the occurrence starting at the given date-time, if there is one.
+   *
+   * @param start the start date-time of the occurrence, in UTC
+   * @return the occurrence, or null if none starts at that time
+   */
+  Event occurrenceAt(LocalDateTime start) {
+    LocalDateTime local = this.toLocal(start);
+    if (!local.toLocalTime().equals(this.startTime) || !this.occursOn(local.toLocalDate())) {
+      return null;
+    }
+    return this.occurrenceOn(local.toLocalDate());
+  }
+
+  /**
+   * Checks if an occurrence covers the given time, including occurrences that start or end at
+   * that time.
+   *
+   * @param time the time to check, in UTC
+   * @return true if the series is busy at that time, false otherwise
+   */
+  boolean isBusyAt(LocalDateTime time) {
+    LocalDateTime local = this.toLocal(time);
+    LocalTime timeOfDay = local.toLocalTime();
+    return this.occursOn(local.toLocalDate())
+            && !timeOfDay.isBefore(this.startTime) && !timeOfDay.isAfter(this.endTime);
+  }
+
+  /**
+   * Returns every occurrence that starts before the end of the given range and ends after the
+   * start of it, sorted by start time.
+   *
+   * @param from the start of the range, in UTC
+   * @param to   the end of the range, in UTC
+   * @return a list of the overlapping occurrences
+   */
+  List<Event> occurrencesBetween(LocalDateTime from, LocalDateTime to) {
+    List<Event> result = new ArrayList<>();
+    this.occurrenceIterator(from, to).forEachRemaining(result::add);
+    return result;
+  }
+
+  /**
+   * Returns a lazy iterator over every occurrence that starts before the end of the given range
+   * and ends after the start of it, sorted by start time. Each occurrence is created only when
+   * the iterator reaches it.
+   *
+   * @param from the start of the range, in UTC
+   * @param to   the end of the range, in UTC
+   * @return an iterator over the overlapping occurrences
+   */
+  Iterator<Event> occurrenceIterator(LocalDateTime from, LocalDateTime to) {
+    LocalDate localFrom = this.toLocal(from).toLocalDate();
+    LocalDate localTo = this.toLocal(to).toLocalDate();
+    Iterator<LocalDate> dates = this.rule.datesBetween(
+            localFrom.isBefore(this.firstDate) ? this.firstDate : localFrom,
+            localTo.isAfter(this.lastDate) ? this.lastDate : localTo);
+    return new Iterator<>() {
+      private Event next = this.find();
+
+      private Event find() {
+        while (dates.hasNext()) {
+          LocalDate date = dates.next();
+          if (!exceptions.contains(date)) {
+            Event occurrence = occurrenceOn(date);
+            if (occurrence.getStartDateTime().isBefore(to)
+                    && occurrence.getEndDateTime().isAfter(from)) {
+              return occurrence;
+            }
+          }
+        }
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return this.next != null;
+      }
+
+      @Override
+      public Event next() {
+        if (this.next == null) {
+          throw new NoSuchElementException();
+        }
+        Event current = this.next;
+        this.next = this.find();
+        return current;
+      }
+    };
+  }
+
+  /**
+   * Returns the part of this series whose occurrences overlap the given range, from the first of
+   * those occurrences to the last.
+   *
+   * @param from the start of the range, in UTC
+   * @param to   the end of the range, in UTC
+   * @return the part of the series in the range, or null if no occurrence overlaps it
+   */
+  RecurringSeries overlapping(LocalDateTime from, LocalDateTime to) {
+    Iterator<Event> occurrences = this.occurrenceIterator(from, to);
+    if (!occurrences.hasNext()) {
+      return null;
+    }
+    LocalDateTime first = occurrences.next().getStartDateTime();
+    LocalDateTime last = first;
+    while (occurrences.hasNext()) {
+      last = occurrences.next().getStartDateTime();
+    }
+    return this.between(this.toLocal(first).toLocalDate(), this.toLocal(last).toLocalDate());
+  }
+
+  /**
+   * Returns every occurrence in this series, sorted by start time.
+   *
+   * @return a list of all occurrences
+   */
+  List<Event> occurrences() {
+    List<Event> result = new ArrayList<>((int) Math.min(this.remaining, Integer.MAX_VALUE));
+    for (Iterator<LocalDate> dates = this.rule.datesBetween(this.firstDate, this.lastDate);
+         dates.hasNext(); ) {
+      LocalDate date = dates.next();
+      if (!this.exceptions.contains(date)) {
+        result.add(this.occurrenceOn(date));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Takes the occurrence on the given date out of this series.
+   *
+   * @param date the date of the occurrence, in the series' time zone
+   */
+  void exclude(LocalDate date) {
+    if (this.isScheduledOn(date) && this.exceptions.add(date)) {
+      this.remaining--;
+    }
+  }
+
+  /**
+   * Takes the occurrence starting at the given date-time out of this series, if there is one.
+   *
+   * @param start the start date-time of the occurrence, in UTC
+   * @return true if an occurrence was taken out, false otherwise
+   */
+  boolean excludeAt(LocalDateTime start) {
+    if (this.occurrenceAt(start) == null) {
+      return false;
+    }
+    this.exclude(this.toLocal(start).toLocalDate());
+    return true;
+  }
+
+  /**
+   * Finds the first date whose occurrence starts at or after the given time.
+   *
+   * @param time the time to start from, in UTC
+   * @return the first date in the series' time zone whose occurrence would start at or after it
+   */
+  LocalDate firstDateFrom(LocalDateTime time) {
+    LocalDateTime local = this.toLocal(time);
+    return this.startTime.isBefore(local.toLocalTime())
+            ? local.toLocalDate().plusDays(1) : local.toLocalDate();
+  }
+
+  /**
+   * Checks if any occurrence would start and end on different dates when seen in the given time
+   * zone. Occurrences keep the same times of day in both zones between two offset changes of
+   * either zone, so only one occurrence in each of those periods is checked.
+   *
+   * @param viewZone the time zone the occurrences would be seen in
+   * @return true if some occurrence would span multiple days, false otherwise
+   */
+  boolean spansMultipleDaysIn(ZoneId viewZone) {
+    LocalDate date = this.rule.nextOccurrence(this.firstDate);
+    while (date != null && !date.isAfter(this.lastDate)) {
+      LocalDateTime viewStart = this.toZone(date.atTime(this.startTime), viewZone);
+      LocalDateTime viewEnd = this.toZone(date.atTime(this.endTime), viewZone);
+      if (!viewStart.toLocalDate().equals(viewEnd.toLocalDate())) {
+        return true;
+      }
+      LocalDateTime next = nextTransition(this.zone, date.atTime(this.startTime), this.zone);
+      LocalDateTime nextView = nextTransition(viewZone, date.atTime(this.startTime), this.zone);
+      if (next == null || (nextView != null && nextView.isBefore(next))) {
+        next = nextView;
+      }
+      if (next == null) {
+        break;
+      }
+      //the change may come later on the same date, after this occurrence was already checked
+      LocalDate after = date.plusDays(1);
+      date = this.rule.nextOccurrence(next.toLocalDate().isAfter(after) ? next.toLocalDate()
+              : after);
+    }
+    return false;
+  }
+
+  /**
+   * Returns the part of this series that falls between the given dates, keeping its template and
+   * exceptions.
+   *
+   * @param from the first date of the part
+   * @param to   the last date of the part
+   * @return the part of the series, which may be empty
+   */
+  RecurringSeries between(LocalDate from, LocalDate to) {
+    return new RecurringSeries(this.template, this.rule, this.zone,
+            from.isBefore(this.firstDate) ? this.firstDate : from,
+            to.isAfter(this.lastDate) ? this.lastDate : to, this.exceptions);
+  }
+
+  /**
+   * Returns a copy of this series with the given template, keeping its dates and exceptions.
+   *
+   * @param newTemplate the new template event
+   * @return the series with the new template
+   */
+  RecurringSeries withTemplate(Event newTemplate) {
+    return new RecurringSeries(newTemplate, this.rule, this.zone, this.firstDate, this.lastDate,
+            this.exceptions);
+  }
+
+  /**
+   * Returns a copy of this series that is not affected by occurrences later taken out of it.
+   *
+   * @return the copied series
+   */
+  RecurringSeries copy() {
+    return this.withTemplate(this.template);
+  }
+
+  /**
+   * Checks if the rule places an occurrence on the given date, ignoring exceptions.
+   *
+   * @param date the date to check
+   * @return true if an occurrence is scheduled on that date, false otherwise
+   */
+  private boolean isScheduledOn(LocalDate date) {
+    return !date.isBefore(this.firstDate) && !date.isAfter(this.lastDate)
+            && this.rule.fallsOn(date);
+  }
+
+  /**
+   * Creates the occurrence on the given date from the template, with its times in UTC.
+   *
+   * @param date the date of the occurrence, in the series' time zone
+   * @return the occurrence as an event
+   */
+  private Event occurrenceOn(LocalDate date) {
+    return new Event.EventBuilder()
+            .subject(this.template.getSubject())
+            .startDateTime(this.toUtc(date.atTime(this.startTime)))
+            .endDateTime(this.toUtc(date.atTime(this.endTime)))
+            .description(this.template.getDescription())
+            .location(this.template.getLocation())
+            .status(this.template.getStatus())
+            .seriesId(this.template.getSeriesId())
+            .isAllDayEvent(this.template.getIsAllDayEvent())
+            .build();
+  }
+
+  private LocalDateTime toUtc(LocalDateTime local) {
+    return this.toZone(local, ZoneOffset.UTC);
+  }
+
+  private LocalDateTime toLocal(LocalDateTime utc) {
+    if (this.zone.equals(ZoneOffset.UTC)) {
+      return utc;
+    }
+    return utc.atZone(ZoneOffset.UTC).withZoneSameInstant(this.zone).toLocalDateTime();
+  }
+
+  private LocalDateTime toZone(LocalDateTime local, ZoneId target) {
+    if (this.zone.equals(target)) {
+      return local;
+    }
+    return local.atZone(this.zone).withZoneSameInstant(target).toLocalDateTime();
+  }
+
+  /**
+   * Finds the next offset change of the given zone after the given time.
+   *
+   * @param rulesZone the zone whose offset changes are looked for
+   * @param local     the time to search from, in the given local zone
+   * @param localZone the zone of the given time
+   * @return the local time in localZone of the next offset change, or null if there is none
+   */
+  private static LocalDateTime nextTransition(ZoneId rulesZone, LocalDateTime local,
+                                              ZoneId localZone) {
+    ZoneRules rules = rulesZone.getRules();
+    ZoneOffsetTransition transition = rules.nextTransition(local.atZone(localZone).toInstant());
+    if (transition == null) {
+      return null;
+    }
+    return LocalDateTime.ofInstant(transition.getInstant(), localZone);
+  }
+}
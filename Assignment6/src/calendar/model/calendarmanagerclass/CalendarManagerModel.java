@@ -9,10 +9,13 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
 import java.time.zone.ZoneRulesException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import calendar.model.calendarclass.CalendarSnapshot;
+import calendar.model.calendarclass.ICalendar;
 import calendar.model.calendarclass.NewCalendarModel;
 import calendar.model.event.Event;
 
@@ -31,20 +34,53 @@ public class CalendarManagerModel implements ICalendarManager {
     this.calendars = new HashMap<>();
   }
 
+  /**
+   * Constructs a CalendarManagerModel holding the calendars of the given snapshot, with the
+   * calendar that was in use when it was taken in use again.
+   *
+   * @param snapshot the snapshot of the calendars
+   */
+  public CalendarManagerModel(CalendarSnapshot snapshot) {
+    this();
+    for (NewCalendarModel calendar : snapshot.getCalendars()) {
+      this.calendars.put(calendar.getName(), calendar);
+    }
+    this.currentCalendarName = snapshot.getCurrentCalendar();
+  }
+
+  /**
+   * Takes a snapshot of every calendar in this manager. The snapshot holds the calendars
+   * themselves, so it must be written before any of them changes again.
+   *
+   * @return the snapshot of the calendars
+   */
+  public CalendarSnapshot snapshot() {
+    return new CalendarSnapshot(new ArrayList<>(this.calendars.values()),
+            this.currentCalendarName);
+  }
+
   @Override
   public void createCalendar(String name, String zoneId) {
     if (this.calendars.containsKey(name)) {
       throw new IllegalArgumentException("Calendar already exists");
     }
-    ZoneId parseZone;
+    calendars.put(name, new NewCalendarModel(name, parseZone(zoneId)));
+  }
+
+  /**
+   * Parses the time zone of a new calendar.
+   *
+   * @param zoneId the IANA name of the time zone
+   * @return the time zone
+   * @throws IllegalArgumentException if the time zone is not valid or not supported
+   */
+  static ZoneId parseZone(String zoneId) {
     try {
-      parseZone = ZoneId.of(zoneId);
+      return ZoneId.of(zoneId);
     } catch (DateTimeException e) {
       throw new IllegalArgumentException("Invalid or unsupported timezone ID: '" + zoneId + "'. " +
               "Please use IANA Time Zone Database format (e.g., 'America/New_York').");
     }
-
-    calendars.put(name, new NewCalendarModel(name, parseZone));
   }
 
   @Override
@@ -144,7 +180,39 @@ public class CalendarManagerModel implements ICalendarManager {
                         String newDateTime) {
     NewCalendarModel sourceCalendar = this.getCurrentActiveCalendar();
     NewCalendarModel targetCalendar = this.getTargetCalendar(calendarName);
+    copyOne(sourceCalendar, sourceCalendar.getName(), targetCalendar, eventName, startDateTime,
+            newDateTime);
+  }
 
+  @Override
+  public void copyEventsOnDate(String date, String calendarName, String newDate) {
+    NewCalendarModel sourceCalendar = this.getCurrentActiveCalendar();
+    NewCalendarModel targetCalendar = this.getTargetCalendar(calendarName);
+    copyOnDate(sourceCalendar, targetCalendar, date, newDate);
+  }
+
+  @Override
+  public void copyEventsBetweenDates(String startDate, String endDate, String calendarName,
+                                     String newDate) {
+    NewCalendarModel sourceCalendar = this.getCurrentActiveCalendar();
+    NewCalendarModel targetCalendar = this.getTargetCalendar(calendarName);
+    copyBetweenDates(sourceCalendar, targetCalendar, startDate, endDate, newDate);
+  }
+
+  /**
+   * Copies the event with the given name and start time from one calendar to another, where it
+   * starts at the given time of the target calendar.
+   *
+   * @param sourceCalendar the calendar the event is copied from
+   * @param sourceName     the name of the calendar the event is copied from
+   * @param targetCalendar the calendar the event is copied to
+   * @param eventName      the name of the event
+   * @param startDateTime  the start time of the event, in the source calendar's time zone
+   * @param newDateTime    the start time of the copy, in the target calendar's time zone
+   * @throws IllegalArgumentException if there is no such event
+   */
+  static void copyOne(ICalendar sourceCalendar, String sourceName, ICalendar targetCalendar,
+                      String eventName, String startDateTime, String newDateTime) {
     LocalDateTime sourceStartTime = LocalDateTime.parse(startDateTime,
             sourceCalendar.getDateTimeFormatter());
     LocalDateTime targetStartTime = LocalDateTime.parse(newDateTime,
@@ -153,7 +221,7 @@ public class CalendarManagerModel implements ICalendarManager {
     List<Event> events = sourceCalendar.findEventsBySubjectAndStart(eventName, sourceStartTime);
     if (events.isEmpty()) {
       throw new IllegalArgumentException("Event '" + eventName + "' not found on " +
-              sourceStartTime + " in calendar '" + sourceCalendar.getName() + "'.");
+              sourceStartTime + " in calendar '" + sourceName + "'.");
     }
     Event originalEvent = events.get(0);
 
@@ -183,12 +251,17 @@ public class CalendarManagerModel implements ICalendarManager {
     targetCalendar.addEvent(newEvent);
   }
 
-
-  @Override
-  public void copyEventsOnDate(String date, String calendarName, String newDate) {
-    NewCalendarModel sourceCalendar = this.getCurrentActiveCalendar();
-    NewCalendarModel targetCalendar = this.getTargetCalendar(calendarName);
-
+  /**
+   * Copies every event on the given date of one calendar to another, moved by as many days as
+   * lie between the given dates.
+   *
+   * @param sourceCalendar the calendar the events are copied from
+   * @param targetCalendar the calendar the events are copied to
+   * @param date           the date of the events, in the source calendar
+   * @param newDate        the date the copies are moved to
+   */
+  static void copyOnDate(ICalendar sourceCalendar, ICalendar targetCalendar, String date,
+                         String newDate) {
     LocalDate originalDate = LocalDate.parse(date, sourceCalendar.getDateFormatter());
     LocalDate newStartDate = LocalDate.parse(newDate, targetCalendar.getDateFormatter());
 
@@ -197,14 +270,21 @@ public class CalendarManagerModel implements ICalendarManager {
     // Calculate the number of days to shift the event's date
     long dayShift = ChronoUnit.DAYS.between(originalDate, newStartDate);
 
-    this.shiftDateAndAddToTargetCalendar(sourceCalendar, targetCalendar, eventsOnDate, dayShift);
+    shiftDateAndAddToTargetCalendar(sourceCalendar, targetCalendar, eventsOnDate, dayShift);
   }
 
-  @Override
-  public void copyEventsBetweenDates(String startDate, String endDate, String calendarName,
-                                     String newDate) {
-    NewCalendarModel sourceCalendar = this.getCurrentActiveCalendar();
-    NewCalendarModel targetCalendar = this.getTargetCalendar(calendarName);
+  /**
+   * Copies every event between the given dates of one calendar to another, moved by as many days
+   * as lie between the first of the dates and the new date.
+   *
+   * @param sourceCalendar the calendar the events are copied from
+   * @param targetCalendar the calendar the events are copied to
+   * @param startDate      the first date of the events, in the source calendar
+   * @param endDate        the last date of the events, in the source calendar
+   * @param newDate        the date the copies of the events on the first date are moved to
+   */
+  static void copyBetweenDates(ICalendar sourceCalendar, ICalendar targetCalendar,
+                               String startDate, String endDate, String newDate) {
     LocalDate originalStartDate = LocalDate.parse(startDate, sourceCalendar.getDateFormatter());
     LocalDate originalEndDate = LocalDate.parse(endDate, sourceCalendar.getDateFormatter());
     LocalDate newStartDate = LocalDate.parse(newDate, targetCalendar.getDateFormatter());
@@ -214,7 +294,7 @@ public class CalendarManagerModel implements ICalendarManager {
             originalStartDate.atStartOfDay(),
             originalEndDate.atTime(23, 59, 59));
 
-    this.shiftDateAndAddToTargetCalendar(sourceCalendar, targetCalendar, eventsInRange, shift);
+    shiftDateAndAddToTargetCalendar(sourceCalendar, targetCalendar, eventsInRange, shift);
   }
 
   /**
@@ -226,25 +306,31 @@ public class CalendarManagerModel implements ICalendarManager {
    * @param eventsOnDate   the list of events on the specified date in the source calendar
    * @param dayShift       the number of days to shift the event's date
    */
-  private void shiftDateAndAddToTargetCalendar(NewCalendarModel sourceCalendar,
-                                               NewCalendarModel targetCalendar,
-                                               List<Event> eventsOnDate, long dayShift) {
+  private static void shiftDateAndAddToTargetCalendar(ICalendar sourceCalendar,
+                                                      ICalendar targetCalendar,
+                                                      List<Event> eventsOnDate, long dayShift) {
+    List<Event> shiftedEvents = new ArrayList<>(eventsOnDate.size());
     for (Event event : eventsOnDate) {
       // get the original event's ZonedDateTime in its source calendar's timezone
-      ZonedDateTime sourceStartZdt = event.getStartDateTime().atZone(sourceCalendar.getTimeZone());
-      ZonedDateTime sourceEndZdt = event.getEndDateTime().atZone(sourceCalendar.getTimeZone());
+      ZonedDateTime sourceStartZdt = event.getStartDateTime()
+              .atZone(sourceCalendar.getTimeZone());
+      ZonedDateTime sourceEndZdt = event.getEndDateTime()
+              .atZone(sourceCalendar.getTimeZone());
 
       // shift the event's date by 'dayShift' while staying in the source timezone
       ZonedDateTime shiftedStartZdt = sourceStartZdt.plusDays(dayShift);
       ZonedDateTime shiftedEndZdt = sourceEndZdt.plusDays(dayShift);
 
-      // convert the shifted ZonedDateTime to the target calendar's timezone, preserving the INSTANT
-      ZonedDateTime newStartZdt = shiftedStartZdt.withZoneSameInstant(targetCalendar.getTimeZone());
-      ZonedDateTime newEndZdt = shiftedEndZdt.withZoneSameInstant(targetCalendar.getTimeZone());
+      // convert the shifted ZonedDateTime to the target calendar's timezone,
+      // preserving the INSTANT
+      ZonedDateTime newStartZdt = shiftedStartZdt
+              .withZoneSameInstant(targetCalendar.getTimeZone());
+      ZonedDateTime newEndZdt = shiftedEndZdt
+              .withZoneSameInstant(targetCalendar.getTimeZone());
 
-      Event newEvent = this.shiftHelp(event, newStartZdt, newEndZdt);
-      targetCalendar.addEvent(newEvent);
+      shiftedEvents.add(shiftHelp(event, newStartZdt, newEndZdt));
     }
+    targetCalendar.addEvents(shiftedEvents);
   }
 
   /**
@@ -255,7 +341,8 @@ public class CalendarManagerModel implements ICalendarManager {
    * @param newEndZdt   the new end time for the event
    * @return a new Event object with updated start and end times
    */
-  private Event shiftHelp(Event event, ZonedDateTime newStartZdt, ZonedDateTime newEndZdt) {
+  private static Event shiftHelp(Event event, ZonedDateTime newStartZdt,
+                                 ZonedDateTime newEndZdt) {
     return new Event.EventBuilder()
             .subject(event.getSubject())
             .startDateTime(newStartZdt.toLocalDateTime())
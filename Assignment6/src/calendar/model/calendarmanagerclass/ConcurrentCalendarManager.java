@@ -0,0 +1,220 @@
+package calendar.model.calendarmanagerclass;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import calendar.model.calendarclass.ConcurrentCalendar;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarclass.NewCalendarModel;
+
+/**
+ * This class represents a manager of calendars that many users can work with at once, each
+ * through a session of their own, as returned by {@link #openSession()}.
+ *
+ * <p>Calendars are kept in a {@link ConcurrentHashMap}, so finding a calendar by its name takes no
+ * lock, and each calendar is guarded by a lock of its own, that of the {@link ConcurrentCalendar}
+ * wrapping it. Users working on different calendars therefore never wait for each other. Each
+ * session keeps its own calendar in use, so one user choosing a calendar does not change the
+ * calendar of another.</p>
+ *
+ * <p>Copying events from one calendar to another holds the locks of both calendars, so the copy
+ * sees the source as it was at one moment and the target's observers are notified once. The two
+ * locks are always taken in the order the calendars were created in, which a rename does not
+ * change, so two copies in opposite directions cannot wait for each other forever.</p>
+ */
+public class ConcurrentCalendarManager {
+  private final ConcurrentMap<String, Entry> calendars;
+  private final AtomicLong created; //the number of calendars created, which orders their locks
+
+  /**
+   * This class holds a calendar of the manager along with the calendar guarding it.
+   */
+  private static final class Entry {
+    private final long order; //the position of the calendar's lock in the locking order
+    private final NewCalendarModel model;
+    private final ConcurrentCalendar calendar;
+
+    private Entry(long order, NewCalendarModel model) {
+      this.order = order;
+      this.model = model;
+      this.calendar = new ConcurrentCalendar(model);
+    }
+  }
+
+  /**
+   * Constructs a ConcurrentCalendarManager with no calendars.
+   */
+  public ConcurrentCalendarManager() {
+    this.calendars = new ConcurrentHashMap<>();
+    this.created = new AtomicLong();
+  }
+
+  /**
+   * Opens a new session of this manager, which starts out with no calendar in use. A session is
+   * meant to be used by one user at a time; any number of sessions may be used at once.
+   *
+   * @return the new session
+   */
+  public ICalendarManager openSession() {
+    return new Session();
+  }
+
+  /**
+   * Gets the names of the calendars of this manager.
+   *
+   * @return a list of the names of the calendars, in no particular order
+   */
+  public List<String> getCalendarNames() {
+    return new ArrayList<>(this.calendars.keySet());
+  }
+
+  /**
+   * Finds the calendar with the given name.
+   *
+   * @param name the name of the calendar
+   * @return the calendar with that name
+   * @throws IllegalArgumentException if there is no calendar with that name
+   */
+  private Entry find(String name) {
+    Entry entry = this.calendars.get(name);
+    if (entry == null) {
+      throw new IllegalArgumentException("Calendar '" + name + "' not found.");
+    }
+    return entry;
+  }
+
+  /**
+   * Runs an operation holding the locks of both calendars, taking them in the order the
+   * calendars were created in. The operation runs as a batch of each calendar.
+   *
+   * @param first     one of the calendars
+   * @param second    the other calendar, which may be the same as the first
+   * @param operation the operation to be run
+   */
+  private static void lockBoth(Entry first, Entry second, Runnable operation) {
+    Entry outer = first.order <= second.order ? first : second;
+    Entry inner = outer == first ? second : first;
+    outer.calendar.batch(() -> inner.calendar.batch(operation));
+  }
+
+  /**
+   * This class represents one user's view of the manager, which keeps the calendar that user has
+   * in use. The calendar is kept itself, rather than its name, so it stays in use when another
+   * session renames it.
+   */
+  private final class Session implements ICalendarManager {
+    private volatile Entry current;
+
+    @Override
+    public void createCalendar(String name, String zoneId) {
+      ConcurrentMap<String, Entry> calendars = ConcurrentCalendarManager.this.calendars;
+      if (calendars.containsKey(name)) {
+        throw new IllegalArgumentException("Calendar already exists");
+      }
+      NewCalendarModel model = new NewCalendarModel(name,
+              CalendarManagerModel.parseZone(zoneId));
+      Entry entry = new Entry(ConcurrentCalendarManager.this.created.getAndIncrement(), model);
+      if (calendars.putIfAbsent(name, entry) != null) {
+        throw new IllegalArgumentException("Calendar already exists");
+      }
+    }
+
+    @Override
+    public void editCalendar(String nameOfCalendarToEdit, String property, String newValue) {
+      Entry entry = find(nameOfCalendarToEdit);
+      switch (property) {
+        case "name":
+          entry.calendar.batch(() -> this.rename(entry, nameOfCalendarToEdit, newValue));
+          break;
+        case "timezone":
+          ZoneId zone = CalendarManagerModel.parseZone(newValue);
+          entry.calendar.batch(() -> entry.model.setTimeZone(zone));
+          break;
+        default:
+          throw new IllegalArgumentException("Unsupported property '" + property
+                  + "' for calendar editing. " + "Valid properties are: 'name', 'timezone'.");
+      }
+    }
+
+    /**
+     * Renames a calendar, holding its lock. The new name is claimed before the old one is given
+     * up, so no other session can take it in between.
+     *
+     * @param entry   the calendar to rename
+     * @param name    the name the calendar was found by
+     * @param newName the new name of the calendar
+     */
+    private void rename(Entry entry, String name, String newName) {
+      ConcurrentMap<String, Entry> calendars = ConcurrentCalendarManager.this.calendars;
+      if (calendars.get(name) != entry) {
+        //another session renamed the calendar while this one waited for its lock
+        throw new IllegalArgumentException("Calendar '" + name + "' not found.");
+      }
+      if (calendars.putIfAbsent(newName, entry) != null) {
+        throw new IllegalArgumentException("New Calendar name already exists");
+      }
+      calendars.remove(name, entry);
+      entry.model.setName(newName);
+    }
+
+    @Override
+    public void setCurrentCalendar(String name) {
+      this.current = find(name);
+    }
+
+    @Override
+    public ICalendar getCurrentActiveCalendar() {
+      return this.active().calendar;
+    }
+
+    /**
+     * Gets the calendar this session has in use.
+     *
+     * @return the calendar in use
+     * @throws IllegalStateException if no calendar is in use
+     */
+    private Entry active() {
+      Entry entry = this.current;
+      if (entry == null) {
+        throw new IllegalStateException("No active calendar is currently selected. Please use" +
+                " the command 'use calendar --name <calendar name>' to select a calendar first.");
+      }
+      return entry;
+    }
+
+    @Override
+    public ICalendar getTargetCalendar(String name) {
+      return find(name).calendar;
+    }
+
+    @Override
+    public void copyEvent(String eventName, String startDateTime, String calendarName,
+                          String newDateTime) {
+      Entry source = this.active();
+      Entry target = find(calendarName);
+      lockBoth(source, target, () -> CalendarManagerModel.copyOne(source.calendar,
+              source.model.getName(), target.calendar, eventName, startDateTime, newDateTime));
+    }
+
+    @Override
+    public void copyEventsOnDate(String date, String calendarName, String newDate) {
+      Entry source = this.active();
+      Entry target = find(calendarName);
+      lockBoth(source, target, () -> CalendarManagerModel.copyOnDate(source.calendar,
+              target.calendar, date, newDate));
+    }
+
+    @Override
+    public void copyEventsBetweenDates(String startDate, String endDate, String calendarName,
+                                       String newDate) {
+      Entry source = this.active();
+      Entry target = find(calendarName);
+      lockBoth(source, target, () -> CalendarManagerModel.copyBetweenDates(source.calendar,
+              target.calendar, startDate, endDate, newDate));
+    }
+  }
+}
@@ -5,23 +5,37 @@ import calendar.model.enumclass.Location;
 
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 /**
  * This class represents an event in a calendar.
  * Contains details such as subject, start and end times, description, location, and public status.
+ *
+ * <p>Events are created often, so each one is kept compact: its times are stored as epoch seconds
+ * and nanoseconds instead of LocalDateTime objects, and its location, status and all-day flag are
+ * packed into a single byte. The getters rebuild the original values.</p>
  */
 public class Event {
+  private static final DateTimeFormatter DTF = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+  private static final Location[] LOCATIONS = Location.values();
+  private static final EventStatus[] STATUSES = EventStatus.values();
+  //layout of the packed flags: the location's ordinal plus one (zero for no location) in the low
+  //two bits, then the status' ordinal, then whether the event is an all-day event
+  private static final int LOCATION_MASK = 0b11;
+  private static final int STATUS_SHIFT = 2;
+  private static final int STATUS_MASK = 0b11;
+  private static final int ALL_DAY_FLAG = 1 << 4;
+
   private final String subject;
-  private final LocalDateTime startDateTime;
-  private final LocalDateTime endDateTime;
+  private final long startSecond; //epoch seconds of the start time, read as UTC
+  private final long endSecond; //epoch seconds of the end time, read as UTC
+  private final int startNano;
+  private final int endNano;
   private final String description;
-  private final Location location;
-  private final EventStatus status;
   private final String seriesId; // For recurring events: the ID of the series they belong to
-  private final boolean isAllDayEvent;
-  private final DateTimeFormatter dtf = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+  private final byte flags; //location, status and whether the event is an all-day event
 
   /**
    * Constructor for creating a new event with all details.
@@ -39,13 +53,18 @@ public class Event {
                 boolean isAllDayEvent) {
     this.checkValidation(subject, startDateTime, endDateTime);
     this.subject = subject;
-    this.startDateTime = startDateTime;
-    this.endDateTime = endDateTime;
+    this.startSecond = startDateTime.toEpochSecond(ZoneOffset.UTC);
+    this.endSecond = endDateTime.toEpochSecond(ZoneOffset.UTC);
+    this.startNano = startDateTime.getNano();
+    this.endNano = endDateTime.getNano();
     this.description = description;
-    this.location = location;
-    this.status = Objects.requireNonNullElse(status, EventStatus.PUBLIC);
     this.seriesId = seriesId;
-    this.isAllDayEvent = isAllDayEvent;
+    int packed = location == null ? 0 : location.ordinal() + 1;
+    packed |= Objects.requireNonNullElse(status, EventStatus.PUBLIC).ordinal() << STATUS_SHIFT;
+    if (isAllDayEvent) {
+      packed |= ALL_DAY_FLAG;
+    }
+    this.flags = (byte) packed;
   }
 
   /**
@@ -223,7 +242,7 @@ public class Event {
    * @return the start date and time of the event.
    */
   public LocalDateTime getStartDateTime() {
-    return this.startDateTime;
+    return LocalDateTime.ofEpochSecond(this.startSecond, this.startNano, ZoneOffset.UTC);
   }
 
   /**
@@ -232,7 +251,7 @@ public class Event {
    * @return the end date and time of the event.
    */
   public LocalDateTime getEndDateTime() {
-    return this.endDateTime;
+    return LocalDateTime.ofEpochSecond(this.endSecond, this.endNano, ZoneOffset.UTC);
   }
 
   /**
@@ -250,7 +269,8 @@ public class Event {
    * @return the location of the event.
    */
   public Location getLocation() {
-    return this.location;
+    int index = this.flags & LOCATION_MASK;
+    return index == 0 ? null : LOCATIONS[index - 1];
   }
 
   /**
@@ -259,7 +279,7 @@ public class Event {
    * @return the status of the event.
    */
   public EventStatus getStatus() {
-    return this.status;
+    return STATUSES[(this.flags >> STATUS_SHIFT) & STATUS_MASK];
   }
 
   /**
@@ -277,7 +297,46 @@ public class Event {
    * @return true if the event is an all-day event, false otherwise.
    */
   public boolean getIsAllDayEvent() {
-    return this.isAllDayEvent;
+    return (this.flags & ALL_DAY_FLAG) != 0;
+  }
+
+  /**
+   * Checks if this Event is equal to the given object. Two events are equal if all of their
+   * details are the same, so an occurrence of a recurring series is equal to every other copy of
+   * that occurrence.
+   *
+   * @param o the object to compare with
+   * @return true if the object is an Event with the same details, false otherwise
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Event)) {
+      return false;
+    }
+    Event other = (Event) o;
+    return this.flags == other.flags
+            && this.startSecond == other.startSecond
+            && this.endSecond == other.endSecond
+            && this.startNano == other.startNano
+            && this.endNano == other.endNano
+            && this.subject.equals(other.subject)
+            && Objects.equals(this.description, other.description)
+            && Objects.equals(this.seriesId, other.seriesId);
+  }
+
+  /**
+   * Computes a hash code for this Event from its subject and times.
+   *
+   * @return the hash code of this Event
+   */
+  @Override
+  public int hashCode() {
+    int hash = this.subject.hashCode();
+    hash = 31 * hash + Long.hashCode(this.startSecond) + this.startNano;
+    return 31 * hash + Long.hashCode(this.endSecond) + this.endNano;
   }
 
   /**
@@ -287,10 +346,10 @@ public class Event {
    */
   @Override
   public String toString() {
-    String res = this.subject + " - Starts: " + this.startDateTime.format(dtf)
-            + ", Ends: " + this.endDateTime.format(dtf);
-    if (this.location != null) {
-      res += ", Location: " + this.location;
+    String res = this.subject + " - Starts: " + this.getStartDateTime().format(DTF)
+            + ", Ends: " + this.getEndDateTime().format(DTF);
+    if (this.getLocation() != null) {
+      res += ", Location: " + this.getLocation();
     }
     return res;
   }
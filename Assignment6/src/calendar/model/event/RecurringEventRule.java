@@ -3,10 +3,17 @@ package calendar.model.event;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
+import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import calendar.model.enumclass.DayOfWeekAbbreviation;
 
@@ -15,9 +22,18 @@ import calendar.model.enumclass.DayOfWeekAbbreviation;
  * This class defines the days of the week on which the event occurs,
  * the number of repetitions, the end date for the recurrence, and the time
  * during which the event takes place.
+ *
+ * <p>The days of the week are also kept as a 7-bit mask, with Monday as the lowest bit. Finding
+ * the next or previous matching day is a rotation of the mask and a count of its zero bits, so
+ * occurrences are generated by jumping straight from one to the next, and the nth or last
+ * occurrence is computed directly from whole weeks plus a few bit operations.</p>
  */
 public class RecurringEventRule {
+  private static final int DAYS_PER_WEEK = 7;
+  private static final int ALL_DAYS = (1 << DAYS_PER_WEEK) - 1;
+
   private final Set<DayOfWeek> dayOfWeeks;
+  private final int dayMask;
   private final int repetitionCount;
   private final LocalDate untilDate;
   private final LocalTime startTime;
@@ -38,6 +54,11 @@ public class RecurringEventRule {
   public RecurringEventRule(String day, int repetitionCount, LocalDate untilDate,
                             LocalTime startTime, LocalTime endTime, boolean isAllDay) {
     this.dayOfWeeks = this.parseDay(day);
+    int mask = 0;
+    for (DayOfWeek dayOfWeek : this.dayOfWeeks) {
+      mask |= 1 << (dayOfWeek.getValue() - 1);
+    }
+    this.dayMask = mask;
     this.repetitionCount = repetitionCount;
     this.untilDate = untilDate;
     this.startTime = startTime;
@@ -69,22 +90,237 @@ public class RecurringEventRule {
    *
    * @param startDate the given date from which to start generating occurrences
    * @return a list of LocalDate representing the occurrence dates
+   * @throws IllegalArgumentException if the rule has neither a repetition count nor an until date
    */
   public List<LocalDate> generateOccurrenceDate(LocalDate startDate) {
-    List<LocalDate> dates = new ArrayList<>();
-    LocalDate currentDate = startDate;
-    int count = 0;
-
-    while ((this.repetitionCount == 0 || count < this.repetitionCount)
-            //no untilDate or current date is before untilDate
-            && (this.untilDate == null || currentDate.isBefore(this.untilDate))) {
-      if (this.dayOfWeeks.contains(currentDate.getDayOfWeek())) {
-        dates.add(currentDate);
-        count++;
+    return this.occurrenceStream(startDate).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns a lazy stream of the occurrence dates generated from the given start date, in order.
+   * Dates are only computed as the stream is consumed, and its size is known up front.
+   *
+   * @param startDate the given date from which to start generating occurrences
+   * @return a stream of the occurrence dates
+   * @throws IllegalArgumentException if the rule has neither a repetition count nor an until date
+   */
+  public Stream<LocalDate> occurrenceStream(LocalDate startDate) {
+    LocalDate first = this.firstOccurrenceDate(startDate);
+    LocalDate last = this.lastOccurrenceDate(startDate);
+    long size = last == null ? 0 : this.countOccurrences(first, last);
+    Spliterator<LocalDate> spliterator = Spliterators.spliterator(
+            this.datesBetween(startDate, last == null ? startDate.minusDays(1) : last), size,
+            Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED
+                    | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    return StreamSupport.stream(spliterator, false);
+  }
+
+  /**
+   * Returns a lazy iterator over the occurrence dates generated from the given start date, in
+   * order.
+   *
+   * @param startDate the given date from which to start generating occurrences
+   * @return an iterator over the occurrence dates
+   * @throws IllegalArgumentException if the rule has neither a repetition count nor an until date
+   */
+  public Iterator<LocalDate> occurrenceIterator(LocalDate startDate) {
+    return this.occurrenceStream(startDate).iterator();
+  }
+
+  /**
+   * Returns a lazy iterator over every date between the given dates (inclusive) that falls on one
+   * of the days of the week on which the event occurs, ignoring the repetition count and until
+   * date. Each step jumps straight to the next matching date.
+   *
+   * @param from the first date to consider
+   * @param to   the last date to consider
+   * @return an iterator over the matching dates, in order
+   */
+  public Iterator<LocalDate> datesBetween(LocalDate from, LocalDate to) {
+    return new Iterator<>() {
+      private LocalDate next = nextOccurrence(from, to);
+
+      @Override
+      public boolean hasNext() {
+        return this.next != null;
+      }
+
+      @Override
+      public LocalDate next() {
+        if (this.next == null) {
+          throw new NoSuchElementException();
+        }
+        LocalDate current = this.next;
+        this.next = nextOccurrence(current.plusDays(1), to);
+        return current;
       }
-      currentDate = currentDate.plusDays(1);
+    };
+  }
+
+  /**
+   * Returns the days of the week on which the event occurs, in the form the constructor takes,
+   * from Monday to Sunday (e.g., "MWF").
+   *
+   * @return the abbreviations of the days of the week
+   */
+  public String getWeekdays() {
+    StringBuilder weekdays = new StringBuilder();
+    for (DayOfWeekAbbreviation day : DayOfWeekAbbreviation.values()) {
+      if ((this.dayMask >>> (day.getDayOfWeek().getValue() - 1) & 1) != 0) {
+        weekdays.append(day.name());
+      }
+    }
+    return weekdays.toString();
+  }
+
+  /**
+   * Checks if the given date falls on one of the days of the week on which the event occurs.
+   *
+   * @param date the date to check
+   * @return true if the event occurs on that day of the week, false otherwise
+   */
+  public boolean fallsOn(LocalDate date) {
+    return (this.dayMask >>> dayIndex(date) & 1) != 0;
+  }
+
+  /**
+   * Counts the dates between the given dates (inclusive) that fall on one of the days of the week
+   * on which the event occurs. Whole weeks are counted arithmetically and the remaining days with
+   * a bit count, so this takes constant time.
+   *
+   * @param from the first date to count
+   * @param to   the last date to count
+   * @return the number of matching dates
+   */
+  public long countOccurrences(LocalDate from, LocalDate to) {
+    if (to.isBefore(from)) {
+      return 0;
     }
-    return dates;
+    long days = ChronoUnit.DAYS.between(from, to) + 1;
+    int remainder = (int) (days % DAYS_PER_WEEK);
+    int partialWeek = this.maskStartingAt(dayIndex(from)) & ((1 << remainder) - 1);
+    return days / DAYS_PER_WEEK * Integer.bitCount(this.dayMask) + Integer.bitCount(partialWeek);
+  }
+
+  /**
+   * Finds the first date on or after the given date that falls on one of the days of the week
+   * on which the event occurs.
+   *
+   * @param date the date to start from
+   * @return the next matching date, or null if the rule has no days of the week
+   */
+  public LocalDate nextOccurrence(LocalDate date) {
+    if (this.dayMask == 0) {
+      return null;
+    }
+    return date.plusDays(Integer.numberOfTrailingZeros(this.maskStartingAt(dayIndex(date))));
+  }
+
+  /**
+   * Finds the last date on or before the given date that falls on one of the days of the week
+   * on which the event occurs.
+   *
+   * @param date the date to start from
+   * @return the previous matching date, or null if the rule has no days of the week
+   */
+  public LocalDate previousOccurrence(LocalDate date) {
+    if (this.dayMask == 0) {
+      return null;
+    }
+    //rotate the mask so that the given day is the highest of the seven bits
+    int index = dayIndex(date);
+    int rotated = (this.dayMask << (DAYS_PER_WEEK - 1 - index)
+            | this.dayMask >>> (index + 1)) & ALL_DAYS;
+    return date.minusDays(DAYS_PER_WEEK - 1 - (31 - Integer.numberOfLeadingZeros(rotated)));
+  }
+
+  /**
+   * Finds the occurrence that comes the given number of occurrences after the given one, using
+   * whole weeks and the bits of the weekday mask instead of stepping through the days between.
+   *
+   * @param first a date on which the event occurs
+   * @param n     the number of occurrences to skip, which must not be negative
+   * @return the date of the nth occurrence after the given one
+   */
+  public LocalDate nthOccurrence(LocalDate first, long n) {
+    int perWeek = Integer.bitCount(this.dayMask);
+    LocalDate weekStart = first.plusWeeks(n / perWeek);
+    int rotated = this.maskStartingAt(dayIndex(first));
+    for (long i = n % perWeek; i > 0; i--) {
+      rotated &= rotated - 1;
+    }
+    return weekStart.plusDays(Integer.numberOfTrailingZeros(rotated));
+  }
+
+  /**
+   * Finds the date of the first occurrence generated from the given start date.
+   *
+   * @param startDate the given date from which to start generating occurrences
+   * @return the first occurrence date, or null if the rule generates no occurrences
+   */
+  public LocalDate firstOccurrenceDate(LocalDate startDate) {
+    if (this.repetitionCount < 0) {
+      return null;
+    }
+    return this.nextOccurrence(startDate, this.untilDate == null ? null
+            : this.untilDate.minusDays(1));
+  }
+
+  /**
+   * Finds the date of the last occurrence generated from the given start date, without
+   * generating the occurrences in between. This matches the last date returned by
+   * generateOccurrenceDate.
+   *
+   * @param startDate the given date from which to start generating occurrences
+   * @return the last occurrence date, or null if the rule generates no occurrences
+   * @throws IllegalArgumentException if the rule has neither a repetition count nor an until date
+   */
+  public LocalDate lastOccurrenceDate(LocalDate startDate) {
+    if (this.repetitionCount == 0 && this.untilDate == null) {
+      throw new IllegalArgumentException("A recurring event must end after a number of "
+              + "occurrences or on a date.");
+    }
+    LocalDate first = this.firstOccurrenceDate(startDate);
+    if (first == null) {
+      return null;
+    }
+    LocalDate last = null;
+    if (this.repetitionCount > 0) {
+      last = this.nthOccurrence(first, this.repetitionCount - 1);
+    }
+    if (this.untilDate != null) {
+      LocalDate lastBeforeUntil = this.previousOccurrence(this.untilDate.minusDays(1));
+      if (last == null || lastBeforeUntil.isBefore(last)) {
+        last = lastBeforeUntil;
+      }
+    }
+    return last;
+  }
+
+  /**
+   * Finds the first matching date between the given dates (inclusive).
+   *
+   * @param from the first date to consider
+   * @param to   the last date to consider, or null if there is no limit
+   * @return the next matching date, or null if there is none in the range
+   */
+  private LocalDate nextOccurrence(LocalDate from, LocalDate to) {
+    LocalDate next = this.nextOccurrence(from);
+    return next == null || (to != null && next.isAfter(to)) ? null : next;
+  }
+
+  /**
+   * Rotates the weekday mask so that the given day of the week is its lowest bit.
+   *
+   * @param index the day of the week, from 0 for Monday to 6 for Sunday
+   * @return the rotated mask
+   */
+  private int maskStartingAt(int index) {
+    return (this.dayMask >>> index | this.dayMask << (DAYS_PER_WEEK - index)) & ALL_DAYS;
+  }
+
+  private static int dayIndex(LocalDate date) {
+    return date.getDayOfWeek().getValue() - 1;
   }
 
   /**
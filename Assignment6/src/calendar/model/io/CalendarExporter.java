@@ -0,0 +1,531 @@
+package calendar.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import calendar.model.calendarclass.EventVisitor;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.enumclass.EventStatus;
+import calendar.model.event.Event;
+
+/**
+ * This class exports the events of a calendar to an iCalendar (.ics) or CSV file.
+ *
+ * <p>The calendar is walked with {@link ICalendar#forEachEvent}, one event at a time in order of
+ * start time, and each event is encoded straight into a fixed-size direct buffer, which is
+ * written to the file's channel whenever it fills up. The whole calendar is never gathered into
+ * a list, so the memory used does not depend on how many events are exported.</p>
+ *
+ * <p>In iCalendar files, recurring series are written as one VEVENT with a weekly RRULE, in the
+ * time zone the series recurs in, with an EXDATE for each occurrence taken out of it. Single
+ * events are written in UTC, and all-day events as dates. CSV has no way to express a rule, so
+ * every occurrence of a series is written as a row of its own, with times in the calendar's time
+ * zone.</p>
+ */
+public class CalendarExporter {
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_LINE_OCTETS = 75; //iCalendar lines longer than this are folded
+  private static final String[] ICS_DAYS = {"MO", "TU", "WE", "TH", "FR", "SA", "SU"};
+  private static final String WEEKDAYS = "MTWRFSU";
+  private static final String CSV_HEADER = "Subject,Start Date,Start Time,End Date,End Time,"
+          + "All Day Event,Description,Location,Private";
+  //the widest range whose times can be converted between any two time zones
+  private static final LocalDateTime EARLIEST = LocalDateTime.MIN.plusDays(1);
+  private static final LocalDateTime LATEST = LocalDateTime.MAX.minusDays(1);
+
+  /**
+   * Represents the formats a calendar can be exported to.
+   */
+  public enum Format {
+    ICS, CSV
+  }
+
+  private final int bufferSize;
+
+  /**
+   * Constructs a CalendarExporter that writes through a 64 KB buffer.
+   */
+  public CalendarExporter() {
+    this(BUFFER_SIZE);
+  }
+
+  /**
+   * Constructs a CalendarExporter that writes through a buffer of the given size.
+   *
+   * @param bufferSize the size of the buffer in bytes, which must hold a folded iCalendar line
+   * @throws IllegalArgumentException if the buffer is too small
+   */
+  public CalendarExporter(int bufferSize) {
+    if (bufferSize < MAX_LINE_OCTETS + 2) {
+      throw new IllegalArgumentException("The buffer must hold at least " + (MAX_LINE_OCTETS + 2)
+              + " bytes.");
+    }
+    this.bufferSize = bufferSize;
+  }
+
+  /**
+   * Exports the events of the given calendar that take place between two date-times to the
+   * given file, replacing it if it exists.
+   *
+   * @param calendar the calendar to export
+   * @param file     the file to write
+   * @param from     the start of the range to export, or null to export from the first event
+   * @param to       the end of the range to export, or null to export up to the last event
+   * @param format   the format of the file
+   * @return a report of the events written and the time taken
+   * @throws IOException if the file cannot be written
+   */
+  public ExportReport export(ICalendar calendar, Path file, LocalDateTime from, LocalDateTime to,
+                             Format format) throws IOException {
+    long started = System.nanoTime();
+    try (Output out = new Output(file, this.bufferSize, format == Format.ICS)) {
+      Writer writer = format == Format.ICS ? new IcsWriter(out, calendar.getTimeZone())
+              : new CsvWriter(out);
+      writer.begin();
+      try {
+        calendar.forEachEvent(from == null ? EARLIEST : from, to == null ? LATEST : to,
+                format == Format.CSV, writer);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+      writer.end();
+      out.flush();
+      return new ExportReport(writer.events, writer.series, out.bytes,
+              System.nanoTime() - started);
+    }
+  }
+
+  /**
+   * A visitor writing each event it is passed to the output, and counting them.
+   */
+  private abstract static class Writer implements EventVisitor {
+    protected final Output out;
+    protected final StringBuilder line;
+    private long events;
+    private long series;
+
+    private Writer(Output out) {
+      this.out = out;
+      this.line = new StringBuilder();
+    }
+
+    abstract void begin() throws IOException;
+
+    abstract void end() throws IOException;
+
+    abstract void writeEvent(Event event) throws IOException;
+
+    abstract void writeSeries(Event first, ZoneId zone, String weekdays, LocalDate lastDate,
+                              Set<LocalDate> exceptions) throws IOException;
+
+    @Override
+    public void visitEvent(Event event) {
+      try {
+        this.writeEvent(event);
+        this.events++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public void visitSeries(Event first, ZoneId zone, String weekdays, LocalDate lastDate,
+                            Set<LocalDate> exceptions) {
+      try {
+        this.writeSeries(first, zone, weekdays, lastDate, exceptions);
+        this.series++;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    /**
+     * Writes the line built so far, and starts a new one.
+     */
+    protected void endLine() throws IOException {
+      this.out.line(this.line);
+      this.line.setLength(0);
+    }
+  }
+
+  /**
+   * Writes events as the VEVENT components of an iCalendar file.
+   */
+  private static final class IcsWriter extends Writer {
+    private final ZoneId zone;
+    private final String stamp;
+
+    private IcsWriter(Output out, ZoneId zone) {
+      super(out);
+      this.zone = zone;
+      StringBuilder stamp = new StringBuilder();
+      appendDateTime(stamp, LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC)
+              .withNano(0));
+      this.stamp = stamp.append('Z').toString();
+    }
+
+    @Override
+    void begin() throws IOException {
+      this.out.line("BEGIN:VCALENDAR");
+      this.out.line("VERSION:2.0");
+      this.out.line("PRODID:-//Calendar//Export//EN");
+    }
+
+    @Override
+    void end() throws IOException {
+      this.out.line("END:VCALENDAR");
+    }
+
+    @Override
+    void writeEvent(Event event) throws IOException {
+      this.beginEvent(event);
+      if (event.getIsAllDayEvent()) {
+        this.dates(event.getStartDateTime().toLocalDate(),
+                event.getEndDateTime().toLocalDate());
+      } else {
+        this.line.append("DTSTART:");
+        appendDateTime(this.line, this.toUtc(event.getStartDateTime(), this.zone));
+        this.line.append('Z');
+        this.endLine();
+        this.line.append("DTEND:");
+        appendDateTime(this.line, this.toUtc(event.getEndDateTime(), this.zone));
+        this.line.append('Z');
+        this.endLine();
+      }
+      this.endEvent(event);
+    }
+
+    @Override
+    void writeSeries(Event first, ZoneId seriesZone, String weekdays, LocalDate lastDate,
+                     Set<LocalDate> exceptions) throws IOException {
+      this.beginEvent(first);
+      boolean allDay = first.getIsAllDayEvent();
+      LocalTime startTime = first.getStartDateTime().toLocalTime();
+      if (allDay) {
+        LocalDate date = first.getStartDateTime().toLocalDate();
+        this.dates(date, date);
+      } else {
+        this.time("DTSTART", first.getStartDateTime(), seriesZone);
+        this.time("DTEND", first.getEndDateTime(), seriesZone);
+      }
+      this.line.append("RRULE:FREQ=WEEKLY;BYDAY=");
+      for (int i = 0; i < weekdays.length(); i++) {
+        this.line.append(i == 0 ? "" : ",").append(ICS_DAYS[WEEKDAYS.indexOf(
+                weekdays.charAt(i))]);
+      }
+      this.line.append(";UNTIL=");
+      if (allDay) {
+        appendDate(this.line, lastDate);
+      } else {
+        appendDateTime(this.line, this.toUtc(lastDate.atTime(startTime), seriesZone));
+        this.line.append('Z');
+      }
+      this.endLine();
+      List<LocalDate> excluded = new ArrayList<>(exceptions);
+      excluded.sort(null);
+      for (LocalDate date : excluded) {
+        if (allDay) {
+          this.line.append("EXDATE;VALUE=DATE:");
+          appendDate(this.line, date);
+          this.endLine();
+        } else {
+          this.time("EXDATE", date.atTime(startTime), seriesZone);
+        }
+      }
+      this.endEvent(first);
+    }
+
+    private void beginEvent(Event event) throws IOException {
+      this.out.line("BEGIN:VEVENT");
+      //the subject and times of an event tell it apart from every other event of the calendar
+      this.line.append("UID:").append(UUID.nameUUIDFromBytes((event.getSubject() + '\n'
+              + event.getStartDateTime() + '\n' + event.getEndDateTime())
+              .getBytes(StandardCharsets.UTF_8))).append("@calendar");
+      this.endLine();
+      this.line.append("DTSTAMP:").append(this.stamp);
+      this.endLine();
+      this.line.append("SUMMARY:");
+      appendText(this.line, event.getSubject());
+      this.endLine();
+    }
+
+    private void endEvent(Event event) throws IOException {
+      if (event.getDescription() != null) {
+        this.line.append("DESCRIPTION:");
+        appendText(this.line, event.getDescription());
+        this.endLine();
+      }
+      if (event.getLocation() != null) {
+        this.line.append("LOCATION:").append(event.getLocation().name().toLowerCase());
+        this.endLine();
+      }
+      if (event.getStatus() == EventStatus.PRIVATE) {
+        this.out.line("CLASS:PRIVATE");
+      }
+      this.out.line("END:VEVENT");
+    }
+
+    /**
+     * Writes the dates of an all-day event, whose DTEND is the day after its last day.
+     */
+    private void dates(LocalDate first, LocalDate last) throws IOException {
+      this.line.append("DTSTART;VALUE=DATE:");
+      appendDate(this.line, first);
+      this.endLine();
+      this.line.append("DTEND;VALUE=DATE:");
+      appendDate(this.line, last.plusDays(1));
+      this.endLine();
+    }
+
+    /**
+     * Writes a property holding a local time in the given zone, as a UTC time if the zone is
+     * UTC and with a TZID parameter otherwise.
+     */
+    private void time(String name, LocalDateTime time, ZoneId timeZone) throws IOException {
+      this.line.append(name);
+      if (timeZone.normalized().equals(ZoneOffset.UTC)) {
+        this.line.append(':');
+        appendDateTime(this.line, time);
+        this.line.append('Z');
+      } else {
+        this.line.append(";TZID=").append(timeZone.getId()).append(':');
+        appendDateTime(this.line, time);
+      }
+      this.endLine();
+    }
+
+    private LocalDateTime toUtc(LocalDateTime time, ZoneId timeZone) {
+      return timeZone.normalized().equals(ZoneOffset.UTC) ? time
+              : time.atZone(timeZone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+  }
+
+  /**
+   * Writes events as the rows of a CSV file, with times in the calendar's time zone.
+   */
+  private static final class CsvWriter extends Writer {
+    private CsvWriter(Output out) {
+      super(out);
+    }
+
+    @Override
+    void begin() throws IOException {
+      this.out.line(CSV_HEADER);
+    }
+
+    @Override
+    void end() {
+      //a CSV file has no footer
+    }
+
+    @Override
+    void writeEvent(Event event) throws IOException {
+      StringBuilder row = this.line;
+      appendField(row, event.getSubject());
+      row.append(',');
+      appendDate(row, event.getStartDateTime(), true);
+      row.append(',');
+      appendTime(row, event.getStartDateTime());
+      row.append(',');
+      appendDate(row, event.getEndDateTime(), true);
+      row.append(',');
+      appendTime(row, event.getEndDateTime());
+      row.append(',').append(event.getIsAllDayEvent() ? "True" : "False").append(',');
+      if (event.getDescription() != null) {
+        appendField(row, event.getDescription());
+      }
+      row.append(',');
+      if (event.getLocation() != null) {
+        row.append(event.getLocation().name().toLowerCase());
+      }
+      row.append(',').append(event.getStatus() == EventStatus.PRIVATE ? "True" : "False");
+      this.endLine();
+    }
+
+    @Override
+    void writeSeries(Event first, ZoneId zone, String weekdays, LocalDate lastDate,
+                     Set<LocalDate> exceptions) {
+      throw new IllegalStateException("Series are written to CSV files as their occurrences.");
+    }
+
+    /**
+     * Appends a field, quoted if it holds a comma, a quote or a line break.
+     */
+    private static void appendField(StringBuilder row, String value) {
+      boolean quoted = false;
+      for (int i = 0; i < value.length() && !quoted; i++) {
+        char c = value.charAt(i);
+        quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      if (!quoted) {
+        row.append(value);
+        return;
+      }
+      row.append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        row.append(c);
+        if (c == '"') {
+          row.append('"');
+        }
+      }
+      row.append('"');
+    }
+  }
+
+  /**
+   * Appends a TEXT value, escaping the characters iCalendar gives a meaning to.
+   */
+  private static void appendText(StringBuilder line, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' || c == ';' || c == ',') {
+        line.append('\\').append(c);
+      } else if (c == '\n') {
+        line.append("\\n");
+      } else if (c != '\r') {
+        line.append(c);
+      }
+    }
+  }
+
+  /**
+   * Appends a date-time of the form yyyyMMdd'T'HHmmss.
+   */
+  private static void appendDateTime(StringBuilder line, LocalDateTime time) {
+    appendDate(line, time.toLocalDate());
+    line.append('T');
+    pad(line, time.getHour(), 2);
+    pad(line, time.getMinute(), 2);
+    pad(line, time.getSecond(), 2);
+  }
+
+  /**
+   * Appends a date of the form yyyyMMdd.
+   */
+  private static void appendDate(StringBuilder line, LocalDate date) {
+    pad(line, date.getYear(), 4);
+    pad(line, date.getMonthValue(), 2);
+    pad(line, date.getDayOfMonth(), 2);
+  }
+
+  /**
+   * Appends the date of a date-time, of the form yyyy-MM-dd if dashed.
+   */
+  private static void appendDate(StringBuilder line, LocalDateTime time, boolean dashed) {
+    pad(line, time.getYear(), 4);
+    line.append(dashed ? "-" : "");
+    pad(line, time.getMonthValue(), 2);
+    line.append(dashed ? "-" : "");
+    pad(line, time.getDayOfMonth(), 2);
+  }
+
+  /**
+   * Appends the time of day of a date-time, of the form HH:mm.
+   */
+  private static void appendTime(StringBuilder line, LocalDateTime time) {
+    pad(line, time.getHour(), 2);
+    line.append(':');
+    pad(line, time.getMinute(), 2);
+  }
+
+  private static void pad(StringBuilder line, int value, int digits) {
+    for (int limit = 10, i = 1; i < digits; limit *= 10, i++) {
+      if (value < limit) {
+        line.append('0');
+      }
+    }
+    line.append(value);
+  }
+
+  /**
+   * A file written through a fixed-size direct buffer. Lines are encoded as UTF-8 straight into
+   * the buffer and end with CRLF; iCalendar lines longer than 75 octets are folded.
+   */
+  private static final class Output implements Closeable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean fold;
+    private long bytes;
+
+    private Output(Path file, int bufferSize, boolean fold) throws IOException {
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING);
+      this.buffer = ByteBuffer.allocateDirect(bufferSize);
+      this.fold = fold;
+    }
+
+    /**
+     * Writes the given text followed by a line break.
+     */
+    private void line(CharSequence text) throws IOException {
+      int octets = 0;
+      for (int i = 0; i < text.length(); i++) {
+        int c = Character.codePointAt(text, i);
+        int length = c < 0x80 ? 1 : c < 0x800 ? 2 : c < 0x10000 ? 3 : 4;
+        if (c >= 0x10000) {
+          i++;
+        }
+        if (this.fold && octets + length > MAX_LINE_OCTETS) {
+          this.ensure(3);
+          this.buffer.put((byte) '\r').put((byte) '\n').put((byte) ' ');
+          octets = 1;
+        }
+        this.ensure(length);
+        if (length == 1) {
+          this.buffer.put((byte) c);
+        } else if (length == 2) {
+          this.buffer.put((byte) (0xc0 | c >> 6)).put((byte) (0x80 | c & 0x3f));
+        } else if (length == 3) {
+          this.buffer.put((byte) (0xe0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3f))
+                  .put((byte) (0x80 | c & 0x3f));
+        } else {
+          this.buffer.put((byte) (0xf0 | c >> 18)).put((byte) (0x80 | c >> 12 & 0x3f))
+                  .put((byte) (0x80 | c >> 6 & 0x3f)).put((byte) (0x80 | c & 0x3f));
+        }
+        octets += length;
+      }
+      this.ensure(2);
+      this.buffer.put((byte) '\r').put((byte) '\n');
+    }
+
+    private void ensure(int length) throws IOException {
+      if (this.buffer.remaining() < length) {
+        this.flush();
+      }
+    }
+
+    /**
+     * Writes the bytes held in the buffer to the file, and empties the buffer.
+     */
+    private void flush() throws IOException {
+      this.buffer.flip();
+      this.bytes += this.buffer.remaining();
+      while (this.buffer.hasRemaining()) {
+        this.channel.write(this.buffer);
+      }
+      this.buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+      this.channel.close();
+    }
+  }
+}
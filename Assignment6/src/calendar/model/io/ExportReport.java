@@ -0,0 +1,81 @@
+package calendar.model.io;
+
+/**
+ * This class represents the outcome of exporting a calendar to a file: how many events and
+ * recurring series were written, how many bytes the file holds, and how long it took.
+ */
+public final class ExportReport {
+  private final long events;
+  private final long series;
+  private final long bytes;
+  private final long nanos;
+
+  /**
+   * Constructs an ExportReport.
+   *
+   * @param events the number of single events, or occurrences of series, written
+   * @param series the number of recurring series written as rules
+   * @param bytes  the number of bytes written
+   * @param nanos  the time taken by the export, in nanoseconds
+   */
+  ExportReport(long events, long series, long bytes, long nanos) {
+    this.events = events;
+    this.series = series;
+    this.bytes = bytes;
+    this.nanos = nanos;
+  }
+
+  /**
+   * Gets the number of single events written, counting each occurrence of a series written as
+   * an event of its own.
+   *
+   * @return the number of events written
+   */
+  public long getEvents() {
+    return this.events;
+  }
+
+  /**
+   * Gets the number of recurring series written as a rule rather than as their occurrences.
+   *
+   * @return the number of series written
+   */
+  public long getSeries() {
+    return this.series;
+  }
+
+  /**
+   * Gets the size of the file written.
+   *
+   * @return the number of bytes written
+   */
+  public long getBytes() {
+    return this.bytes;
+  }
+
+  /**
+   * Gets the time taken by the export.
+   *
+   * @return the time taken to walk the calendar and write the file, in milliseconds
+   */
+  public double getMillis() {
+    return this.nanos / 1e6;
+  }
+
+  /**
+   * Gets the rate at which events were written, counting each series written as a rule once.
+   *
+   * @return the events and series written per second, or 0 if none were
+   */
+  public double getEventsPerSecond() {
+    long written = this.events + this.series;
+    return written == 0 ? 0 : written * 1e9 / Math.max(1, this.nanos);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Exported %d events and %d recurring series (%d bytes) in %.1f ms "
+                    + "(%.0f events/s)", this.events, this.series, this.bytes, this.getMillis(),
+            this.getEventsPerSecond());
+  }
+}
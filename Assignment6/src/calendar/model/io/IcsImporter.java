@@ -0,0 +1,702 @@
+package calendar.model.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+import calendar.model.event.RecurringEventRule;
+
+/**
+ * This class imports the events of an iCalendar (.ics) file into a calendar.
+ *
+ * <p>The file is streamed through a buffered reader, never held in memory as a whole. The reading
+ * thread only unfolds the lines and cuts the file into chunks of whole VEVENT components, which
+ * are parsed into events on a pool of worker threads while it reads on. Chunks are collected in
+ * the order of the file, and only a few of them are in flight at once. Once the whole file is
+ * parsed, its single events are added to the calendar with one call to
+ * {@link ICalendar#addEvents}, and its recurring events are created, all within one batch, so
+ * observers of the calendar are notified once.</p>
+ *
+ * <p>Times are converted to the time zone of the calendar: times ending in "Z" are read as UTC,
+ * times with a TZID parameter in that zone, and floating times in the calendar's own zone.
+ * All-day events span 8:00 to 17:00, as all-day events of the calendar do. A LOCATION that is
+ * "online" or a URL makes an online event, any other location a physical one, and a CLASS of
+ * PRIVATE or CONFIDENTIAL makes a private event.</p>
+ *
+ * <p>Recurrence rules are mapped onto {@link RecurringEventRule}: daily or weekly rules with an
+ * interval of 1, a list of weekdays and either a COUNT or an UNTIL date. Events with any other
+ * rule, with exceptions to their rule (EXDATE, RDATE) or that are exceptions themselves
+ * (RECURRENCE-ID) cannot be expressed by the calendar; they are skipped and counted, as are
+ * invalid events and events that clash with events already in the calendar.</p>
+ */
+public class IcsImporter {
+  private static final int CHUNK_EVENTS = 2000;
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final String WEEKDAYS = "MTWRFSU";
+
+  private final int threads;
+
+  /**
+   * Constructs an IcsImporter that parses files on as many threads as there are processors.
+   */
+  public IcsImporter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs an IcsImporter that parses files on the given number of threads. With a single
+   * thread, the file is parsed by the thread reading it.
+   *
+   * @param threads the number of threads parsing the file
+   * @throws IllegalArgumentException if the number of threads is not positive
+   */
+  public IcsImporter(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("An importer needs at least one thread.");
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Imports the events of the given iCalendar file into the given calendar.
+   *
+   * @param file     the file to read
+   * @param calendar the calendar the events are added to
+   * @return a report of the events added and skipped, and of the time taken
+   * @throws IOException if the file cannot be read
+   */
+  public ImportReport importFile(Path file, ICalendar calendar) throws IOException {
+    long started = System.nanoTime();
+    Chunk parsed = this.parse(file, calendar.getTimeZone());
+    long inserting = System.nanoTime();
+    int[] added = new int[2];
+    calendar.batch(() -> {
+      added[0] = addSingles(calendar, parsed);
+      added[1] = addSeries(calendar, parsed);
+    });
+    long finished = System.nanoTime();
+    return new ImportReport(added[0], added[1], parsed.skipped, inserting - started,
+            finished - inserting);
+  }
+
+  /**
+   * Reads the given file and parses its events, in chunks, on the threads of this importer.
+   *
+   * @param file the file to read
+   * @param zone the time zone the times of the events are converted to
+   * @return the events of the whole file
+   * @throws IOException if the file cannot be read
+   */
+  private Chunk parse(Path file, ZoneId zone) throws IOException {
+    Chunk all = new Chunk();
+    ExecutorService pool = this.threads == 1 ? null
+            : Executors.newFixedThreadPool(this.threads, task -> {
+              Thread thread = new Thread(task, "ics-parser");
+              thread.setDaemon(true);
+              return thread;
+            });
+    Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+      List<String> lines = new ArrayList<>();
+      int events = 0;
+      int depth = 0; //how many components inside a VEVENT are open
+      boolean inEvent = false;
+      String line = reader.readLine();
+      while (line != null) {
+        //a line starting with a space or a tab continues the line before it
+        String next = reader.readLine();
+        while (next != null && !next.isEmpty() && (next.charAt(0) == ' '
+                || next.charAt(0) == '\t')) {
+          line += next.substring(1);
+          next = reader.readLine();
+        }
+        if (!inEvent) {
+          inEvent = line.equalsIgnoreCase("BEGIN:VEVENT");
+        } else if (startsWithIgnoreCase(line, "BEGIN:")) {
+          depth++;
+        } else if (startsWithIgnoreCase(line, "END:")) {
+          if (depth > 0) {
+            depth--;
+          } else {
+            lines.add("END:VEVENT");
+            inEvent = false;
+            if (++events == CHUNK_EVENTS) {
+              this.submit(pool, inFlight, lines, zone, all);
+              lines = new ArrayList<>();
+              events = 0;
+            }
+          }
+        } else if (depth == 0) {
+          lines.add(line);
+        }
+        line = next;
+      }
+      if (events > 0) {
+        this.submit(pool, inFlight, lines, zone, all);
+      }
+      while (!inFlight.isEmpty()) {
+        all.append(join(inFlight.poll()));
+      }
+    } finally {
+      if (pool != null) {
+        pool.shutdownNow();
+      }
+    }
+    return all;
+  }
+
+  /**
+   * Parses the given chunk of lines, on the pool if there is one, and collects the oldest chunks
+   * in flight until there is room for it.
+   */
+  private void submit(ExecutorService pool, Deque<Future<Chunk>> inFlight, List<String> lines,
+                      ZoneId zone, Chunk all) {
+    if (pool == null) {
+      all.append(parseChunk(lines, zone));
+      return;
+    }
+    while (inFlight.size() >= this.threads * 2) {
+      all.append(join(inFlight.poll()));
+    }
+    inFlight.add(pool.submit(() -> parseChunk(lines, zone)));
+  }
+
+  private static Chunk join(Future<Chunk> chunk) {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("The import was interrupted.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Could not parse the file.", e.getCause());
+    }
+  }
+
+  /**
+   * Parses the events of a chunk of unfolded lines, in which each event ends with an
+   * "END:VEVENT" line.
+   *
+   * @param lines the lines of the events, without their nested components
+   * @param zone  the time zone the times of the events are converted to
+   * @return the events of the chunk
+   */
+  static Chunk parseChunk(List<String> lines, ZoneId zone) {
+    Chunk chunk = new Chunk();
+    Map<String, ZoneId> zones = new HashMap<>();
+    VEvent event = new VEvent();
+    for (String line : lines) {
+      if (line.equals("END:VEVENT")) {
+        try {
+          event.addTo(chunk, zone, zones);
+        } catch (IllegalArgumentException | DateTimeException e) {
+          chunk.skipped++;
+        }
+        event = new VEvent();
+      } else {
+        event.read(line);
+      }
+    }
+    return chunk;
+  }
+
+  /**
+   * Adds the single events of the given chunk to the calendar at once. If any of them clashes
+   * with an event already in the calendar, they are added one at a time instead, skipping those
+   * that clash.
+   *
+   * @return the number of events added
+   */
+  private static int addSingles(ICalendar calendar, Chunk parsed) {
+    try {
+      calendar.addEvents(parsed.singles);
+      return parsed.singles.size();
+    } catch (IllegalArgumentException e) {
+      int added = 0;
+      for (Event event : parsed.singles) {
+        try {
+          calendar.addEvent(event);
+          added++;
+        } catch (IllegalArgumentException clash) {
+          parsed.skipped++;
+        }
+      }
+      return added;
+    }
+  }
+
+  /**
+   * Creates the recurring series of the given chunk in the calendar, skipping those that clash
+   * with events already in it, and then sets the details the calendar does not take on creation.
+   *
+   * @return the number of series created
+   */
+  private static int addSeries(ICalendar calendar, Chunk parsed) {
+    int added = 0;
+    for (Series series : parsed.series) {
+      Event first = series.first;
+      String start = first.getStartDateTime().format(calendar.getDateTimeFormatter());
+      String date = first.getStartDateTime().toLocalDate().format(calendar.getDateFormatter());
+      String until = series.until == null ? null
+              : series.until.format(calendar.getDateFormatter());
+      try {
+        if (first.getIsAllDayEvent() && until == null) {
+          calendar.createRecurringAllDayEvent(first.getSubject(), date, series.weekdays,
+                  series.count);
+        } else if (first.getIsAllDayEvent()) {
+          calendar.createRecurringAllDayEvent(first.getSubject(), date, series.weekdays, until);
+        } else {
+          String end = first.getEndDateTime().format(calendar.getDateTimeFormatter());
+          if (until == null) {
+            calendar.createRecurringEvent(first.getSubject(), start, end, series.weekdays,
+                    series.count);
+          } else {
+            calendar.createRecurringEvent(first.getSubject(), start, end, series.weekdays, until);
+          }
+        }
+      } catch (IllegalArgumentException e) {
+        parsed.skipped++;
+        continue;
+      }
+      if (first.getDescription() != null) {
+        calendar.editMultipleEvents("description", first.getSubject(), start,
+                first.getDescription(), true);
+      }
+      if (first.getLocation() != null) {
+        calendar.editMultipleEvents("location", first.getSubject(), start,
+                first.getLocation().name(), true);
+      }
+      if (first.getStatus() == EventStatus.PRIVATE) {
+        calendar.editMultipleEvents("status", first.getSubject(), start,
+                EventStatus.PRIVATE.name(), true);
+      }
+      added++;
+    }
+    return added;
+  }
+
+  private static boolean startsWithIgnoreCase(String line, String prefix) {
+    return line.regionMatches(true, 0, prefix, 0, prefix.length());
+  }
+
+  /**
+   * The events parsed from a chunk of the file, or from the whole file: the single events, the
+   * recurring series and the number of events skipped.
+   */
+  static final class Chunk {
+    final List<Event> singles = new ArrayList<>();
+    final List<Series> series = new ArrayList<>();
+    int skipped;
+
+    private void append(Chunk other) {
+      this.singles.addAll(other.singles);
+      this.series.addAll(other.series);
+      this.skipped += other.skipped;
+    }
+  }
+
+  /**
+   * A recurring event: its first occurrence, which holds the details shared by every occurrence,
+   * and when it recurs, in the form the calendar's commands take.
+   */
+  static final class Series {
+    final Event first;
+    final String weekdays;
+    final int count; //the number of occurrences, or 0 if the series ends on a date
+    final LocalDate until; //the day after the last possible occurrence, or null
+
+    private Series(Event first, String weekdays, int count, LocalDate until) {
+      this.first = first;
+      this.weekdays = weekdays;
+      this.count = count;
+      this.until = until;
+    }
+  }
+
+  /**
+   * The value of a date or date-time property, with the parameters that tell how to read it.
+   */
+  private static final class TimeValue {
+    private final String value;
+    private final String zoneId; //the TZID parameter, or null for UTC or floating times
+    private final boolean isDate;
+
+    private TimeValue(String value, String zoneId, boolean isDate) {
+      this.value = value;
+      this.zoneId = zoneId;
+      this.isDate = isDate;
+    }
+
+    /**
+     * Reads this value as a date-time, converted to the given time zone.
+     *
+     * @param zone  the time zone to convert to, also used for floating times
+     * @param zones the time zones already looked up, by TZID
+     * @return the local date-time in the given zone
+     * @throws DateTimeException if the value is not a date-time or its TZID is unknown
+     */
+    private LocalDateTime toZone(ZoneId zone, Map<String, ZoneId> zones) {
+      if (this.isDate) {
+        throw new DateTimeException("Expected a date-time: " + this.value);
+      }
+      LocalDateTime time = parseDateTime(this.value);
+      ZoneId from = this.value.endsWith("Z") ? ZoneOffset.UTC
+              : this.zoneId == null ? zone : zones.computeIfAbsent(this.zoneId, ZoneId::of);
+      return from.equals(zone) ? time
+              : time.atZone(from).withZoneSameInstant(zone).toLocalDateTime();
+    }
+  }
+
+  /**
+   * The properties of a VEVENT that the importer reads, collected line by line.
+   */
+  private static final class VEvent {
+    private String summary;
+    private String description;
+    private String location;
+    private String classification;
+    private TimeValue start;
+    private TimeValue end;
+    private String duration;
+    private String rule;
+    private boolean hasExceptions;
+
+    /**
+     * Reads one unfolded content line of the event, of the form name[;parameters]:value.
+     */
+    private void read(String line) {
+      int semicolon = -1;
+      int colon = -1;
+      boolean quoted = false;
+      for (int i = 0; i < line.length() && colon < 0; i++) {
+        char c = line.charAt(i);
+        if (c == '"') {
+          quoted = !quoted;
+        } else if (!quoted && c == ':') {
+          colon = i;
+        } else if (!quoted && c == ';' && semicolon < 0) {
+          semicolon = i;
+        }
+      }
+      if (colon < 0) {
+        return;
+      }
+      String name = line.substring(0, semicolon < 0 ? colon : semicolon)
+              .toUpperCase(Locale.ROOT);
+      String parameters = semicolon < 0 ? "" : line.substring(semicolon + 1, colon);
+      String value = line.substring(colon + 1);
+      switch (name) {
+        case "SUMMARY":
+          this.summary = unescape(value);
+          break;
+        case "DESCRIPTION":
+          this.description = unescape(value);
+          break;
+        case "LOCATION":
+          this.location = unescape(value).trim();
+          break;
+        case "CLASS":
+          this.classification = value.trim().toUpperCase(Locale.ROOT);
+          break;
+        case "DTSTART":
+          this.start = timeValue(parameters, value);
+          break;
+        case "DTEND":
+          this.end = timeValue(parameters, value);
+          break;
+        case "DURATION":
+          this.duration = value.trim();
+          break;
+        case "RRULE":
+          this.rule = value.trim().toUpperCase(Locale.ROOT);
+          break;
+        case "RECURRENCE-ID":
+        case "EXDATE":
+        case "RDATE":
+          this.hasExceptions = true;
+          break;
+        default:
+          break;
+      }
+    }
+
+    /**
+     * Adds this event to the given chunk, as a single event or a recurring series.
+     *
+     * @throws IllegalArgumentException if the event cannot be expressed by the calendar
+     * @throws DateTimeException        if one of its times is invalid
+     */
+    private void addTo(Chunk chunk, ZoneId zone, Map<String, ZoneId> zones) {
+      if (this.summary == null || this.summary.isBlank() || this.start == null) {
+        throw new IllegalArgumentException("An event needs a summary and a start.");
+      }
+      if (this.hasExceptions) {
+        throw new IllegalArgumentException("Exceptions to recurrence rules are not supported.");
+      }
+      LocalDateTime startTime;
+      LocalDateTime endTime;
+      int shift = 0; //the days the start date moved by when converted to the calendar's zone
+      if (this.start.isDate) {
+        LocalDate first = parseDate(this.start.value);
+        LocalDate last = first;
+        if (this.end != null) {
+          last = parseDate(this.end.value).minusDays(1);
+        } else if (this.duration != null) {
+          last = first.plusDays(parseDuration(this.duration).toDays() - 1);
+        }
+        startTime = first.atTime(8, 0);
+        endTime = (last.isBefore(first) ? first : last).atTime(17, 0);
+      } else {
+        startTime = this.start.toZone(zone, zones);
+        shift = (int) ChronoUnit.DAYS.between(parseDateTime(this.start.value).toLocalDate(),
+                startTime.toLocalDate());
+        if (this.end != null) {
+          endTime = this.end.toZone(zone, zones);
+        } else if (this.duration != null) {
+          endTime = startTime.plus(parseDuration(this.duration));
+        } else {
+          endTime = startTime;
+        }
+      }
+      Event event = new Event.EventBuilder()
+              .subject(this.summary)
+              .startDateTime(startTime)
+              .endDateTime(endTime)
+              .description(this.description == null || this.description.isEmpty() ? null
+                      : this.description)
+              .location(this.location == null || this.location.isEmpty() ? null
+                      : this.location.equalsIgnoreCase("online")
+                      || startsWithIgnoreCase(this.location, "http://")
+                      || startsWithIgnoreCase(this.location, "https://")
+                      ? Location.ONLINE : Location.PHYSICAL)
+              .status("PRIVATE".equals(this.classification)
+                      || "CONFIDENTIAL".equals(this.classification)
+                      ? EventStatus.PRIVATE : EventStatus.PUBLIC)
+              .isAllDayEvent(this.start.isDate)
+              .build();
+      if (this.rule == null) {
+        chunk.singles.add(event);
+      } else {
+        chunk.series.add(this.toSeries(event, shift, zone, zones));
+      }
+    }
+
+    /**
+     * Maps the recurrence rule of this event onto a series starting with the given event.
+     *
+     * @param event the event as parsed, with its times in the calendar's time zone
+     * @param shift the number of days its start date moved by when converted to that zone
+     * @throws IllegalArgumentException if the rule cannot be expressed by the calendar, or
+     *                                  generates no occurrences
+     */
+    private Series toSeries(Event event, int shift, ZoneId zone, Map<String, ZoneId> zones) {
+      LocalDateTime startTime = event.getStartDateTime();
+      LocalDateTime endTime = event.getEndDateTime();
+      if (!startTime.toLocalDate().equals(endTime.toLocalDate())) {
+        throw new IllegalArgumentException("Recurring events must not span multiple days.");
+      }
+      Map<String, String> parts = new HashMap<>();
+      for (String part : this.rule.split(";")) {
+        int equals = part.indexOf('=');
+        if (equals > 0) {
+          parts.put(part.substring(0, equals), part.substring(equals + 1));
+        }
+      }
+      String frequency = parts.remove("FREQ");
+      String interval = parts.remove("INTERVAL");
+      String byDay = parts.remove("BYDAY");
+      String count = parts.remove("COUNT");
+      String until = parts.remove("UNTIL");
+      parts.remove("WKST");
+      if (!parts.isEmpty() || (interval != null && !interval.equals("1"))
+              || (count == null) == (until == null)
+              || !("WEEKLY".equals(frequency) || "DAILY".equals(frequency))) {
+        throw new IllegalArgumentException("Unsupported recurrence rule: " + this.rule);
+      }
+
+      StringBuilder weekdays = new StringBuilder();
+      if (byDay != null) {
+        for (String day : byDay.split(",")) {
+          DayOfWeek dayOfWeek = dayOfWeek(day).plus(shift);
+          weekdays.append(WEEKDAYS.charAt(dayOfWeek.getValue() - 1));
+        }
+      } else if ("DAILY".equals(frequency)) {
+        weekdays.append(WEEKDAYS);
+      } else {
+        weekdays.append(WEEKDAYS.charAt(startTime.getDayOfWeek().getValue() - 1));
+      }
+
+      int repeats = 0;
+      LocalDate untilDate = null;
+      if (count != null) {
+        repeats = Integer.parseInt(count);
+        if (repeats < 1) {
+          throw new IllegalArgumentException("A recurring event must occur at least once.");
+        }
+      } else {
+        //the calendar's until date is the first day on which the event no longer occurs
+        untilDate = (until.length() == 8 ? parseDate(until)
+                : new TimeValue(until, this.start.zoneId, false).toZone(zone, zones)
+                .toLocalDate()).plusDays(1);
+      }
+      RecurringEventRule rule = new RecurringEventRule(weekdays.toString(), repeats, untilDate,
+              startTime.toLocalTime(), endTime.toLocalTime(), event.getIsAllDayEvent());
+      LocalDate first = rule.firstOccurrenceDate(startTime.toLocalDate());
+      if (first == null) {
+        throw new IllegalArgumentException("The recurrence rule generates no occurrences.");
+      }
+      Event firstOccurrence = new Event.EventBuilder()
+              .subject(event.getSubject())
+              .startDateTime(first.atTime(startTime.toLocalTime()))
+              .endDateTime(first.atTime(endTime.toLocalTime()))
+              .description(event.getDescription())
+              .location(event.getLocation())
+              .status(event.getStatus())
+              .isAllDayEvent(event.getIsAllDayEvent())
+              .build();
+      return new Series(firstOccurrence, rule.getWeekdays(), repeats, untilDate);
+    }
+  }
+
+  private static TimeValue timeValue(String parameters, String value) {
+    String zoneId = null;
+    boolean isDate = false;
+    for (String parameter : parameters.split(";")) {
+      int equals = parameter.indexOf('=');
+      if (equals < 0) {
+        continue;
+      }
+      String name = parameter.substring(0, equals);
+      String parameterValue = parameter.substring(equals + 1).replace("\"", "");
+      if (name.equalsIgnoreCase("TZID")) {
+        zoneId = parameterValue;
+      } else if (name.equalsIgnoreCase("VALUE")) {
+        isDate = parameterValue.equalsIgnoreCase("DATE");
+      }
+    }
+    value = value.trim();
+    return new TimeValue(value, zoneId, isDate || value.length() == 8);
+  }
+
+  /**
+   * Parses a date of the form yyyyMMdd.
+   */
+  private static LocalDate parseDate(String value) {
+    if (value.length() != 8) {
+      throw new DateTimeException("Invalid date: " + value);
+    }
+    return LocalDate.of(digits(value, 0, 4), digits(value, 4, 6), digits(value, 6, 8));
+  }
+
+  /**
+   * Parses a date-time of the form yyyyMMdd'T'HHmmss, optionally followed by "Z".
+   */
+  private static LocalDateTime parseDateTime(String value) {
+    if (value.length() < 15 || value.length() > 16 || value.charAt(8) != 'T'
+            || (value.length() == 16 && value.charAt(15) != 'Z')) {
+      throw new DateTimeException("Invalid date-time: " + value);
+    }
+    return LocalDateTime.of(digits(value, 0, 4), digits(value, 4, 6), digits(value, 6, 8),
+            digits(value, 9, 11), digits(value, 11, 13), digits(value, 13, 15));
+  }
+
+  private static int digits(String value, int from, int to) {
+    int number = 0;
+    for (int i = from; i < to; i++) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw new DateTimeException("Invalid date-time: " + value);
+      }
+      number = number * 10 + digit;
+    }
+    return number;
+  }
+
+  /**
+   * Parses a duration such as "PT1H30M", "P2D" or "P1W".
+   */
+  private static Duration parseDuration(String value) {
+    Duration duration;
+    if (value.endsWith("W")) {
+      duration = Duration.ofDays(7L * Integer.parseInt(
+              value.substring(value.indexOf('P') + 1, value.length() - 1)));
+      if (value.startsWith("-")) {
+        duration = duration.negated();
+      }
+    } else {
+      duration = Duration.parse(value);
+    }
+    if (duration.isNegative()) {
+      throw new IllegalArgumentException("Negative duration: " + value);
+    }
+    return duration;
+  }
+
+  private static DayOfWeek dayOfWeek(String code) {
+    switch (code) {
+      case "MO":
+        return DayOfWeek.MONDAY;
+      case "TU":
+        return DayOfWeek.TUESDAY;
+      case "WE":
+        return DayOfWeek.WEDNESDAY;
+      case "TH":
+        return DayOfWeek.THURSDAY;
+      case "FR":
+        return DayOfWeek.FRIDAY;
+      case "SA":
+        return DayOfWeek.SATURDAY;
+      case "SU":
+        return DayOfWeek.SUNDAY;
+      default:
+        throw new IllegalArgumentException("Unsupported weekday: " + code);
+    }
+  }
+
+  /**
+   * Unescapes a TEXT value: "\n" and "\N" become line breaks, and "\,", "\;" and "\\" the
+   * characters they escape.
+   */
+  private static String unescape(String value) {
+    if (value.indexOf('\\') < 0) {
+      return value;
+    }
+    StringBuilder text = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char escaped = value.charAt(++i);
+        text.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+      } else {
+        text.append(c);
+      }
+    }
+    return text.toString();
+  }
+}
@@ -0,0 +1,107 @@
+package calendar.model.io;
+
+/**
+ * This class represents the outcome of importing an iCalendar file into a calendar: how many
+ * single events and recurring series were added, how many events of the file were skipped, and
+ * how long it took to parse the file and to add its events.
+ */
+public final class ImportReport {
+  private final int events;
+  private final int series;
+  private final int skipped;
+  private final long parseNanos;
+  private final long insertNanos;
+
+  /**
+   * Constructs an ImportReport.
+   *
+   * @param events      the number of single events added
+   * @param series      the number of recurring series added
+   * @param skipped     the number of events of the file that were not added
+   * @param parseNanos  the time taken to read and parse the file, in nanoseconds
+   * @param insertNanos the time taken to add the events to the calendar, in nanoseconds
+   */
+  ImportReport(int events, int series, int skipped, long parseNanos, long insertNanos) {
+    this.events = events;
+    this.series = series;
+    this.skipped = skipped;
+    this.parseNanos = parseNanos;
+    this.insertNanos = insertNanos;
+  }
+
+  /**
+   * Gets the number of single events added to the calendar.
+   *
+   * @return the number of single events added
+   */
+  public int getEvents() {
+    return this.events;
+  }
+
+  /**
+   * Gets the number of recurring series added to the calendar.
+   *
+   * @return the number of recurring series added
+   */
+  public int getSeries() {
+    return this.series;
+  }
+
+  /**
+   * Gets the number of events of the file that were not added, because they were invalid, used
+   * a recurrence the calendar cannot express, or clashed with an event already in the calendar.
+   *
+   * @return the number of events skipped
+   */
+  public int getSkipped() {
+    return this.skipped;
+  }
+
+  /**
+   * Gets the time taken to read and parse the file.
+   *
+   * @return the parsing time, in milliseconds
+   */
+  public double getParseMillis() {
+    return this.parseNanos / 1e6;
+  }
+
+  /**
+   * Gets the time taken to add the parsed events to the calendar.
+   *
+   * @return the insertion time, in milliseconds
+   */
+  public double getInsertMillis() {
+    return this.insertNanos / 1e6;
+  }
+
+  /**
+   * Gets the total time taken by the import.
+   *
+   * @return the time taken to parse the file and add its events, in milliseconds
+   */
+  public double getMillis() {
+    return (this.parseNanos + this.insertNanos) / 1e6;
+  }
+
+  /**
+   * Gets the rate at which events were imported, counting each recurring series once.
+   *
+   * @return the events and series added per second of the whole import, or 0 if none were
+   */
+  public double getEventsPerSecond() {
+    long imported = (long) this.events + this.series;
+    return imported == 0 ? 0 : imported * 1e9 / Math.max(1, this.parseNanos + this.insertNanos);
+  }
+
+  @Override
+  public String toString() {
+    String report = String.format("Imported %d events and %d recurring series in %.1f ms "
+                    + "(%.0f events/s)", this.events, this.series, this.getMillis(),
+            this.getEventsPerSecond());
+    if (this.skipped > 0) {
+      report += "; skipped " + this.skipped + " events that could not be imported";
+    }
+    return report;
+  }
+}
@@ -0,0 +1,233 @@
+package calendar.model.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+import calendar.model.calendarclass.CalendarSnapshot;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.calendarmanagerclass.CalendarManagerModel;
+
+/**
+ * This class represents the checkpoints of a journaled calendar manager, kept in a directory of
+ * their own: one snapshot file per calendar, and a manifest naming the files of the latest
+ * checkpoint, the calendar in use and the last journal segment whose changes they hold. On
+ * startup, the calendars are read from the checkpoint and only the journal records written after
+ * it are replayed.
+ *
+ * <p>Checkpoints are incremental. A calendar is only written again if it changed since the last
+ * checkpoint, as told by its dirty flag; the others keep the file they were last written to.
+ * Every checkpoint writes changed calendars to new files and then replaces the manifest, so a
+ * crash at any point leaves the previous checkpoint whole. The manifest ends with a CRC32C
+ * checksum of its bytes, and each calendar file is checked by {@link CalendarSnapshot#read}.</p>
+ */
+final class Checkpoint {
+  private static final int MAGIC = 0x43414c4d; //"CALM"
+  private static final int VERSION = 1;
+  private static final String MANIFEST = "manifest";
+  private static final String SUFFIX = ".snapshot";
+
+  private final Path directory;
+  private final Map<NewCalendarModel, String> files; //the file each calendar was last saved to
+  private String currentCalendar; //the calendar in use when the last checkpoint was taken
+  private long covered; //the last journal segment held by the checkpoint
+  private long nextFile; //the number of the next calendar file
+
+  /**
+   * Constructs a Checkpoint kept in the given directory, which is created by the first
+   * checkpoint taken.
+   *
+   * @param directory the directory of the checkpoint files
+   */
+  Checkpoint(Path directory) {
+    this.directory = directory;
+    this.files = new IdentityHashMap<>();
+  }
+
+  /**
+   * Reads the calendars of the latest checkpoint, if one was taken.
+   *
+   * @return a manager holding the calendars of the checkpoint, or an empty one if there is none
+   * @throws IOException if the checkpoint files cannot be read
+   */
+  CalendarManagerModel load() throws IOException {
+    Path manifest = this.directory.resolve(MANIFEST);
+    if (!Files.exists(manifest)) {
+      return new CalendarManagerModel();
+    }
+    byte[] bytes = Files.readAllBytes(manifest);
+    CRC32C checksum = new CRC32C();
+    checksum.update(bytes, 0, Math.max(0, bytes.length - Integer.BYTES));
+    if (bytes.length < Integer.BYTES || (int) checksum.getValue()
+            != ByteBuffer.wrap(bytes, bytes.length - Integer.BYTES, Integer.BYTES).getInt()) {
+      throw new IOException("The checkpoint manifest is damaged: " + manifest);
+    }
+    List<NewCalendarModel> calendars = new ArrayList<>();
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0,
+            bytes.length - Integer.BYTES))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("Not a checkpoint manifest: " + manifest);
+      }
+      this.covered = in.readLong();
+      this.nextFile = in.readLong();
+      this.currentCalendar = in.readBoolean() ? in.readUTF() : null;
+      int count = in.readInt();
+      for (int i = 0; i < count; i++) {
+        String file = in.readUTF();
+        NewCalendarModel calendar = CalendarSnapshot.read(this.directory.resolve(file))
+                .getCalendars().get(0);
+        calendars.add(calendar);
+        this.files.put(calendar, file);
+      }
+    }
+    return new CalendarManagerModel(new CalendarSnapshot(calendars, this.currentCalendar));
+  }
+
+  /**
+   * Gets the generation of the last journal segment whose changes the checkpoint holds.
+   *
+   * @return the last segment covered by the checkpoint, or 0 if no checkpoint was taken
+   */
+  long getCovered() {
+    return this.covered;
+  }
+
+  /**
+   * Takes a checkpoint of the given manager's calendars, then discards the journal segments it
+   * covers. Holding the manager's lock, the journal is sealed and the calendars that changed since
+   * the last checkpoint are encoded in memory; the lock is then released, so the manager can be
+   * used while the files are written and forced to disk. Does nothing if no calendar changed.
+   *
+   * @param manager the manager whose calendars are saved, which is also the lock of its changes
+   * @param journal the journal the manager records its changes in
+   * @throws IOException if the checkpoint could not be written, in which case the changed
+   *                     calendars stay marked as changed, and the journal still holds them
+   */
+  synchronized void take(CalendarManagerModel manager, Journal journal) throws IOException {
+    List<NewCalendarModel> calendars;
+    String current;
+    long generation;
+    Map<NewCalendarModel, byte[]> changed = new IdentityHashMap<>();
+    synchronized (manager) {
+      CalendarSnapshot state = manager.snapshot();
+      calendars = state.getCalendars();
+      current = state.getCurrentCalendar();
+      for (NewCalendarModel calendar : calendars) {
+        if (calendar.isDirty() || !this.files.containsKey(calendar)) {
+          changed.put(calendar, new CalendarSnapshot(List.of(calendar), null).encode());
+        }
+      }
+      if (changed.isEmpty() && Objects.equals(current, this.currentCalendar)
+              && calendars.size() == this.files.size()) {
+        return;
+      }
+      generation = journal.seal();
+      changed.keySet().forEach(calendar -> calendar.setDirty(false));
+    }
+
+    Map<NewCalendarModel, String> saved = new IdentityHashMap<>();
+    try {
+      Files.createDirectories(this.directory);
+      for (NewCalendarModel calendar : calendars) {
+        byte[] bytes = changed.get(calendar);
+        String file = this.files.get(calendar);
+        if (bytes != null) {
+          file = "calendar-" + this.nextFile++ + SUFFIX;
+          writeAtomically(this.directory.resolve(file), bytes);
+        }
+        saved.put(calendar, file);
+      }
+      this.writeManifest(generation, current, calendars, saved);
+    } catch (IOException e) {
+      synchronized (manager) {
+        changed.keySet().forEach(calendar -> calendar.setDirty(true));
+      }
+      throw e;
+    }
+    this.files.clear();
+    this.files.putAll(saved);
+    this.currentCalendar = current;
+    this.covered = generation;
+    this.deleteUnused();
+    journal.discardThrough(generation);
+  }
+
+  private void writeManifest(long generation, String current, List<NewCalendarModel> calendars,
+                             Map<NewCalendarModel, String> saved) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(generation);
+      out.writeLong(this.nextFile);
+      out.writeBoolean(current != null);
+      if (current != null) {
+        out.writeUTF(current);
+      }
+      out.writeInt(calendars.size());
+      for (NewCalendarModel calendar : calendars) {
+        out.writeUTF(saved.get(calendar));
+      }
+      CRC32C checksum = new CRC32C();
+      checksum.update(bytes.toByteArray());
+      out.writeInt((int) checksum.getValue());
+    }
+    writeAtomically(this.directory.resolve(MANIFEST), bytes.toByteArray());
+  }
+
+  /**
+   * Deletes the calendar files that the latest checkpoint no longer names.
+   *
+   * @throws IOException if the directory cannot be listed or a file cannot be deleted
+   */
+  private void deleteUnused() throws IOException {
+    Set<String> used = new HashSet<>(this.files.values());
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory,
+            "*" + SUFFIX)) {
+      for (Path entry : entries) {
+        if (!used.contains(entry.getFileName().toString())) {
+          Files.delete(entry);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the given bytes to a temporary file next to the given file, forces them to disk and
+   * moves the temporary file over the given one.
+   *
+   * @param file  the file to write
+   * @param bytes the bytes to write to it
+   * @throws IOException if the file cannot be written
+   */
+  private static void writeAtomically(Path file, byte[] bytes) throws IOException {
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+  }
+}
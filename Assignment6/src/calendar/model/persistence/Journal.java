@@ -0,0 +1,369 @@
+package calendar.model.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * This class represents an append-only journal file of records, each written as its length and
+ * its CRC32C checksum followed by its bytes. Appending a record only copies it into a buffer in
+ * memory; it becomes durable once a writer waits for it with {@link #awaitDurable}.
+ *
+ * <p>Waiting writers share their writes to disk through group commit. The first writer to wait
+ * becomes the leader: it takes every record buffered so far, writes them and forces them to disk
+ * with one {@link FileChannel#force} call, while the other writers wait for it and new records
+ * are buffered for the next leader. Under load, one force call therefore makes many records
+ * durable at once, instead of the file being forced once per record.</p>
+ *
+ * <p>So that the journal does not grow without bound, it can be {@linkplain #seal sealed}: the
+ * records written so far are kept in a segment file named after the journal file and a
+ * generation number, and new records go to a new, empty journal file. Once a checkpoint holds
+ * every change recorded in the sealed segments, they are {@linkplain #discardThrough discarded}.
+ * Opening a journal replays its sealed segments in order before the journal file itself.</p>
+ *
+ * <p>Journals are replayed through memory-mapped windows of the files, so a replay reads the
+ * files without copying them through a stream, only copying each record out for its consumer.
+ * A crash in the middle of a write leaves a torn tail at the end of the journal file: a record
+ * cut short, or one whose bytes do not match its checksum. Replay stops there and the tail is
+ * truncated.</p>
+ */
+class Journal implements Closeable {
+  private static final int INITIAL_BUFFER = 64 * 1024;
+  private static final int HEADER = 2 * Integer.BYTES; //the length and checksum of a record
+  private static final long WINDOW = 1L << 30; //the most of a file mapped at once
+
+  private final Path file;
+  private FileChannel channel;
+  private long generation; //generation of the last segment sealed, or covered by a checkpoint
+  private ByteBuffer pending; //records appended since the last leader took them
+  private ByteBuffer spare; //the buffer the next leader swaps in for the pending one
+  private long appended; //sequence number of the last record appended
+  private long durable; //sequence number of the last record forced to disk
+  private boolean syncing; //whether a leader is writing to disk
+  private IOException failure; //the error that stopped the journal, if any
+  private long replayed; //the records replayed when the journal was opened
+  private long truncated; //the bytes of torn tail cut off when the journal was opened
+
+  /**
+   * Opens the given journal file for appending, creating it if it does not exist. The records
+   * already in the file are passed to the given consumer first, and any partly written record at
+   * its end, left by a crash during a write, is cut off.
+   *
+   * @param file   the journal file
+   * @param replay the consumer receiving the bytes of each record already in the file
+   * @throws IOException if the file cannot be opened or read
+   */
+  Journal(Path file, Consumer<byte[]> replay) throws IOException {
+    this(file, 0, replay);
+  }
+
+  /**
+   * Opens the given journal file for appending, creating it if it does not exist. The records of
+   * its sealed segments after the given generation, then those of the file itself, are passed to
+   * the given consumer first. The segments up to the given generation are already covered by a
+   * checkpoint, so they are deleted without being read.
+   *
+   * @param file    the journal file
+   * @param covered the generation of the last segment covered by a checkpoint, or 0 if none is
+   * @param replay  the consumer receiving the bytes of each record not covered by the checkpoint
+   * @throws IOException if the files cannot be opened or read
+   */
+  Journal(Path file, long covered, Consumer<byte[]> replay) throws IOException {
+    this.file = file;
+    this.generation = covered;
+    for (long segment : segments(file)) {
+      if (segment <= covered) {
+        Files.delete(segmentFile(file, segment));
+        continue;
+      }
+      Path segmentFile = segmentFile(file, segment);
+      if (this.replay(segmentFile, replay) != Files.size(segmentFile)) {
+        //segments are forced to disk before they are sealed, so they have no torn tail
+        throw new IOException("The journal segment is damaged: " + segmentFile);
+      }
+      this.generation = segment;
+    }
+    long validLength = this.replay(file, replay);
+    this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    this.truncated = this.channel.size() - validLength;
+    this.channel.truncate(validLength);
+    this.channel.position(validLength);
+    this.pending = ByteBuffer.allocate(INITIAL_BUFFER);
+    this.spare = ByteBuffer.allocate(INITIAL_BUFFER);
+  }
+
+  /**
+   * Gets the number of records replayed when the journal was opened.
+   *
+   * @return the number of records replayed
+   */
+  long getReplayed() {
+    return this.replayed;
+  }
+
+  /**
+   * Gets the number of bytes of torn tail cut off the end of the journal file when it was opened.
+   *
+   * @return the number of bytes truncated, or 0 if the journal file ended with a whole record
+   */
+  long getTruncated() {
+    return this.truncated;
+  }
+
+  /**
+   * Finds the generations of the sealed segments of the given journal file.
+   *
+   * @param file the journal file
+   * @return the generations of its segments, in increasing order
+   * @throws IOException if the directory of the file cannot be listed
+   */
+  private static List<Long> segments(Path file) throws IOException {
+    Path directory = file.toAbsolutePath().getParent();
+    String prefix = file.getFileName() + ".";
+    List<Long> segments = new ArrayList<>();
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, prefix + "*")) {
+      for (Path entry : entries) {
+        String suffix = entry.getFileName().toString().substring(prefix.length());
+        if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+          segments.add(Long.parseLong(suffix));
+        }
+      }
+    }
+    Collections.sort(segments);
+    return segments;
+  }
+
+  private static Path segmentFile(Path file, long generation) {
+    return file.resolveSibling(file.getFileName() + "." + generation);
+  }
+
+  /**
+   * Passes every valid record of the given journal file to the given consumer, in the order they
+   * were appended, reading the file through memory-mapped windows. Reading stops at the first
+   * record that was cut short or whose checksum does not match its bytes.
+   *
+   * @param file     the journal file, which may not exist
+   * @param consumer the consumer receiving the bytes of each record
+   * @return the length of the file up to the end of the last valid record
+   * @throws IOException if the file cannot be read
+   */
+  private long replay(Path file, Consumer<byte[]> consumer) throws IOException {
+    if (!Files.exists(file)) {
+      return 0;
+    }
+    CRC32C checksum = new CRC32C();
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      long position = 0; //the start of the window, always at the start of a record
+      long windowSize = WINDOW;
+      while (true) {
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                Math.min(size - position, windowSize));
+        int offset = 0;
+        boolean crossed = false; //whether a record runs past the end of the window
+        while (window.limit() - offset >= HEADER) {
+          int length = window.getInt(offset);
+          if (length < 0 || length > size - position - offset - HEADER) {
+            return position + offset;
+          }
+          if (offset + HEADER + length > window.limit()) {
+            //the record runs past the window, so map the next window from its start
+            windowSize = Math.max(WINDOW, HEADER + (long) length);
+            crossed = true;
+            break;
+          }
+          byte[] record = new byte[length];
+          window.get(offset + HEADER, record);
+          checksum.reset();
+          checksum.update(record);
+          if ((int) checksum.getValue() != window.getInt(offset + Integer.BYTES)) {
+            return position + offset;
+          }
+          consumer.accept(record);
+          this.replayed++;
+          offset += HEADER + length;
+        }
+        position += offset;
+        if (!crossed) {
+          return position;
+        }
+      }
+    }
+  }
+
+  /**
+   * Appends the given record to the journal's buffer. The record is not durable until
+   * {@link #awaitDurable} returns for its sequence number.
+   *
+   * @param record the bytes of the record
+   * @return the sequence number of the record
+   * @throws IOException if an earlier write to the journal failed
+   */
+  long append(byte[] record) throws IOException {
+    CRC32C checksum = new CRC32C();
+    checksum.update(record);
+    synchronized (this) {
+      if (this.failure != null) {
+        throw new IOException("The journal can no longer be written to.", this.failure);
+      }
+      int needed = HEADER + record.length;
+      if (this.pending.remaining() < needed) {
+        ByteBuffer larger = ByteBuffer.allocate(Math.max(this.pending.capacity() * 2,
+                this.pending.position() + needed));
+        this.pending.flip();
+        larger.put(this.pending);
+        this.pending = larger;
+      }
+      this.pending.putInt(record.length).putInt((int) checksum.getValue()).put(record);
+      return ++this.appended;
+    }
+  }
+
+  /**
+   * Waits until the record with the given sequence number, and every record before it, has been
+   * forced to disk, writing them as the leader of a group commit if no other writer is.
+   *
+   * @param sequence the sequence number returned when the record was appended
+   * @throws IOException if the records could not be written
+   */
+  void awaitDurable(long sequence) throws IOException {
+    ByteBuffer batch;
+    long target;
+    synchronized (this) {
+      while (true) {
+        if (this.failure != null) {
+          throw new IOException("The journal can no longer be written to.", this.failure);
+        }
+        if (this.durable >= sequence) {
+          return;
+        }
+        if (!this.syncing) {
+          break;
+        }
+        try {
+          this.wait();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new InterruptedIOException("Interrupted while waiting for the journal.");
+        }
+      }
+      //lead a group commit of everything appended so far
+      this.syncing = true;
+      batch = this.pending;
+      this.pending = this.spare;
+      target = this.appended;
+    }
+    IOException error = null;
+    try {
+      batch.flip();
+      while (batch.hasRemaining()) {
+        this.channel.write(batch);
+      }
+      this.channel.force(false);
+    } catch (IOException e) {
+      error = e;
+    }
+    synchronized (this) {
+      batch.clear();
+      this.spare = batch;
+      this.syncing = false;
+      if (error == null) {
+        this.durable = target;
+      } else {
+        this.failure = error;
+      }
+      this.notifyAll();
+    }
+    if (error != null) {
+      throw error;
+    }
+  }
+
+  /**
+   * Forces every record appended so far to disk and moves them into a sealed segment, so that
+   * the records appended from now on go to a new journal file. No record may be appended while
+   * the journal is being sealed.
+   *
+   * @return the generation of the sealed segment, which holds every record appended so far
+   * @throws IOException if the records could not be written or the files could not be moved
+   */
+  synchronized long seal() throws IOException {
+    while (this.syncing) {
+      try {
+        this.wait();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the journal.");
+      }
+    }
+    if (this.failure != null) {
+      throw new IOException("The journal can no longer be written to.", this.failure);
+    }
+    try {
+      this.pending.flip();
+      while (this.pending.hasRemaining()) {
+        this.channel.write(this.pending);
+      }
+      this.pending.clear();
+      this.channel.force(false);
+      this.durable = this.appended;
+      this.channel.close();
+      Files.move(this.file, segmentFile(this.file, this.generation + 1),
+              StandardCopyOption.ATOMIC_MOVE);
+      this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE_NEW,
+              StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      this.failure = e;
+      throw e;
+    } finally {
+      this.notifyAll();
+    }
+    return ++this.generation;
+  }
+
+  /**
+   * Deletes the sealed segments up to the given generation, whose records are held by a
+   * checkpoint.
+   *
+   * @param covered the generation of the last segment covered by the checkpoint
+   * @throws IOException if a segment could not be deleted
+   */
+  void discardThrough(long covered) throws IOException {
+    for (long segment : segments(this.file)) {
+      if (segment <= covered) {
+        Files.deleteIfExists(segmentFile(this.file, segment));
+      }
+    }
+  }
+
+  /**
+   * Makes every appended record durable and closes the journal file.
+   *
+   * @throws IOException if the records could not be written or the file could not be closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      long last;
+      synchronized (this) {
+        last = this.appended;
+      }
+      this.awaitDurable(last);
+    } finally {
+      this.channel.close();
+    }
+  }
+}
@@ -0,0 +1,265 @@
+package calendar.model.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarmanagerclass.ICalendarManager;
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+/**
+ * This class represents one change to a set of calendars, as recorded in a journal: the operation
+ * that made it and the arguments it was called with, all kept as strings. Changes to a calendar
+ * also record the name the calendar had at the time. Replaying the entries of a journal in order
+ * on an empty calendar manager rebuilds the calendars they were recorded from.
+ */
+final class JournalEntry {
+
+  /**
+   * Represents the operations recorded in a journal. Each one has a fixed code, which is what is
+   * written to the journal, so operations may be added or reordered without breaking old
+   * journals.
+   */
+  enum Operation {
+    CREATE_CALENDAR(1), EDIT_CALENDAR(2), USE_CALENDAR(3), COPY_EVENT(4), COPY_EVENTS_ON_DATE(5),
+    COPY_EVENTS_BETWEEN_DATES(6), ADD_EVENT(10), ADD_EVENTS(11), CREATE_SINGLE_EVENT(12),
+    CREATE_RECURRING_EVENT_TIMES(13), CREATE_RECURRING_EVENT_UNTIL(14), CREATE_ALL_DAY_EVENT(15),
+    CREATE_RECURRING_ALL_DAY_EVENT_UNTIL(16), CREATE_RECURRING_ALL_DAY_EVENT_TIMES(17),
+    EDIT_SINGLE_EVENT(18), EDIT_MULTIPLE_EVENTS(19);
+
+    private final int code;
+
+    Operation(int code) {
+      this.code = code;
+    }
+
+    private static Operation ofCode(int code) {
+      for (Operation operation : values()) {
+        if (operation.code == code) {
+          return operation;
+        }
+      }
+      throw new IllegalArgumentException("Unknown journal operation: " + code);
+    }
+  }
+
+  private static final int FIELDS_PER_EVENT = 8;
+
+  private final Operation operation;
+  private final String calendar; //the calendar changed, or null for changes to the manager
+  private final List<String> arguments;
+
+  /**
+   * Constructs a JournalEntry.
+   *
+   * @param operation the operation that made the change
+   * @param calendar  the name of the calendar changed, or null if the change was made through
+   *                  the calendar manager
+   * @param arguments the arguments the operation was called with
+   */
+  JournalEntry(Operation operation, String calendar, String... arguments) {
+    this(operation, calendar, Arrays.asList(arguments));
+  }
+
+  private JournalEntry(Operation operation, String calendar, List<String> arguments) {
+    this.operation = operation;
+    this.calendar = calendar;
+    this.arguments = arguments;
+  }
+
+  /**
+   * Creates the entry for adding the given events to the given calendar.
+   *
+   * @param operation either {@link Operation#ADD_EVENT} or {@link Operation#ADD_EVENTS}
+   * @param calendar  the name of the calendar
+   * @param events    the events added, with their times in the calendar's time zone
+   * @return the entry
+   */
+  static JournalEntry ofEvents(Operation operation, String calendar, Iterable<Event> events) {
+    List<String> arguments = new ArrayList<>();
+    for (Event event : events) {
+      arguments.add(event.getSubject());
+      arguments.add(event.getStartDateTime().toString());
+      arguments.add(event.getEndDateTime().toString());
+      arguments.add(event.getDescription());
+      arguments.add(event.getLocation() == null ? null : event.getLocation().name());
+      arguments.add(event.getStatus().name());
+      arguments.add(event.getSeriesId());
+      arguments.add(String.valueOf(event.getIsAllDayEvent()));
+    }
+    return new JournalEntry(operation, calendar, arguments);
+  }
+
+  /**
+   * Encodes the entry as the bytes of a journal record.
+   *
+   * @return the encoded entry
+   */
+  byte[] encode() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeByte(this.operation.code);
+      writeString(out, this.calendar);
+      out.writeInt(this.arguments.size());
+      for (String argument : this.arguments) {
+        writeString(out, argument);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes an entry from the bytes of a journal record.
+   *
+   * @param record the bytes of the record
+   * @return the decoded entry
+   * @throws IllegalArgumentException if the record is not a valid entry
+   */
+  static JournalEntry decode(byte[] record) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+      Operation operation = Operation.ofCode(in.readUnsignedByte());
+      String calendar = readString(in);
+      int count = in.readInt();
+      List<String> arguments = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        arguments.add(readString(in));
+      }
+      return new JournalEntry(operation, calendar, arguments);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid journal record.", e);
+    }
+  }
+
+  /**
+   * Makes the recorded change again on the given calendar manager.
+   *
+   * @param manager the calendar manager the change is made on
+   */
+  void apply(ICalendarManager manager) {
+    List<String> a = this.arguments;
+    switch (this.operation) {
+      case CREATE_CALENDAR:
+        manager.createCalendar(a.get(0), a.get(1));
+        break;
+      case EDIT_CALENDAR:
+        manager.editCalendar(a.get(0), a.get(1), a.get(2));
+        break;
+      case USE_CALENDAR:
+        manager.setCurrentCalendar(a.get(0));
+        break;
+      case COPY_EVENT:
+        manager.copyEvent(a.get(0), a.get(1), a.get(2), a.get(3));
+        break;
+      case COPY_EVENTS_ON_DATE:
+        manager.copyEventsOnDate(a.get(0), a.get(1), a.get(2));
+        break;
+      case COPY_EVENTS_BETWEEN_DATES:
+        manager.copyEventsBetweenDates(a.get(0), a.get(1), a.get(2), a.get(3));
+        break;
+      default:
+        this.apply(manager.getTargetCalendar(this.calendar));
+    }
+  }
+
+  /**
+   * Makes the recorded change to a calendar again on the given calendar.
+   *
+   * @param calendar the calendar the change is made on
+   */
+  private void apply(ICalendar calendar) {
+    List<String> a = this.arguments;
+    switch (this.operation) {
+      case ADD_EVENT:
+        calendar.addEvent(this.events().get(0));
+        break;
+      case ADD_EVENTS:
+        calendar.addEvents(this.events());
+        break;
+      case CREATE_SINGLE_EVENT:
+        calendar.createSingleEvent(a.get(0), a.get(1), a.get(2));
+        break;
+      case CREATE_RECURRING_EVENT_TIMES:
+        calendar.createRecurringEvent(a.get(0), a.get(1), a.get(2), a.get(3),
+                Integer.parseInt(a.get(4)));
+        break;
+      case CREATE_RECURRING_EVENT_UNTIL:
+        calendar.createRecurringEvent(a.get(0), a.get(1), a.get(2), a.get(3), a.get(4));
+        break;
+      case CREATE_ALL_DAY_EVENT:
+        calendar.createAllDayEvent(a.get(0), a.get(1));
+        break;
+      case CREATE_RECURRING_ALL_DAY_EVENT_UNTIL:
+        calendar.createRecurringAllDayEvent(a.get(0), a.get(1), a.get(2), a.get(3));
+        break;
+      case CREATE_RECURRING_ALL_DAY_EVENT_TIMES:
+        calendar.createRecurringAllDayEvent(a.get(0), a.get(1), a.get(2),
+                Integer.parseInt(a.get(3)));
+        break;
+      case EDIT_SINGLE_EVENT:
+        calendar.editSingleEvent(a.get(0), a.get(1), a.get(2), a.get(3), a.get(4));
+        break;
+      case EDIT_MULTIPLE_EVENTS:
+        calendar.editMultipleEvents(a.get(0), a.get(1), a.get(2), a.get(3),
+                Boolean.parseBoolean(a.get(4)));
+        break;
+      default:
+        throw new IllegalArgumentException("Not a calendar operation: " + this.operation);
+    }
+  }
+
+  /**
+   * Rebuilds the events recorded by {@link #ofEvents}.
+   *
+   * @return the recorded events
+   */
+  private List<Event> events() {
+    List<Event> events = new ArrayList<>(this.arguments.size() / FIELDS_PER_EVENT);
+    for (int i = 0; i < this.arguments.size(); i += FIELDS_PER_EVENT) {
+      List<String> a = this.arguments.subList(i, i + FIELDS_PER_EVENT);
+      events.add(new Event.EventBuilder()
+              .subject(a.get(0))
+              .startDateTime(LocalDateTime.parse(a.get(1)))
+              .endDateTime(LocalDateTime.parse(a.get(2)))
+              .description(a.get(3))
+              .location(a.get(4) == null ? null : Location.valueOf(a.get(4)))
+              .status(EventStatus.valueOf(a.get(5)))
+              .seriesId(a.get(6))
+              .isAllDayEvent(Boolean.parseBoolean(a.get(7)))
+              .build());
+    }
+    return events;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,245 @@
+package calendar.model.persistence;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.calendarclass.CalendarState;
+import calendar.model.calendarclass.EventVisitor;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.event.Event;
+import calendar.model.persistence.JournalEntry.Operation;
+
+/**
+ * This class represents a view of a calendar handed out by a {@link JournaledCalendarManager},
+ * which records every change made through it in the manager's journal before returning. Reads
+ * are passed straight to the calendar, holding the manager's lock. Changes are recorded under
+ * the name the calendar has when they are made, so they are replayed on the right calendar even
+ * after it is renamed.
+ */
+class JournaledCalendar implements ICalendar {
+  private final JournaledCalendarManager manager;
+  private final NewCalendarModel calendar;
+
+  /**
+   * Constructs a JournaledCalendar.
+   *
+   * @param manager  the manager whose journal the changes are recorded in
+   * @param calendar the calendar being changed
+   */
+  JournaledCalendar(JournaledCalendarManager manager, NewCalendarModel calendar) {
+    this.manager = manager;
+    this.calendar = calendar;
+  }
+
+  @Override
+  public void addObserver(CalendarObserver observer) {
+    synchronized (this.manager.lock()) {
+      this.calendar.addObserver(observer);
+    }
+  }
+
+  @Override
+  public void removeObserver(CalendarObserver observer) {
+    synchronized (this.manager.lock()) {
+      this.calendar.removeObserver(observer);
+    }
+  }
+
+  @Override
+  public void notifyObservers() {
+    synchronized (this.manager.lock()) {
+      this.calendar.notifyObservers();
+    }
+  }
+
+  /**
+   * Runs the given operation as a single change to the calendar. Each change the operation makes
+   * through this view is still recorded in the journal on its own.
+   *
+   * @param operation the operation to be run
+   */
+  @Override
+  public void batch(Runnable operation) {
+    synchronized (this.manager.lock()) {
+      this.calendar.batch(operation);
+    }
+  }
+
+  @Override
+  public void addEvent(Event event) {
+    this.change(name -> JournalEntry.ofEvents(Operation.ADD_EVENT, name,
+            List.of(event)), () -> this.calendar.addEvent(event));
+  }
+
+  @Override
+  public void addEvents(Collection<Event> events) {
+    List<Event> copy = new ArrayList<>(events);
+    this.change(name -> JournalEntry.ofEvents(Operation.ADD_EVENTS, name, copy),
+        () -> this.calendar.addEvents(copy));
+  }
+
+  @Override
+  public Event getEvent(String subject, LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.getEvent(subject, startDateTime, endDateTime);
+    }
+  }
+
+  @Override
+  public List<Event> getEventsOnDate(LocalDate dateTime) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.getEventsOnDate(dateTime);
+    }
+  }
+
+  @Override
+  public List<Event> getEventsInRange(LocalDateTime startDateTime, LocalDateTime endDateTime) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.getEventsInRange(startDateTime, endDateTime);
+    }
+  }
+
+  /**
+   * Walks the events in the given range while holding the manager's lock, so the walk sees the
+   * calendar as it was when it started, and changes wait until it finishes.
+   */
+  @Override
+  public void forEachEvent(LocalDateTime startDateTime, LocalDateTime endDateTime,
+                           boolean expandSeries, EventVisitor visitor) {
+    synchronized (this.manager.lock()) {
+      this.calendar.forEachEvent(startDateTime, endDateTime, expandSeries, visitor);
+    }
+  }
+
+  @Override
+  public boolean isBusy(LocalDateTime time) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.isBusy(time);
+    }
+  }
+
+  @Override
+  public List<Event> getEventsBySeriesId(String seriesId) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.getEventsBySeriesId(seriesId);
+    }
+  }
+
+  @Override
+  public List<Event> findEventsBySubjectAndStart(String subject, LocalDateTime date) {
+    synchronized (this.manager.lock()) {
+      return this.calendar.findEventsBySubjectAndStart(subject, date);
+    }
+  }
+
+  @Override
+  public void createSingleEvent(String eventSubject, String startDateTime, String endDateTime) {
+    this.change(name -> new JournalEntry(Operation.CREATE_SINGLE_EVENT, name,
+            eventSubject, startDateTime, endDateTime),
+        () -> this.calendar.createSingleEvent(eventSubject, startDateTime, endDateTime));
+  }
+
+  @Override
+  public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
+                                   String weekdays, int repeats) {
+    this.change(name -> new JournalEntry(Operation.CREATE_RECURRING_EVENT_TIMES,
+            name, eventSubject, startDateTime, endDateTime, weekdays,
+            String.valueOf(repeats)),
+        () -> this.calendar.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+            weekdays, repeats));
+  }
+
+  @Override
+  public void createRecurringEvent(String eventSubject, String startDateTime, String endDateTime,
+                                   String weekdays, String untilDate) {
+    this.change(name -> new JournalEntry(Operation.CREATE_RECURRING_EVENT_UNTIL,
+            name, eventSubject, startDateTime, endDateTime, weekdays, untilDate),
+        () -> this.calendar.createRecurringEvent(eventSubject, startDateTime, endDateTime,
+            weekdays, untilDate));
+  }
+
+  @Override
+  public void createAllDayEvent(String eventSubject, String onDate) {
+    this.change(name -> new JournalEntry(Operation.CREATE_ALL_DAY_EVENT, name,
+            eventSubject, onDate), () -> this.calendar.createAllDayEvent(eventSubject, onDate));
+  }
+
+  @Override
+  public void createRecurringAllDayEvent(String eventSubject, String onDate, String weekdays,
+                                         String untilDate) {
+    this.change(name -> new JournalEntry(Operation.CREATE_RECURRING_ALL_DAY_EVENT_UNTIL,
+            name, eventSubject, onDate, weekdays, untilDate),
+        () -> this.calendar.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            untilDate));
+  }
+
+  @Override
+  public void createRecurringAllDayEvent(String eventSubject, String onDate, String weekdays,
+                                         int repeats) {
+    this.change(name -> new JournalEntry(Operation.CREATE_RECURRING_ALL_DAY_EVENT_TIMES,
+            name, eventSubject, onDate, weekdays, String.valueOf(repeats)),
+        () -> this.calendar.createRecurringAllDayEvent(eventSubject, onDate, weekdays,
+            repeats));
+  }
+
+  @Override
+  public void editSingleEvent(String property, String eventSubject, String startDateTime,
+                              String endDateTime, String newValue) {
+    this.change(name -> new JournalEntry(Operation.EDIT_SINGLE_EVENT, name,
+            property, eventSubject, startDateTime, endDateTime, newValue),
+        () -> this.calendar.editSingleEvent(property, eventSubject, startDateTime, endDateTime,
+            newValue));
+  }
+
+  @Override
+  public void editMultipleEvents(String property, String eventSubject, String startDateTime,
+                                 String newValue, boolean editSeries) {
+    this.change(name -> new JournalEntry(Operation.EDIT_MULTIPLE_EVENTS, name,
+            property, eventSubject, startDateTime, newValue, String.valueOf(editSeries)),
+        () -> this.calendar.editMultipleEvents(property, eventSubject, startDateTime, newValue,
+            editSeries));
+  }
+
+  @Override
+  public DateTimeFormatter getDateFormatter() {
+    return this.calendar.getDateFormatter();
+  }
+
+  @Override
+  public DateTimeFormatter getDateTimeFormatter() {
+    return this.calendar.getDateTimeFormatter();
+  }
+
+  @Override
+  public ZoneId getTimeZone() {
+    synchronized (this.manager.lock()) {
+      return this.calendar.getTimeZone();
+    }
+  }
+
+  @Override
+  public CalendarState snapshot() {
+    synchronized (this.manager.lock()) {
+      return this.calendar.snapshot();
+    }
+  }
+
+  /**
+   * Makes the given change through the manager, which records it in the journal under the name
+   * the calendar has when the change is made.
+   *
+   * @param entry  the function building the journal entry from the calendar's name
+   * @param change the change to be made
+   */
+  private void change(Function<String, JournalEntry> entry, Runnable change) {
+    this.manager.change(() -> entry.apply(this.calendar.getName()), change);
+  }
+}
@@ -0,0 +1,242 @@
+package calendar.model.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.calendarmanagerclass.CalendarManagerModel;
+import calendar.model.calendarmanagerclass.ICalendarManager;
+import calendar.model.persistence.JournalEntry.Operation;
+
+/**
+ * This class represents a calendar manager whose calendars survive restarts. Every change made
+ * through it, or through the calendars it hands out, is recorded in a journal file, and creating
+ * a manager on an existing journal replays its changes in order to rebuild the calendars.
+ *
+ * <p>Each change is made on the calendars and appended to the journal while holding the
+ * manager's lock, so the journal holds changes in the order they were made, and only changes
+ * that succeeded. The change's method then returns once the journal is forced to disk, outside
+ * the lock, so changes made by other threads in the meantime are forced to disk together with it
+ * by one group commit. Reads also hold the lock, so the manager may be shared between
+ * threads.</p>
+ *
+ * <p>So that the journal does not grow without bound and restarts stay fast, the manager can
+ * take {@linkplain Checkpoint checkpoints} of its calendars, in a directory next to the journal
+ * file, after which the journal records they hold are discarded. Checkpoints can be taken on a
+ * background thread at a fixed interval, so the threads making changes only wait for the
+ * calendars that changed to be encoded in memory, never for a checkpoint to reach the disk.</p>
+ */
+public class JournaledCalendarManager implements ICalendarManager, Closeable {
+  private final CalendarManagerModel manager;
+  private final Map<NewCalendarModel, JournaledCalendar> calendars;
+  private final Checkpoint checkpoint;
+  private final Journal journal;
+  private final ScheduledExecutorService checkpointer; //null if checkpoints are not scheduled
+  private final RecoveryReport recovery;
+
+  /**
+   * Constructs a JournaledCalendarManager recording its changes in the given journal file. The
+   * calendars of the last checkpoint are read first, if one was taken, and the changes recorded in
+   * the journal after it are replayed. Checkpoints are only taken when {@link #checkpoint} is
+   * called.
+   *
+   * @param file the journal file
+   * @throws IOException if the checkpoint or the journal file cannot be opened or read
+   * @throws IllegalStateException if a change recorded in the journal cannot be replayed
+   */
+  public JournaledCalendarManager(Path file) throws IOException {
+    this(file, null);
+  }
+
+  /**
+   * Constructs a JournaledCalendarManager recording its changes in the given journal file, which
+   * takes a checkpoint on a background thread at the given interval. The calendars of the last
+   * checkpoint are read first, if one was taken, and the changes recorded in the journal after it
+   * are replayed.
+   *
+   * @param file     the journal file
+   * @param interval the time between the end of one checkpoint and the start of the next, or null
+   *                 to only take checkpoints when {@link #checkpoint} is called
+   * @throws IOException if the checkpoint or the journal file cannot be opened or read
+   * @throws IllegalStateException if a change recorded in the journal cannot be replayed
+   */
+  public JournaledCalendarManager(Path file, Duration interval) throws IOException {
+    long begin = System.nanoTime();
+    this.checkpoint = new Checkpoint(file.resolveSibling(file.getFileName() + ".checkpoint"));
+    this.manager = this.checkpoint.load();
+    int restored = this.manager.snapshot().getCalendars().size();
+    long loaded = System.nanoTime();
+    this.calendars = new IdentityHashMap<>();
+    this.journal = new Journal(file, this.checkpoint.getCovered(), record -> {
+      JournalEntry entry = JournalEntry.decode(record);
+      try {
+        entry.apply(this.manager);
+      } catch (RuntimeException e) {
+        throw new IllegalStateException("The journal could not be replayed.", e);
+      }
+    });
+    this.recovery = new RecoveryReport(restored, loaded - begin, this.journal.getReplayed(),
+            System.nanoTime() - loaded, this.journal.getTruncated());
+    if (interval == null) {
+      this.checkpointer = null;
+      return;
+    }
+    this.checkpointer = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "calendar-checkpoint");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.checkpointer.scheduleWithFixedDelay(() -> {
+      try {
+        this.checkpoint();
+      } catch (IOException e) {
+        //the journal still holds every change, so the next checkpoint simply tries again
+      }
+    }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void createCalendar(String name, String zoneId) {
+    this.change(() -> new JournalEntry(Operation.CREATE_CALENDAR, null, name, zoneId),
+        () -> this.manager.createCalendar(name, zoneId));
+  }
+
+  @Override
+  public void editCalendar(String name, String property, String newValue) {
+    this.change(() -> new JournalEntry(Operation.EDIT_CALENDAR, null, name, property,
+            newValue), () -> this.manager.editCalendar(name, property, newValue));
+  }
+
+  @Override
+  public void setCurrentCalendar(String name) {
+    this.change(() -> new JournalEntry(Operation.USE_CALENDAR, null, name),
+        () -> this.manager.setCurrentCalendar(name));
+  }
+
+  @Override
+  public ICalendar getCurrentActiveCalendar() {
+    synchronized (this.manager) {
+      return this.journaled(this.manager.getCurrentActiveCalendar());
+    }
+  }
+
+  @Override
+  public ICalendar getTargetCalendar(String name) {
+    synchronized (this.manager) {
+      return this.journaled(this.manager.getTargetCalendar(name));
+    }
+  }
+
+  @Override
+  public void copyEvent(String eventName, String startDateTime, String calendarName,
+                        String newDateTime) {
+    this.change(() -> new JournalEntry(Operation.COPY_EVENT, null, eventName,
+            startDateTime, calendarName, newDateTime),
+        () -> this.manager.copyEvent(eventName, startDateTime, calendarName, newDateTime));
+  }
+
+  @Override
+  public void copyEventsOnDate(String date, String calendarName, String newDate) {
+    this.change(() -> new JournalEntry(Operation.COPY_EVENTS_ON_DATE, null, date,
+            calendarName, newDate),
+        () -> this.manager.copyEventsOnDate(date, calendarName, newDate));
+  }
+
+  @Override
+  public void copyEventsBetweenDates(String startDate, String endDate, String calendarName,
+                                     String newDate) {
+    this.change(() -> new JournalEntry(Operation.COPY_EVENTS_BETWEEN_DATES, null,
+            startDate, endDate, calendarName, newDate),
+        () -> this.manager.copyEventsBetweenDates(startDate, endDate, calendarName, newDate));
+  }
+
+  /**
+   * Stops the scheduled checkpoints, makes every recorded change durable and closes the journal
+   * file. The manager must not be changed afterwards.
+   *
+   * @throws IOException if the journal could not be written or closed
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.checkpointer != null) {
+      this.checkpointer.shutdown();
+      try {
+        //let a checkpoint that is being written finish before the journal is closed
+        this.checkpointer.awaitTermination(1, TimeUnit.MINUTES);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    this.journal.close();
+  }
+
+  /**
+   * Gets the report of how the calendars were rebuilt when the manager was created.
+   *
+   * @return the recovery report
+   */
+  public RecoveryReport getRecovery() {
+    return this.recovery;
+  }
+
+  /**
+   * Takes a checkpoint of the calendars that changed since the last one, and discards the journal
+   * records it holds. Changes may be made while the checkpoint is written.
+   *
+   * @throws IOException if the checkpoint could not be written; the journal then still holds
+   *                     every change
+   */
+  public void checkpoint() throws IOException {
+    this.checkpoint.take(this.manager, this.journal);
+  }
+
+  /**
+   * Makes the given change and records it in the journal, then waits until the journal is forced
+   * to disk. Nothing is recorded if the change fails.
+   *
+   * @param entry  the journal entry describing the change, built while holding the lock
+   * @param change the change to be made
+   * @throws IllegalStateException if the change could not be written to the journal
+   */
+  void change(Supplier<JournalEntry> entry, Runnable change) {
+    long sequence;
+    try {
+      synchronized (this.manager) {
+        byte[] record = entry.get().encode();
+        change.run();
+        sequence = this.journal.append(record);
+      }
+      this.journal.awaitDurable(sequence);
+    } catch (IOException e) {
+      throw new IllegalStateException("The change could not be saved to the journal.", e);
+    }
+  }
+
+  /**
+   * Returns the lock held while reading or changing the calendars.
+   *
+   * @return the lock of the manager
+   */
+  Object lock() {
+    return this.manager;
+  }
+
+  /**
+   * Returns the journaled view of the given calendar, creating it the first time.
+   *
+   * @param calendar the calendar
+   * @return the view of the calendar that records its changes in the journal
+   */
+  private ICalendar journaled(NewCalendarModel calendar) {
+    return this.calendars.computeIfAbsent(calendar, c -> new JournaledCalendar(this, c));
+  }
+}
@@ -0,0 +1,91 @@
+package calendar.model.persistence;
+
+/**
+ * This class represents what a journaled calendar manager did to rebuild its calendars at
+ * startup: how many calendars it read from the last checkpoint, how many journal records it
+ * replayed after it, how long each step took, and how many bytes of torn tail it cut off the
+ * journal.
+ */
+public final class RecoveryReport {
+  private final int calendars;
+  private final long checkpointNanos;
+  private final long records;
+  private final long replayNanos;
+  private final long truncatedBytes;
+
+  /**
+   * Constructs a RecoveryReport.
+   *
+   * @param calendars       the number of calendars read from the checkpoint
+   * @param checkpointNanos the time taken to read the checkpoint, in nanoseconds
+   * @param records         the number of journal records replayed
+   * @param replayNanos     the time taken to replay the journal, in nanoseconds
+   * @param truncatedBytes  the number of bytes of torn tail cut off the journal
+   */
+  RecoveryReport(int calendars, long checkpointNanos, long records, long replayNanos,
+                 long truncatedBytes) {
+    this.calendars = calendars;
+    this.checkpointNanos = checkpointNanos;
+    this.records = records;
+    this.replayNanos = replayNanos;
+    this.truncatedBytes = truncatedBytes;
+  }
+
+  /**
+   * Gets the number of calendars read from the checkpoint.
+   *
+   * @return the number of calendars, or 0 if there was no checkpoint
+   */
+  public int getCalendars() {
+    return this.calendars;
+  }
+
+  /**
+   * Gets the number of journal records replayed after the checkpoint.
+   *
+   * @return the number of records replayed
+   */
+  public long getRecords() {
+    return this.records;
+  }
+
+  /**
+   * Gets the number of bytes of torn tail, left by a crash in the middle of a write, that were
+   * cut off the end of the journal.
+   *
+   * @return the number of bytes truncated
+   */
+  public long getTruncatedBytes() {
+    return this.truncatedBytes;
+  }
+
+  /**
+   * Gets the total time taken to rebuild the calendars.
+   *
+   * @return the time taken to read the checkpoint and replay the journal, in milliseconds
+   */
+  public double getMillis() {
+    return (this.checkpointNanos + this.replayNanos) / 1e6;
+  }
+
+  /**
+   * Gets the rate at which journal records were replayed.
+   *
+   * @return the journal records replayed per second, or 0 if none were
+   */
+  public double getRecordsPerSecond() {
+    return this.records == 0 ? 0 : this.records * 1e9 / Math.max(1, this.replayNanos);
+  }
+
+  @Override
+  public String toString() {
+    String report = String.format("Recovered %d calendars from the checkpoint in %.1f ms and "
+                    + "replayed %d journal records in %.1f ms (%.0f records/s)", this.calendars,
+            this.checkpointNanos / 1e6, this.records, this.replayNanos / 1e6,
+            this.getRecordsPerSecond());
+    if (this.truncatedBytes > 0) {
+      report += "; cut off a torn tail of " + this.truncatedBytes + " bytes";
+    }
+    return report;
+  }
+}
@@ -263,6 +263,9 @@ public class CalendarManagerControllerTest extends AbstractControllerTest {
                     + "print events on <dateString>\n"
                     + "print events from <dateStringTtimeString> to <dateStringTtimeString>\n"
                     + "show status on <dateStringTtimeString>\n"
+                    + "import ics <file>\n"
+                    + "export cal <file> [--from <dateStringTtimeString>] "
+                    + "[--to <dateStringTtimeString>] [--format ics|csv]\n"
                     + "create calendar --name <calName> --timezone area/location\n"
                     + "edit calendar --name <name> --property <property> <value>\n"
                     + "use calendar --name <name>\n"
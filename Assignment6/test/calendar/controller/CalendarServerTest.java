@@ -0,0 +1,235 @@
+package calendar.controller;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import calendar.model.calendarmanagerclass.ConcurrentCalendarManager;
+import calendar.model.calendarmanagerclass.ICalendarManager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the CalendarServer class: that each connection is served as a
+ * session of interactive mode, that sessions share calendars but not the calendar in use, that
+ * many sessions can run at once, and that closing the server ends the sessions still running.
+ */
+public class CalendarServerTest {
+  private ConcurrentCalendarManager manager;
+  private CalendarServer server;
+  private Thread acceptor;
+
+  /**
+   * Starts a server on a free port of the local machine.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.manager = new ConcurrentCalendarManager();
+    this.server = new CalendarServer(this.manager, 0);
+    this.acceptor = new Thread(this.server);
+    this.acceptor.start();
+  }
+
+  /**
+   * Closes the server and waits for it to stop accepting connections.
+   */
+  @After
+  public void tearDown() throws IOException, InterruptedException {
+    this.server.close();
+    this.acceptor.join(10_000);
+    assertFalse(this.acceptor.isAlive());
+  }
+
+  @Test
+  public void testNullManager() throws IOException {
+    try {
+      new CalendarServer(null, 0);
+      fail("A server should not be made without a manager.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The manager cannot be null.", e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that a session is answered as interactive mode would answer it, and that a later
+   * session sees its calendars, but has no calendar in use until it chooses one.
+   */
+  @Test
+  public void testSessionsShareCalendarsButNotTheCalendarInUse() throws IOException {
+    String first = this.session("create calendar --name shared --timezone America/New_York\n"
+            + "use calendar --name shared\n"
+            + "create event standup from 2025-06-02T09:00 to 2025-06-02T09:15\n"
+            + "quit\n");
+    assertTrue(first.startsWith("Welcome to the Calendar Program!"));
+    assertTrue(first.contains("Created calendar 'shared' with timezone 'America/New_York'."));
+    assertTrue(first.endsWith("Thank you for using the Calendar Program. Goodbye!\n"));
+
+    String second = this.session("print events on 2025-06-02\n"
+            + "use calendar --name shared\n"
+            + "print events on 2025-06-02\n"
+            + "quit\n");
+    int noCalendar = second.indexOf("No active calendar is currently selected.");
+    int standup = second.indexOf("standup");
+    assertTrue(noCalendar > 0);
+    assertTrue(standup > noCalendar);
+  }
+
+  /**
+   * Tests that sessions cannot import or export calendars, which would read and write the files
+   * of the machine running the server.
+   */
+  @Test
+  public void testSessionsCannotReachFiles() throws IOException {
+    Path file = Files.createTempFile("server", ".csv");
+    Files.delete(file);
+    String reply = this.session("create calendar --name files --timezone UTC\n"
+            + "use calendar --name files\n"
+            + "create event standup from 2025-06-02T09:00 to 2025-06-02T09:15\n"
+            + "export cal " + file + "\n"
+            + "import ics " + file + "\n"
+            + "quit\n");
+    assertTrue(reply.contains("The export command is not available in server mode."));
+    assertTrue(reply.contains("The import command is not available in server mode."));
+    assertFalse(Files.exists(file));
+  }
+
+  /**
+   * Tests that sessions running at once, each adding events to a calendar of its own, lose none
+   * of them.
+   */
+  @Test
+  public void testConcurrentSessions() throws InterruptedException {
+    int sessions = 8;
+    int events = 20;
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> clients = new ArrayList<>();
+    for (int s = 0; s < sessions; s++) {
+      StringBuilder script = new StringBuilder();
+      script.append("create calendar --name user").append(s).append(" --timezone UTC\n");
+      script.append("use calendar --name user").append(s).append('\n');
+      for (int i = 0; i < events; i++) {
+        script.append(String.format("create event e%d from 2025-06-02T%02d:00 to "
+                + "2025-06-02T%02d:30\n", i, i, i));
+      }
+      script.append("quit\n");
+      clients.add(new Thread(() -> {
+        try {
+          this.session(script.toString());
+        } catch (Throwable e) {
+          failure.set(e);
+        }
+      }));
+    }
+    for (Thread client : clients) {
+      client.start();
+    }
+    for (Thread client : clients) {
+      client.join(30_000);
+      assertFalse(client.isAlive());
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    ICalendarManager check = this.manager.openSession();
+    for (int s = 0; s < sessions; s++) {
+      assertEquals(events, check.getTargetCalendar("user" + s)
+              .getEventsOnDate(LocalDate.of(2025, 6, 2)).size());
+    }
+  }
+
+  /**
+   * Tests that closing the server closes the connections of sessions that never quit.
+   */
+  @Test
+  public void testCloseEndsOpenSessions() throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.server.getPort())) {
+      socket.setSoTimeout(10_000);
+      InputStream in = socket.getInputStream();
+      //wait for the greeting, so the session is running before the server is closed
+      while (in.read() != '\n') {
+        continue;
+      }
+      this.server.close();
+      in.readAllBytes();
+    }
+  }
+
+  /**
+   * Tests that closing the server while clients keep connecting leaves none of their connections
+   * open, including those accepted just before the server closed.
+   */
+  @Test
+  public void testCloseWhileConnecting() throws InterruptedException {
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    AtomicBoolean closed = new AtomicBoolean();
+    List<Thread> clients = new ArrayList<>();
+    for (int c = 0; c < 4; c++) {
+      clients.add(new Thread(() -> {
+        while (!closed.get()) {
+          try (Socket socket = new Socket(InetAddress.getLoopbackAddress(),
+                  this.server.getPort())) {
+            //a connection left open would not be closed until this times out
+            socket.setSoTimeout(10_000);
+            socket.getInputStream().readAllBytes();
+          } catch (SocketTimeoutException e) {
+            failure.set(e);
+          } catch (IOException e) {
+            //refused or reset once the server is closed
+          }
+        }
+      }));
+    }
+    for (Thread client : clients) {
+      client.start();
+    }
+    Thread.sleep(200);
+    try {
+      this.server.close();
+    } catch (IOException e) {
+      failure.set(e);
+    }
+    closed.set(true);
+    for (Thread client : clients) {
+      client.join(30_000);
+      assertFalse(client.isAlive());
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+  }
+
+  /**
+   * Sends a script of commands over a new connection, and returns everything the server sent
+   * back before closing it.
+   */
+  private String session(String script) throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), this.server.getPort())) {
+      socket.setSoTimeout(30_000);
+      OutputStream out = socket.getOutputStream();
+      out.write(script.getBytes(StandardCharsets.UTF_8));
+      out.flush();
+      ByteArrayOutputStream reply = new ByteArrayOutputStream();
+      socket.getInputStream().transferTo(reply);
+      return reply.toString(StandardCharsets.UTF_8);
+    }
+  }
+}
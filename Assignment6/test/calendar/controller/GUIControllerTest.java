@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import calendar.controller.guicontroller.GUIController;
+import calendar.model.calendarclass.CalendarChange;
 import calendar.model.calendarmanagerclass.CalendarManagerMockModel;
 import calendar.model.calendarmanagerclass.ICalendarManager;
 import calendar.model.event.Event;
@@ -76,6 +77,25 @@ public class GUIControllerTest {
             "Current calendar queried", this.managerLog.toString());
   }
 
+  /**
+   * Tests that the eventsChanged() method refreshes the schedule when a change affects the day
+   * being displayed, and leaves it alone otherwise.
+   */
+  @Test
+  public void testEventsChanged() {
+    LocalDate today = LocalDate.now();
+    controller.eventsChanged(new CalendarChange.CalendarChangeBuilder()
+            .added(new Event("Later", today.plusDays(3).atTime(9, 0),
+                    today.plusDays(3).atTime(10, 0))).build());
+    assertEquals("Start date queried\n", this.viewLog.toString());
+    controller.eventsChanged(new CalendarChange.CalendarChangeBuilder()
+            .added(new Event("Today", today.atTime(9, 0), today.atTime(10, 0))).build());
+    assertEquals("Start date queried\n" +
+            "Start date queried\n" +
+            "Start date queried\n" +
+            "Printing events\n", this.viewLog.toString());
+  }
+
   /**
    * Tests that the handleAddEvent() method properly manages the view and model when the user has
    * attempted to add an event through the GUI.
@@ -0,0 +1,94 @@
+package calendar.controller.commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import calendar.model.calendarclass.MockModel;
+import calendar.view.ICalendarView;
+import calendar.view.TextBasedView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the ExportCommand functionality in a calendar application.
+ * It checks that the model is walked over the range asked for, with series expanded only for CSV
+ * files, and that invalid commands and unwritable files are reported.
+ */
+public class ExportCommandTest {
+  private MockModel model;
+  private ICalendarView view;
+  private StringWriter log;
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    StringBuilder modelLog = new StringBuilder();
+    this.model = new MockModel(modelLog);
+    this.log = new StringWriter();
+    this.view = new TextBasedView(this.log);
+    this.dir = Files.createTempDirectory("calendar");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.dir.resolve("events.ics"));
+    Files.deleteIfExists(this.dir.resolve("events.csv"));
+    Files.deleteIfExists(this.dir);
+  }
+
+  @Test
+  public void testExportIcsInRange() throws IOException {
+    Path file = this.dir.resolve("events.ics");
+    new ExportCommand("cal \"" + file + "\" --from 2025-06-01T00:00 --to 2025-06-30T00:00")
+            .execute(this.model, this.view);
+    assertEquals("Events Walked from Start: 2025-06-01T00:00, to End: 2025-06-30T00:00, "
+            + "Series Expanded: false\n", this.model.log.toString());
+    assertTrue(this.log.toString().startsWith("Exported 0 events and 0 recurring series to "
+            + file + " in "));
+    assertTrue(Files.readString(file).startsWith("BEGIN:VCALENDAR\r\n"));
+  }
+
+  @Test
+  public void testFormatFollowsExtension() throws IOException {
+    Path csv = this.dir.resolve("events.csv");
+    new ExportCommand("cal " + csv + " --from 2025-06-01T00:00").execute(this.model, this.view);
+    assertTrue(this.model.log.toString().endsWith("Series Expanded: true\n"));
+    assertTrue(Files.readString(csv).startsWith("Subject,Start Date"));
+
+    Path ics = this.dir.resolve("events.ics");
+    new ExportCommand("cal " + ics + " --to 2025-06-30T00:00 --format csv")
+            .execute(this.model, this.view);
+    assertTrue(this.model.log.toString().endsWith("Series Expanded: true\n"));
+    assertTrue(Files.readString(ics).startsWith("Subject,Start Date"));
+  }
+
+  @Test
+  public void testUnwritableFile() {
+    Path file = this.dir.resolve("missing").resolve("events.ics");
+    new ExportCommand("cal " + file).execute(this.model, this.view);
+    assertTrue(this.log.toString().startsWith("An error was encountered:\nCould not write "
+            + file));
+  }
+
+  @Test
+  public void testInvalidCommand() {
+    String usage = "Invalid command format. Please use 'export cal <file> "
+            + "[--from <dateStringTtimeString>] [--to <dateStringTtimeString>] "
+            + "[--format ics|csv]'.\n";
+    new ExportCommand("ics events.ics").execute(this.model, this.view);
+    new ExportCommand("cal events.ics --format pdf").execute(this.model, this.view);
+    new ExportCommand("cal events.ics --from June").execute(this.model, this.view);
+    new ExportCommand("cal events.ics --from 2025-06-30T00:00 --to 2025-06-01T00:00")
+            .execute(this.model, this.view);
+    assertEquals(usage + usage + "Invalid date-time format. Please use 'yyyy-MM-dd'T'HH:mm'.\n"
+            + "Start date-time cannot be after end date-time.\n", this.log.toString());
+    assertEquals("", this.model.log.toString());
+  }
+}
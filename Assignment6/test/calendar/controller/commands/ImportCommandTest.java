@@ -0,0 +1,84 @@
+package calendar.controller.commands;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import calendar.model.calendarclass.MockModel;
+import calendar.model.io.IcsImporter;
+import calendar.view.ICalendarView;
+import calendar.view.TextBasedView;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This class tests the ImportCommand functionality in a calendar application.
+ * It checks that the events of an iCalendar file are added to the model at once, and that invalid
+ * commands and unreadable files are reported.
+ */
+public class ImportCommandTest {
+  private MockModel model;
+  private ICalendarView view;
+  private StringWriter log;
+  private Path file;
+
+  @Before
+  public void setUp() throws IOException {
+    StringBuilder modelLog = new StringBuilder();
+    this.model = new MockModel(modelLog);
+    this.log = new StringWriter();
+    this.view = new TextBasedView(this.log);
+    this.file = Files.createTempFile("calendar", ".ics");
+    Files.writeString(this.file, "BEGIN:VCALENDAR\r\n"
+            + "BEGIN:VEVENT\r\nSUMMARY:standup\r\nDTSTART:20231001T090000Z\r\n"
+            + "DTEND:20231001T091500Z\r\nEND:VEVENT\r\n"
+            + "BEGIN:VEVENT\r\nSUMMARY:review\r\nDTSTART:20231002T140000Z\r\n"
+            + "DURATION:PT1H\r\nEND:VEVENT\r\n"
+            + "BEGIN:VEVENT\r\nDTSTART:20231003T140000Z\r\nEND:VEVENT\r\n"
+            + "END:VCALENDAR\r\n");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  @Test
+  public void testImportIcs() {
+    ImportCommand cmd = new ImportCommand("ics \"" + this.file + "\"", new IcsImporter(2));
+    cmd.execute(this.model, this.view);
+    assertEquals("Batch started.\n"
+            + "Events added: 2\n"
+            + "Event added: standup - Starts: 2023-10-01T09:00, Ends: 2023-10-01T09:15\n"
+            + "Event added: review - Starts: 2023-10-02T14:00, Ends: 2023-10-02T15:00\n",
+            this.model.log.toString());
+    String output = this.log.toString();
+    assertTrue(output.startsWith("Imported 2 events and 0 recurring series from "
+            + this.file + " in "));
+    assertTrue(output.contains("Skipped 1 events that could not be imported."));
+  }
+
+  @Test
+  public void testMissingFile() throws IOException {
+    Files.delete(this.file);
+    ImportCommand cmd = new ImportCommand("ics " + this.file);
+    cmd.execute(this.model, this.view);
+    assertTrue(this.log.toString().startsWith("An error was encountered:\nCould not read "
+            + this.file));
+    assertEquals("", this.model.log.toString());
+  }
+
+  @Test
+  public void testInvalidCommand() {
+    new ImportCommand("csv " + this.file).execute(this.model, this.view);
+    new ImportCommand("").execute(this.model, this.view);
+    assertEquals("Invalid command format. Please use 'import ics <file>'.\n"
+            + "Invalid command format. Please use 'import ics <file>'.\n", this.log.toString());
+  }
+}
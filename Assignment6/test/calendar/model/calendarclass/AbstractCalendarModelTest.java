@@ -6,9 +6,12 @@ import org.junit.Test;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
+import calendar.controller.guicontroller.CalendarObserver;
 import calendar.model.enumclass.EventStatus;
 import calendar.model.enumclass.Location;
 import calendar.model.event.Event;
@@ -188,6 +191,25 @@ public abstract class AbstractCalendarModelTest {
     assertEquals(e1, events.get(0));
   }
 
+  /**
+   * Tests that the findEventsBySubjectAndStart() method reflects edits to an event's subject and
+   * start time, no longer finding the event under its old values.
+   */
+  @Test
+  public void testFindEventsBySubjectAndStartAfterEdit() {
+    cm2.editSingleEvent("subject", "Party", "2025-10-27T10:30", "2025-10-27T15:30", "Gala");
+    assertTrue(cm2.findEventsBySubjectAndStart("Party",
+            LocalDateTime.parse("2025-10-27T10:30", dateTimeFormatter)).isEmpty());
+    assertEquals(1, cm2.findEventsBySubjectAndStart("Gala",
+            LocalDateTime.parse("2025-10-27T10:30", dateTimeFormatter)).size());
+    cm2.editSingleEvent("start", "Gala", "2025-10-27T10:30", "2025-10-27T15:30",
+            "2025-10-27T11:00");
+    assertTrue(cm2.findEventsBySubjectAndStart("Gala",
+            LocalDateTime.parse("2025-10-27T10:30", dateTimeFormatter)).isEmpty());
+    assertEquals(1, cm2.findEventsBySubjectAndStart("Gala",
+            LocalDateTime.parse("2025-10-27T11:00", dateTimeFormatter)).size());
+  }
+
   /**
    * Tests that the createEvent() method correctly creates an Event object with the given
    * properties, and properly adds it to the model.
@@ -672,4 +694,310 @@ public abstract class AbstractCalendarModelTest {
               "Please ensure the value is correct.", e.getMessage());
     }
   }
+
+  /**
+   * Represents an observer that counts how many times it has been notified, and keeps the last
+   * change it was sent.
+   */
+  static class CountingObserver implements CalendarObserver {
+    int notifications;
+    CalendarChange lastChange;
+
+    @Override
+    public void eventsUpdated(List<Event> events) {
+      this.notifications++;
+    }
+
+    @Override
+    public void eventsChanged(CalendarChange change) {
+      this.notifications++;
+      this.lastChange = change;
+    }
+  }
+
+  /**
+   * Tests that observers are sent only the events affected by a change, along with the window of
+   * time it affected.
+   */
+  @Test
+  public void testObserversReceiveChanges() {
+    CountingObserver observer = new CountingObserver();
+    cm2.addObserver(observer);
+    cm2.createSingleEvent("Lunch", "2025-06-06T12:00", "2025-06-06T13:00");
+    assertEquals(1, observer.lastChange.getAdded().size());
+    assertEquals("Lunch", observer.lastChange.getAdded().get(0).getSubject());
+    assertTrue(observer.lastChange.getChanged().isEmpty());
+    assertTrue(observer.lastChange.overlaps(LocalDate.of(2025, 6, 6).atStartOfDay(),
+            LocalDate.of(2025, 6, 6).atTime(23, 59)));
+    assertFalse(observer.lastChange.overlaps(LocalDate.of(2025, 6, 7).atStartOfDay(),
+            LocalDate.of(2025, 6, 7).atTime(23, 59)));
+
+    cm2.editSingleEvent("start", "Lunch", "2025-06-06T12:00", "2025-06-06T13:00",
+            "2025-06-06T11:30");
+    assertTrue(observer.lastChange.getAdded().isEmpty());
+    assertEquals(1, observer.lastChange.getChanged().size());
+    assertEquals(LocalDateTime.of(2025, 6, 6, 11, 30),
+            observer.lastChange.getChanged().get(0).getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 6, 6, 11, 30), observer.lastChange.getWindowStart());
+    assertEquals(LocalDateTime.of(2025, 6, 6, 13, 0), observer.lastChange.getWindowEnd());
+
+    cm2.editMultipleEvents("location", "Work", "2025-06-05T08:00", "online", true);
+    //recurring series are edited through their rules, so only the window is reported
+    assertTrue(observer.lastChange.getChanged().isEmpty());
+    assertEquals(LocalDateTime.of(2025, 6, 5, 8, 0), observer.lastChange.getWindowStart());
+  }
+
+  /**
+   * Tests that creating a recurring event notifies observers only once, no matter how many
+   * occurrences are created.
+   */
+  @Test
+  public void testCreateRecurringNotifiesOnce() {
+    CountingObserver observer = new CountingObserver();
+    calendarModel.addObserver(observer);
+    observer.notifications = 0;
+    calendarModel.createRecurringEvent("Standup", "2025-06-02T09:00", "2025-06-02T09:15",
+            "MTWRF", 200);
+    assertEquals(1, observer.notifications);
+    calendarModel.editMultipleEvents("subject", "Standup", "2025-06-02T09:00", "Sync", true);
+    assertEquals(2, observer.notifications);
+    calendarModel.editMultipleEvents("start", "Sync", "2025-06-02T09:00", "2025-06-02T09:05",
+            true);
+    assertEquals(3, observer.notifications);
+  }
+
+  /**
+   * Tests that batches defer notifications until the outermost batch finishes, and that a batch
+   * without changes does not notify observers.
+   */
+  @Test
+  public void testBatchCoalescesNotifications() {
+    CountingObserver observer = new CountingObserver();
+    calendarModel.addObserver(observer);
+    observer.notifications = 0;
+    calendarModel.batch(() -> {
+      calendarModel.createSingleEvent("One", "2025-06-02T09:00", "2025-06-02T10:00");
+      calendarModel.batch(() ->
+              calendarModel.createAllDayEvent("Two", "2025-06-03"));
+      assertEquals(0, observer.notifications);
+      calendarModel.editSingleEvent("description", "One", "2025-06-02T09:00",
+              "2025-06-02T10:00", "first");
+    });
+    assertEquals(1, observer.notifications);
+    calendarModel.batch(() -> calendarModel.getEventsOnDate(LocalDate.of(2025, 6, 2)));
+    assertEquals(1, observer.notifications);
+  }
+
+  /**
+   * Tests that observers are still notified of the changes made by a batch that fails partway.
+   */
+  @Test
+  public void testBatchNotifiesAfterFailure() {
+    CountingObserver observer = new CountingObserver();
+    calendarModel.addObserver(observer);
+    observer.notifications = 0;
+    try {
+      calendarModel.batch(() -> {
+        calendarModel.createSingleEvent("One", "2025-06-02T09:00", "2025-06-02T10:00");
+        calendarModel.createSingleEvent("One", "2025-06-02T09:00", "2025-06-02T10:00");
+      });
+      fail("Expected duplicate event to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals(1, observer.notifications);
+    }
+  }
+
+  /**
+   * Tests that adding events in bulk stores every event in all of the calendar's indexes and
+   * notifies observers once.
+   */
+  @Test
+  public void testAddEvents() {
+    CountingObserver observer = new CountingObserver();
+    calendarModel.addObserver(observer);
+    observer.notifications = 0;
+    LocalDateTime day = LocalDateTime.of(2025, 7, 1, 9, 0);
+    List<Event> batch = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      batch.add(new Event.EventBuilder().subject("Bulk " + i)
+              .startDateTime(day.plusHours(2L * i)).endDateTime(day.plusHours(2L * i + 1))
+              .seriesId("bulk").build());
+    }
+    calendarModel.addEvents(batch);
+    assertEquals(1, observer.notifications);
+    assertEquals(100, observer.lastChange.getAdded().size());
+    assertEquals(100, calendarModel.getEventsBySeriesId("bulk").size());
+    assertEquals(batch.subList(0, 12), calendarModel.getEventsInRange(day, day.plusDays(1)));
+    assertTrue(calendarModel.isBusy(day.plusHours(10)));
+    assertFalse(calendarModel.isBusy(day.plusHours(11).plusMinutes(30)));
+    assertEquals(List.of(batch.get(7)),
+            calendarModel.findEventsBySubjectAndStart("Bulk 7", day.plusHours(14)));
+  }
+
+  /**
+   * Tests that adding events in bulk leaves the calendar unchanged if any event clashes with an
+   * existing event or with another event in the same call.
+   */
+  @Test
+  public void testAddEventsAllOrNothing() {
+    LocalDateTime day = LocalDateTime.of(2025, 7, 1, 9, 0);
+    calendarModel.addEvent(new Event("Existing", day, day.plusHours(1)));
+    Event fresh = new Event("Fresh", day.plusDays(1), day.plusDays(1).plusHours(1));
+    try {
+      calendarModel.addEvents(List.of(fresh, new Event("Existing", day, day.plusHours(1))));
+      fail("Expected duplicate event to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertNull(calendarModel.getEvent("Fresh", fresh.getStartDateTime(),
+              fresh.getEndDateTime()));
+    }
+    try {
+      calendarModel.addEvents(List.of(fresh, new Event("Fresh", fresh.getStartDateTime(),
+              fresh.getEndDateTime())));
+      fail("Expected duplicate event to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertFalse(calendarModel.isBusy(fresh.getStartDateTime()));
+    }
+    calendarModel.addEvents(List.of(fresh));
+    assertEquals(2, calendarModel.getEventsInRange(day, day.plusDays(2)).size());
+  }
+
+  /**
+   * Tests that a long recurring series is answered through range queries, isBusy and lookups
+   * by subject and time, without listing the whole series.
+   */
+  @Test
+  public void testLongRecurringSeries() {
+    calendarModel.createRecurringEvent("Standup", "2030-01-07T09:00", "2030-01-07T09:15",
+            "MTWRF", 5000);
+    List<Event> week = calendarModel.getEventsInRange(LocalDateTime.of(2035, 3, 5, 0, 0),
+            LocalDateTime.of(2035, 3, 12, 0, 0));
+    assertEquals(5, week.size());
+    assertEquals(LocalDateTime.of(2035, 3, 5, 9, 0), week.get(0).getStartDateTime());
+    assertTrue(calendarModel.isBusy(LocalDateTime.of(2035, 3, 5, 9, 15)));
+    assertFalse(calendarModel.isBusy(LocalDateTime.of(2035, 3, 4, 9, 0)));
+    Event occurrence = calendarModel.getEvent("Standup", LocalDateTime.of(2035, 3, 5, 9, 0),
+            LocalDateTime.of(2035, 3, 5, 9, 15));
+    assertEquals(week.get(0), occurrence);
+    assertEquals(List.of(occurrence), calendarModel.findEventsBySubjectAndStart("Standup",
+            LocalDateTime.of(2035, 3, 5, 9, 0)));
+    assertEquals(5000, calendarModel.getEventsBySeriesId(occurrence.getSeriesId()).size());
+    try {
+      calendarModel.createSingleEvent("Standup", "2035-03-06T09:00", "2035-03-06T09:15");
+      fail("Expected duplicate event to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Event already exists with the same subject and time.", e.getMessage());
+    }
+    try {
+      calendarModel.createRecurringEvent("Standup", "2035-03-03T09:00", "2035-03-03T09:15",
+              "U", 3);
+      calendarModel.createRecurringEvent("Standup", "2035-03-03T09:00", "2035-03-03T09:15",
+              "SW", 3);
+      fail("Expected overlapping series to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertFalse(calendarModel.isBusy(LocalDateTime.of(2035, 3, 10, 9, 0)));
+    }
+  }
+
+  /**
+   * Tests that moving the start time of a recurring series, whole or from one occurrence on,
+   * moves its rules instead of creating its occurrences, and also moves the occurrences taken out
+   * of the series.
+   */
+  @Test
+  public void testEditSeriesStartKeepsRule() {
+    calendarModel.createRecurringEvent("Standup", "2030-01-07T09:00", "2030-01-07T09:15",
+            "MTWRFSU", 20_000);
+    calendarModel.editSingleEvent("description", "Standup", "2030-01-08T09:00",
+            "2030-01-08T09:15", "moved out");
+    assertEquals(2, calendarModel.snapshot().size());
+
+    calendarModel.editMultipleEvents("start", "Standup", "2030-01-07T09:00", "2030-01-07T08:50",
+            true);
+    assertEquals(2, calendarModel.snapshot().size());
+    Event detached = calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 8)).get(0);
+    assertEquals(LocalDateTime.of(2030, 1, 8, 8, 50), detached.getStartDateTime());
+    assertEquals("moved out", detached.getDescription());
+    Event last = calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 7).plusDays(19_999))
+            .get(0);
+    assertEquals(LocalTime.of(8, 50), last.getStartDateTime().toLocalTime());
+    assertEquals(LocalTime.of(9, 15), last.getEndDateTime().toLocalTime());
+
+    calendarModel.editMultipleEvents("start", "Standup", "2030-02-01T08:50", "2030-02-01T08:40",
+            false);
+    assertEquals(3, calendarModel.snapshot().size());
+    assertEquals(LocalDateTime.of(2030, 1, 31, 8, 50),
+            calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 31)).get(0).getStartDateTime());
+    assertEquals(LocalDateTime.of(2030, 2, 1, 8, 40),
+            calendarModel.getEventsOnDate(LocalDate.of(2030, 2, 1)).get(0).getStartDateTime());
+    assertEquals(20_000, calendarModel.getEventsBySeriesId(detached.getSeriesId()).size());
+
+    try {
+      calendarModel.editMultipleEvents("start", "Standup", "2030-01-07T08:50",
+              "2030-01-06T23:00", true);
+      fail("A series event should not be moved to start on the day before it ends.");
+    } catch (IllegalStateException e) {
+      assertEquals("A series event cannot be edited to span multiple days.", e.getMessage());
+    }
+    assertEquals(3, calendarModel.snapshot().size());
+  }
+
+  /**
+   * Tests that editing one occurrence of a recurring series takes it out of the series' rule
+   * while the other occurrences stay in the series.
+   */
+  @Test
+  public void testEditOccurrenceOfRecurringSeries() {
+    calendarModel.createRecurringEvent("Standup", "2030-01-07T09:00", "2030-01-07T09:15",
+            "MWF", 30);
+    calendarModel.editSingleEvent("start", "Standup", "2030-01-09T09:00", "2030-01-09T09:15",
+            "2030-01-09T08:45");
+    assertTrue(calendarModel.isBusy(LocalDateTime.of(2030, 1, 9, 8, 50)));
+    assertNull(calendarModel.getEvent("Standup", LocalDateTime.of(2030, 1, 9, 9, 0),
+            LocalDateTime.of(2030, 1, 9, 9, 15)));
+    String seriesId = calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 7)).get(0)
+            .getSeriesId();
+    assertEquals(30, calendarModel.getEventsBySeriesId(seriesId).size());
+    List<Event> week = calendarModel.getEventsInRange(LocalDateTime.of(2030, 1, 7, 0, 0),
+            LocalDateTime.of(2030, 1, 12, 0, 0));
+    assertEquals(3, week.size());
+    assertEquals(LocalDateTime.of(2030, 1, 9, 8, 45), week.get(1).getStartDateTime());
+
+    calendarModel.editMultipleEvents("description", "Standup", "2030-01-07T09:00", "notes",
+            true);
+    for (Event e : calendarModel.getEventsBySeriesId(seriesId)) {
+      assertEquals("notes", e.getDescription());
+    }
+  }
+
+  /**
+   * Tests that editing a recurring series from one of its occurrences onward only changes the
+   * occurrences from that one on, and that editing the subject of a series is rejected if it
+   * would clash with an existing event.
+   */
+  @Test
+  public void testEditRecurringSeriesFromDate() {
+    calendarModel.createRecurringEvent("Standup", "2030-01-07T09:00", "2030-01-07T09:15",
+            "MWF", 30);
+    calendarModel.editMultipleEvents("subject", "Standup", "2030-01-21T09:00", "Sync", false);
+    assertEquals(6, calendarModel.getEventsInRange(LocalDateTime.of(2030, 1, 7, 0, 0),
+            LocalDateTime.of(2030, 1, 21, 0, 0)).stream()
+            .filter(e -> e.getSubject().equals("Standup")).count());
+    assertEquals(24, calendarModel.getEventsInRange(LocalDateTime.of(2030, 1, 21, 0, 0),
+            LocalDateTime.of(2030, 4, 1, 0, 0)).stream()
+            .filter(e -> e.getSubject().equals("Sync")).count());
+    String seriesId = calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 7)).get(0)
+            .getSeriesId();
+    assertEquals(seriesId, calendarModel.getEventsOnDate(LocalDate.of(2030, 2, 1)).get(0)
+            .getSeriesId());
+
+    calendarModel.createSingleEvent("Review", "2030-01-09T09:00", "2030-01-09T09:15");
+    try {
+      calendarModel.editMultipleEvents("subject", "Standup", "2030-01-07T09:00", "Review",
+              false);
+      fail("Expected clashing subject to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Standup", calendarModel.getEventsOnDate(LocalDate.of(2030, 1, 7)).get(0)
+              .getSubject());
+    }
+  }
 }
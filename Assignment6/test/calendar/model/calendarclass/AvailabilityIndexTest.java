@@ -0,0 +1,113 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the AvailabilityIndex
+ * class.
+ */
+public class AvailabilityIndexTest {
+  private EventColumns allEvents;
+  private AvailabilityIndex availability;
+  private LocalDateTime day;
+
+  /**
+   * Initializes an empty index along with the time index it reads from.
+   */
+  @Before
+  public void setUp() {
+    Comparator<Event> order = Comparator.comparing(Event::getStartDateTime)
+            .thenComparing(Event::getEndDateTime).thenComparing(Event::getSubject);
+    this.allEvents = new EventColumns(order);
+    this.availability = new AvailabilityIndex(allEvents, order);
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+  }
+
+  private void add(Event event) {
+    allEvents.add(event);
+    availability.add(event);
+  }
+
+  private void remove(Event event) {
+    allEvents.remove(event);
+    availability.remove(event);
+  }
+
+  /**
+   * Tests that the start and end minutes of an event count as busy, and the minutes around it
+   * do not.
+   */
+  @Test
+  public void testEventBoundaries() {
+    add(new Event("Meeting", day.withHour(9), day.withHour(10)));
+    assertFalse(availability.isBusy(day.withHour(8).withMinute(59)));
+    assertTrue(availability.isBusy(day.withHour(9)));
+    assertTrue(availability.isBusy(day.withHour(9).withMinute(30)));
+    assertTrue(availability.isBusy(day.withHour(10)));
+    assertFalse(availability.isBusy(day.withHour(10).withMinute(1)));
+  }
+
+  /**
+   * Tests that events crossing midnight mark minutes on both days as busy.
+   */
+  @Test
+  public void testOvernightEvent() {
+    add(new Event("Flight", day.withHour(23), day.plusDays(1).withHour(2)));
+    assertTrue(availability.isBusy(day.withHour(23).withMinute(59)));
+    assertTrue(availability.isBusy(day.plusDays(1)));
+    assertTrue(availability.isBusy(day.plusDays(1).withHour(2)));
+    assertFalse(availability.isBusy(day.plusDays(1).withHour(3)));
+  }
+
+  /**
+   * Tests that removing one of two overlapping events keeps the time covered by the other busy.
+   */
+  @Test
+  public void testRemoveOverlapping() {
+    Event first = new Event("First", day.withHour(9), day.withHour(11));
+    Event second = new Event("Second", day.withHour(10), day.withHour(12));
+    add(first);
+    add(second);
+    remove(second);
+    assertTrue(availability.isBusy(day.withHour(10).withMinute(30)));
+    assertFalse(availability.isBusy(day.withHour(11).withMinute(30)));
+    remove(first);
+    assertFalse(availability.isBusy(day.withHour(10)));
+  }
+
+  /**
+   * Tests that events spanning many days are found through the fallback query, both before and
+   * after being removed.
+   */
+  @Test
+  public void testLongEvent() {
+    Event vacation = new Event("Vacation", day, day.plusDays(AvailabilityIndex.MAX_PAINTED_DAYS
+            + 10));
+    add(vacation);
+    assertTrue(availability.isBusy(day.plusDays(12).withHour(15)));
+    remove(vacation);
+    assertFalse(availability.isBusy(day.plusDays(12).withHour(15)));
+  }
+
+  /**
+   * Tests that times which are not whole minutes are checked against the exact event times.
+   */
+  @Test
+  public void testPartialMinutes() {
+    add(new Event("Call", day.withHour(9).withSecond(30), day.withHour(9).withMinute(5)
+            .withSecond(15)));
+    assertFalse(availability.isBusy(day.withHour(9)));
+    assertTrue(availability.isBusy(day.withHour(9).withSecond(45)));
+    assertTrue(availability.isBusy(day.withHour(9).withMinute(5)));
+    assertFalse(availability.isBusy(day.withHour(9).withMinute(5).withSecond(20)));
+  }
+}
@@ -0,0 +1,281 @@
+package calendar.model.calendarclass;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the CalendarActor class,
+ * running the tests written in AbstractCalendarModelTest through its blocking view, and checking
+ * that queued commands run in order, in batches that notify observers once, and that a failed
+ * command only fails its own future.
+ */
+public class CalendarActorTest extends AbstractCalendarModelTest {
+
+  @Override
+  public ICalendar createCalendarModel() {
+    return new CalendarActor(new CalendarModel()).blocking();
+  }
+
+  @Test
+  public void testNullArguments() {
+    try {
+      new CalendarActor(null);
+      fail("A null calendar should not be run.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The calendar cannot be null.", e.getMessage());
+    }
+    try {
+      new CalendarActor(new CalendarModel(), null);
+      fail("A null executor should not be accepted.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The executor cannot be null.", e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that commands queued while the calendar is busy run in the order they were queued, as
+   * one batch that notifies observers once.
+   */
+  @Test
+  public void testQueuedCommandsShareOneNotification() throws InterruptedException {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CalendarActor actor = new CalendarActor(new CalendarModel(), executor);
+      AtomicInteger notifications = new AtomicInteger();
+      actor.addObserver(counter(notifications)).join();
+      notifications.set(0);
+
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(1);
+      CompletableFuture<Void> blocker = actor.submit(c -> {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return null;
+      });
+      started.await();
+      List<CompletableFuture<Void>> adds = new ArrayList<>();
+      LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+      for (int i = 0; i < 50; i++) {
+        adds.add(actor.addEvent(new Event("event " + i, start.plusHours(i),
+                start.plusHours(i).plusMinutes(30))));
+      }
+      CompletableFuture<List<Event>> all = actor.getEventsInRange(start, start.plusDays(3));
+      release.countDown();
+      blocker.join();
+      assertEquals(50, all.join().size());
+      for (CompletableFuture<Void> add : adds) {
+        assertTrue(add.isDone());
+      }
+      assertEquals("event 0", all.join().get(0).getSubject());
+      assertEquals(1, notifications.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Tests that a command that fails only fails its own future, and that the other commands of its
+   * batch are still made.
+   */
+  @Test
+  public void testFailedCommandOnlyFailsItsFuture() {
+    CalendarActor actor = new CalendarActor(new CalendarModel());
+    CompletableFuture<Void> first = actor.createSingleEvent("a", "2025-06-02T09:00",
+            "2025-06-02T10:00");
+    CompletableFuture<Void> duplicate = actor.createSingleEvent("a", "2025-06-02T09:00",
+            "2025-06-02T10:00");
+    CompletableFuture<Void> other = actor.createSingleEvent("b", "2025-06-02T11:00",
+            "2025-06-02T12:00");
+    first.join();
+    other.join();
+    try {
+      duplicate.join();
+      fail("The same event should not be created twice.");
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+    assertEquals(2, actor.getEventsOnDate(LocalDate.of(2025, 6, 2)).join().size());
+    assertTrue(actor.isBusy(LocalDateTime.of(2025, 6, 2, 11, 30)).join());
+    assertNull(actor.getEvent("c", LocalDateTime.of(2025, 6, 2, 9, 0),
+            LocalDateTime.of(2025, 6, 2, 10, 0)).join());
+  }
+
+  /**
+   * Tests that a command or observer that throws an error, rather than an exception, fails
+   * futures with it instead of leaving them waiting forever, and that the other commands of the
+   * batch still complete.
+   */
+  @Test(timeout = 10_000)
+  public void testErrorOnlyFailsItsFuture() {
+    CalendarActor actor = new CalendarActor(new CalendarModel());
+    CompletableFuture<Void> failed = actor.submit(c -> {
+      throw new AssertionError("broken command");
+    });
+    CompletableFuture<Void> other = actor.createSingleEvent("b", "2025-06-02T11:00",
+            "2025-06-02T12:00");
+    try {
+      failed.join();
+      fail("The error should fail the command's future.");
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof AssertionError);
+    }
+    other.join();
+
+    //an observer throwing an error while the batch is notified fails the batch's commands, and
+    //the blocking view throws the error as it was thrown
+    ICalendar blocking = actor.blocking();
+    AtomicBoolean broken = new AtomicBoolean();
+    blocking.addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        if (broken.get()) {
+          throw new AssertionError("broken observer");
+        }
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        this.eventsUpdated(null);
+      }
+    });
+    broken.set(true);
+    try {
+      blocking.createSingleEvent("c", "2025-06-02T13:00", "2025-06-02T14:00");
+      fail("The observer's error should be thrown.");
+    } catch (AssertionError e) {
+      assertEquals("broken observer", e.getMessage());
+    }
+    assertTrue(actor.isBusy(LocalDateTime.of(2025, 6, 2, 11, 30)).join());
+  }
+
+  /**
+   * Tests that the blocking view passes on the exception of a failed call as it was thrown, and
+   * that observers, which run on the actor's thread, can call the blocking view.
+   */
+  @Test
+  public void testBlockingViewFromObserver() {
+    CalendarActor actor = new CalendarActor(new CalendarModel());
+    ICalendar blocking = actor.blocking();
+    List<Integer> sizes = new ArrayList<>();
+    blocking.addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        sizes.add(blocking.getEventsOnDate(LocalDate.of(2025, 6, 2)).size());
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        this.eventsUpdated(null);
+      }
+    });
+    blocking.createSingleEvent("a", "2025-06-02T09:00", "2025-06-02T10:00");
+    try {
+      blocking.createSingleEvent("a", "2025-06-02T09:00", "2025-06-02T10:00");
+      fail("The same event should not be created twice.");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    assertEquals(List.of(0, 1), sizes);
+  }
+
+  /**
+   * Tests that many calendars sharing a pool of threads, each sent commands from several threads
+   * at once, lose none of them.
+   */
+  @Test
+  public void testManyActorsOnSharedPool() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<CalendarActor> actors = new ArrayList<>();
+      for (int i = 0; i < 16; i++) {
+        actors.add(new CalendarActor(new CalendarModel(), executor));
+      }
+      int senders = 4;
+      int perSender = 250;
+      List<CompletableFuture<Void>> sent = new ArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      for (int s = 0; s < senders; s++) {
+        int sender = s;
+        List<CompletableFuture<Void>> own = new ArrayList<>();
+        threads.add(new Thread(() -> {
+          LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(sender * 10L);
+          for (int i = 0; i < perSender; i++) {
+            LocalDateTime start = base.plusHours(i);
+            own.add(actors.get(i % actors.size()).addEvent(new Event("s" + sender, start,
+                    start.plusMinutes(5))));
+          }
+          synchronized (sent) {
+            sent.addAll(own);
+          }
+        }));
+      }
+      for (Thread thread : threads) {
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      CompletableFuture.allOf(sent.toArray(CompletableFuture<?>[]::new)).join();
+      int total = 0;
+      for (CalendarActor actor : actors) {
+        total += actor.snapshot().join().size();
+      }
+      assertEquals(senders * perSender, total);
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * Tests that commands queued after the executor stopped fail, rather than waiting forever.
+   */
+  @Test
+  public void testRejectedCommandsFail() {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    CalendarActor actor = new CalendarActor(new CalendarModel(), executor);
+    CompletableFuture<Boolean> busy = actor.isBusy(LocalDateTime.of(2025, 6, 2, 9, 0));
+    assertTrue(busy.isCompletedExceptionally());
+    assertFalse(busy.isCancelled());
+  }
+
+  private static CalendarObserver counter(AtomicInteger notifications) {
+    return new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        notifications.incrementAndGet();
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        notifications.incrementAndGet();
+      }
+    };
+  }
+}
@@ -0,0 +1,99 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the CalendarChange class
+ * and its builder.
+ */
+public class CalendarChangeTest {
+  private CalendarChange.CalendarChangeBuilder builder;
+  private Event meeting;
+  private Event movedMeeting;
+  private Event lunch;
+  private LocalDateTime day;
+
+  /**
+   * Initializes an empty builder and a few events to record with it.
+   */
+  @Before
+  public void setUp() {
+    this.builder = new CalendarChange.CalendarChangeBuilder();
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+    this.meeting = new Event("Meeting", day.withHour(9), day.withHour(10));
+    this.movedMeeting = new Event("Meeting", day.withHour(14), day.withHour(15));
+    this.lunch = new Event("Lunch", day.withHour(12), day.withHour(13));
+  }
+
+  /**
+   * Tests that an empty change has no window and does not overlap anything.
+   */
+  @Test
+  public void testEmpty() {
+    CalendarChange change = builder.build();
+    assertTrue(change.isEmpty());
+    assertNull(change.getWindowStart());
+    assertFalse(change.overlaps(day, day.plusDays(1)));
+  }
+
+  /**
+   * Tests that the window covers every recorded event and that events are sorted by start time.
+   */
+  @Test
+  public void testWindowAndOrder() {
+    CalendarChange change = builder.added(lunch).added(meeting).removed(movedMeeting).build();
+    assertEquals(List.of(meeting, lunch), change.getAdded());
+    assertEquals(List.of(movedMeeting), change.getRemoved());
+    assertEquals(day.withHour(9), change.getWindowStart());
+    assertEquals(day.withHour(15), change.getWindowEnd());
+    assertTrue(change.overlaps(day.withHour(15), day.withHour(16)));
+    assertFalse(change.overlaps(day.withHour(16), day.withHour(17)));
+  }
+
+  /**
+   * Tests that an event which is added and then edited in the same change is reported as added
+   * in its edited form, and that the window still covers its original time.
+   */
+  @Test
+  public void testAddedThenChanged() {
+    CalendarChange change = builder.added(meeting).changed(meeting, movedMeeting).build();
+    assertEquals(List.of(movedMeeting), change.getAdded());
+    assertTrue(change.getChanged().isEmpty());
+    assertEquals(day.withHour(9), change.getWindowStart());
+  }
+
+  /**
+   * Tests that an event which is edited and then removed in the same change is reported as the
+   * removal of the original event.
+   */
+  @Test
+  public void testChangedThenRemoved() {
+    CalendarChange change = builder.changed(meeting, movedMeeting).removed(movedMeeting).build();
+    assertEquals(List.of(meeting), change.getRemoved());
+    assertTrue(change.getChanged().isEmpty());
+    assertTrue(change.getAdded().isEmpty());
+  }
+
+  /**
+   * Tests that an event which is added and then removed in the same change is left out of it,
+   * while the window still records the affected time.
+   */
+  @Test
+  public void testAddedThenRemoved() {
+    CalendarChange change = builder.added(lunch).removed(lunch).build();
+    assertTrue(change.getAdded().isEmpty());
+    assertTrue(change.getRemoved().isEmpty());
+    assertFalse(change.isEmpty());
+  }
+}
@@ -0,0 +1,218 @@
+package calendar.model.calendarclass;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+import calendar.model.calendarmanagerclass.CalendarManagerModel;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the CalendarSnapshot class, checking that the
+ * calendars read back from a snapshot file hold the same events, series and settings as the
+ * calendars it was taken of, and that damaged files are rejected.
+ */
+public class CalendarSnapshotTest {
+  private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private static final LocalDateTime TO = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  private Path file;
+  private CalendarManagerModel manager;
+
+  /**
+   * Creates a manager with two calendars holding single events, a long event and recurring
+   * series, one of which had an occurrence edited on its own.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("calendar", ".snapshot");
+    this.manager = new CalendarManagerModel();
+    this.manager.createCalendar("work", "America/New_York");
+    this.manager.createCalendar("caf\u00e9", "Asia/Tokyo");
+    this.manager.setCurrentCalendar("work");
+
+    NewCalendarModel work = this.manager.getTargetCalendar("work");
+    work.createSingleEvent("standup", "2025-06-10T09:00", "2025-06-10T09:15");
+    work.editSingleEvent("location", "standup", "2025-06-10T09:00", "2025-06-10T09:15",
+            "online");
+    work.editSingleEvent("description", "standup", "2025-06-10T09:00", "2025-06-10T09:15",
+            "daily \u2603");
+    work.createAllDayEvent("holiday", "2025-07-04");
+    work.addEvent(new Event("trip", LocalDateTime.of(2025, 8, 1, 9, 0),
+            LocalDateTime.of(2025, 8, 20, 17, 0)));
+    work.createRecurringEvent("gym", "2025-06-09T18:00", "2025-06-09T19:00", "MWF", 12);
+    work.editSingleEvent("subject", "gym", "2025-06-11T18:00", "2025-06-11T19:00", "swim");
+    work.createRecurringAllDayEvent("review", "2025-06-02", "M", "2025-09-01");
+
+    NewCalendarModel other = this.manager.getTargetCalendar("caf\u00e9");
+    other.createSingleEvent("lunch", "2025-06-10T12:00", "2025-06-10T13:00");
+  }
+
+  /**
+   * Deletes the snapshot file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  private CalendarManagerModel writeAndRead() throws IOException {
+    this.manager.snapshot().write(this.file);
+    return new CalendarManagerModel(CalendarSnapshot.read(this.file));
+  }
+
+  private static void assertSameEvents(List<Event> expected, List<Event> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Event e = expected.get(i);
+      Event a = actual.get(i);
+      assertEquals(e.getSubject(), a.getSubject());
+      assertEquals(e.getStartDateTime(), a.getStartDateTime());
+      assertEquals(e.getEndDateTime(), a.getEndDateTime());
+      assertEquals(e.getDescription(), a.getDescription());
+      assertEquals(e.getLocation(), a.getLocation());
+      assertEquals(e.getStatus(), a.getStatus());
+      assertEquals(e.getSeriesId(), a.getSeriesId());
+      assertEquals(e.getIsAllDayEvent(), a.getIsAllDayEvent());
+    }
+  }
+
+  @Test
+  public void testCalendarsAreRestored() throws IOException {
+    CalendarManagerModel restored = this.writeAndRead();
+
+    assertEquals("work", restored.getCurrentActiveCalendar().getName());
+    NewCalendarModel work = restored.getTargetCalendar("work");
+    assertEquals(ZoneId.of("America/New_York"), work.getTimeZone());
+    assertEquals(ZoneId.of("Asia/Tokyo"), restored.getTargetCalendar("caf\u00e9").getTimeZone());
+    assertSameEvents(this.manager.getTargetCalendar("work").getEventsInRange(FROM, TO),
+            work.getEventsInRange(FROM, TO));
+    assertSameEvents(this.manager.getTargetCalendar("caf\u00e9").getEventsInRange(FROM, TO),
+            restored.getTargetCalendar("caf\u00e9").getEventsInRange(FROM, TO));
+
+    Event standup = work.getEventsOnDate(LocalDate.of(2025, 6, 10)).get(0);
+    assertEquals(Location.ONLINE, standup.getLocation());
+    assertEquals("daily \u2603", standup.getDescription());
+  }
+
+  @Test
+  public void testSeriesAreRestored() throws IOException {
+    NewCalendarModel original = this.manager.getTargetCalendar("work");
+    String seriesId = original.findEventsBySubjectAndStart("gym",
+            LocalDateTime.of(2025, 6, 9, 18, 0)).get(0).getSeriesId();
+    NewCalendarModel work = this.writeAndRead().getTargetCalendar("work");
+
+    assertSameEvents(original.getEventsBySeriesId(seriesId), work.getEventsBySeriesId(seriesId));
+    //the occurrence edited on its own stays out of the series
+    assertTrue(work.findEventsBySubjectAndStart("gym",
+            LocalDateTime.of(2025, 6, 11, 18, 0)).isEmpty());
+    assertEquals(1, work.findEventsBySubjectAndStart("swim",
+            LocalDateTime.of(2025, 6, 11, 18, 0)).size());
+    assertTrue(work.isBusy(LocalDateTime.of(2025, 6, 13, 18, 30)));
+    assertFalse(work.isBusy(LocalDateTime.of(2025, 6, 12, 18, 30)));
+
+    //the restored series can still be edited as a whole
+    work.editMultipleEvents("subject", "gym", "2025-06-09T18:00", "workout", true);
+    assertEquals(1, work.findEventsBySubjectAndStart("workout",
+            LocalDateTime.of(2025, 6, 13, 18, 0)).size());
+  }
+
+  @Test
+  public void testRestoredCalendarsKeepTheirIndexes() throws IOException {
+    NewCalendarModel work = this.writeAndRead().getTargetCalendar("work");
+
+    assertTrue(work.isBusy(LocalDateTime.of(2025, 6, 10, 9, 10)));
+    assertTrue(work.isBusy(LocalDateTime.of(2025, 8, 10, 3, 0)));
+    assertFalse(work.isBusy(LocalDateTime.of(2025, 6, 10, 10, 0)));
+    try {
+      work.createSingleEvent("standup", "2025-06-10T09:00", "2025-06-10T09:15");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Event already exists with the same subject and time.", e.getMessage());
+    }
+    try {
+      work.createSingleEvent("gym", "2025-06-13T18:00", "2025-06-13T19:00");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Event already exists with the same subject and time.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testEmptySnapshot() throws IOException {
+    this.manager = new CalendarManagerModel();
+    CalendarManagerModel restored = this.writeAndRead();
+    try {
+      restored.getCurrentActiveCalendar();
+      fail("Expected an IllegalStateException");
+    } catch (IllegalStateException e) {
+      //expected
+    }
+    assertTrue(CalendarSnapshot.read(this.file).getCalendars().isEmpty());
+    assertNull(CalendarSnapshot.read(this.file).getCurrentCalendar());
+  }
+
+  @Test
+  public void testWriteReplacesPreviousSnapshot() throws IOException {
+    this.manager.snapshot().write(this.file);
+    this.manager.getTargetCalendar("work").createSingleEvent("late", "2025-06-10T22:00",
+            "2025-06-10T23:00");
+    NewCalendarModel work = this.writeAndRead().getTargetCalendar("work");
+    assertEquals(2, work.getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+    assertFalse(Files.exists(this.file.resolveSibling(this.file.getFileName() + ".tmp")));
+  }
+
+  @Test
+  public void testIncompleteFileIsRejected() throws IOException {
+    this.manager.snapshot().write(this.file);
+    byte[] bytes = Files.readAllBytes(this.file);
+    Files.write(this.file, Arrays.copyOf(bytes, bytes.length - 10));
+    try {
+      CalendarSnapshot.read(this.file);
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testOtherFileIsRejected() throws IOException {
+    Files.writeString(this.file, "create calendar --name work --timezone UTC");
+    try {
+      CalendarSnapshot.read(this.file);
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("Not a calendar snapshot"));
+    }
+  }
+
+  @Test
+  public void testDamagedFileIsRejected() throws IOException {
+    this.manager.snapshot().write(this.file);
+    byte[] bytes = Files.readAllBytes(this.file);
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(this.file, bytes);
+    try {
+      CalendarSnapshot.read(this.file);
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("The snapshot file is damaged"));
+    }
+  }
+}
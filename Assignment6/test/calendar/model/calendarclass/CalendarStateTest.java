@@ -0,0 +1,185 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the CalendarState class and the snapshots calendars take of
+ * themselves: that a state answers queries as the calendar did when it was taken, that later
+ * changes publish new states without changing the old ones, and that states can be read by
+ * other threads while the calendar changes.
+ */
+public class CalendarStateTest {
+  private NewCalendarModel calendar;
+  private LocalDateTime june;
+
+  /**
+   * Creates a calendar in New York time holding a single event and a weekly series.
+   */
+  @Before
+  public void setUp() {
+    this.calendar = new NewCalendarModel("work", ZoneId.of("America/New_York"));
+    this.calendar.createSingleEvent("review", "2025-06-03T14:00", "2025-06-03T15:00");
+    this.calendar.createRecurringEvent("standup", "2025-06-02T09:00", "2025-06-02T09:15", "MWF",
+            6);
+    this.june = LocalDateTime.of(2025, 6, 1, 0, 0);
+  }
+
+  @Test
+  public void testStateMatchesCalendar() {
+    CalendarState state = this.calendar.snapshot();
+    assertEquals(ZoneId.of("America/New_York"), state.getTimeZone());
+    assertEquals(2, state.size());
+    assertEquals(this.calendar.getEventsInRange(june, june.plusMonths(1)),
+            state.getEventsInRange(june, june.plusMonths(1)));
+    assertEquals(this.calendar.getEventsOnDate(LocalDate.of(2025, 6, 4)),
+            state.getEventsOnDate(LocalDate.of(2025, 6, 4)));
+    assertEquals(7, state.getEvents().size());
+    assertTrue(state.isBusy(LocalDateTime.of(2025, 6, 3, 14, 30)));
+    assertTrue(state.isBusy(LocalDateTime.of(2025, 6, 6, 9, 15)));
+    assertFalse(state.isBusy(LocalDateTime.of(2025, 6, 5, 9, 5)));
+    assertSame(state, this.calendar.snapshot());
+  }
+
+  @Test
+  public void testChangesPublishNewStates() {
+    CalendarState before = this.calendar.snapshot();
+    this.calendar.createSingleEvent("lunch", "2025-06-03T12:00", "2025-06-03T13:00");
+    this.calendar.editSingleEvent("subject", "standup", "2025-06-06T09:00", "2025-06-06T09:15",
+            "retro");
+    this.calendar.editSingleEvent("subject", "review", "2025-06-03T14:00", "2025-06-03T15:00",
+            "demo");
+    CalendarState after = this.calendar.snapshot();
+    assertNotSame(before, after);
+
+    List<Event> old = before.getEventsInRange(june, june.plusMonths(1));
+    assertEquals(7, old.size());
+    assertEquals("review", before.getEventsOnDate(LocalDate.of(2025, 6, 3)).get(0)
+            .getSubject());
+    assertEquals("standup", before.getEventsOnDate(LocalDate.of(2025, 6, 6)).get(0)
+            .getSubject());
+
+    assertEquals(this.calendar.getEventsInRange(june, june.plusMonths(1)),
+            after.getEventsInRange(june, june.plusMonths(1)));
+    assertEquals("retro", after.getEventsOnDate(LocalDate.of(2025, 6, 6)).get(0).getSubject());
+    assertEquals(8, after.getEvents().size());
+  }
+
+  @Test
+  public void testBatchPublishesOnce() {
+    CalendarState before = this.calendar.snapshot();
+    AtomicReference<CalendarState> during = new AtomicReference<>();
+    this.calendar.batch(() -> {
+      this.calendar.createSingleEvent("a", "2025-06-10T12:00", "2025-06-10T13:00");
+      during.set(this.calendar.snapshot());
+      this.calendar.createSingleEvent("b", "2025-06-10T13:00", "2025-06-10T14:00");
+    });
+    assertSame(before, during.get());
+    assertEquals(9, this.calendar.snapshot().getEvents().size());
+  }
+
+  @Test
+  public void testZoneChangePublishesState() {
+    CalendarState before = this.calendar.snapshot();
+    this.calendar.setTimeZone(ZoneId.of("Europe/London"));
+    CalendarState after = this.calendar.snapshot();
+    assertEquals(ZoneId.of("America/New_York"), before.getTimeZone());
+    assertEquals(ZoneId.of("Europe/London"), after.getTimeZone());
+    assertEquals(LocalDateTime.of(2025, 6, 3, 19, 0),
+            after.getEventsOnDate(LocalDate.of(2025, 6, 3)).get(0).getStartDateTime());
+  }
+
+  @Test
+  public void testBulkAddAndSeriesEdits() {
+    this.calendar.snapshot();
+    List<Event> added = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 7, 1, 8, 0).plusHours(i);
+      added.add(new Event("bulk " + i, start, start.plusMinutes(30)));
+    }
+    this.calendar.addEvents(added);
+    this.calendar.editMultipleEvents("subject", "standup", "2025-06-09T09:00", "sync", true);
+    CalendarState state = this.calendar.snapshot();
+    assertEquals(this.calendar.getEventsInRange(june, june.plusMonths(2)),
+            state.getEventsInRange(june, june.plusMonths(2)));
+    assertEquals(107, state.getEvents().size());
+  }
+
+  @Test
+  public void testObserversGetLazyState() {
+    this.calendar.snapshot();
+    List<List<Event>> updates = new ArrayList<>();
+    this.calendar.addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        updates.add(events);
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        //only full updates are checked
+      }
+    });
+    assertEquals(1, updates.size());
+    assertEquals(this.calendar.snapshot().getEvents(), updates.get(0));
+    try {
+      updates.get(0).add(new Event("x", june, june.plusHours(1)));
+      throw new AssertionError("The list of events should not be modifiable.");
+    } catch (UnsupportedOperationException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testReadersRacingWriter() throws InterruptedException {
+    ConcurrentCalendar shared = new ConcurrentCalendar(this.calendar);
+    shared.snapshot();
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread writer = new Thread(() -> {
+      for (int i = 0; i < 500; i++) {
+        LocalDateTime start = LocalDateTime.of(2025, 8, 1, 0, 0).plusHours(i);
+        shared.batch(() -> {
+          shared.addEvent(new Event("first", start, start.plusMinutes(10)));
+          shared.addEvent(new Event("second", start.plusMinutes(20), start.plusMinutes(30)));
+        });
+      }
+    });
+    Thread reader = new Thread(() -> {
+      try {
+        while (writer.isAlive()) {
+          CalendarState state = shared.snapshot();
+          int size = state.size();
+          if (size % 2 != 0 || state.getEvents().size() != size + 5) {
+            throw new AssertionError("Saw half a change: " + size);
+          }
+        }
+      } catch (Throwable e) {
+        failure.set(e);
+      }
+    });
+    writer.start();
+    reader.start();
+    writer.join();
+    reader.join();
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertEquals(1002, shared.snapshot().size());
+  }
+}
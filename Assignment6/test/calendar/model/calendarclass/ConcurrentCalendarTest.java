@@ -0,0 +1,241 @@
+package calendar.model.calendarclass;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the ConcurrentCalendar
+ * class, running the tests written in AbstractCalendarModelTest through it, and checking that
+ * observers and batches may call back into it, and that readers racing writers only ever see
+ * whole changes.
+ */
+public class ConcurrentCalendarTest extends AbstractCalendarModelTest {
+
+  /**
+   * Constructs a new ConcurrentCalendar guarding a CalendarModel.
+   *
+   * @return the created ConcurrentCalendar
+   */
+  @Override
+  public ICalendar createCalendarModel() {
+    return new ConcurrentCalendar(new CalendarModel());
+  }
+
+  @Test
+  public void testNullCalendar() {
+    try {
+      new ConcurrentCalendar(null);
+      fail("A null calendar should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The calendar cannot be null.", e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that an observer notified while a change holds the write lock can query the calendar,
+   * and that a batch can make changes through it, without deadlocking.
+   */
+  @Test
+  public void testObserversAndBatchesReenter() {
+    ConcurrentCalendar calendar = new ConcurrentCalendar(new CalendarModel());
+    List<Integer> seen = new ArrayList<>();
+    calendar.addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        seen.add(calendar.getEventsOnDate(LocalDate.of(2025, 6, 2)).size());
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        seen.add(calendar.getEventsOnDate(LocalDate.of(2025, 6, 2)).size());
+      }
+    });
+    seen.clear();
+    calendar.batch(() -> {
+      calendar.createSingleEvent("a", "2025-06-02T09:00", "2025-06-02T10:00");
+      calendar.createSingleEvent("b", "2025-06-02T10:00", "2025-06-02T11:00");
+      assertTrue(calendar.isBusy(LocalDateTime.of(2025, 6, 2, 10, 30)));
+    });
+    assertEquals(List.of(2), seen);
+    calendar.createSingleEvent("c", "2025-06-02T11:00", "2025-06-02T12:00");
+    assertEquals(List.of(2, 3), seen);
+  }
+
+  /**
+   * Tests that an error raised by the guarded calendar reaches the caller, and leaves the lock
+   * free for the next change.
+   */
+  @Test
+  public void testFailedChangeReleasesLock() {
+    ConcurrentCalendar calendar = new ConcurrentCalendar(new CalendarModel());
+    calendar.createSingleEvent("a", "2025-06-02T09:00", "2025-06-02T10:00");
+    try {
+      calendar.createSingleEvent("a", "2025-06-02T09:00", "2025-06-02T10:00");
+      fail("A duplicate event should be rejected.");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    calendar.createSingleEvent("b", "2025-06-02T10:00", "2025-06-02T11:00");
+    assertEquals(2, calendar.getEventsOnDate(LocalDate.of(2025, 6, 2)).size());
+    assertNull(calendar.getEvent("c", LocalDateTime.of(2025, 6, 2, 9, 0),
+            LocalDateTime.of(2025, 6, 2, 10, 0)));
+  }
+
+  /**
+   * Tests that readers running alongside writers that add events in pairs, each pair in one
+   * batch, always see an even number of events, and that no change is lost.
+   */
+  @Test
+  public void testReadersSeeWholeChanges() throws InterruptedException {
+    ConcurrentCalendar calendar = new ConcurrentCalendar(new CalendarModel());
+    int writers = 4;
+    int pairs = 250;
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+    LocalDateTime end = base.plusYears(1);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger writing = new AtomicInteger(writers);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      int writer = w;
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < pairs; i++) {
+            LocalDateTime at = base.plusHours((writer * pairs + i) * 2L);
+            calendar.batch(() -> {
+              calendar.addEvent(new Event("first", at, at.plusMinutes(30)));
+              calendar.addEvent(new Event("second", at.plusHours(1),
+                      at.plusHours(1).plusMinutes(30)));
+            });
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        } finally {
+          writing.decrementAndGet();
+        }
+      }));
+    }
+    for (int r = 0; r < 2; r++) {
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          while (writing.get() > 0) {
+            int size = calendar.getEventsInRange(base, end).size();
+            if (size % 2 != 0) {
+              throw new AssertionError("Saw half a change: " + size + " events");
+            }
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    assertEquals(writers * pairs * 2, calendar.getEventsInRange(base, end).size());
+    assertFalse(calendar.isBusy(base.plusMinutes(45)));
+    assertTrue(calendar.isBusy(base.plusMinutes(15)));
+  }
+
+  /**
+   * Tests that readers running alongside a writer whose changes rotate the nodes of the series
+   * index and merge the columns of the event store never fail, and never see the calendar lose
+   * an event, since the writer only adds them.
+   */
+  @Test(timeout = 60_000)
+  public void testReadersDuringRotationsAndMerges() throws InterruptedException {
+    ConcurrentCalendar calendar = new ConcurrentCalendar(new CalendarModel());
+    int changes = 4_000;
+    LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+    LocalDateTime end = base.plusYears(20);
+    List<Integer> slots = new ArrayList<>();
+    for (int i = 0; i < changes; i++) {
+      slots.add(i);
+    }
+    //events added out of order fill the unsorted part of the store, which is merged in place
+    Collections.shuffle(slots, new Random(42));
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicBoolean writing = new AtomicBoolean(true);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    threads.add(new Thread(() -> {
+      try {
+        start.await();
+        for (int slot : slots) {
+          LocalDateTime at = base.plusHours(slot * 2L);
+          if (slot % 8 == 0) {
+            //each series added rebalances the series index, rotating its nodes
+            LocalDateTime first = base.plusYears(5).plusDays(slot);
+            calendar.createRecurringEvent("series " + slot, first.toString(),
+                    first.plusMinutes(30).toString(), "MTWRF", 3);
+          } else {
+            calendar.addEvent(new Event("event " + slot, at, at.plusMinutes(30)));
+          }
+        }
+      } catch (Throwable e) {
+        failure.compareAndSet(null, e);
+      } finally {
+        writing.set(false);
+      }
+    }));
+    for (int r = 0; r < 2; r++) {
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          int seen = 0;
+          while (writing.get()) {
+            int size = calendar.getEventsInRange(base, end).size();
+            if (size < seen) {
+              throw new AssertionError("Saw " + size + " events after " + seen);
+            }
+            seen = size;
+            calendar.isBusy(base.plusYears(5).plusHours(1));
+            calendar.getEventsOnDate(base.plusYears(5).toLocalDate());
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    int series = changes / 8;
+    assertEquals(changes - series + series * 3, calendar.getEventsInRange(base, end).size());
+  }
+}
@@ -0,0 +1,207 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the EventColumns class.
+ */
+public class EventColumnsTest {
+  private static final Comparator<Event> ORDER = Comparator.comparing(Event::getStartDateTime)
+          .thenComparing(Event::getEndDateTime).thenComparing(Event::getSubject);
+  private EventColumns columns;
+  private LocalDateTime day;
+
+  /**
+   * Initializes an empty store.
+   */
+  @Before
+  public void setUp() {
+    this.columns = new EventColumns(ORDER);
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+  }
+
+  /**
+   * Creates the given number of half-hour events, one every hour from the start of the test day.
+   *
+   * @param count the number of events
+   * @return the events, sorted by start time
+   */
+  private List<Event> hourly(int count) {
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      events.add(new Event("Event " + i, day.plusHours(i), day.plusHours(i).plusMinutes(30)));
+    }
+    return events;
+  }
+
+  /**
+   * Tests that every detail of an event is kept, including times that are not whole minutes.
+   */
+  @Test
+  public void testDetailsKept() {
+    Event event = new Event.EventBuilder().subject("Call")
+            .startDateTime(day.withHour(9).withSecond(5).withNano(7))
+            .endDateTime(day.withHour(10)).description("notes").location(Location.ONLINE)
+            .status(EventStatus.PRIVATE).seriesId("s").isAllDayEvent(true).build();
+    columns.add(event);
+    assertEquals(event, columns.get("Call", event.getStartDateTime(), event.getEndDateTime()));
+    assertEquals(List.of(event), columns.toList());
+  }
+
+  /**
+   * Tests that events are found and removed both before and after the delta is merged into the
+   * main columns, and that the size follows along.
+   */
+  @Test
+  public void testAddGetRemoveAcrossMerges() {
+    List<Event> events = hourly(2_000);
+    for (Event event : events) {
+      columns.add(event);
+    }
+    assertEquals(2_000, columns.size());
+    for (Event event : events) {
+      assertEquals(event, columns.get(event.getSubject(), event.getStartDateTime(),
+              event.getEndDateTime()));
+    }
+    for (int i = 0; i < events.size(); i += 2) {
+      assertTrue(columns.remove(events.get(i)));
+    }
+    assertFalse(columns.remove(events.get(0)));
+    assertEquals(1_000, columns.size());
+    assertNull(columns.get("Event 0", day, day.plusMinutes(30)));
+    assertEquals(events.get(1), columns.get("Event 1", day.plusHours(1),
+            day.plusHours(1).plusMinutes(30)));
+    assertEquals(1_000, columns.toList().size());
+  }
+
+  /**
+   * Tests that range queries return overlapping events in order, from both the main columns and
+   * the delta, and leave out events that only touch the range.
+   */
+  @Test
+  public void testOverlapping() {
+    columns.addAll(hourly(1_000));
+    columns.add(new Event("Late", day.plusHours(3).plusMinutes(10), day.plusHours(3)
+            .plusMinutes(20)));
+    List<Event> found = columns.overlapping(day.plusHours(3), day.plusHours(4));
+    assertEquals(2, found.size());
+    assertEquals("Event 3", found.get(0).getSubject());
+    assertEquals("Late", found.get(1).getSubject());
+    assertTrue(columns.overlapping(day.plusMinutes(30), day.plusHours(1)).isEmpty());
+    assertEquals(1_001, columns.overlapping(LocalDateTime.MIN, LocalDateTime.MAX).size());
+  }
+
+  /**
+   * Tests that events lasting longer than a day are found by range and point queries far from
+   * their start.
+   */
+  @Test
+  public void testLongEvents() {
+    columns.addAll(hourly(500));
+    Event vacation = new Event("Vacation", day, day.plusDays(10));
+    columns.add(vacation);
+    assertTrue(columns.overlapping(day.plusDays(9), day.plusDays(9).plusMinutes(1))
+            .contains(vacation));
+    assertTrue(columns.anyContaining(day.plusDays(9)));
+    assertEquals(List.of(vacation), columns.startingAt("Vacation", day));
+    assertTrue(columns.remove(vacation));
+    assertFalse(columns.anyContaining(day.plusDays(30)));
+  }
+
+  /**
+   * Tests that point queries count the start and end of an event as busy.
+   */
+  @Test
+  public void testAnyContaining() {
+    columns.addAll(hourly(1_000));
+    assertTrue(columns.anyContaining(day.plusHours(5)));
+    assertTrue(columns.anyContaining(day.plusHours(5).plusMinutes(30)));
+    assertFalse(columns.anyContaining(day.plusHours(5).plusMinutes(31)));
+  }
+
+  /**
+   * Tests that events are found by subject and start time, or by subject within a range.
+   */
+  @Test
+  public void testSubjectLookups() {
+    columns.addAll(hourly(1_000));
+    columns.add(new Event("Event 7", day.plusHours(7), day.plusHours(8)));
+    assertEquals(2, columns.startingAt("Event 7", day.plusHours(7)).size());
+    assertTrue(columns.startingAt("Event 7", day.plusHours(8)).isEmpty());
+    assertTrue(columns.startingAt("Unknown", day).isEmpty());
+    assertEquals(2, columns.withSubject("Event 7", day, day.plusDays(1)).size());
+    assertEquals(List.of(new Event("Event 7", day.plusHours(7), day.plusHours(8))),
+            columns.withSubject("Event 7", day.plusHours(7).plusMinutes(30), day.plusDays(1)));
+    assertTrue(columns.withSubject("Event 7", day.plusHours(8), day.plusDays(1)).isEmpty());
+    assertTrue(columns.withSubject("Unknown", day, day.plusDays(1)).isEmpty());
+  }
+
+  /**
+   * Tests that events stored with equal but separate strings are returned sharing one copy of
+   * each string.
+   */
+  @Test
+  public void testStringsAreShared() {
+    columns.add(new Event.EventBuilder().subject(new String("Lab")).startDateTime(day)
+            .endDateTime(day.plusHours(1)).description(new String("Room 204")).build());
+    columns.add(new Event.EventBuilder().subject(new String("Lab")).startDateTime(day.plusDays(1))
+            .endDateTime(day.plusDays(1).plusHours(1)).description(new String("Room 204"))
+            .build());
+    List<Event> events = columns.toList();
+    assertSame(events.get(0).getSubject(), events.get(1).getSubject());
+    assertSame(events.get(0).getDescription(), events.get(1).getDescription());
+  }
+
+  /**
+   * Tests that sorted rows appended without their events read back as the same events, and that
+   * rows out of order or too long for the columns are rejected.
+   */
+  @Test
+  public void testAppendSorted() {
+    long second = day.toEpochSecond(ZoneOffset.UTC);
+    columns.appendSorted("Lab", second, 0, second + 1800, 0, "notes", null,
+            EventColumns.packDetails(new Event("Lab", day, day.plusMinutes(30))));
+    columns.appendSorted("Lab", second + 3600, 0, second + 5400, 0, null, "series", 0);
+    assertEquals(2, columns.size());
+    assertEquals(day.plusHours(1), columns.toList().get(1).getStartDateTime());
+    assertEquals("series", columns.toList().get(1).getSeriesId());
+    assertTrue(columns.anyContaining(day.plusMinutes(10)));
+    try {
+      columns.appendSorted("Lab", second, 0, second + 1800, 0, null, null, 0);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    try {
+      columns.appendSorted("Trip", second + 7200, 0, second + 7200 + 2 * 86400, 0, null, null, 0);
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    columns.add(new Event("Late", day.plusHours(5), day.plusHours(6)));
+    try {
+      columns.appendSorted("Later", second + 36000, 0, second + 37800, 0, null, null, 0);
+      fail("Expected an IllegalStateException");
+    } catch (IllegalStateException e) {
+      //expected
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package calendar.model.calendarclass;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the EventKey class.
+ */
+public class EventKeyTest {
+  private final LocalDateTime start = LocalDateTime.of(2025, 6, 5, 9, 0);
+  private final LocalDateTime end = LocalDateTime.of(2025, 6, 5, 10, 0);
+
+  /**
+   * Tests that keys built from the same subject and times are equal and share a hash.
+   */
+  @Test
+  public void testEqualKeys() {
+    EventKey key = new EventKey(3, start, end);
+    EventKey same = new EventKey(3, LocalDateTime.of(2025, 6, 5, 9, 0),
+            LocalDateTime.of(2025, 6, 5, 10, 0));
+    assertEquals(key, same);
+    assertEquals(key.hashCode(), same.hashCode());
+  }
+
+  /**
+   * Tests that keys differing in subject, start, end, or only in seconds and nanoseconds are not
+   * equal.
+   */
+  @Test
+  public void testDifferentKeys() {
+    EventKey key = new EventKey(3, start, end);
+    assertNotEquals(key, new EventKey(4, start, end));
+    assertNotEquals(key, new EventKey(3, start.plusMinutes(1), end));
+    assertNotEquals(key, new EventKey(3, start, end.plusDays(1)));
+    assertNotEquals(key, new EventKey(3, start.plusSeconds(1), end));
+    assertNotEquals(key, new EventKey(3, start, end.plusNanos(1)));
+    assertNotEquals(key, null);
+  }
+
+  /**
+   * Tests that the start and end times are not interchangeable.
+   */
+  @Test
+  public void testStartAndEndOrder() {
+    assertNotEquals(new EventKey(1, start, end), new EventKey(1, end, start));
+  }
+}
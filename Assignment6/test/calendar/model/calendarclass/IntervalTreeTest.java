@@ -0,0 +1,160 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the IntervalTree class.
+ */
+public class IntervalTreeTest {
+  private IntervalTree<Event> tree;
+  private Event morning;
+  private Event lunch;
+  private Event overnight;
+  private LocalDateTime day;
+
+  /**
+   * Initializes a tree holding a few events on the same day, one of which runs overnight.
+   */
+  @Before
+  public void setUp() {
+    this.tree = new IntervalTree<>(Comparator.comparing(Event::getStartDateTime)
+            .thenComparing(Event::getEndDateTime).thenComparing(Event::getSubject),
+            Event::getStartDateTime, Event::getEndDateTime);
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+    this.morning = new Event("Morning", day.withHour(9), day.withHour(10));
+    this.lunch = new Event("Lunch", day.withHour(12), day.withHour(13));
+    this.overnight = new Event("Overnight", day.withHour(22), day.plusDays(1).withHour(6));
+    tree.add(lunch);
+    tree.add(overnight);
+    tree.add(morning);
+  }
+
+  /**
+   * Tests that every value is returned in start time order regardless of insertion order.
+   */
+  @Test
+  public void testToListSorted() {
+    assertEquals(List.of(morning, lunch, overnight), tree.toList());
+    assertEquals(3, tree.size());
+  }
+
+  /**
+   * Tests that overlap queries exclude intervals that only touch the boundary of the range, and
+   * include intervals that only partially overlap it.
+   */
+  @Test
+  public void testOverlapping() {
+    assertEquals(List.of(morning), tree.overlapping(day.withHour(9).withMinute(30),
+            day.withHour(12)));
+    assertEquals(List.of(morning, lunch), tree.overlapping(day, day.withHour(12).withMinute(1)));
+    assertEquals(List.of(overnight), tree.overlapping(day.plusDays(1), day.plusDays(2)));
+    assertTrue(tree.overlapping(day.withHour(10), day.withHour(12)).isEmpty());
+  }
+
+  /**
+   * Tests that point queries count the start and end times of an interval as part of it.
+   */
+  @Test
+  public void testAnyContaining() {
+    assertTrue(tree.anyContaining(day.withHour(9)));
+    assertTrue(tree.anyContaining(day.withHour(10)));
+    assertTrue(tree.anyContaining(day.plusDays(1).withHour(3)));
+    assertFalse(tree.anyContaining(day.withHour(11)));
+    assertFalse(tree.anyContaining(day.plusDays(1).withHour(7)));
+  }
+
+  /**
+   * Tests that removed values no longer appear in query results.
+   */
+  @Test
+  public void testRemove() {
+    tree.remove(lunch);
+    assertEquals(List.of(morning, overnight), tree.toList());
+    assertFalse(tree.anyContaining(day.withHour(12)));
+    tree.remove(lunch);
+    assertEquals(2, tree.size());
+  }
+
+  /**
+   * Tests that overlap queries on a large tree with random insertions and removals match the
+   * results of a linear scan.
+   */
+  @Test
+  public void testMatchesLinearScan() {
+    Random random = new Random(42);
+    List<Event> expected = new ArrayList<>(tree.toList());
+    for (int i = 0; i < 2000; i++) {
+      LocalDateTime start = day.plusMinutes(random.nextInt(60 * 24 * 30));
+      Event e = new Event("Event " + i, start, start.plusMinutes(random.nextInt(60 * 24 * 3)));
+      tree.add(e);
+      expected.add(e);
+    }
+    for (int i = 0; i < 500; i++) {
+      tree.remove(expected.remove(random.nextInt(expected.size())));
+    }
+    for (int i = 0; i < 100; i++) {
+      LocalDateTime from = day.plusMinutes(random.nextInt(60 * 24 * 30));
+      LocalDateTime to = from.plusHours(random.nextInt(48));
+      List<Event> result = tree.overlapping(from, to);
+      long count = expected.stream().filter(e -> e.getStartDateTime().isBefore(to)
+              && e.getEndDateTime().isAfter(from)).count();
+      assertEquals(count, result.size());
+      for (int j = 1; j < result.size(); j++) {
+        assertFalse(result.get(j).getStartDateTime()
+                .isBefore(result.get(j - 1).getStartDateTime()));
+      }
+      boolean busy = expected.stream().anyMatch(e -> !e.getStartDateTime().isAfter(from)
+              && !e.getEndDateTime().isBefore(from));
+      assertEquals(busy, tree.anyContaining(from));
+    }
+    assertEquals(expected.size(), tree.size());
+  }
+
+  /**
+   * Tests that bulk additions, both large enough to rebuild the tree and small enough to be
+   * inserted one at a time, keep the tree sorted, replace equal values, and answer queries.
+   */
+  @Test
+  public void testAddAll() {
+    Event lunchAgain = new Event("Lunch", day.withHour(12), day.withHour(13));
+    Event early = new Event("Early", day.withHour(6), day.withHour(7));
+    tree.addAll(List.of(lunchAgain, early));
+    assertEquals(List.of(early, morning, lunchAgain, overnight), tree.toList());
+    assertEquals(4, tree.size());
+
+    List<Event> expected = new ArrayList<>(tree.toList());
+    List<Event> bulk = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      LocalDateTime start = day.plusDays(2).plusMinutes(37L * (999 - i));
+      bulk.add(new Event("Bulk " + i, start, start.plusHours(3)));
+    }
+    tree.addAll(bulk);
+    expected.addAll(bulk);
+    Event late = new Event("Late", day.withHour(23), day.withHour(23).withMinute(30));
+    tree.addAll(List.of(late));
+    expected.add(late);
+    assertEquals(expected.size(), tree.size());
+    List<Event> all = tree.toList();
+    for (int i = 1; i < all.size(); i++) {
+      assertFalse(all.get(i).getStartDateTime().isBefore(all.get(i - 1).getStartDateTime()));
+    }
+    LocalDateTime from = day.plusDays(5);
+    long count = expected.stream().filter(e -> e.getStartDateTime().isBefore(from.plusHours(6))
+            && e.getEndDateTime().isAfter(from)).count();
+    assertEquals(count, tree.overlapping(from, from.plusHours(6)).size());
+    assertTrue(tree.anyContaining(day.withHour(23).withMinute(15)));
+  }
+}
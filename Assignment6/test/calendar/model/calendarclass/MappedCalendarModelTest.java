@@ -0,0 +1,73 @@
+package calendar.model.calendarclass;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the MappedCalendarModel
+ * class, running the tests written in AbstractCalendarModelTest against a calendar whose events
+ * are kept in a memory-mapped file.
+ */
+public class MappedCalendarModelTest extends AbstractCalendarModelTest {
+
+  /**
+   * Constructs a new MappedCalendarModel object backed by a temporary file.
+   *
+   * @return the created MappedCalendarModel
+   */
+  @Override
+  public ICalendar createCalendarModel() {
+    return create(ZoneId.of("UTC"));
+  }
+
+  private static MappedCalendarModel create(ZoneId zone) {
+    try {
+      Path file = Files.createTempFile("calendar", ".events");
+      file.toFile().deleteOnExit();
+      file.resolveSibling(file.getFileName() + ".strings").toFile().deleteOnExit();
+      return new MappedCalendarModel("mapped", zone, file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Tests that a calendar with many events added one at a time and in bulk answers queries and
+   * availability checks from the file, including after edits.
+   */
+  @Test
+  public void testManyEvents() throws IOException {
+    try (MappedCalendarModel model = create(ZoneId.of("America/New_York"))) {
+      LocalDateTime base = LocalDateTime.of(2025, 1, 1, 8, 0);
+      List<Event> events = new ArrayList<>();
+      for (int i = 0; i < 5_000; i++) {
+        LocalDateTime start = base.plusDays(i / 10).plusHours(i % 10);
+        events.add(new Event("Event " + i, start, start.plusMinutes(30)));
+      }
+      model.addEvents(events);
+      model.addEvent(new Event("Late", base.plusMinutes(40), base.plusMinutes(50)));
+      assertEquals(11, model.getEventsOnDate(base.toLocalDate()).size());
+      assertTrue(model.isBusy(base.plusMinutes(45)));
+      assertFalse(model.isBusy(base.plusMinutes(55)));
+      model.editSingleEvent("subject", "Late", "2025-01-01T08:40", "2025-01-01T08:50",
+              "Renamed");
+      assertEquals("Renamed", model.getEventsInRange(base.plusMinutes(40),
+              base.plusMinutes(41)).get(0).getSubject());
+      assertEquals(5_001, model.getEventsInRange(base, base.plusYears(2)).size());
+    }
+  }
+}
@@ -0,0 +1,205 @@
+package calendar.model.calendarclass;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the MappedEventStore class.
+ */
+public class MappedEventStoreTest {
+  private static final Comparator<Event> ORDER = Comparator.comparing(Event::getStartDateTime)
+          .thenComparing(Event::getEndDateTime).thenComparing(Event::getSubject);
+  private Path file;
+  private MappedEventStore store;
+  private LocalDateTime day;
+
+  /**
+   * Initializes an empty store backed by a temporary file.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("store", ".events");
+    this.store = new MappedEventStore(file, ORDER);
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+  }
+
+  /**
+   * Closes the store and deletes its files.
+   */
+  @After
+  public void tearDown() throws IOException {
+    store.close();
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".strings"));
+  }
+
+  /**
+   * Creates the given number of half-hour events, one every hour from the start of the test day.
+   *
+   * @param count the number of events
+   * @return the events, sorted by start time
+   */
+  private List<Event> hourly(int count) {
+    List<Event> events = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      events.add(new Event("Event " + i, day.plusHours(i), day.plusHours(i).plusMinutes(30)));
+    }
+    return events;
+  }
+
+  /**
+   * Tests that every detail of an event is kept, including times that are not whole minutes.
+   */
+  @Test
+  public void testDetailsKept() {
+    Event event = new Event.EventBuilder().subject("Call")
+            .startDateTime(day.withHour(9).withSecond(5).withNano(7))
+            .endDateTime(day.withHour(10)).description("notes").location(Location.ONLINE)
+            .status(EventStatus.PRIVATE).seriesId("s").isAllDayEvent(true).build();
+    store.add(event);
+    assertEquals(event, store.get("Call", event.getStartDateTime(), event.getEndDateTime()));
+    assertEquals(List.of(event), store.toList());
+  }
+
+  /**
+   * Tests that events are found and removed both before and after the delta is merged into the
+   * main store, and that the size follows along.
+   */
+  @Test
+  public void testAddGetRemoveAcrossMerges() {
+    List<Event> events = hourly(2_000);
+    for (Event event : events) {
+      store.add(event);
+    }
+    assertEquals(2_000, store.size());
+    for (Event event : events) {
+      assertEquals(event, store.get(event.getSubject(), event.getStartDateTime(),
+              event.getEndDateTime()));
+    }
+    for (int i = 0; i < events.size(); i += 2) {
+      assertTrue(store.remove(events.get(i)));
+    }
+    assertFalse(store.remove(events.get(0)));
+    assertEquals(1_000, store.size());
+    assertNull(store.get("Event 0", day, day.plusMinutes(30)));
+    assertEquals(events.get(1), store.get("Event 1", day.plusHours(1),
+            day.plusHours(1).plusMinutes(30)));
+    assertEquals(1_000, store.toList().size());
+  }
+
+  /**
+   * Tests that range queries return overlapping events in order, from both the main store and
+   * the delta, and leave out events that only touch the range.
+   */
+  @Test
+  public void testOverlapping() {
+    store.addAll(hourly(1_000));
+    store.add(new Event("Late", day.plusHours(3).plusMinutes(10), day.plusHours(3)
+            .plusMinutes(20)));
+    List<Event> found = store.overlapping(day.plusHours(3), day.plusHours(4));
+    assertEquals(2, found.size());
+    assertEquals("Event 3", found.get(0).getSubject());
+    assertEquals("Late", found.get(1).getSubject());
+    assertTrue(store.overlapping(day.plusMinutes(30), day.plusHours(1)).isEmpty());
+    assertEquals(1_001, store.overlapping(LocalDateTime.MIN, LocalDateTime.MAX).size());
+  }
+
+  /**
+   * Tests that events lasting longer than a day are found by range and point queries far from
+   * their start.
+   */
+  @Test
+  public void testLongEvents() {
+    store.addAll(hourly(500));
+    Event vacation = new Event("Vacation", day, day.plusDays(10));
+    store.add(vacation);
+    assertTrue(store.overlapping(day.plusDays(9), day.plusDays(9).plusMinutes(1))
+            .contains(vacation));
+    assertTrue(store.anyContaining(day.plusDays(9)));
+    assertEquals(List.of(vacation), store.startingAt("Vacation", day));
+    assertTrue(store.remove(vacation));
+    assertFalse(store.anyContaining(day.plusDays(30)));
+  }
+
+  /**
+   * Tests that point queries count the start and end of an event as busy.
+   */
+  @Test
+  public void testAnyContaining() {
+    store.addAll(hourly(1_000));
+    assertTrue(store.anyContaining(day.plusHours(5)));
+    assertTrue(store.anyContaining(day.plusHours(5).plusMinutes(30)));
+    assertFalse(store.anyContaining(day.plusHours(5).plusMinutes(31)));
+  }
+
+  /**
+   * Tests that events are found by subject and start time, or by subject within a range.
+   */
+  @Test
+  public void testSubjectLookups() {
+    store.addAll(hourly(1_000));
+    store.add(new Event("Event 7", day.plusHours(7), day.plusHours(8)));
+    assertEquals(2, store.startingAt("Event 7", day.plusHours(7)).size());
+    assertTrue(store.startingAt("Event 7", day.plusHours(8)).isEmpty());
+    assertTrue(store.startingAt("Unknown", day).isEmpty());
+    assertEquals(2, store.withSubject("Event 7", day, day.plusDays(1)).size());
+    assertEquals(List.of(new Event("Event 7", day.plusHours(7), day.plusHours(8))),
+            store.withSubject("Event 7", day.plusHours(7).plusMinutes(30), day.plusDays(1)));
+    assertTrue(store.withSubject("Event 7", day.plusHours(8), day.plusDays(1)).isEmpty());
+    assertTrue(store.withSubject("Unknown", day, day.plusDays(1)).isEmpty());
+  }
+
+  /**
+   * Tests that text of any length and alphabet is read back, that missing text stays missing,
+   * and that subjects sharing a hash are told apart.
+   */
+  @Test
+  public void testText() {
+    String subject = "Caf\u00e9 \u2615 \u4f1a\u8bae";
+    Event accented = new Event.EventBuilder().subject(subject).startDateTime(day)
+            .endDateTime(day.plusHours(1)).description("x".repeat(10_000)).build();
+    //"Aa" and "BB" have the same hash code
+    Event first = new Event("Aa", day.plusHours(2), day.plusHours(3));
+    Event second = new Event("BB", day.plusHours(2), day.plusHours(3));
+    store.addAll(List.of(accented, first, second));
+    assertEquals(accented, store.get(subject, day, day.plusHours(1)));
+    assertEquals(10_000, store.toList().get(0).getDescription().length());
+    assertNull(store.get("Aa", day.plusHours(2), day.plusHours(3)).getDescription());
+    assertEquals(List.of(second), store.withSubject("BB", day, day.plusDays(1)));
+    assertTrue(store.remove(first));
+    assertNull(store.get("Aa", day.plusHours(2), day.plusHours(3)));
+    assertEquals(second, store.get("BB", day.plusHours(2), day.plusHours(3)));
+  }
+
+  /**
+   * Tests that a store opened on the file of an earlier store starts out empty.
+   */
+  @Test
+  public void testReopenedFileIsEmpty() throws IOException {
+    store.addAll(hourly(300));
+    store.close();
+    store = new MappedEventStore(file, ORDER);
+    assertEquals(0, store.size());
+    assertTrue(store.toList().isEmpty());
+    store.add(new Event("Fresh", day, day.plusHours(1)));
+    assertEquals(1, store.overlapping(LocalDateTime.MIN, LocalDateTime.MAX).size());
+  }
+}
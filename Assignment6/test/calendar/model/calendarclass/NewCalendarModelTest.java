@@ -8,9 +8,13 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
 
+import calendar.model.enumclass.Location;
 import calendar.model.event.Event;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -107,17 +111,146 @@ public class NewCalendarModelTest extends AbstractCalendarModelTest {
 
   /**
    * Tests that changing a calendar's timezone to where it doesn't make a series event span
-   * multiple days works properly.
+   * multiple days works properly, keeping every occurrence in the series.
    */
   @Test
   public void testSetTimeZoneSeriesSpanValid() {
     c2.setTimeZone(ZoneId.of("America/New_York"));
-    String seriesId = c2.getEventsOnDate(LocalDate.of(2025, 1, 1))
-            .get(0).getSeriesId();
-    List<Event> events = c2.getEventsBySeriesId(seriesId);
-    assertEquals(1, events.size());
-    assertTrue(events.contains(c2.getEventsOnDate(LocalDate.of(2025, 1, 1)).get(0)));
-    assertTrue(events.contains(c2.getEventsOnDate(LocalDate.of(2025, 1, 1)).get(0)));
-    assertTrue(events.contains(c2.getEventsOnDate(LocalDate.of(2025, 1, 1)).get(0)));
+    Event first = c2.getEventsOnDate(LocalDate.of(2025, 1, 1)).get(0);
+    assertEquals(start.plusHours(3), first.getStartDateTime());
+    assertEquals(end.plusHours(3), first.getEndDateTime());
+    List<Event> events = c2.getEventsBySeriesId(first.getSeriesId());
+    assertEquals(3, events.size());
+    assertTrue(events.contains(first));
+    assertTrue(events.contains(c2.getEventsOnDate(LocalDate.of(2025, 1, 3)).get(0)));
+    assertTrue(events.contains(c2.getEventsOnDate(LocalDate.of(2025, 1, 6)).get(0)));
+  }
+
+  /**
+   * Tests that changing the time zone of a series that crosses the daylight saving changes of
+   * both time zones finishes, and moves each occurrence by the offset between the zones on its
+   * own date.
+   */
+  @Test(timeout = 10_000)
+  public void testSetTimeZoneSeriesAcrossDaylightSaving() {
+    NewCalendarModel daily = new NewCalendarModel("daily", ZoneId.of("America/New_York"));
+    daily.createRecurringEvent("standup", "2025-03-01T09:00", "2025-03-01T09:30", "MTWRFSU", 60);
+    daily.setTimeZone(ZoneId.of("Europe/London"));
+    Event first = daily.getEventsOnDate(LocalDate.of(2025, 3, 3)).get(0);
+    assertEquals(LocalDateTime.of(2025, 3, 3, 14, 0), first.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 3, 10, 13, 0),
+            daily.getEventsOnDate(LocalDate.of(2025, 3, 10)).get(0).getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 4, 1, 14, 0),
+            daily.getEventsOnDate(LocalDate.of(2025, 4, 1)).get(0).getStartDateTime());
+    assertEquals(60, daily.getEventsBySeriesId(first.getSeriesId()).size());
+  }
+
+  /**
+   * Tests that events cannot start or end at a time the clocks of the calendar's time zone skip,
+   * that lookups at such times find nothing, and that a time the clocks show twice is read as the
+   * first of the two.
+   */
+  @Test
+  public void testDaylightSavingGapsAndOverlaps() {
+    String skipped = "The time 2025-03-09T02:30 does not exist in time zone America/New_York, as "
+            + "the clocks skip it.";
+    try {
+      c.createSingleEvent("x", "2025-03-09T02:30", "2025-03-09T04:00");
+      fail("An event should not start at a time the clocks skip.");
+    } catch (IllegalArgumentException e) {
+      assertEquals(skipped, e.getMessage());
+    }
+    try {
+      c.createRecurringEvent("y", "2025-03-09T02:30", "2025-03-09T04:00", "U", 3);
+      fail("A series should not start at a time the clocks skip.");
+    } catch (IllegalArgumentException e) {
+      assertEquals(skipped, e.getMessage());
+    }
+    c.createSingleEvent("x", "2025-03-09T03:30", "2025-03-09T04:00");
+    LocalDateTime gap = LocalDateTime.of(2025, 3, 9, 2, 30);
+    LocalDateTime four = LocalDateTime.of(2025, 3, 9, 4, 0);
+    assertNull(c.getEvent("x", gap, four));
+    assertTrue(c.findEventsBySubjectAndStart("x", gap).isEmpty());
+    assertEquals(LocalDateTime.of(2025, 3, 9, 3, 30),
+            c.getEvent("x", gap.plusHours(1), four).getStartDateTime());
+    try {
+      c.editSingleEvent("start", "x", "2025-03-09T03:30", "2025-03-09T04:00",
+              "2025-03-09T02:45");
+      fail("An event should not be moved to a time the clocks skip.");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("The time 2025-03-09T02:45 does not exist"));
+    }
+    assertNotNull(c.getEvent("x", gap.plusHours(1), four));
+
+    c.createSingleEvent("z", "2025-11-02T01:30", "2025-11-02T01:45");
+    c.setTimeZone(ZoneId.of("UTC"));
+    assertEquals(LocalDateTime.of(2025, 11, 2, 5, 30),
+            c.getEventsOnDate(LocalDate.of(2025, 11, 2)).get(0).getStartDateTime());
+  }
+
+  /**
+   * Tests that lookups and edits after a time zone change are read in the new time zone, and
+   * that changing back shows every event at its original time.
+   */
+  @Test
+  public void testLookupsAfterTimeZoneChange() {
+    c.setTimeZone(ZoneId.of("Europe/London"));
+    assertNull(c.getEvent("meeting", start, end));
+    assertTrue(c.isBusy(start.plusHours(5)));
+    assertFalse(c.isBusy(start));
+    c.editSingleEvent("location", "meeting", start.plusHours(5).toString(),
+            end.plusHours(5).toString(), "online");
+    c.setTimeZone(ZoneId.of("America/New_York"));
+    Event event = c.getEvent("meeting", start, end);
+    assertEquals(Location.ONLINE, event.getLocation());
+  }
+
+  /**
+   * Tests that a time zone change does not edit any event, notifying observers once with a
+   * change covering every time instead.
+   */
+  @Test
+  public void testTimeZoneChangeTouchesNoEvents() {
+    CountingObserver observer = new CountingObserver();
+    c.addObserver(observer);
+    int before = observer.notifications;
+    c.setTimeZone(ZoneId.of("Asia/Tokyo"));
+    assertEquals(before + 1, observer.notifications);
+    assertTrue(observer.lastChange.getChanged().isEmpty());
+    assertTrue(observer.lastChange.overlaps(LocalDateTime.MIN, LocalDateTime.MAX));
+    assertEquals(start.plusHours(14), c.getEventsOnDate(LocalDate.of(2025, 1, 1)).get(0)
+            .getStartDateTime());
+  }
+
+  /**
+   * Tests that a calendar is marked as changed by every change to its events, name or time zone,
+   * until it is marked as saved.
+   */
+  @Test
+  public void testChangesMarkCalendarDirty() {
+    assertTrue(c.isDirty());
+    c.setDirty(false);
+    assertFalse(c.isDirty());
+    c.getEventsOnDate(LocalDate.of(2025, 1, 1));
+    assertFalse(c.isDirty());
+    c.createSingleEvent("lunch", "2025-01-01T12:00", "2025-01-01T13:00");
+    assertTrue(c.isDirty());
+
+    c.setDirty(false);
+    c.editSingleEvent("location", "lunch", "2025-01-01T12:00", "2025-01-01T13:00", "online");
+    assertTrue(c.isDirty());
+    c.setDirty(false);
+    c.setName("renamed");
+    assertTrue(c.isDirty());
+    c.setDirty(false);
+    try {
+      c.createSingleEvent("lunch", "2025-01-01T12:00", "2025-01-01T13:00");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //a failed change leaves the calendar unchanged
+    }
+    assertFalse(c.isDirty());
+    c.setTimeZone(ZoneId.of("Asia/Tokyo"));
+    assertTrue(c.isDirty());
   }
 }
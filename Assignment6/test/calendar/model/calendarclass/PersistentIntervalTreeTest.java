@@ -0,0 +1,189 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the PersistentIntervalTree
+ * class, and that every version of a tree is left as it was when newer versions are made from it.
+ */
+public class PersistentIntervalTreeTest {
+  private PersistentIntervalTree<Event> empty;
+  private PersistentIntervalTree<Event> tree;
+  private Event morning;
+  private Event lunch;
+  private Event overnight;
+  private LocalDateTime day;
+
+  /**
+   * Initializes a tree holding a few events on the same day, one of which runs overnight.
+   */
+  @Before
+  public void setUp() {
+    this.empty = PersistentIntervalTree.empty(Comparator.comparing(Event::getStartDateTime)
+            .thenComparing(Event::getEndDateTime).thenComparing(Event::getSubject),
+            Event::getStartDateTime, Event::getEndDateTime);
+    this.day = LocalDateTime.of(2025, 6, 5, 0, 0);
+    this.morning = new Event("Morning", day.withHour(9), day.withHour(10));
+    this.lunch = new Event("Lunch", day.withHour(12), day.withHour(13));
+    this.overnight = new Event("Overnight", day.withHour(22), day.plusDays(1).withHour(6));
+    this.tree = empty.with(lunch).with(overnight).with(morning);
+  }
+
+  /**
+   * Tests that every value is returned in start time order regardless of insertion order, and
+   * that the versions the tree was built from are unchanged.
+   */
+  @Test
+  public void testWithKeepsOlderVersions() {
+    assertEquals(List.of(morning, lunch, overnight), tree.toList());
+    assertEquals(3, tree.size());
+    assertEquals(0, empty.size());
+    assertTrue(empty.toList().isEmpty());
+    PersistentIntervalTree<Event> two = empty.with(lunch).with(overnight);
+    assertEquals(List.of(lunch, overnight), two.toList());
+  }
+
+  /**
+   * Tests that overlap queries exclude intervals that only touch the boundary of the range, and
+   * include intervals that only partially overlap it.
+   */
+  @Test
+  public void testOverlapping() {
+    assertEquals(List.of(morning), tree.overlapping(day.withHour(9).withMinute(30),
+            day.withHour(12)));
+    assertEquals(List.of(morning, lunch), tree.overlapping(day, day.withHour(12).withMinute(1)));
+    assertEquals(List.of(overnight), tree.overlapping(day.plusDays(1), day.plusDays(2)));
+    assertTrue(tree.overlapping(day.withHour(10), day.withHour(12)).isEmpty());
+  }
+
+  /**
+   * Tests that point queries count the start and end times of an interval as part of it.
+   */
+  @Test
+  public void testAnyContaining() {
+    assertTrue(tree.anyContaining(day.withHour(9)));
+    assertTrue(tree.anyContaining(day.withHour(10)));
+    assertTrue(tree.anyContaining(day.plusDays(1).withHour(3)));
+    assertFalse(tree.anyContaining(day.withHour(11)));
+    assertFalse(tree.anyContaining(day.plusDays(1).withHour(7)));
+  }
+
+  /**
+   * Tests that removing a value leaves the tree it was removed from unchanged, and that removing
+   * a missing value returns the same tree.
+   */
+  @Test
+  public void testWithout() {
+    PersistentIntervalTree<Event> noLunch = tree.without(lunch);
+    assertEquals(List.of(morning, overnight), noLunch.toList());
+    assertFalse(noLunch.anyContaining(day.withHour(12)));
+    assertEquals(List.of(morning, lunch, overnight), tree.toList());
+    assertTrue(tree.anyContaining(day.withHour(12)));
+    assertSame(noLunch, noLunch.without(lunch));
+    assertEquals(2, noLunch.size());
+  }
+
+  /**
+   * Tests that adding a value equal to one in the tree replaces it without growing the tree.
+   */
+  @Test
+  public void testWithReplacesEqualValue() {
+    Event lunchAgain = new Event("Lunch", day.withHour(12), day.withHour(13));
+    PersistentIntervalTree<Event> replaced = tree.with(lunchAgain);
+    assertEquals(3, replaced.size());
+    assertSame(lunchAgain, replaced.toList().get(1));
+    assertSame(lunch, tree.toList().get(1));
+  }
+
+  /**
+   * Tests that random insertions and removals match a linear scan at every version kept along
+   * the way, so no version is changed by the ones made after it.
+   */
+  @Test
+  public void testVersionsMatchLinearScan() {
+    Random random = new Random(42);
+    List<Event> expected = new ArrayList<>(tree.toList());
+    List<PersistentIntervalTree<Event>> versions = new ArrayList<>();
+    List<List<Event>> contents = new ArrayList<>();
+    PersistentIntervalTree<Event> current = tree;
+    for (int i = 0; i < 2000; i++) {
+      if (i % 4 == 3) {
+        current = current.without(expected.remove(random.nextInt(expected.size())));
+      } else {
+        LocalDateTime start = day.plusMinutes(random.nextInt(60 * 24 * 30));
+        Event e = new Event("Event " + i, start,
+                start.plusMinutes(random.nextInt(60 * 24 * 3)));
+        current = current.with(e);
+        expected.add(e);
+      }
+      if (i % 200 == 0) {
+        versions.add(current);
+        contents.add(new ArrayList<>(expected));
+      }
+    }
+    versions.add(current);
+    contents.add(expected);
+    for (int v = 0; v < versions.size(); v++) {
+      PersistentIntervalTree<Event> version = versions.get(v);
+      List<Event> events = contents.get(v);
+      assertEquals(events.size(), version.size());
+      for (int i = 0; i < 20; i++) {
+        LocalDateTime from = day.plusMinutes(random.nextInt(60 * 24 * 30));
+        LocalDateTime to = from.plusHours(random.nextInt(48));
+        List<Event> result = version.overlapping(from, to);
+        long count = events.stream().filter(e -> e.getStartDateTime().isBefore(to)
+                && e.getEndDateTime().isAfter(from)).count();
+        assertEquals(count, result.size());
+        for (int j = 1; j < result.size(); j++) {
+          assertFalse(result.get(j).getStartDateTime()
+                  .isBefore(result.get(j - 1).getStartDateTime()));
+        }
+        boolean busy = events.stream().anyMatch(e -> !e.getStartDateTime().isAfter(from)
+                && !e.getEndDateTime().isBefore(from));
+        assertEquals(busy, version.anyContaining(from));
+      }
+    }
+  }
+
+  /**
+   * Tests that bulk additions, both large enough to rebuild the tree and small enough to be
+   * inserted one at a time, keep the tree sorted and replace equal values.
+   */
+  @Test
+  public void testWithAll() {
+    Event lunchAgain = new Event("Lunch", day.withHour(12), day.withHour(13));
+    Event early = new Event("Early", day.withHour(6), day.withHour(7));
+    PersistentIntervalTree<Event> grown = tree.withAll(List.of(lunchAgain, early));
+    assertEquals(List.of(early, morning, lunchAgain, overnight), grown.toList());
+    assertEquals(3, tree.size());
+
+    List<Event> bulk = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      LocalDateTime start = day.plusDays(2).plusMinutes(37L * (999 - i));
+      bulk.add(new Event("Bulk " + i, start, start.plusHours(3)));
+    }
+    grown = grown.withAll(bulk);
+    Event late = new Event("Late", day.withHour(23), day.withHour(23).withMinute(30));
+    grown = grown.withAll(List.of(late));
+    assertEquals(1005, grown.size());
+    List<Event> all = grown.toList();
+    for (int i = 1; i < all.size(); i++) {
+      assertFalse(all.get(i).getStartDateTime().isBefore(all.get(i - 1).getStartDateTime()));
+    }
+    assertTrue(grown.anyContaining(day.withHour(23).withMinute(15)));
+  }
+}
@@ -0,0 +1,89 @@
+package calendar.model.calendarclass;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the scans provided by the RangeScan interface.
+ * The vector scan is only checked when it can be used in the JVM running the tests.
+ */
+public class RangeScanTest {
+  private final long[] starts = {0, 10, 20, 30, 40, 50, 60, 70, 80, 90};
+  private final long[] ends = {5, 25, 20, 60, 45, 55, 100, 75, 85, 95};
+
+  /**
+   * Tests that the scalar scan finds the rows that start at or before the given second and end at
+   * or after the other, including rows touching either bound.
+   */
+  @Test
+  public void testScalarScan() {
+    int[] rows = new int[starts.length];
+    int count = RangeScan.scalar().scan(starts, ends, 0, starts.length, 50, 20, rows);
+    assertEquals("[1, 2, 3, 4, 5]", Arrays.toString(Arrays.copyOf(rows, count)));
+  }
+
+  /**
+   * Tests that only the rows between the given bounds are scanned.
+   */
+  @Test
+  public void testScanWithinRows() {
+    int[] rows = new int[starts.length];
+    int count = RangeScan.scalar().scan(starts, ends, 2, 6, 100, 0, rows);
+    assertEquals("[2, 3, 4, 5]", Arrays.toString(Arrays.copyOf(rows, count)));
+    assertEquals(0, RangeScan.scalar().scan(starts, ends, 4, 4, 100, 0, rows));
+  }
+
+  /**
+   * Tests that the scan chosen by default is always available, and that the system property can
+   * force the scalar scan.
+   */
+  @Test
+  public void testSelect() {
+    assertNotNull(RangeScan.select());
+    System.setProperty(RangeScan.PROPERTY, "scalar");
+    try {
+      int[] rows = new int[starts.length];
+      assertEquals(5, RangeScan.select().scan(starts, ends, 0, starts.length, 50, 20, rows));
+    } finally {
+      System.clearProperty(RangeScan.PROPERTY);
+    }
+  }
+
+  /**
+   * Tests that the vector scan finds the same rows as the scalar scan on random rows, for ranges
+   * of rows that do and do not line up with the width of a vector.
+   */
+  @Test
+  public void testVectorMatchesScalar() {
+    RangeScan vector = RangeScan.vector();
+    if (vector == null) {
+      return;
+    }
+    Random random = new Random(13);
+    long[] randomStarts = new long[1000];
+    long[] randomEnds = new long[1000];
+    for (int i = 0; i < randomStarts.length; i++) {
+      randomStarts[i] = random.nextInt(10000);
+      randomEnds[i] = randomStarts[i] + random.nextInt(500);
+    }
+    int[] expected = new int[randomStarts.length];
+    int[] actual = new int[randomStarts.length];
+    for (int i = 0; i < 200; i++) {
+      int fromRow = random.nextInt(randomStarts.length);
+      int toRow = fromRow + random.nextInt(randomStarts.length - fromRow + 1);
+      long maxStart = random.nextInt(10000);
+      long minEnd = maxStart - random.nextInt(1000);
+      int count = RangeScan.scalar().scan(randomStarts, randomEnds, fromRow, toRow, maxStart,
+              minEnd, expected);
+      assertEquals(count, vector.scan(randomStarts, randomEnds, fromRow, toRow, maxStart, minEnd,
+              actual));
+      assertTrue(Arrays.equals(expected, 0, count, actual, 0, count));
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package calendar.model.calendarclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import calendar.model.event.Event;
+import calendar.model.event.RecurringEventRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the functionality of the methods within the RecurringSeries class.
+ */
+public class RecurringSeriesTest {
+  private RecurringSeries series;
+  private LocalDate monday;
+
+  /**
+   * Initializes a series of standups on Mondays, Wednesdays and Fridays for four weeks.
+   */
+  @Before
+  public void setUp() {
+    this.monday = LocalDate.of(2025, 6, 2);
+    Event template = new Event.EventBuilder().subject("Standup")
+            .startDateTime(monday.atTime(9, 0)).endDateTime(monday.atTime(9, 15))
+            .description("daily").seriesId("standup").build();
+    RecurringEventRule rule = new RecurringEventRule("MWF", 12, null,
+            LocalTime.of(9, 0), LocalTime.of(9, 15), false);
+    this.series = new RecurringSeries(template, rule, ZoneOffset.UTC, monday, monday.plusDays(25),
+            Set.of());
+  }
+
+  /**
+   * Tests that occurrences are created with the template's details on the dates of the rule.
+   */
+  @Test
+  public void testOccurrences() {
+    assertEquals(12, series.size());
+    List<Event> occurrences = series.occurrences();
+    assertEquals(12, occurrences.size());
+    assertEquals(monday.plusDays(2).atTime(9, 0), occurrences.get(1).getStartDateTime());
+    assertEquals(monday.plusDays(25).atTime(9, 15), occurrences.get(11).getEndDateTime());
+    assertEquals("daily", occurrences.get(5).getDescription());
+    assertEquals("standup", occurrences.get(5).getSeriesId());
+  }
+
+  /**
+   * Tests that occurrences are found by start time only on dates and times of the rule.
+   */
+  @Test
+  public void testOccurrenceAt() {
+    assertEquals(series.occurrences().get(2), series.occurrenceAt(monday.plusDays(4)
+            .atTime(9, 0)));
+    assertNull(series.occurrenceAt(monday.plusDays(1).atTime(9, 0)));
+    assertNull(series.occurrenceAt(monday.atTime(9, 5)));
+    assertNull(series.occurrenceAt(monday.plusDays(28).atTime(9, 0)));
+  }
+
+  /**
+   * Tests that range queries only return occurrences overlapping the range.
+   */
+  @Test
+  public void testOccurrencesBetween() {
+    List<Event> week = series.occurrencesBetween(monday.plusDays(7).atStartOfDay(),
+            monday.plusDays(14).atStartOfDay());
+    assertEquals(3, week.size());
+    assertEquals(monday.plusDays(7).atTime(9, 0), week.get(0).getStartDateTime());
+    assertTrue(series.occurrencesBetween(monday.atTime(9, 15), monday.atTime(12, 0)).isEmpty());
+    assertEquals(1, series.occurrencesBetween(monday.atTime(9, 14), monday.atTime(12, 0))
+            .size());
+  }
+
+  /**
+   * Tests that a series is busy between the start and end of each occurrence, inclusive.
+   */
+  @Test
+  public void testIsBusyAt() {
+    assertTrue(series.isBusyAt(monday.atTime(9, 0)));
+    assertTrue(series.isBusyAt(monday.atTime(9, 15)));
+    assertFalse(series.isBusyAt(monday.atTime(9, 16)));
+    assertFalse(series.isBusyAt(monday.plusDays(1).atTime(9, 5)));
+  }
+
+  /**
+   * Tests that excluded occurrences are no longer part of the series, and that the series is
+   * empty once every occurrence is excluded.
+   */
+  @Test
+  public void testExclude() {
+    series.exclude(monday.plusDays(2));
+    series.exclude(monday.plusDays(2));
+    series.exclude(monday.plusDays(3));
+    assertEquals(11, series.size());
+    assertFalse(series.occursOn(monday.plusDays(2)));
+    assertNull(series.occurrenceAt(monday.plusDays(2).atTime(9, 0)));
+    for (Event occurrence : series.occurrences()) {
+      series.exclude(occurrence.getStartDateTime().toLocalDate());
+    }
+    assertTrue(series.isEmpty());
+  }
+
+  /**
+   * Tests that splitting a series keeps each part's exceptions, and that a new template changes
+   * the details of every occurrence.
+   */
+  @Test
+  public void testBetweenAndWithTemplate() {
+    series.exclude(monday.plusDays(9));
+    RecurringSeries before = series.between(LocalDate.MIN, monday.plusDays(6));
+    RecurringSeries after = series.between(monday.plusDays(7), LocalDate.MAX);
+    assertEquals(3, before.size());
+    assertEquals(8, after.size());
+    assertEquals(monday.plusDays(7).atTime(9, 0), after.getStart());
+    assertFalse(after.occursOn(monday.plusDays(9)));
+
+    Event template = new Event.EventBuilder().subject("Sync")
+            .startDateTime(monday.atTime(9, 0)).endDateTime(monday.atTime(9, 15))
+            .seriesId("standup").build();
+    RecurringSeries renamed = after.withTemplate(template);
+    assertEquals("Sync", renamed.getSubject());
+    assertEquals("Sync", renamed.occurrences().get(0).getSubject());
+    assertEquals(8, renamed.size());
+    assertEquals(LocalDateTime.of(2025, 6, 27, 9, 15), renamed.getEnd());
+  }
+}
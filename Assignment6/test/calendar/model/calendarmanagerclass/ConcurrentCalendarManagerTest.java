@@ -0,0 +1,291 @@
+package calendar.model.calendarmanagerclass;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.calendarclass.CalendarChange;
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the ConcurrentCalendarManager class: that each session keeps its
+ * own calendar in use, that calendars are created, renamed and copied between as by a
+ * CalendarManagerModel, and that sessions working at once neither lose changes nor wait for each
+ * other forever.
+ */
+public class ConcurrentCalendarManagerTest {
+  private ConcurrentCalendarManager manager;
+  private ICalendarManager alice;
+  private ICalendarManager bob;
+
+  /**
+   * Creates a manager holding a calendar in New York time and one in London time, and opens two
+   * sessions of it.
+   */
+  @Before
+  public void setUp() {
+    this.manager = new ConcurrentCalendarManager();
+    this.alice = this.manager.openSession();
+    this.bob = this.manager.openSession();
+    this.alice.createCalendar("work", "America/New_York");
+    this.bob.createCalendar("home", "Europe/London");
+  }
+
+  /**
+   * Tests that choosing a calendar in one session does not change the calendar of another.
+   */
+  @Test
+  public void testSessionsKeepTheirOwnCalendar() {
+    try {
+      this.alice.getCurrentActiveCalendar();
+      fail("A new session should have no calendar in use.");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage().startsWith("No active calendar is currently selected."));
+    }
+    this.alice.setCurrentCalendar("work");
+    this.bob.setCurrentCalendar("home");
+    assertSame(this.alice.getTargetCalendar("work"), this.alice.getCurrentActiveCalendar());
+    assertSame(this.bob.getTargetCalendar("home"), this.bob.getCurrentActiveCalendar());
+    assertSame(this.alice.getTargetCalendar("home"), this.bob.getTargetCalendar("home"));
+    try {
+      this.bob.setCurrentCalendar("gym");
+      fail("A missing calendar should not be used.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar 'gym' not found.", e.getMessage());
+    }
+    assertSame(this.bob.getTargetCalendar("home"), this.bob.getCurrentActiveCalendar());
+  }
+
+  /**
+   * Tests that calendars are created and edited with the same errors as a CalendarManagerModel,
+   * and that a calendar stays in use in every session when another session renames it.
+   */
+  @Test
+  public void testCreateAndEdit() {
+    try {
+      this.bob.createCalendar("work", "Europe/Paris");
+      fail("A calendar name should not be taken twice.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar already exists", e.getMessage());
+    }
+    try {
+      this.bob.createCalendar("gym", "abc123");
+      fail("An invalid time zone should not be accepted.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid or unsupported timezone ID: 'abc123'. Please use "
+              + "IANA Time Zone Database format (e.g., 'America/New_York').", e.getMessage());
+    }
+    this.alice.setCurrentCalendar("work");
+    ICalendar work = this.alice.getCurrentActiveCalendar();
+    this.bob.editCalendar("work", "name", "office");
+    assertSame(work, this.alice.getCurrentActiveCalendar());
+    assertSame(work, this.alice.getTargetCalendar("office"));
+    try {
+      this.alice.getTargetCalendar("work");
+      fail("The old name should be given up.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Calendar 'work' not found.", e.getMessage());
+    }
+    try {
+      this.bob.editCalendar("office", "name", "home");
+      fail("A calendar should not take the name of another.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("New Calendar name already exists", e.getMessage());
+    }
+    this.bob.editCalendar("office", "timezone", "Asia/Tokyo");
+    assertEquals(ZoneId.of("Asia/Tokyo"), work.getTimeZone());
+    try {
+      this.bob.editCalendar("office", "color", "red");
+      fail("Only the name and time zone should be editable.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Unsupported property 'color' for calendar editing. "
+              + "Valid properties are: 'name', 'timezone'.", e.getMessage());
+    }
+    assertEquals(List.of("home", "office"), this.sortedNames());
+  }
+
+  /**
+   * Tests that copies between calendars in different time zones give the same events as the
+   * same copies made by a CalendarManagerModel.
+   */
+  @Test
+  public void testCopiesMatchCalendarManagerModel() {
+    CalendarManagerModel model = new CalendarManagerModel();
+    model.createCalendar("work", "America/New_York");
+    model.createCalendar("home", "Europe/London");
+    model.setCurrentCalendar("work");
+    this.alice.setCurrentCalendar("work");
+    for (ICalendarManager m : List.of(model, this.alice)) {
+      ICalendar work = m.getCurrentActiveCalendar();
+      work.createSingleEvent("review", "2025-06-03T14:00", "2025-06-03T15:00");
+      work.createRecurringEvent("standup", "2025-06-02T09:00", "2025-06-02T09:15", "MWF", 6);
+      m.copyEvent("review", "2025-06-03T14:00", "home", "2025-06-20T10:00");
+      m.copyEventsOnDate("2025-06-04", "home", "2025-07-01");
+      m.copyEventsBetweenDates("2025-06-02", "2025-06-06", "home", "2025-08-04");
+      m.copyEventsOnDate("2025-06-03", "work", "2025-06-10");
+    }
+    LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 9, 1, 0, 0);
+    for (String name : List.of("work", "home")) {
+      //series ids are drawn at random, so the events are compared as they are printed
+      assertEquals(model.getTargetCalendar(name).getEventsInRange(from, to).toString(),
+              this.bob.getTargetCalendar(name).getEventsInRange(from, to).toString());
+    }
+    assertEquals(6, this.bob.getTargetCalendar("home").getEventsInRange(from, to).size());
+    try {
+      this.alice.copyEvent("lunch", "2025-06-03T12:00", "home", "2025-06-20T12:00");
+      fail("A missing event should not be copied.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Event 'lunch' not found on 2025-06-03T12:00 in calendar 'work'.",
+              e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that a copy notifies the observers of its target calendar once, however many events
+   * it copies.
+   */
+  @Test
+  public void testCopyNotifiesOnce() {
+    this.alice.setCurrentCalendar("work");
+    ICalendar work = this.alice.getCurrentActiveCalendar();
+    for (int day = 2; day <= 6; day++) {
+      work.createSingleEvent("event", "2025-06-0" + day + "T10:00", "2025-06-0" + day + "T11:00");
+    }
+    AtomicInteger updates = new AtomicInteger();
+    this.bob.getTargetCalendar("home").addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        updates.incrementAndGet();
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        updates.incrementAndGet();
+      }
+    });
+    updates.set(0);
+    this.alice.copyEventsBetweenDates("2025-06-02", "2025-06-06", "home", "2025-07-07");
+    assertEquals(1, updates.get());
+    assertEquals(5, this.bob.getTargetCalendar("home")
+            .getEventsInRange(LocalDateTime.of(2025, 7, 7, 0, 0),
+                    LocalDateTime.of(2025, 7, 12, 0, 0)).size());
+  }
+
+  /**
+   * Tests that sessions copying between the same two calendars in opposite directions at once
+   * all finish, and that no copy is lost.
+   */
+  @Test
+  public void testOppositeCopiesDoNotDeadlock() throws InterruptedException {
+    this.alice.setCurrentCalendar("work");
+    this.bob.setCurrentCalendar("home");
+    this.alice.getCurrentActiveCalendar().createSingleEvent("a", "2025-06-02T10:00",
+            "2025-06-02T10:30");
+    this.bob.getCurrentActiveCalendar().createSingleEvent("b", "2025-06-02T10:00",
+            "2025-06-02T10:30");
+    int copies = 200;
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (ICalendarManager session : List.of(this.alice, this.bob)) {
+      String target = session == this.alice ? "home" : "work";
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          LocalDate date = LocalDate.of(2025, 6, 3);
+          for (int i = 0; i < copies; i++) {
+            session.copyEventsOnDate("2025-06-02", target, date.plusDays(i).toString());
+          }
+        } catch (Throwable e) {
+          failure.set(e);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join(30_000);
+      assertFalse("The copies should not wait for each other forever.", thread.isAlive());
+    }
+    if (failure.get() != null) {
+      throw new AssertionError(failure.get());
+    }
+    LocalDateTime from = LocalDateTime.of(2025, 6, 3, 0, 0);
+    LocalDateTime to = from.plusDays(copies);
+    assertEquals(copies, this.alice.getTargetCalendar("home").getEventsInRange(from, to).size());
+    assertEquals(copies, this.alice.getTargetCalendar("work").getEventsInRange(from, to).size());
+  }
+
+  /**
+   * Tests that when sessions race to create or rename calendars to the same name, exactly one of
+   * them gets it.
+   */
+  @Test
+  public void testRacingSessionsClaimNamesOnce() throws InterruptedException {
+    int sessions = 8;
+    AtomicInteger created = new AtomicInteger();
+    AtomicInteger renamed = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < sessions; i++) {
+      ICalendarManager session = this.manager.openSession();
+      String own = "own" + i;
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        session.createCalendar(own, "UTC");
+        try {
+          session.createCalendar("shared", "UTC");
+          created.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+          //another session created it first
+        }
+        try {
+          session.editCalendar(own, "name", "renamed");
+          renamed.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+          //another session took the name first
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(1, created.get());
+    assertEquals(1, renamed.get());
+    assertEquals(2 + 1 + sessions, this.manager.getCalendarNames().size());
+    assertTrue(this.manager.getCalendarNames().contains("renamed"));
+  }
+
+  private List<String> sortedNames() {
+    List<String> names = this.manager.getCalendarNames();
+    names.sort(null);
+    return names;
+  }
+}
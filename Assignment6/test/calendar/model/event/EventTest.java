@@ -6,8 +6,10 @@ import org.junit.Test;
 import java.time.LocalDateTime;
 
 import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 
 /**
@@ -87,4 +89,55 @@ public class EventTest {
   public void testToString() {
     assertEquals("Hi - Starts: 2023-10-01T10:00, Ends: 2023-10-01T12:00", event.toString());
   }
-}
\ No newline at end of file
+
+  /**
+   * Tests that events with the same details are equal and share a hash code, and that events
+   * differing in any detail are not equal.
+   */
+  @Test
+  public void testEquals() {
+    Event copy = new Event.EventBuilder()
+            .subject("Hi").startDateTime(LocalDateTime.of(2023, 10, 1, 10, 0))
+            .endDateTime(LocalDateTime.of(2023, 10, 1, 12, 0))
+            .description("This is a test event.")
+            .status(EventStatus.PRIVATE)
+            .build();
+    assertEquals(event, copy);
+    assertEquals(event.hashCode(), copy.hashCode());
+    Event other = new Event.EventBuilder()
+            .subject("Hi").startDateTime(LocalDateTime.of(2023, 10, 1, 10, 0))
+            .endDateTime(LocalDateTime.of(2023, 10, 1, 12, 0))
+            .description("This is a different event.")
+            .status(EventStatus.PRIVATE)
+            .build();
+    assertNotEquals(event, other);
+    assertNotEquals(event, new Event("Hi", LocalDateTime.of(2023, 10, 1, 10, 0),
+            LocalDateTime.of(2023, 10, 1, 12, 0)));
+  }
+
+  /**
+   * Tests that every combination of location, status and all-day flag, along with times that
+   * are not whole minutes, is returned exactly as it was given.
+   */
+  @Test
+  public void testDetailsRoundTrip() {
+    LocalDateTime start = LocalDateTime.of(1850, 3, 9, 6, 7, 8, 123_456_789);
+    LocalDateTime end = LocalDateTime.of(2450, 11, 30, 23, 59, 59, 999_999_999);
+    Location[] locations = {null, Location.PHYSICAL, Location.ONLINE};
+    for (Location location : locations) {
+      for (EventStatus status : EventStatus.values()) {
+        for (boolean allDay : new boolean[]{false, true}) {
+          Event copy = new Event.EventBuilder().subject("Trip").startDateTime(start)
+                  .endDateTime(end).location(location).status(status).seriesId("s")
+                  .isAllDayEvent(allDay).build();
+          assertEquals(start, copy.getStartDateTime());
+          assertEquals(end, copy.getEndDateTime());
+          assertEquals(location, copy.getLocation());
+          assertEquals(status, copy.getStatus());
+          assertEquals(allDay, copy.getIsAllDayEvent());
+          assertEquals("s", copy.getSeriesId());
+        }
+      }
+    }
+  }
+}
@@ -6,9 +6,14 @@ import org.junit.Test;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 /**
  * This JUnit test class tests the functionality of the methods
@@ -53,4 +58,129 @@ public class RecurringEventRuleTest {
             LocalDate.of(2025, 6, 9));
     assertEquals(expectedDates3, dates3);
   }
+
+  /**
+   * Tests that the first and last occurrence dates match the dates generated one by one, for
+   * rules ending after a number of occurrences, on a date, or both.
+   */
+  @Test
+  public void testFirstAndLastOccurrenceDate() {
+    LocalDate start = LocalDate.of(2025, 6, 4);
+    String[] weekdays = {"M", "MTR", "MTWRFSU", "SU", "WF"};
+    for (String days : weekdays) {
+      for (int count = 0; count <= 30; count += 3) {
+        for (int weeks = 0; weeks <= 6; weeks += 2) {
+          LocalDate until = weeks == 0 ? null : start.plusWeeks(weeks).plusDays(count % 7);
+          if (count == 0 && until == null) {
+            continue;
+          }
+          RecurringEventRule r = new RecurringEventRule(days, count, until,
+                  LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+          List<LocalDate> dates = r.generateOccurrenceDate(start);
+          if (dates.isEmpty()) {
+            assertNull(r.lastOccurrenceDate(start));
+          } else {
+            assertEquals(dates.get(0), r.firstOccurrenceDate(start));
+            assertEquals(dates.get(dates.size() - 1), r.lastOccurrenceDate(start));
+            assertEquals(dates.size(), r.countOccurrences(dates.get(0),
+                    dates.get(dates.size() - 1)));
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests that a rule with neither a repetition count nor an until date is rejected instead of
+   * generating occurrences forever.
+   */
+  @Test
+  public void testLastOccurrenceDateUnbounded() {
+    RecurringEventRule unbounded = new RecurringEventRule("M", 0, null,
+            LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+    try {
+      unbounded.lastOccurrenceDate(LocalDate.of(2025, 6, 2));
+      fail("Expected an unbounded rule to be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("A recurring event must end after a number of occurrences or on a date.",
+              e.getMessage());
+    }
+  }
+
+  /**
+   * Tests that occurrences are counted correctly over ranges that are not whole weeks.
+   */
+  @Test
+  public void testCountOccurrences() {
+    assertEquals(3, rule.countOccurrences(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 8)));
+    assertEquals(2, rule.countOccurrences(LocalDate.of(2025, 6, 4), LocalDate.of(2025, 6, 9)));
+    assertEquals(0, rule.countOccurrences(LocalDate.of(2025, 6, 6), LocalDate.of(2025, 6, 8)));
+    assertEquals(0, rule.countOccurrences(LocalDate.of(2025, 6, 9), LocalDate.of(2025, 6, 2)));
+    assertEquals(157, rule.countOccurrences(LocalDate.of(2025, 6, 2),
+            LocalDate.of(2026, 6, 1)));
+  }
+
+  /**
+   * Tests that the jumps to the next, previous and nth matching dates agree with stepping through
+   * the days one at a time, for every combination of weekdays.
+   */
+  @Test
+  public void testJumpsMatchDayByDay() {
+    String days = "MTWRFSU";
+    LocalDate start = LocalDate.of(2025, 6, 2);
+    for (int mask = 1; mask < 128; mask++) {
+      StringBuilder weekdays = new StringBuilder();
+      for (int i = 0; i < 7; i++) {
+        if ((mask & (1 << i)) != 0) {
+          weekdays.append(days.charAt(i));
+        }
+      }
+      RecurringEventRule r = new RecurringEventRule(weekdays.toString(), 40, null,
+              LocalTime.of(9, 0), LocalTime.of(10, 0), false);
+      for (int offset = 0; offset < 7; offset++) {
+        LocalDate date = start.plusDays(offset);
+        LocalDate next = date;
+        while (!r.fallsOn(next)) {
+          next = next.plusDays(1);
+        }
+        LocalDate previous = date;
+        while (!r.fallsOn(previous)) {
+          previous = previous.minusDays(1);
+        }
+        assertEquals(next, r.nextOccurrence(date));
+        assertEquals(previous, r.previousOccurrence(date));
+      }
+      LocalDate first = r.nextOccurrence(start);
+      LocalDate expected = first;
+      for (int n = 0; n < 40; n++) {
+        assertEquals(expected, r.nthOccurrence(first, n));
+        expected = r.nextOccurrence(expected.plusDays(1));
+      }
+    }
+  }
+
+  /**
+   * Tests that occurrences can be streamed and iterated lazily, and that the stream knows its
+   * size before any dates are generated.
+   */
+  @Test
+  public void testOccurrenceStreamAndIterator() {
+    RecurringEventRule longRule = new RecurringEventRule("MTR", 1_000_000, null,
+            LocalTime.of(9, 0), LocalTime.of(11, 0), false);
+    assertEquals(1_000_000, longRule.occurrenceStream(LocalDate.of(2025, 6, 2))
+            .spliterator().getExactSizeIfKnown());
+    assertEquals(Arrays.asList(LocalDate.of(2025, 6, 2), LocalDate.of(2025, 6, 3)),
+            longRule.occurrenceStream(LocalDate.of(2025, 6, 2)).limit(2)
+                    .collect(Collectors.toList()));
+    Iterator<LocalDate> dates = rule3.occurrenceIterator(LocalDate.of(2025, 6, 2));
+    assertEquals(LocalDate.of(2025, 6, 2), dates.next());
+    assertEquals(LocalDate.of(2025, 6, 3), dates.next());
+    assertEquals(LocalDate.of(2025, 6, 5), dates.next());
+    assertEquals(LocalDate.of(2025, 6, 9), dates.next());
+    assertFalse(dates.hasNext());
+    Iterator<LocalDate> between = rule.datesBetween(LocalDate.of(2025, 6, 4),
+            LocalDate.of(2025, 6, 5));
+    assertEquals(LocalDate.of(2025, 6, 5), between.next());
+    assertFalse(between.hasNext());
+  }
 }
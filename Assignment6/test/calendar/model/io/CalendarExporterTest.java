@@ -0,0 +1,198 @@
+package calendar.model.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import calendar.model.calendarclass.NewCalendarModel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the CalendarExporter class: that iCalendar files hold single
+ * events in UTC and recurring series as weekly rules, that CSV files list every occurrence in
+ * order, that only the events of the range asked for are written, and that the file does not
+ * depend on the size of the buffer it is written through.
+ */
+public class CalendarExporterTest {
+  private Path file;
+  private NewCalendarModel calendar;
+
+  /**
+   * Creates a calendar in New York time holding a few events and a series, and a temporary file
+   * to export to.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("calendar", ".ics");
+    this.calendar = new NewCalendarModel("work", ZoneId.of("America/New_York"));
+    this.calendar.createSingleEvent("review", "2025-06-03T14:00", "2025-06-03T15:00");
+    this.calendar.createRecurringEvent("standup", "2025-06-02T09:00", "2025-06-02T09:15", "MWF",
+            6);
+    this.calendar.createAllDayEvent("offsite", "2025-06-05");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  private ExportReport export(LocalDateTime from, LocalDateTime to,
+                              CalendarExporter.Format format) throws IOException {
+    return new CalendarExporter().export(this.calendar, this.file, from, to, format);
+  }
+
+  private String read() throws IOException {
+    return Files.readString(this.file, StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testIcsWritesSeriesAsRules() throws IOException {
+    ExportReport report = this.export(null, null, CalendarExporter.Format.ICS);
+    assertEquals(2, report.getEvents());
+    assertEquals(1, report.getSeries());
+    String text = this.read();
+    assertEquals(Files.size(this.file), report.getBytes());
+    assertTrue(text.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+    assertTrue(text.endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n"));
+    assertTrue(text.contains("SUMMARY:standup\r\n"
+            + "DTSTART;TZID=America/New_York:20250602T090000\r\n"
+            + "DTEND;TZID=America/New_York:20250602T091500\r\n"
+            + "RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;UNTIL=20250613T130000Z\r\n"));
+    assertTrue(text.contains("SUMMARY:review\r\nDTSTART:20250603T180000Z\r\n"
+            + "DTEND:20250603T190000Z\r\n"));
+    assertTrue(text.contains("SUMMARY:offsite\r\nDTSTART;VALUE=DATE:20250605\r\n"
+            + "DTEND;VALUE=DATE:20250606\r\n"));
+    //events are written in order of start time
+    assertTrue(text.indexOf("standup") < text.indexOf("review"));
+    assertTrue(text.indexOf("review") < text.indexOf("offsite"));
+  }
+
+  @Test
+  public void testIcsRoundTrip() throws IOException {
+    this.calendar.editMultipleEvents("description", "standup", "2025-06-02T09:00",
+            "Status; blockers, and plans", true);
+    this.export(null, null, CalendarExporter.Format.ICS);
+    NewCalendarModel copy = new NewCalendarModel("copy", ZoneId.of("America/New_York"));
+    ImportReport report = new IcsImporter(1).importFile(this.file, copy);
+    assertEquals(2, report.getEvents());
+    assertEquals(1, report.getSeries());
+    assertEquals(0, report.getSkipped());
+    LocalDateTime from = LocalDateTime.of(2025, 6, 1, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2025, 6, 30, 0, 0);
+    assertEquals(this.calendar.getEventsInRange(from, to).toString(),
+            copy.getEventsInRange(from, to).toString());
+    assertEquals("Status; blockers, and plans",
+            copy.getEventsOnDate(LocalDate.of(2025, 6, 13)).get(0).getDescription());
+  }
+
+  @Test
+  public void testIcsWritesExceptionsAsExdates() throws IOException {
+    this.calendar.editSingleEvent("subject", "standup", "2025-06-06T09:00", "2025-06-06T09:15",
+            "retro");
+    ExportReport report = this.export(null, null, CalendarExporter.Format.ICS);
+    assertEquals(3, report.getEvents());
+    assertEquals(1, report.getSeries());
+    String text = this.read();
+    assertTrue(text.contains("EXDATE;TZID=America/New_York:20250606T090000\r\n"));
+    assertTrue(text.contains("SUMMARY:retro\r\nDTSTART:20250606T130000Z\r\n"));
+  }
+
+  @Test
+  public void testCsvExpandsSeries() throws IOException {
+    ExportReport report = this.export(null, null, CalendarExporter.Format.CSV);
+    assertEquals(8, report.getEvents());
+    assertEquals(0, report.getSeries());
+    List<String> rows = List.of(this.read().split("\r\n"));
+    assertEquals(9, rows.size());
+    assertEquals("Subject,Start Date,Start Time,End Date,End Time,All Day Event,Description,"
+            + "Location,Private", rows.get(0));
+    assertEquals("standup,2025-06-02,09:00,2025-06-02,09:15,False,,,False", rows.get(1));
+    assertEquals("review,2025-06-03,14:00,2025-06-03,15:00,False,,,False", rows.get(2));
+    assertEquals("standup,2025-06-04,09:00,2025-06-04,09:15,False,,,False", rows.get(3));
+    assertEquals("offsite,2025-06-05,08:00,2025-06-05,17:00,True,,,False", rows.get(4));
+    assertEquals("standup,2025-06-13,09:00,2025-06-13,09:15,False,,,False", rows.get(8));
+  }
+
+  @Test
+  public void testCsvQuotesFields() throws IOException {
+    this.calendar.editSingleEvent("description", "review", "2025-06-03T14:00",
+            "2025-06-03T15:00", "Bring \"the\" slides, please");
+    this.calendar.editSingleEvent("location", "review", "2025-06-03T14:00",
+            "2025-06-03T15:00", "online");
+    this.export(null, null, CalendarExporter.Format.CSV);
+    assertTrue(this.read().contains("review,2025-06-03,14:00,2025-06-03,15:00,False,"
+            + "\"Bring \"\"the\"\" slides, please\",online,False\r\n"));
+  }
+
+  @Test
+  public void testRangeClipsSeries() throws IOException {
+    ExportReport report = this.export(LocalDateTime.of(2025, 6, 5, 0, 0),
+            LocalDateTime.of(2025, 6, 10, 0, 0), CalendarExporter.Format.ICS);
+    assertEquals(1, report.getEvents());
+    assertEquals(1, report.getSeries());
+    String text = this.read();
+    assertFalse(text.contains("review"));
+    assertTrue(text.contains("DTSTART;TZID=America/New_York:20250606T090000\r\n"));
+    assertTrue(text.contains("RRULE:FREQ=WEEKLY;BYDAY=MO,WE,FR;UNTIL=20250609T130000Z\r\n"));
+
+    report = this.export(LocalDateTime.of(2025, 6, 5, 0, 0),
+            LocalDateTime.of(2025, 6, 10, 0, 0), CalendarExporter.Format.CSV);
+    assertEquals(3, report.getEvents());
+  }
+
+  @Test
+  public void testLongLinesAreFolded() throws IOException {
+    String subject = "Quarterly planning \u00e9t\u00e9 \u2013 \ud83d\udcc5 " + "x".repeat(100);
+    this.calendar.createSingleEvent(subject, "2025-06-20T10:00", "2025-06-20T11:00");
+    this.export(null, null, CalendarExporter.Format.ICS);
+    byte[] bytes = Files.readAllBytes(this.file);
+    int length = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == '\r') {
+        assertTrue(length <= 75);
+        length = 0;
+      } else if (bytes[i] != '\n') {
+        length++;
+      }
+    }
+    assertTrue(this.read().replace("\r\n ", "").contains("SUMMARY:" + subject + "\r\n"));
+  }
+
+  @Test
+  public void testBufferSizeDoesNotChangeTheFile() throws IOException {
+    for (int i = 0; i < 50; i++) {
+      LocalDateTime start = LocalDateTime.of(2025, 7, 1, 10, 0).plusHours(i);
+      this.calendar.createSingleEvent("event " + i, start.toString(),
+              start.plusMinutes(30).toString());
+    }
+    this.export(null, null, CalendarExporter.Format.CSV);
+    String expected = this.read();
+    ExportReport report = new CalendarExporter(77).export(this.calendar, this.file, null, null,
+            CalendarExporter.Format.CSV);
+    assertEquals(expected, this.read());
+    assertEquals(expected.length(), report.getBytes());
+  }
+
+  @Test
+  public void testBufferTooSmall() {
+    try {
+      new CalendarExporter(16);
+      fail("A buffer shorter than a folded line should be rejected.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("The buffer must hold at least 77 bytes.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,285 @@
+package calendar.model.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import calendar.controller.guicontroller.CalendarObserver;
+import calendar.model.calendarclass.CalendarChange;
+import calendar.model.calendarclass.NewCalendarModel;
+import calendar.model.enumclass.EventStatus;
+import calendar.model.enumclass.Location;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the IcsImporter class: that the events of an iCalendar file are
+ * converted to the calendar's time zone, that recurrence rules become recurring series, that
+ * events the calendar cannot express are skipped and counted, and that parsing on several threads
+ * gives the same calendar as parsing on one.
+ */
+public class IcsImporterTest {
+  private Path file;
+  private NewCalendarModel calendar;
+
+  /**
+   * Creates a calendar in New York time and a temporary file to import.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("calendar", ".ics");
+    this.calendar = new NewCalendarModel("work", ZoneId.of("America/New_York"));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Writes the given VEVENT components to the file, inside a VCALENDAR.
+   */
+  private void write(String... events) throws IOException {
+    StringBuilder text = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"
+            + "PRODID:-//Test//EN\r\n");
+    for (String event : events) {
+      text.append("BEGIN:VEVENT\r\n").append(event).append("END:VEVENT\r\n");
+    }
+    text.append("END:VCALENDAR\r\n");
+    Files.writeString(this.file, text, StandardCharsets.UTF_8);
+  }
+
+  private ImportReport importFile() throws IOException {
+    return new IcsImporter(1).importFile(this.file, this.calendar);
+  }
+
+  private Event only(String date) {
+    List<Event> events = this.calendar.getEventsOnDate(LocalDate.parse(date));
+    assertEquals(1, events.size());
+    return events.get(0);
+  }
+
+  @Test
+  public void testTimesAreConvertedToTheCalendarZone() throws IOException {
+    this.write("SUMMARY:standup\r\nDTSTART:20250610T130000Z\r\nDTEND:20250610T131500Z\r\n",
+            "SUMMARY:call\r\nDTSTART;TZID=Europe/London:20250611T150000\r\n"
+                    + "DURATION:PT1H30M\r\n",
+            "SUMMARY:review\r\nDTSTART:20250612T140000\r\nDTEND:20250612T150000\r\n");
+    ImportReport report = this.importFile();
+    assertEquals(3, report.getEvents());
+    assertEquals(0, report.getSkipped());
+
+    Event standup = this.only("2025-06-10");
+    assertEquals(LocalDateTime.of(2025, 6, 10, 9, 0), standup.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 6, 10, 9, 15), standup.getEndDateTime());
+    Event call = this.only("2025-06-11");
+    assertEquals(LocalDateTime.of(2025, 6, 11, 10, 0), call.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 6, 11, 11, 30), call.getEndDateTime());
+    //floating times are read in the calendar's own zone
+    assertEquals(LocalDateTime.of(2025, 6, 12, 14, 0), this.only("2025-06-12")
+            .getStartDateTime());
+  }
+
+  @Test
+  public void testDetailsAreImported() throws IOException {
+    this.write("SUMMARY:planning\\, part 2\r\nDTSTART:20250610T140000\r\n"
+                    + "DTEND:20250610T150000\r\n"
+                    + "DESCRIPTION:agenda:\\n- budget\\n- hiring and a \r\n folded line\r\n"
+                    + "LOCATION:https://meet.example.com/abc\r\nCLASS:PRIVATE\r\n"
+                    + "BEGIN:VALARM\r\nACTION:DISPLAY\r\nDESCRIPTION:reminder\r\n"
+                    + "TRIGGER:-PT15M\r\nEND:VALARM\r\n",
+            "summary:lunch\r\ndtstart:20250611T120000\r\ndtend:20250611T130000\r\n"
+                    + "location:Cafe\r\n");
+    assertEquals(2, this.importFile().getEvents());
+
+    Event planning = this.only("2025-06-10");
+    assertEquals("planning, part 2", planning.getSubject());
+    assertEquals("agenda:\n- budget\n- hiring and a folded line", planning.getDescription());
+    assertEquals(Location.ONLINE, planning.getLocation());
+    assertEquals(EventStatus.PRIVATE, planning.getStatus());
+    Event lunch = this.only("2025-06-11");
+    assertEquals(Location.PHYSICAL, lunch.getLocation());
+    assertEquals(EventStatus.PUBLIC, lunch.getStatus());
+    assertNull(lunch.getDescription());
+  }
+
+  @Test
+  public void testAllDayEvents() throws IOException {
+    this.write("SUMMARY:holiday\r\nDTSTART;VALUE=DATE:20250704\r\nDTEND;VALUE=DATE:20250705\r\n",
+            "SUMMARY:conference\r\nDTSTART;VALUE=DATE:20250707\r\nDTEND;VALUE=DATE:20250710\r\n");
+    assertEquals(2, this.importFile().getEvents());
+
+    Event holiday = this.only("2025-07-04");
+    assertTrue(holiday.getIsAllDayEvent());
+    assertEquals(LocalDateTime.of(2025, 7, 4, 8, 0), holiday.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 7, 4, 17, 0), holiday.getEndDateTime());
+    Event conference = this.only("2025-07-08");
+    assertEquals(LocalDateTime.of(2025, 7, 7, 8, 0), conference.getStartDateTime());
+    assertEquals(LocalDateTime.of(2025, 7, 9, 17, 0), conference.getEndDateTime());
+  }
+
+  @Test
+  public void testRecurrenceRulesBecomeSeries() throws IOException {
+    this.write("SUMMARY:gym\r\nDTSTART:20250609T180000\r\nDTEND:20250609T190000\r\n"
+                    + "RRULE:FREQ=WEEKLY;BYDAY=MO,WE;COUNT=4\r\nLOCATION:Gym\r\n",
+            "SUMMARY:walk\r\nDTSTART:20250610T070000\r\nDTEND:20250610T073000\r\n"
+                    + "RRULE:FREQ=DAILY;UNTIL=20250613T235959\r\n",
+            "SUMMARY:review\r\nDTSTART;VALUE=DATE:20250606\r\nRRULE:FREQ=WEEKLY;COUNT=3\r\n");
+    ImportReport report = this.importFile();
+    assertEquals(0, report.getEvents());
+    assertEquals(3, report.getSeries());
+
+    List<Event> gym = this.calendar.findEventsBySubjectAndStart("gym",
+            LocalDateTime.of(2025, 6, 9, 18, 0));
+    assertEquals(1, gym.size());
+    List<Event> series = this.calendar.getEventsBySeriesId(gym.get(0).getSeriesId());
+    assertEquals(4, series.size());
+    assertEquals(LocalDateTime.of(2025, 6, 18, 18, 0), series.get(3).getStartDateTime());
+    assertTrue(series.stream().allMatch(event -> event.getLocation() == Location.PHYSICAL));
+
+    //UNTIL includes its own day
+    assertEquals(4, this.calendar.getEventsInRange(LocalDateTime.of(2025, 6, 1, 0, 0),
+                    LocalDateTime.of(2025, 7, 1, 0, 0)).stream()
+            .filter(event -> event.getSubject().equals("walk")).count());
+    assertEquals(3, this.calendar.getEventsInRange(LocalDateTime.of(2025, 6, 1, 0, 0),
+                    LocalDateTime.of(2025, 7, 1, 0, 0)).stream()
+            .filter(event -> event.getSubject().equals("review")
+                    && event.getIsAllDayEvent()).count());
+  }
+
+  @Test
+  public void testWeekdaysFollowTheZoneConversion() throws IOException {
+    //Tuesday 02:00 in UTC is Monday evening in New York
+    this.write("SUMMARY:sync\r\nDTSTART:20250610T020000Z\r\nDTEND:20250610T023000Z\r\n"
+            + "RRULE:FREQ=WEEKLY;BYDAY=TU;COUNT=2\r\n");
+    assertEquals(1, this.importFile().getSeries());
+    assertEquals(1, this.calendar.findEventsBySubjectAndStart("sync",
+            LocalDateTime.of(2025, 6, 9, 22, 0)).size());
+    assertEquals(1, this.calendar.findEventsBySubjectAndStart("sync",
+            LocalDateTime.of(2025, 6, 16, 22, 0)).size());
+  }
+
+  @Test
+  public void testUnsupportedEventsAreSkipped() throws IOException {
+    this.write("SUMMARY:kept\r\nDTSTART:20250610T090000\r\nDTEND:20250610T100000\r\n",
+            "SUMMARY:fortnightly\r\nDTSTART:20250610T090000\r\nDTEND:20250610T100000\r\n"
+                    + "RRULE:FREQ=WEEKLY;INTERVAL=2;COUNT=5\r\n",
+            "SUMMARY:monthly\r\nDTSTART:20250610T090000\r\nDTEND:20250610T100000\r\n"
+                    + "RRULE:FREQ=MONTHLY;COUNT=5\r\n",
+            "SUMMARY:forever\r\nDTSTART:20250610T090000\r\nDTEND:20250610T100000\r\n"
+                    + "RRULE:FREQ=DAILY\r\n",
+            "SUMMARY:moved\r\nDTSTART:20250610T110000\r\nDTEND:20250610T120000\r\n"
+                    + "RECURRENCE-ID:20250610T090000\r\n",
+            "DTSTART:20250610T130000\r\nDTEND:20250610T140000\r\n",
+            "SUMMARY:backwards\r\nDTSTART:20250610T150000\r\nDTEND:20250610T140000\r\n",
+            "SUMMARY:nowhere\r\nDTSTART;TZID=Mars/Olympus:20250610T150000\r\n",
+            "SUMMARY:garbled\r\nDTSTART:2025-06-10\r\n");
+    ImportReport report = this.importFile();
+    assertEquals(1, report.getEvents());
+    assertEquals(0, report.getSeries());
+    assertEquals(8, report.getSkipped());
+    assertEquals("kept", this.only("2025-06-10").getSubject());
+  }
+
+  @Test
+  public void testClashesAreSkipped() throws IOException {
+    this.calendar.createSingleEvent("standup", "2025-06-10T09:00", "2025-06-10T09:15");
+    this.write("SUMMARY:standup\r\nDTSTART:20250610T090000\r\nDTEND:20250610T091500\r\n",
+            "SUMMARY:review\r\nDTSTART:20250610T140000\r\nDTEND:20250610T150000\r\n");
+    ImportReport report = this.importFile();
+    assertEquals(1, report.getEvents());
+    assertEquals(1, report.getSkipped());
+    assertEquals(2, this.calendar.getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+  }
+
+  @Test
+  public void testObserversAreNotifiedOnce() throws IOException {
+    int[] notifications = new int[1];
+    this.calendar.addObserver(new CalendarObserver() {
+      @Override
+      public void eventsUpdated(List<Event> events) {
+        notifications[0]++;
+      }
+
+      @Override
+      public void eventsChanged(CalendarChange change) {
+        notifications[0]++;
+      }
+    });
+    //adding an observer sends it the calendar as it is
+    notifications[0] = 0;
+    this.write("SUMMARY:a\r\nDTSTART:20250610T090000\r\nDTEND:20250610T100000\r\n",
+            "SUMMARY:b\r\nDTSTART:20250611T090000\r\nDTEND:20250611T100000\r\n",
+            "SUMMARY:c\r\nDTSTART:20250612T090000\r\nDTEND:20250612T100000\r\n"
+                    + "RRULE:FREQ=DAILY;COUNT=3;WKST=MO\r\nDESCRIPTION:daily\r\n");
+    this.importFile();
+    assertEquals(1, notifications[0]);
+  }
+
+  @Test
+  public void testParallelParsingMatchesSequential() throws IOException {
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+    List<String> components = new ArrayList<>();
+    for (int i = 0; i < 9_000; i++) {
+      LocalDateTime time = start.plusHours(i);
+      String stamp = String.format("%04d%02d%02dT%02d%02d00", time.getYear(),
+              time.getMonthValue(), time.getDayOfMonth(), time.getHour(), time.getMinute());
+      components.add("SUMMARY:event " + i + "\r\nDTSTART:" + stamp + "Z\r\nDURATION:PT30M\r\n"
+              + (i % 1000 == 0 ? "RRULE:FREQ=WEEKLY;COUNT=2\r\n" : ""));
+    }
+    this.write(components.toArray(new String[0]));
+    ImportReport sequential = this.importFile();
+    List<String> expected = this.allEvents();
+
+    this.calendar = new NewCalendarModel("work", ZoneId.of("America/New_York"));
+    ImportReport parallel = new IcsImporter(4).importFile(this.file, this.calendar);
+    assertEquals(sequential.getEvents(), parallel.getEvents());
+    assertEquals(9, parallel.getSeries());
+    assertEquals(8_991, parallel.getEvents());
+    assertEquals(expected, this.allEvents());
+  }
+
+  /**
+   * Lists the subject and times of every event of the calendar, in order.
+   */
+  private List<String> allEvents() {
+    List<String> events = new ArrayList<>();
+    for (Event event : this.calendar.getEventsInRange(LocalDateTime.of(2024, 1, 1, 0, 0),
+            LocalDateTime.of(2027, 1, 1, 0, 0))) {
+      events.add(event.getSubject() + " " + event.getStartDateTime() + " "
+              + event.getEndDateTime());
+    }
+    return events;
+  }
+
+  @Test
+  public void testMissingFile() throws IOException {
+    Files.delete(this.file);
+    try {
+      this.importFile();
+      fail("A missing file should not be imported");
+    } catch (IOException e) {
+      assertTrue(this.calendar.getEventsOnDate(LocalDate.of(2025, 6, 10)).isEmpty());
+    }
+    try {
+      new IcsImporter(0);
+      fail("An importer needs a thread");
+    } catch (IllegalArgumentException e) {
+      assertEquals("An importer needs at least one thread.", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,194 @@
+package calendar.model.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import calendar.model.calendarclass.ICalendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * This JUnit test class tests the checkpoints of a JournaledCalendarManager: that calendars are
+ * restored from a checkpoint and the journal records written after it, that only the calendars
+ * that changed are written again, and that the journal segments a checkpoint holds are discarded.
+ */
+public class CheckpointTest {
+  private Path directory;
+  private Path file;
+  private JournaledCalendarManager manager;
+
+  /**
+   * Creates a manager on a new journal file, in a directory of its own.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.directory = Files.createTempDirectory("calendar");
+    this.file = this.directory.resolve("calendar.journal");
+    this.manager = new JournaledCalendarManager(this.file);
+  }
+
+  /**
+   * Closes the manager and deletes its directory.
+   */
+  @After
+  public void tearDown() throws IOException {
+    this.manager.close();
+    try (Stream<Path> paths = Files.walk(this.directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  private void restart() throws IOException {
+    this.manager.close();
+    this.manager = new JournaledCalendarManager(this.file);
+  }
+
+  /**
+   * Lists the names of the files of the checkpoint directory.
+   */
+  private List<String> checkpointFiles() throws IOException {
+    try (Stream<Path> paths = Files.list(this.directory.resolve("calendar.journal.checkpoint"))) {
+      return paths.map(path -> path.getFileName().toString()).sorted()
+              .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Lists the names of the journal file and its segments.
+   */
+  private List<String> journalFiles() throws IOException {
+    try (Stream<Path> paths = Files.list(this.directory)) {
+      return paths.map(path -> path.getFileName().toString())
+              .filter(name -> name.startsWith("calendar.journal")
+                      && !name.endsWith(".checkpoint"))
+              .sorted().collect(Collectors.toList());
+    }
+  }
+
+  private int eventsOn(String calendar, String date) {
+    return this.manager.getTargetCalendar(calendar).getEventsOnDate(LocalDate.parse(date)).size();
+  }
+
+  @Test
+  public void testRestartFromCheckpointAndJournal() throws IOException {
+    this.manager.createCalendar("work", "America/New_York");
+    this.manager.setCurrentCalendar("work");
+    ICalendar work = this.manager.getTargetCalendar("work");
+    work.createSingleEvent("standup", "2025-06-10T09:00", "2025-06-10T09:15");
+    work.createRecurringEvent("gym", "2025-06-09T18:00", "2025-06-09T19:00", "MW", 4);
+    this.manager.checkpoint();
+
+    //the journal only holds the changes made after the checkpoint
+    assertEquals(List.of("calendar.journal"), this.journalFiles());
+    assertEquals(0, Files.size(this.file));
+    work.createSingleEvent("review", "2025-06-10T14:00", "2025-06-10T15:00");
+    work.editMultipleEvents("subject", "gym", "2025-06-11T18:00", "workout", true);
+
+    this.restart();
+    assertEquals(2, this.manager.getCurrentActiveCalendar()
+            .getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+    assertEquals(1, this.manager.getTargetCalendar("work").findEventsBySubjectAndStart(
+            "workout", LocalDate.of(2025, 6, 16).atTime(18, 0)).size());
+  }
+
+  @Test
+  public void testOnlyChangedCalendarsAreWritten() throws IOException {
+    this.manager.createCalendar("work", "America/New_York");
+    this.manager.createCalendar("home", "Europe/London");
+    this.manager.getTargetCalendar("home").createSingleEvent("dinner", "2025-06-10T19:00",
+            "2025-06-10T21:00");
+    this.manager.checkpoint();
+    List<String> first = this.checkpointFiles();
+    assertEquals(3, first.size());
+
+    this.manager.getTargetCalendar("work").createSingleEvent("standup", "2025-06-10T09:00",
+            "2025-06-10T09:15");
+    this.manager.checkpoint();
+    List<String> second = this.checkpointFiles();
+    assertEquals(3, second.size());
+    //one calendar file was kept, the other replaced by a new one
+    assertEquals(1, second.stream().filter(first::contains)
+            .filter(name -> name.endsWith(".snapshot")).count());
+    assertNotEquals(first, second);
+
+    this.restart();
+    assertEquals(1, this.eventsOn("work", "2025-06-10"));
+    assertEquals(1, this.eventsOn("home", "2025-06-10"));
+  }
+
+  @Test
+  public void testCheckpointWithoutChangesDoesNothing() throws IOException {
+    this.manager.createCalendar("work", "UTC");
+    this.manager.checkpoint();
+    long modified = Files.getLastModifiedTime(this.directory.resolve(
+            "calendar.journal.checkpoint").resolve("manifest")).toMillis();
+    List<String> files = this.checkpointFiles();
+
+    this.manager.checkpoint();
+    assertEquals(files, this.checkpointFiles());
+    assertEquals(modified, Files.getLastModifiedTime(this.directory.resolve(
+            "calendar.journal.checkpoint").resolve("manifest")).toMillis());
+
+    //using another calendar changes no calendar, but is still saved
+    this.manager.createCalendar("home", "UTC");
+    this.manager.checkpoint();
+    this.manager.setCurrentCalendar("home");
+    this.manager.checkpoint();
+    assertEquals(0, Files.size(this.file));
+    this.restart();
+    this.manager.getCurrentActiveCalendar().createSingleEvent("dinner", "2025-06-10T19:00",
+            "2025-06-10T21:00");
+    assertEquals(1, this.eventsOn("home", "2025-06-10"));
+  }
+
+  @Test
+  public void testRenamedCalendarIsSavedUnderItsNewName() throws IOException {
+    this.manager.createCalendar("old", "UTC");
+    this.manager.getTargetCalendar("old").createSingleEvent("first", "2025-06-11T09:00",
+            "2025-06-11T10:00");
+    this.manager.checkpoint();
+    this.manager.editCalendar("old", "name", "new");
+    this.manager.checkpoint();
+
+    this.restart();
+    assertEquals(1, this.eventsOn("new", "2025-06-11"));
+    assertFalse(this.checkpointFiles().contains("calendar-0.snapshot"));
+  }
+
+  @Test
+  public void testBackgroundCheckpoints() throws Exception {
+    this.manager.close();
+    this.manager = new JournaledCalendarManager(this.file, Duration.ofMillis(20));
+    this.manager.createCalendar("work", "UTC");
+    ICalendar work = this.manager.getTargetCalendar("work");
+    for (int i = 10; i < 20; i++) {
+      work.createSingleEvent("event " + i, "2025-06-" + i + "T09:00", "2025-06-" + i + "T10:00");
+    }
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (Files.size(this.file) > 0 || this.journalFiles().size() > 1) {
+      assertTrue("No checkpoint was taken", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+
+    this.restart();
+    for (int i = 10; i < 20; i++) {
+      assertEquals(1, this.eventsOn("work", "2025-06-" + i));
+    }
+  }
+}
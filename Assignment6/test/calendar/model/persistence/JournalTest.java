@@ -0,0 +1,250 @@
+package calendar.model.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the Journal class: appending records, making
+ * them durable, replaying them when the file is opened again, and recovering from a record that
+ * was only partly written.
+ */
+public class JournalTest {
+  private Path file;
+
+  /**
+   * Creates the path of a journal file that does not exist yet.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("calendar", ".journal");
+    Files.delete(this.file);
+  }
+
+  /**
+   * Deletes the journal file and its sealed segments.
+   */
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(this.file);
+    for (int generation = 1; generation <= 3; generation++) {
+      Files.deleteIfExists(this.segment(generation));
+    }
+  }
+
+  private Path segment(long generation) {
+    return this.file.resolveSibling(this.file.getFileName() + "." + generation);
+  }
+
+  private List<String> reopen() throws IOException {
+    List<String> records = new ArrayList<>();
+    new Journal(this.file, r -> records.add(new String(r, StandardCharsets.UTF_8))).close();
+    return records;
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testNewJournalIsEmpty() throws IOException {
+    assertEquals(List.of(), this.reopen());
+    assertTrue(Files.exists(this.file));
+    assertEquals(0, Files.size(this.file));
+  }
+
+  @Test
+  public void testAppendAndReplay() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      long first = journal.append(bytes("first"));
+      long second = journal.append(bytes("second"));
+      assertEquals(first + 1, second);
+      journal.awaitDurable(second);
+      //already durable, so this returns at once
+      journal.awaitDurable(first);
+    }
+    assertEquals(List.of("first", "second"), this.reopen());
+  }
+
+  @Test
+  public void testAppendAfterReplay() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.awaitDurable(journal.append(bytes("first")));
+    }
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.awaitDurable(journal.append(bytes("second")));
+    }
+    assertEquals(List.of("first", "second"), this.reopen());
+  }
+
+  @Test
+  public void testCloseMakesAppendedRecordsDurable() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("never awaited"));
+    }
+    assertEquals(List.of("never awaited"), this.reopen());
+  }
+
+  @Test
+  public void testLargeRecordsGrowTheBuffer() throws IOException {
+    String large = "x".repeat(200_000);
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("small"));
+      journal.awaitDurable(journal.append(bytes(large)));
+    }
+    assertEquals(List.of("small", large), this.reopen());
+  }
+
+  @Test
+  public void testPartlyWrittenRecordIsCutOff() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.awaitDurable(journal.append(bytes("complete")));
+    }
+    long complete = Files.size(this.file);
+    try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.APPEND)) {
+      //the length of a 100 byte record, followed by only some of its bytes
+      channel.write(ByteBuffer.allocate(Integer.BYTES + 10).putInt(100).rewind());
+    }
+
+    assertEquals(List.of("complete"), this.reopen());
+    assertEquals(complete, Files.size(this.file));
+
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.awaitDurable(journal.append(bytes("after crash")));
+    }
+    assertEquals(List.of("complete", "after crash"), this.reopen());
+  }
+
+  @Test
+  public void testConcurrentWritersShareCommits() throws Exception {
+    int threads = 4;
+    int perThread = 200;
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      List<Thread> writers = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int id = t;
+        writers.add(new Thread(() -> {
+          try {
+            for (int i = 0; i < perThread; i++) {
+              journal.awaitDurable(journal.append(bytes(id + ":" + i)));
+            }
+          } catch (IOException e) {
+            throw new IllegalStateException(e);
+          }
+        }));
+      }
+      for (Thread writer : writers) {
+        writer.start();
+      }
+      for (Thread writer : writers) {
+        writer.join();
+      }
+    }
+
+    List<String> records = this.reopen();
+    assertEquals(threads * perThread, records.size());
+    for (int t = 0; t < threads; t++) {
+      //each writer's records are in the order it appended them
+      int next = 0;
+      for (String record : records) {
+        if (record.startsWith(t + ":")) {
+          assertEquals(t + ":" + next, record);
+          next++;
+        }
+      }
+      assertEquals(perThread, next);
+    }
+  }
+
+  @Test
+  public void testSealedSegmentsAreReplayed() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("first"));
+      assertEquals(1, journal.seal());
+      assertEquals(0, Files.size(this.file));
+      journal.awaitDurable(journal.append(bytes("second")));
+      assertEquals(2, journal.seal());
+      journal.awaitDurable(journal.append(bytes("third")));
+    }
+    assertTrue(Files.exists(this.segment(1)));
+    assertEquals(List.of("first", "second", "third"), this.reopen());
+
+    //sealing again after reopening continues the numbering of the segments
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      assertEquals(3, journal.seal());
+    }
+    assertEquals(List.of("first", "second", "third"), this.reopen());
+  }
+
+  @Test
+  public void testCoveredSegmentsAreDiscarded() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("first"));
+      journal.seal();
+      journal.append(bytes("second"));
+      journal.seal();
+      journal.awaitDurable(journal.append(bytes("third")));
+      journal.discardThrough(1);
+    }
+    assertFalse(Files.exists(this.segment(1)));
+    assertEquals(List.of("second", "third"), this.reopen());
+
+    //a segment covered by a checkpoint but left behind by a crash is skipped and deleted
+    List<String> records = new ArrayList<>();
+    new Journal(this.file, 2, r -> records.add(new String(r, StandardCharsets.UTF_8))).close();
+    assertEquals(List.of("third"), records);
+    assertFalse(Files.exists(this.segment(2)));
+  }
+
+  @Test
+  public void testRecordWithBadChecksumIsCutOff() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("complete"));
+      journal.awaitDurable(journal.append(bytes("damaged")));
+    }
+    long complete = Integer.BYTES * 2 + "complete".length();
+    try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE)) {
+      //change the last byte of the second record, as a write torn by a crash could
+      channel.write(ByteBuffer.wrap(bytes("?")), Files.size(this.file) - 1);
+    }
+
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      assertEquals(1, journal.getReplayed());
+      assertEquals(Files.size(this.file), complete);
+      assertEquals(Integer.BYTES * 2 + "damaged".length(), journal.getTruncated());
+    }
+    assertEquals(List.of("complete"), this.reopen());
+  }
+
+  @Test
+  public void testDamagedSegmentIsRejected() throws IOException {
+    try (Journal journal = new Journal(this.file, r -> { })) {
+      journal.append(bytes("first"));
+      journal.seal();
+    }
+    try (FileChannel channel = FileChannel.open(this.segment(1), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(bytes("?")), Integer.BYTES * 2);
+    }
+    try {
+      this.reopen();
+      fail("Expected an IOException");
+    } catch (IOException e) {
+      assertTrue(e.getMessage().startsWith("The journal segment is damaged"));
+    }
+  }
+}
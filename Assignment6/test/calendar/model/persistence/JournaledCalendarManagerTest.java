@@ -0,0 +1,205 @@
+package calendar.model.persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import calendar.model.calendarclass.ICalendar;
+import calendar.model.event.Event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * This JUnit test class tests the functionality of the JournaledCalendarManager class, checking
+ * that the changes made through it and through its calendars are restored when a new manager is
+ * created on the same journal file.
+ */
+public class JournaledCalendarManagerTest {
+  private Path file;
+  private JournaledCalendarManager manager;
+
+  /**
+   * Creates a manager on a new journal file.
+   */
+  @Before
+  public void setUp() throws IOException {
+    this.file = Files.createTempFile("calendar", ".journal");
+    Files.delete(this.file);
+    this.manager = new JournaledCalendarManager(this.file);
+  }
+
+  /**
+   * Closes the manager and deletes the journal file.
+   */
+  @After
+  public void tearDown() throws IOException {
+    this.manager.close();
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Closes the manager and creates a new one on the same journal file.
+   */
+  private void restart() throws IOException {
+    this.manager.close();
+    this.manager = new JournaledCalendarManager(this.file);
+  }
+
+  @Test
+  public void testCalendarsAndEventsAreRestored() throws IOException {
+    this.manager.createCalendar("work", "America/New_York");
+    this.manager.createCalendar("home", "Europe/London");
+    this.manager.setCurrentCalendar("work");
+    ICalendar work = this.manager.getCurrentActiveCalendar();
+    work.createSingleEvent("standup", "2025-06-10T09:00", "2025-06-10T09:15");
+    work.createRecurringEvent("gym", "2025-06-09T18:00", "2025-06-09T19:00", "MW", 4);
+    work.createAllDayEvent("holiday", "2025-06-13");
+    work.addEvent(new Event("review", LocalDateTime.of(2025, 6, 11, 14, 0),
+            LocalDateTime.of(2025, 6, 11, 15, 0)));
+    work.editSingleEvent("location", "standup", "2025-06-10T09:00", "2025-06-10T09:15",
+            "online");
+    work.editMultipleEvents("subject", "gym", "2025-06-11T18:00", "workout", true);
+    this.manager.getTargetCalendar("home").createSingleEvent("dinner", "2025-06-10T19:00",
+            "2025-06-10T21:00");
+
+    List<Event> before = work.getEventsInRange(LocalDateTime.of(2025, 6, 1, 0, 0),
+            LocalDateTime.of(2025, 7, 1, 0, 0));
+    this.restart();
+
+    ICalendar restored = this.manager.getCurrentActiveCalendar();
+    List<Event> after = restored.getEventsInRange(LocalDateTime.of(2025, 6, 1, 0, 0),
+            LocalDateTime.of(2025, 7, 1, 0, 0));
+    assertEquals(before.size(), after.size());
+    for (int i = 0; i < before.size(); i++) {
+      Event expected = before.get(i);
+      Event actual = after.get(i);
+      assertEquals(expected.getSubject(), actual.getSubject());
+      assertEquals(expected.getStartDateTime(), actual.getStartDateTime());
+      assertEquals(expected.getEndDateTime(), actual.getEndDateTime());
+      assertEquals(expected.getLocation(), actual.getLocation());
+      assertEquals(expected.getIsAllDayEvent(), actual.getIsAllDayEvent());
+    }
+    assertEquals(1, restored.findEventsBySubjectAndStart("workout",
+            LocalDateTime.of(2025, 6, 16, 18, 0)).size());
+    assertEquals(1, this.manager.getTargetCalendar("home")
+            .getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+  }
+
+  @Test
+  public void testRenameAndCopyAreRestored() throws IOException {
+    this.manager.createCalendar("old", "America/New_York");
+    this.manager.createCalendar("copies", "America/Los_Angeles");
+    this.manager.setCurrentCalendar("old");
+    ICalendar calendar = this.manager.getTargetCalendar("old");
+    calendar.createSingleEvent("first", "2025-06-11T00:30", "2025-06-11T05:30");
+    this.manager.editCalendar("old", "name", "new");
+    //the view keeps working after the rename, and records under the new name
+    calendar.createSingleEvent("second", "2025-06-11T07:00", "2025-06-11T08:00");
+    this.manager.copyEventsOnDate("2025-06-11", "copies", "2025-06-20");
+    this.manager.editCalendar("copies", "timezone", "Asia/Tokyo");
+
+    this.restart();
+
+    try {
+      this.manager.getTargetCalendar("old");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    assertEquals(2, this.manager.getTargetCalendar("new")
+            .getEventsOnDate(LocalDate.of(2025, 6, 11)).size());
+    List<Event> copies = this.manager.getTargetCalendar("copies")
+            .getEventsInRange(LocalDateTime.of(2025, 6, 20, 0, 0),
+                    LocalDateTime.of(2025, 6, 23, 0, 0));
+    assertEquals(2, copies.size());
+  }
+
+  @Test
+  public void testFailedChangesAreNotRecorded() throws IOException {
+    this.manager.createCalendar("work", "America/New_York");
+    try {
+      this.manager.createCalendar("work", "UTC");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    try {
+      this.manager.createCalendar("other", "Not/AZone");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+    ICalendar work = this.manager.getTargetCalendar("work");
+    work.createSingleEvent("meeting", "2025-06-10T09:00", "2025-06-10T10:00");
+    try {
+      work.createSingleEvent("meeting", "2025-06-10T09:00", "2025-06-10T10:00");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+
+    //replaying a failed change would throw, so a clean restart shows it was left out
+    this.restart();
+    assertEquals(1, this.manager.getTargetCalendar("work")
+            .getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+    try {
+      this.manager.getTargetCalendar("other");
+      fail("Expected an IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      //expected
+    }
+  }
+
+  @Test
+  public void testCalendarViewsAreReused() {
+    this.manager.createCalendar("work", "America/New_York");
+    this.manager.setCurrentCalendar("work");
+    assertSame(this.manager.getTargetCalendar("work"),
+            this.manager.getCurrentActiveCalendar());
+  }
+
+  @Test
+  public void testRestartWithoutChanges() throws IOException {
+    this.restart();
+    this.manager.createCalendar("work", "UTC");
+    this.restart();
+    assertTrue(this.manager.getTargetCalendar("work")
+            .getEventsOnDate(LocalDate.of(2025, 6, 10)).isEmpty());
+  }
+
+  @Test
+  public void testRecoveryIsReported() throws IOException {
+    assertEquals(0, this.manager.getRecovery().getRecords());
+    this.manager.createCalendar("work", "UTC");
+    this.manager.getTargetCalendar("work").createSingleEvent("meeting", "2025-06-10T09:00",
+            "2025-06-10T10:00");
+    this.manager.close();
+    try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.APPEND)) {
+      //a record cut short by a crash
+      channel.write(ByteBuffer.allocate(Integer.BYTES * 2 + 3).putInt(50).rewind());
+    }
+
+    this.manager = new JournaledCalendarManager(this.file);
+    RecoveryReport report = this.manager.getRecovery();
+    assertEquals(0, report.getCalendars());
+    assertEquals(2, report.getRecords());
+    assertEquals(Integer.BYTES * 2 + 3, report.getTruncatedBytes());
+    assertTrue(report.getRecordsPerSecond() > 0);
+    assertTrue(report.toString().contains("replayed 2 journal records"));
+    assertEquals(1, this.manager.getTargetCalendar("work")
+            .getEventsOnDate(LocalDate.of(2025, 6, 10)).size());
+  }
+}
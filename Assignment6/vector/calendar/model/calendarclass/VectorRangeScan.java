@@ -0,0 +1,44 @@
+package calendar.model.calendarclass;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This class represents a range scan that uses the incubating Vector API to compare as many rows
+ * at a time as the CPU's widest vector registers hold. For each block of rows, the start and end
+ * columns are loaded into vectors and both comparisons are combined into one mask, whose set
+ * lanes are the matching rows. The rows left over after the last full block are compared one at
+ * a time.
+ *
+ * <p>This class must be compiled and run with the jdk.incubator.vector module added, for example
+ * with "--add-modules jdk.incubator.vector". It is loaded by {@link RangeScan#vector()}.</p>
+ */
+final class VectorRangeScan implements RangeScan {
+  private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+  @Override
+  public int scan(long[] startSecond, long[] endSecond, int fromRow, int toRow,
+                  long maxStartSecond, long minEndSecond, int[] rows) {
+    int count = 0;
+    int row = fromRow;
+    int lanes = SPECIES.length();
+    for (int bound = fromRow + SPECIES.loopBound(toRow - fromRow); row < bound; row += lanes) {
+      LongVector starts = LongVector.fromArray(SPECIES, startSecond, row);
+      LongVector ends = LongVector.fromArray(SPECIES, endSecond, row);
+      VectorMask<Long> matches = starts.compare(VectorOperators.LE, maxStartSecond)
+              .and(ends.compare(VectorOperators.GE, minEndSecond));
+      //each set bit of the mask is a matching lane
+      for (long bits = matches.toLong(); bits != 0; bits &= bits - 1) {
+        rows[count++] = row + Long.numberOfTrailingZeros(bits);
+      }
+    }
+    for (; row < toRow; row++) {
+      if (startSecond[row] <= maxStartSecond && endSecond[row] >= minEndSecond) {
+        rows[count++] = row;
+      }
+    }
+    return count;
+  }
+}